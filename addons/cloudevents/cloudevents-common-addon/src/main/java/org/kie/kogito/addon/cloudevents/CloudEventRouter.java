@@ -0,0 +1,203 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.addon.cloudevents;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.kie.kogito.event.SubscriptionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Dispatches incoming messages to the subscribed consumers, decoding every message at most once per target class.
+ * <p>
+ * Subscriptions with a type are indexed by that type and by the simple name of their event class, the two values
+ * a process consumer compares with the type and the source of the CloudEvent. For each message only the top level
+ * envelope attributes are read; when they carry a spec version, identifying a CloudEvent, the message goes to the subscriptions indexed
+ * under its type or source plus the ones without a type, otherwise, as for plain data events, to every subscription.
+ * Messages nobody is interested in are dropped without being deserialized.
+ */
+public class CloudEventRouter implements Consumer<String> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CloudEventRouter.class);
+
+    private final ObjectMapper objectMapper;
+    private final List<Subscription<?>> subscriptions = new ArrayList<>();
+    // rebuilt on every subscription, which only happen at startup, so that dispatching needs no locking
+    private volatile Map<String, List<Subscription<?>>> index = Collections.emptyMap();
+    private volatile List<Subscription<?>> untyped = Collections.emptyList();
+    private volatile List<Subscription<?>> all = Collections.emptyList();
+
+    static class Envelope {
+
+        private String specVersion;
+        private String type;
+        private String source;
+        private String referenceId;
+
+        String getType() {
+            return type;
+        }
+
+        String getSource() {
+            return source;
+        }
+
+        String getReferenceId() {
+            return referenceId;
+        }
+
+        boolean isCloudEvent() {
+            return specVersion != null;
+        }
+    }
+
+    private static class Subscription<T> {
+
+        private final Consumer<T> consumer;
+        private final SubscriptionInfo<T> info;
+
+        private Subscription(Consumer<T> consumer, SubscriptionInfo<T> info) {
+            this.consumer = consumer;
+            this.info = info;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void accept(Object event) {
+            consumer.accept((T) event);
+        }
+    }
+
+    public CloudEventRouter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public synchronized <T> void subscribe(Consumer<T> consumer, SubscriptionInfo<T> info) {
+        subscriptions.add(new Subscription<>(consumer, info));
+        Map<String, List<Subscription<?>>> newIndex = new HashMap<>();
+        List<Subscription<?>> newUntyped = new ArrayList<>();
+        for (Subscription<?> subscription : subscriptions) {
+            if (subscription.info.getType().isPresent()) {
+                newIndex.computeIfAbsent(subscription.info.getType().get(), k -> new ArrayList<>()).add(subscription);
+                String simpleName = subscription.info.getEventType().getSimpleName();
+                if (!simpleName.equals(subscription.info.getType().get())) {
+                    newIndex.computeIfAbsent(simpleName, k -> new ArrayList<>()).add(subscription);
+                }
+            } else {
+                newUntyped.add(subscription);
+            }
+        }
+        index = newIndex;
+        untyped = newUntyped;
+        all = new ArrayList<>(subscriptions);
+    }
+
+    @Override
+    public void accept(String message) {
+        Envelope envelope;
+        try {
+            envelope = readEnvelope(message);
+        } catch (IOException e) {
+            logger.info("Invalid payload {}", message, e);
+            return;
+        }
+        Set<Subscription<?>> targets = targets(envelope);
+        if (targets.isEmpty()) {
+            logger.debug("No consumer for message with type '{}', source '{}' and reference id '{}'", envelope.getType(), envelope.getSource(), envelope.getReferenceId());
+            return;
+        }
+        Map<Class<?>, Object> decoded = new IdentityHashMap<>();
+        for (Subscription<?> subscription : targets) {
+            Class<?> eventType = subscription.info.getEventType();
+            Object event = decoded.get(eventType);
+            if (event == null && !decoded.containsKey(eventType)) {
+                event = decode(message, eventType);
+                decoded.put(eventType, event);
+            }
+            if (event != null) {
+                try {
+                    subscription.accept(event);
+                } catch (RuntimeException e) {
+                    // all the subscriptions share the same stream, a failing consumer must not end it for the others
+                    logger.error("Error consuming message with type '{}' and source '{}'", envelope.getType(), envelope.getSource(), e);
+                }
+            }
+        }
+    }
+
+    private Set<Subscription<?>> targets(Envelope envelope) {
+        if (!envelope.isCloudEvent()) {
+            return new LinkedHashSet<>(all);
+        }
+        Map<String, List<Subscription<?>>> currentIndex = index;
+        Set<Subscription<?>> targets = new LinkedHashSet<>(currentIndex.getOrDefault(envelope.getType(), Collections.emptyList()));
+        if (envelope.getSource() != null) {
+            targets.addAll(currentIndex.getOrDefault(envelope.getSource(), Collections.emptyList()));
+        }
+        targets.addAll(untyped);
+        return targets;
+    }
+
+    /**
+     * Reads the envelope attributes, skipping the content of every other attribute.
+     */
+    Envelope readEnvelope(String message) throws IOException {
+        Envelope envelope = new Envelope();
+        try (JsonParser parser = objectMapper.getFactory().createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return envelope;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_STRING && "specversion".equals(field)) {
+                    envelope.specVersion = parser.getText();
+                } else if (value == JsonToken.VALUE_STRING && "type".equals(field)) {
+                    envelope.type = parser.getText();
+                } else if (value == JsonToken.VALUE_STRING && "source".equals(field)) {
+                    envelope.source = parser.getText();
+                } else if (value == JsonToken.VALUE_STRING && "kogitoprocrefid".equals(field)) {
+                    envelope.referenceId = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return envelope;
+    }
+
+    private Object decode(String message, Class<?> eventType) {
+        try {
+            return objectMapper.readValue(message, eventType);
+        } catch (IOException e) {
+            logger.info("Invalid payload {} for {}", message, eventType, e);
+            return null;
+        }
+    }
+}
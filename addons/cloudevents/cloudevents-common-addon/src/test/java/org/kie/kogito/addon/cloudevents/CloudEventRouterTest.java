@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.addon.cloudevents;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.event.SubscriptionInfo;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CloudEventRouterTest {
+
+    static final AtomicInteger decoded = new AtomicInteger();
+
+    final ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    final CloudEventRouter router = new CloudEventRouter(objectMapper);
+
+    public static class OrderEvent {
+
+        public String type;
+        public String data;
+
+        public OrderEvent() {
+            decoded.incrementAndGet();
+        }
+    }
+
+    public static class ShipmentEvent {
+
+        public String data;
+
+        public ShipmentEvent() {
+            decoded.incrementAndGet();
+        }
+    }
+
+    @BeforeEach
+    void reset() {
+        decoded.set(0);
+    }
+
+    @Test
+    void verifyMessageIsDecodedOncePerTargetType() {
+        List<String> received = new ArrayList<>();
+        router.subscribe(e -> received.add("start:" + e.data), new SubscriptionInfo<>(OrderEvent.class, Optional.of("orders")));
+        router.subscribe(e -> received.add("catch:" + e.data), new SubscriptionInfo<>(OrderEvent.class, Optional.of("orders")));
+        router.subscribe(e -> received.add("shipment:" + e.data), new SubscriptionInfo<>(ShipmentEvent.class, Optional.of("shipments")));
+
+        router.accept(cloudEvent("orders", "/app", "o1"));
+
+        assertThat(received).containsExactly("start:o1", "catch:o1");
+        assertThat(decoded).hasValue(1);
+    }
+
+    @Test
+    void verifyRoutingBySourceAndEventClass() {
+        List<String> received = new ArrayList<>();
+        router.subscribe(e -> received.add("trigger:" + e.data), new SubscriptionInfo<>(OrderEvent.class, Optional.of("orders")));
+        router.subscribe(e -> received.add("class:" + e.data), new SubscriptionInfo<>(ShipmentEvent.class, Optional.of("shipments")));
+
+        router.accept(cloudEvent("other", "orders", "o1"));
+        router.accept(cloudEvent("ShipmentEvent", "/app", "s1"));
+
+        assertThat(received).containsExactly("trigger:o1", "class:s1");
+    }
+
+    @Test
+    void verifyUninterestingMessageIsNotDecoded() {
+        List<Object> received = new ArrayList<>();
+        router.subscribe(received::add, new SubscriptionInfo<>(OrderEvent.class, Optional.of("orders")));
+
+        router.accept(cloudEvent("unknown", "/app", "x"));
+
+        assertThat(received).isEmpty();
+        assertThat(decoded).hasValue(0);
+    }
+
+    @Test
+    void verifyUntypedAndPlainDataSubscriptions() {
+        List<String> received = new ArrayList<>();
+        router.subscribe(e -> received.add("typed:" + e.data), new SubscriptionInfo<>(OrderEvent.class, Optional.of("orders")));
+        router.subscribe(e -> received.add("untyped:" + e.data), new SubscriptionInfo<>(ShipmentEvent.class));
+
+        router.accept(cloudEvent("unknown", "/app", "x"));
+        router.accept("{\"data\":\"plain\",\"type\":\"unknown\"}");
+
+        assertThat(received).containsExactly("untyped:x", "typed:plain", "untyped:plain");
+    }
+
+    @Test
+    void verifyFailingConsumerDoesNotAffectOthers() {
+        List<String> received = new ArrayList<>();
+        router.subscribe(e -> {
+            throw new IllegalStateException("failure");
+        }, new SubscriptionInfo<>(OrderEvent.class, Optional.of("orders")));
+        router.subscribe(e -> received.add(e.data), new SubscriptionInfo<>(OrderEvent.class, Optional.of("orders")));
+
+        router.accept(cloudEvent("orders", "/app", "o1"));
+        router.accept("not json");
+
+        assertThat(received).containsExactly("o1");
+    }
+
+    @Test
+    void verifyEnvelopeIsReadFromTopLevelAttributes() throws IOException {
+        CloudEventRouter.Envelope envelope = router.readEnvelope("{\"data\":{\"type\":\"nested\",\"items\":[1,2]},\"specversion\":\"1.0\",\"type\":\"orders\","
+                + "\"source\":\"/app\",\"kogitoprocrefid\":\"pi1\"}");
+
+        assertThat(envelope.isCloudEvent()).isTrue();
+        assertThat(envelope.getType()).isEqualTo("orders");
+        assertThat(envelope.getSource()).isEqualTo("/app");
+        assertThat(envelope.getReferenceId()).isEqualTo("pi1");
+    }
+
+    private static String cloudEvent(String type, String source, String data) {
+        return "{\"specversion\":\"1.0\",\"id\":\"1\",\"type\":\"" + type + "\",\"source\":\"" + source + "\",\"data\":\"" + data + "\"}";
+    }
+}
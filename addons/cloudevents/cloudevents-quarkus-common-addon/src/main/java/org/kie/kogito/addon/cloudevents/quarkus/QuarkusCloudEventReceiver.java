@@ -21,7 +21,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.kie.kogito.addon.cloudevents.JsonStringToObjectConsumer;
+import org.kie.kogito.addon.cloudevents.CloudEventRouter;
 import org.kie.kogito.event.EventReceiver;
 import org.kie.kogito.event.KogitoEventStreams;
 import org.kie.kogito.event.SubscriptionInfo;
@@ -41,9 +41,14 @@ public class QuarkusCloudEventReceiver implements EventReceiver {
     @Inject
     private ObjectMapper objectMapper;
 
+    private CloudEventRouter router;
+
     @Override
-    public <T> void subscribe(Consumer<T> consumer, SubscriptionInfo<T> info) {
-        Multi.createFrom().publisher(eventPublisher).subscribe().with(
-                new JsonStringToObjectConsumer<>(objectMapper, consumer, info.getEventType()));
+    public synchronized <T> void subscribe(Consumer<T> consumer, SubscriptionInfo<T> info) {
+        if (router == null) {
+            router = new CloudEventRouter(objectMapper);
+            Multi.createFrom().publisher(eventPublisher).subscribe().with(router);
+        }
+        router.subscribe(consumer, info);
     }
 }
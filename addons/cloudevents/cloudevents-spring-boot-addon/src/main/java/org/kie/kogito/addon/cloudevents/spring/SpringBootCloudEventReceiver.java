@@ -17,7 +17,7 @@ package org.kie.kogito.addon.cloudevents.spring;
 
 import java.util.function.Consumer;
 
-import org.kie.kogito.addon.cloudevents.JsonStringToObjectConsumer;
+import org.kie.kogito.addon.cloudevents.CloudEventRouter;
 import org.kie.kogito.event.EventReceiver;
 import org.kie.kogito.event.KogitoEventStreams;
 import org.kie.kogito.event.SubscriptionInfo;
@@ -40,8 +40,14 @@ public class SpringBootCloudEventReceiver implements EventReceiver {
     @Autowired
     private ObjectMapper objectMapper;
 
+    private CloudEventRouter router;
+
     @Override
-    public <T> void subscribe(Consumer<T> consumer, SubscriptionInfo<T> info) {
-        Flux.from(eventPublisher).subscribe(new JsonStringToObjectConsumer<>(objectMapper, consumer, info.getEventType()));
+    public synchronized <T> void subscribe(Consumer<T> consumer, SubscriptionInfo<T> info) {
+        if (router == null) {
+            router = new CloudEventRouter(objectMapper);
+            Flux.from(eventPublisher).subscribe(router);
+        }
+        router.subscribe(consumer, info);
     }
 }
@@ -21,6 +21,7 @@ import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -35,6 +36,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.cloudevents.CloudEvent;
 import io.cloudevents.Extension;
+import io.cloudevents.SpecVersion;
 import io.cloudevents.core.builder.CloudEventBuilder;
 import io.cloudevents.jackson.JsonFormat;
 
@@ -85,6 +87,33 @@ public class CloudEventUtils {
         }
     }
 
+    /**
+     * Builds the structured mode representation of a CloudEvent directly, without the serialization round trip of
+     * {@link #toDataEvent(CloudEvent)}: the data is kept as it is and gets serialized only once, by the emitter.
+     */
+    public static Map<String, Object> toDataEvent(String id, URI source, String type, String subject, Object data, Extension... extensions) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("specversion", SpecVersion.V1.toString());
+        event.put("id", id);
+        event.put("source", source.toString());
+        event.put("type", type);
+        if (subject != null) {
+            event.put("subject", subject);
+        }
+        if (extensions != null) {
+            for (Extension extension : extensions) {
+                for (String key : extension.getKeys()) {
+                    Object value = extension.getValue(key);
+                    if (value != null) {
+                        event.put(key, value);
+                    }
+                }
+            }
+        }
+        event.put("data", data);
+        return event;
+    }
+
     public static Optional<Map<String, Object>> toDataEvent(CloudEvent event) {
         ObjectMapper mapper = Mapper.mapper();
         try {
@@ -18,6 +18,7 @@ package org.kie.kogito.cloudevents;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLEncoder;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeAll;
@@ -165,6 +166,19 @@ class CloudEventUtilsTest {
         assertFalse(CloudEventUtils.decode(TEST_MALFORMED_JSON).isPresent());
     }
 
+    @Test
+    void testToDataEventWithoutRoundTrip() throws Exception {
+        Map<String, Object> dataEvent = CloudEventUtils.toDataEvent(TEST_ID, TEST_URI, TEST_DATA_CLASS.getSimpleName(), TEST_SUBJECT, TEST_DATA, TEST_EXTENSION);
+        Optional<CloudEvent> expected = CloudEventUtils.build(TEST_ID, TEST_URI, TEST_DATA_CLASS.getSimpleName(), TEST_SUBJECT, TEST_DATA, TEST_EXTENSION);
+        assertTrue(expected.isPresent());
+        assertEquals(CloudEventUtils.toDataEvent(expected.get()).get(), dataEvent);
+
+        Optional<CloudEvent> optCE = CloudEventUtils.decode(new ObjectMapper().writeValueAsString(dataEvent));
+        assertTrue(optCE.isPresent());
+        assertEquals(TEST_SUBJECT, optCE.get().getSubject());
+        assertEquals(TEST_EXTENSION, ExtensionProvider.getInstance().parseExtension(KogitoExtension.class, optCE.get()));
+    }
+
     @Test
     void testUrlEncodedStringFromSuccess() {
         assertTrue(CloudEventUtils.urlEncodedStringFrom(TEST_URI_STRING).isPresent());
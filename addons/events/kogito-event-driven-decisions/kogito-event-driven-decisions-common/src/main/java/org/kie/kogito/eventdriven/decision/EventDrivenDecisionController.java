@@ -16,10 +16,22 @@
 package org.kie.kogito.eventdriven.decision;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.kie.dmn.api.core.DMNContext;
 import org.kie.dmn.api.core.DMNResult;
@@ -54,6 +66,19 @@ public class EventDrivenDecisionController {
     private EventEmitter eventEmitter;
     private EventReceiver eventReceiver;
 
+    // DecisionModels hands out a new instance on every lookup, the evaluation itself is stateless
+    private final Map<String, DecisionModel> modelCache = new ConcurrentHashMap<>();
+
+    private int batchSize = 1;
+    private long batchWindowMillis;
+    private int parallelism;
+    private ExecutorService evaluators;
+    private ScheduledExecutorService batchTimer;
+
+    private final Object batchLock = new Object();
+    private List<CloudEvent> pendingBatch = new ArrayList<>();
+    private ScheduledFuture<?> pendingFlush;
+
     protected EventDrivenDecisionController() {
     }
 
@@ -76,6 +101,51 @@ public class EventDrivenDecisionController {
         eventReceiver.subscribe(this::handleRequest, new SubscriptionInfo(CloudEvent.class));
     }
 
+    /**
+     * Switches to micro-batching: requests are collected until either <code>batchSize</code> of them are pending
+     * or <code>batchWindowMillis</code> elapsed since the first one, then the batch is evaluated by up to
+     * <code>parallelism</code> threads. When all of them are busy the receiving thread evaluates the requests
+     * itself, which slows down the consumption of new events instead of queuing them without bound.
+     * A <code>batchSize</code> lower than 2 keeps the default behaviour of evaluating each request on arrival.
+     */
+    protected void enableBatching(int batchSize, long batchWindowMillis, int parallelism) {
+        if (batchSize <= 1) {
+            return;
+        }
+        if (batchWindowMillis <= 0) {
+            throw new IllegalArgumentException("Batch window must be positive: " + batchWindowMillis);
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Batch parallelism must be positive: " + parallelism);
+        }
+        this.batchSize = batchSize;
+        this.batchWindowMillis = batchWindowMillis;
+        this.parallelism = parallelism;
+        this.evaluators = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * 2), threadFactory("kogito-decision-evaluator"), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.batchTimer = Executors.newSingleThreadScheduledExecutor(threadFactory("kogito-decision-batch-timer"));
+        LOG.info("Event driven decisions batched by {} requests or {} ms, evaluated by {} threads", batchSize, batchWindowMillis, parallelism);
+    }
+
+    /**
+     * Evaluates the requests still pending and stops the batching threads, if any.
+     */
+    protected void shutdown() {
+        if (!isBatching()) {
+            return;
+        }
+        flush();
+        batchTimer.shutdownNow();
+        evaluators.shutdown();
+        try {
+            if (!evaluators.awaitTermination(batchWindowMillis + 5000L, TimeUnit.MILLISECONDS)) {
+                LOG.warn("Event driven decision evaluators did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     void handleEvent(String event) {
         CloudEventUtils.decode(event)
                 .filter(e -> REQUEST_EVENT_TYPE.equals(e.getType()))
@@ -83,10 +153,68 @@ public class EventDrivenDecisionController {
     }
 
     private void handleRequest(CloudEvent event) {
+        if (!isBatching()) {
+            evaluate(event);
+            return;
+        }
+        List<CloudEvent> batch = null;
+        synchronized (batchLock) {
+            pendingBatch.add(event);
+            if (pendingBatch.size() >= batchSize) {
+                batch = drainPendingBatch();
+            } else if (pendingBatch.size() == 1) {
+                pendingFlush = batchTimer.schedule(this::flush, batchWindowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+    }
+
+    private boolean isBatching() {
+        return evaluators != null;
+    }
+
+    private void flush() {
+        List<CloudEvent> batch;
+        synchronized (batchLock) {
+            batch = drainPendingBatch();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private List<CloudEvent> drainPendingBatch() {
+        if (pendingFlush != null) {
+            pendingFlush.cancel(false);
+            pendingFlush = null;
+        }
+        List<CloudEvent> batch = pendingBatch;
+        pendingBatch = new ArrayList<>(batchSize);
+        return batch;
+    }
+
+    private void dispatch(List<CloudEvent> batch) {
+        int chunkSize = (batch.size() + parallelism - 1) / parallelism;
+        for (int from = 0; from < batch.size(); from += chunkSize) {
+            List<CloudEvent> chunk = batch.subList(from, Math.min(from + chunkSize, batch.size()));
+            evaluators.execute(() -> chunk.forEach(this::evaluateSafely));
+        }
+    }
+
+    private void evaluateSafely(CloudEvent event) {
+        try {
+            evaluate(event);
+        } catch (RuntimeException e) {
+            LOG.error("Unable to evaluate CloudEvent(id={} source={} type={})", event.getId(), event.getSource(), event.getType(), e);
+        }
+    }
+
+    private void evaluate(CloudEvent event) {
         buildEvaluationContext(event)
                 .map(this::processRequest)
-                .flatMap(this::buildResponseCloudEvent)
-                .flatMap(CloudEventUtils::toDataEvent)
+                .map(this::buildResponseEvent)
                 .ifPresent(e -> eventEmitter.emit(e, (String) e.get("type"), Optional.empty()));
     }
 
@@ -134,15 +262,23 @@ public class EventDrivenDecisionController {
     }
 
     private Optional<DecisionModel> getDecisionModel(String modelNamespace, String modelName) {
+        String key = modelNamespace + ":" + modelName;
+        DecisionModel cached = modelCache.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
         try {
-            return Optional.ofNullable(decisionModels.getDecisionModel(modelNamespace, modelName));
+            Optional<DecisionModel> model = Optional.ofNullable(decisionModels.getDecisionModel(modelNamespace, modelName));
+            model.ifPresent(m -> modelCache.putIfAbsent(key, m));
+            return model;
         } catch (IllegalStateException e) {
             LOG.warn("Model not found with name=\"{}\" namespace=\"{}\"", modelName, modelNamespace);
             return Optional.empty();
         }
     }
 
-    private Optional<CloudEvent> buildResponseCloudEvent(EvaluationContext ctx) {
+    // the response data is handed to the emitter as it is, so that it is serialized only once
+    private Map<String, Object> buildResponseEvent(EvaluationContext ctx) {
         String id = UUID.randomUUID().toString();
         URI source = buildResponseCloudEventSource(ctx);
         String subject = ctx.getRequestCloudEvent().getSubject();
@@ -154,7 +290,7 @@ public class EventDrivenDecisionController {
 
         if (ctx.isResponseError()) {
             String data = Optional.ofNullable(ctx.getResponseError()).map(DecisionResponseError::name).orElse(null);
-            return CloudEventUtils.build(id, source, RESPONSE_ERROR_EVENT_TYPE, subject, data, kogitoExtension);
+            return CloudEventUtils.toDataEvent(id, source, RESPONSE_ERROR_EVENT_TYPE, subject, data, kogitoExtension);
         }
 
         kogitoExtension.setExecutionId(DecisionExecutionIdUtils.get(ctx.getResponseDmnResult().getContext()));
@@ -165,14 +301,14 @@ public class EventDrivenDecisionController {
             if (ctx.isRequestFilteredContext()) {
                 restResult.setDmnContext(filterContext(restResult.getDmnContext(), ctx.requestData));
             }
-            return CloudEventUtils.build(id, source, RESPONSE_FULL_EVENT_TYPE, subject, restResult, kogitoExtension);
+            return CloudEventUtils.toDataEvent(id, source, RESPONSE_FULL_EVENT_TYPE, subject, restResult, kogitoExtension);
         }
 
         Map<String, Object> data = ctx.isRequestFilteredContext()
                 ? filterContext(restResult.getDmnContext(), ctx.requestData)
                 : restResult.getDmnContext();
 
-        return CloudEventUtils.build(id, source, RESPONSE_EVENT_TYPE, subject, data, kogitoExtension);
+        return CloudEventUtils.toDataEvent(id, source, RESPONSE_EVENT_TYPE, subject, data, kogitoExtension);
     }
 
     private Map<String, Object> filterContext(Map<String, Object> values, Map<String, Object> inputs) {
@@ -187,6 +323,15 @@ public class EventDrivenDecisionController {
                 : CloudEventUtils.buildDecisionSource(config.getServiceUrl(), ctx.getRequestModelName());
     }
 
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
     private static class EvaluationContext {
 
         private final CloudEvent requestCloudEvent;
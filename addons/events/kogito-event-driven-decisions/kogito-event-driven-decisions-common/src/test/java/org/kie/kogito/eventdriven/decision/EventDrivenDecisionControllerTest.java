@@ -60,11 +60,14 @@ import static org.kie.kogito.eventdriven.decision.EventDrivenDecisionController.
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -272,6 +275,40 @@ class EventDrivenDecisionControllerTest {
         testAllErrorCloudEventEmittedCombinations(REQUEST_DATA_MODEL_NOT_FOUND, DecisionResponseError.MODEL_NOT_FOUND);
     }
 
+    @Test
+    void testHandleEventWithBatching() throws JsonProcessingException {
+        controller.enableBatching(4, 200, 2);
+        try {
+            String inputEvent = cloudEventOkWith(REQUEST_DATA_EVALUATE_ALL, false, false);
+
+            // a full batch is evaluated right away
+            for (int i = 0; i < 4; i++) {
+                controller.handleEvent(inputEvent);
+            }
+            verify(eventEmitterMock, timeout(1000).times(4)).emit(any(), eq(RESPONSE_EVENT_TYPE), any());
+
+            // a partial one once the window elapsed
+            controller.handleEvent(inputEvent);
+            verify(eventEmitterMock, after(100).times(4)).emit(any(), any(), any());
+            verify(eventEmitterMock, timeout(1000).times(5)).emit(any(), eq(RESPONSE_EVENT_TYPE), any());
+
+            verify(decisionModelSpy, times(5)).evaluateAll(notNull());
+            verify(decisionModelsMock, times(1)).getDecisionModel(MODEL_NAMESPACE, MODEL_NAME);
+        } finally {
+            controller.shutdown();
+        }
+    }
+
+    @Test
+    void testShutdownFlushesPendingBatch() throws JsonProcessingException {
+        controller.enableBatching(10, 60000, 1);
+        controller.handleEvent(cloudEventOkWith(REQUEST_DATA_EVALUATE_ALL, false, false));
+        verify(eventEmitterMock, never()).emit(any(), any(), any());
+
+        controller.shutdown();
+        verify(eventEmitterMock).emit(any(), eq(RESPONSE_EVENT_TYPE), any());
+    }
+
     private void assertSubject(CloudEvent event) {
         assertNotNull(event.getSubject());
         assertEquals(CLOUDEVENT_SUBJECT, event.getSubject());
@@ -16,8 +16,10 @@
 package org.kie.kogito.eventdriven.decision;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.decision.DecisionModels;
 import org.kie.kogito.event.EventEmitter;
@@ -40,8 +42,24 @@ public class QuarkusEventDrivenDecisionController extends EventDrivenDecisionCon
     @Inject
     EventReceiver eventReceiver;
 
+    @ConfigProperty(name = "kogito.addon.event-driven-decisions.batch.size", defaultValue = "1")
+    int batchSize;
+
+    @ConfigProperty(name = "kogito.addon.event-driven-decisions.batch.window-ms", defaultValue = "10")
+    long batchWindowMillis;
+
+    // 0 means one evaluator thread per available processor
+    @ConfigProperty(name = "kogito.addon.event-driven-decisions.batch.parallelism", defaultValue = "0")
+    int batchParallelism;
+
     @PostConstruct
     private void onPostConstruct() {
+        enableBatching(batchSize, batchWindowMillis, batchParallelism > 0 ? batchParallelism : Runtime.getRuntime().availableProcessors());
         setup(decisionModels, config, eventEmitter, eventReceiver);
     }
+
+    @PreDestroy
+    private void onPreDestroy() {
+        shutdown();
+    }
 }
@@ -16,24 +16,36 @@
 package org.kie.kogito.eventdriven.decision;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.decision.DecisionModels;
 import org.kie.kogito.event.EventEmitter;
 import org.kie.kogito.event.EventReceiver;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class SpringBootEventDrivenDecisionController extends EventDrivenDecisionController {
 
     @Autowired
-    public SpringBootEventDrivenDecisionController(DecisionModels decisionModels, ConfigBean config, EventEmitter eventEmitter, EventReceiver eventReceiver) {
+    public SpringBootEventDrivenDecisionController(DecisionModels decisionModels, ConfigBean config, EventEmitter eventEmitter, EventReceiver eventReceiver,
+            @Value("${kogito.addon.event-driven-decisions.batch.size:1}") int batchSize,
+            @Value("${kogito.addon.event-driven-decisions.batch.window-ms:10}") long batchWindowMillis,
+            // 0 means one evaluator thread per available processor
+            @Value("${kogito.addon.event-driven-decisions.batch.parallelism:0}") int batchParallelism) {
         super(decisionModels, config, eventEmitter, eventReceiver);
+        enableBatching(batchSize, batchWindowMillis, batchParallelism > 0 ? batchParallelism : Runtime.getRuntime().availableProcessors());
     }
 
     @PostConstruct
     private void onPostConstruct() {
         setup();
     }
+
+    @PreDestroy
+    private void onPreDestroy() {
+        shutdown();
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.events.rm;
+
+import java.util.concurrent.TimeUnit;
+
+import org.kie.kogito.services.event.impl.AsyncEventDispatcher;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Exposes the asynchronous publisher state on the global micrometer registry. Micrometer is an optional
+ * dependency, callers must check {@link #isAvailable()} before touching any other method.
+ */
+class EventPublisherMetrics {
+
+    private static final String METRICS_CLASS = "io.micrometer.core.instrument.Metrics";
+
+    private EventPublisherMetrics() {
+    }
+
+    static boolean isAvailable() {
+        try {
+            Class.forName(METRICS_CLASS, false, EventPublisherMetrics.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    static void register(AsyncEventDispatcher<?> dispatcher) {
+        MeterRegistry registry = Metrics.globalRegistry;
+        Gauge.builder("kogito_events_publisher_queue_depth", dispatcher, AsyncEventDispatcher::depth)
+                .description("Events waiting to be published, including the spilled ones")
+                .register(registry);
+        FunctionCounter.builder("kogito_events_publisher_dropped", dispatcher, AsyncEventDispatcher::dropped)
+                .description("Events dropped because the publisher buffer was full")
+                .register(registry);
+        FunctionCounter.builder("kogito_events_publisher_spilled", dispatcher, AsyncEventDispatcher::spilled)
+                .description("Events spilled to local disk because the publisher buffer was full")
+                .register(registry);
+        Timer latency = Timer.builder("kogito_events_publisher_latency")
+                .description("Time between an event being submitted and being handed to the broker")
+                .publishPercentileHistogram()
+                .register(registry);
+        dispatcher.setLatencyRecorder(nanos -> latency.record(nanos, TimeUnit.NANOSECONDS));
+    }
+}
@@ -15,11 +15,26 @@
  */
 package org.kie.kogito.events.rm;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -28,20 +43,33 @@ import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.kie.kogito.event.DataEvent;
 import org.kie.kogito.event.EventPublisher;
+import org.kie.kogito.services.event.ProcessInstanceDeltaDataEvent;
+import org.kie.kogito.services.event.impl.AsyncEventDispatcher;
+import org.kie.kogito.services.event.impl.AsyncEventDispatcher.OverflowPolicy;
+import org.kie.kogito.services.event.impl.AsyncEventDispatcher.SpillCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.util.StdDateFormat;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 
 @Singleton
 public class ReactiveMessagingEventPublisher implements EventPublisher {
     private static final String PI_TOPIC_NAME = "kogito-processinstances-events";
     private static final String UI_TOPIC_NAME = "kogito-usertaskinstances-events";
     private static final String VI_TOPIC_NAME = "kogito-variables-events";
+    private static final String CBOR_ENCODING = "cbor";
+    private static final String CBOR_CHANNEL_SUFFIX = "-cbor";
+    private static final long DEFAULT_SEND_TIMEOUT_MILLIS = 30_000L;
 
     private static final Logger logger = LoggerFactory.getLogger(ReactiveMessagingEventPublisher.class);
     private ObjectMapper json = new ObjectMapper();
+    private ObjectMapper binary;
+    private final Map<String, Emitter<String>> emitters = new HashMap<>();
+    private final Map<String, Emitter<byte[]>> binaryEmitters = new HashMap<>();
+    private AsyncEventDispatcher<OutgoingEvent> dispatcher;
 
     @Inject
     @Channel(PI_TOPIC_NAME)
@@ -55,6 +83,18 @@ public class ReactiveMessagingEventPublisher implements EventPublisher {
     @Channel(VI_TOPIC_NAME)
     Emitter<String> variablesEventsEmitter;
 
+    @Inject
+    @Channel(PI_TOPIC_NAME + CBOR_CHANNEL_SUFFIX)
+    Emitter<byte[]> processInstancesBinaryEventsEmitter;
+
+    @Inject
+    @Channel(UI_TOPIC_NAME + CBOR_CHANNEL_SUFFIX)
+    Emitter<byte[]> userTasksBinaryEventsEmitter;
+
+    @Inject
+    @Channel(VI_TOPIC_NAME + CBOR_CHANNEL_SUFFIX)
+    Emitter<byte[]> variablesBinaryEventsEmitter;
+
     @Inject
     @ConfigProperty(name = "kogito.events.processinstances.enabled")
     Optional<Boolean> processInstancesEvents;
@@ -67,22 +107,99 @@ public class ReactiveMessagingEventPublisher implements EventPublisher {
     @ConfigProperty(name = "kogito.events.variables.enabled")
     Optional<Boolean> variablesEvents;
 
+    /**
+     * Either json (default) or cbor. CBOR events carry the same structure as JSON ones but are sent as
+     * byte arrays through the channels suffixed with -cbor, e.g. kogito-processinstances-events-cbor.
+     */
+    @Inject
+    @ConfigProperty(name = "kogito.events.encoding")
+    Optional<String> eventsEncoding;
+
+    /**
+     * When enabled, events are serialized and sent by dedicated threads instead of the one completing the
+     * unit of work. They wait in a bounded buffer and the overflow policy (block, drop-oldest or spill)
+     * decides what happens when the broker does not keep up, or rejects them. A batch is only done once
+     * the broker acknowledged its events, or once the send timeout (in milliseconds) elapsed.
+     */
+    @Inject
+    @ConfigProperty(name = "kogito.events.publisher.async")
+    Optional<Boolean> asyncPublishing;
+
+    @Inject
+    @ConfigProperty(name = "kogito.events.publisher.capacity")
+    Optional<Integer> publisherCapacity;
+
+    @Inject
+    @ConfigProperty(name = "kogito.events.publisher.batch-size")
+    Optional<Integer> publisherBatchSize;
+
+    @Inject
+    @ConfigProperty(name = "kogito.events.publisher.threads")
+    Optional<Integer> publisherThreads;
+
+    @Inject
+    @ConfigProperty(name = "kogito.events.publisher.overflow")
+    Optional<String> publisherOverflow;
+
+    @Inject
+    @ConfigProperty(name = "kogito.events.publisher.spill-dir")
+    Optional<String> publisherSpillDirectory;
+
+    @Inject
+    @ConfigProperty(name = "kogito.events.publisher.spill-max-size")
+    Optional<Long> publisherSpillMaxSize;
+
+    @Inject
+    @ConfigProperty(name = "kogito.events.publisher.send-timeout")
+    Optional<Long> publisherSendTimeout;
+
     @PostConstruct
     public void configure() {
         json.setDateFormat(new StdDateFormat().withColonInTimeZone(true).withTimeZone(TimeZone.getDefault()));
+        if (eventsEncoding.map(CBOR_ENCODING::equalsIgnoreCase).orElse(false)) {
+            binary = new ObjectMapper(new CBORFactory());
+            binary.setDateFormat(new StdDateFormat().withColonInTimeZone(true).withTimeZone(TimeZone.getDefault()));
+        }
+        emitters.put(PI_TOPIC_NAME, processInstancesEventsEmitter);
+        emitters.put(UI_TOPIC_NAME, userTasksEventsEmitter);
+        emitters.put(VI_TOPIC_NAME, variablesEventsEmitter);
+        binaryEmitters.put(PI_TOPIC_NAME, processInstancesBinaryEventsEmitter);
+        binaryEmitters.put(UI_TOPIC_NAME, userTasksBinaryEventsEmitter);
+        binaryEmitters.put(VI_TOPIC_NAME, variablesBinaryEventsEmitter);
+        if (asyncPublishing.orElse(false)) {
+            dispatcher = new AsyncEventDispatcher<>("kogito-events",
+                    publisherCapacity.orElse(AsyncEventDispatcher.DEFAULT_CAPACITY),
+                    publisherBatchSize.orElse(AsyncEventDispatcher.DEFAULT_BATCH_SIZE),
+                    publisherThreads.orElse(1),
+                    publisherOverflow.map(OverflowPolicy::parse).orElse(OverflowPolicy.BLOCK),
+                    Paths.get(publisherSpillDirectory.orElse(System.getProperty("java.io.tmpdir")), "kogito-events"),
+                    publisherSpillMaxSize.orElse(AsyncEventDispatcher.DEFAULT_SPILL_MAX_BYTES),
+                    new OutgoingEventCodec(),
+                    this::sendBatch);
+            if (EventPublisherMetrics.isAvailable()) {
+                EventPublisherMetrics.register(dispatcher);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
     }
 
     @Override
     public void publish(DataEvent<?> event) {
-        if (event.getType().equals("ProcessInstanceEvent") && processInstancesEvents.orElse(true)) {
+        if ((event.getType().equals("ProcessInstanceEvent") || event.getType().equals(ProcessInstanceDeltaDataEvent.TYPE)) && processInstancesEvents.orElse(true)) {
 
-            publishToTopic(event, processInstancesEventsEmitter, PI_TOPIC_NAME);
+            route(event, PI_TOPIC_NAME);
         } else if (event.getType().equals("UserTaskInstanceEvent") && userTasksEvents.orElse(true)) {
 
-            publishToTopic(event, userTasksEventsEmitter, UI_TOPIC_NAME);
+            route(event, UI_TOPIC_NAME);
         } else if (event.getType().equals("VariableInstanceEvent") && variablesEvents.orElse(true)) {
 
-            publishToTopic(event, variablesEventsEmitter, VI_TOPIC_NAME);
+            route(event, VI_TOPIC_NAME);
         } else {
             logger.warn("Unknown type of event '{}', ignoring", event.getType());
         }
@@ -96,6 +213,62 @@ public class ReactiveMessagingEventPublisher implements EventPublisher {
         }
     }
 
+    private void route(DataEvent<?> event, String topic) {
+        if (dispatcher == null) {
+            if (binary != null) {
+                publishBinaryToTopic(event, binaryEmitters.get(topic), topic);
+            } else {
+                publishToTopic(event, emitters.get(topic), topic);
+            }
+            return;
+        }
+        try {
+            dispatcher.submit(new OutgoingEvent(topic, event, null));
+        } catch (RuntimeException e) {
+            logger.error("Error while queuing event to topic {} for event {}", topic, event, e);
+        }
+    }
+
+    // returns the events that were rejected or not acknowledged in time, handed back to the overflow policy
+    private List<OutgoingEvent> sendBatch(List<OutgoingEvent> batch) {
+        List<OutgoingEvent> failed = new ArrayList<>();
+        Map<OutgoingEvent, CompletableFuture<Void>> sent = new LinkedHashMap<>();
+        for (OutgoingEvent outgoing : batch) {
+            try {
+                if (binary != null) {
+                    byte[] payload = outgoing.event != null ? binary.writeValueAsBytes(outgoing.event) : outgoing.payload;
+                    sent.put(outgoing, binaryEmitters.get(outgoing.topic).send(payload).toCompletableFuture());
+                } else {
+                    String payload = outgoing.event != null ? json.writeValueAsString(outgoing.event) : new String(outgoing.payload, StandardCharsets.UTF_8);
+                    sent.put(outgoing, emitters.get(outgoing.topic).send(payload).toCompletableFuture());
+                }
+            } catch (JsonProcessingException e) {
+                logger.error("Error while serializing event to topic {} for event {}", outgoing.topic, outgoing.event, e);
+            } catch (RuntimeException e) {
+                // e.g. the emitter buffer is full
+                logger.warn("Event to topic {} was rejected, {}", outgoing.topic, e.getMessage());
+                failed.add(outgoing);
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(publisherSendTimeout.orElse(DEFAULT_SEND_TIMEOUT_MILLIS));
+        for (Map.Entry<OutgoingEvent, CompletableFuture<Void>> entry : sent.entrySet()) {
+            try {
+                entry.getValue().get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(entry.getKey());
+            } catch (ExecutionException | TimeoutException e) {
+                logger.warn("Event to topic {} was not acknowledged, {}", entry.getKey().topic, e.getMessage());
+                failed.add(entry.getKey());
+            }
+        }
+        return failed;
+    }
+
+    private byte[] encode(DataEvent<?> event) throws JsonProcessingException {
+        return binary != null ? binary.writeValueAsBytes(event) : json.writeValueAsString(event).getBytes(StandardCharsets.UTF_8);
+    }
+
     protected void publishToTopic(DataEvent<?> event, Emitter<String> emitter, String topic) {
         if (emitter.hasRequests()) {
             logger.debug("Emitter {} is not ready to send messages", topic);
@@ -112,4 +285,52 @@ public class ReactiveMessagingEventPublisher implements EventPublisher {
             logger.error("Error while publishing event to topic {} for event {}", topic, event, e);
         }
     }
+
+    protected void publishBinaryToTopic(DataEvent<?> event, Emitter<byte[]> emitter, String topic) {
+        logger.debug("About to publish event {} to topic {}", event, topic);
+        try {
+            byte[] payload = binary.writeValueAsBytes(event);
+            logger.debug("Event payload of {} bytes", payload.length);
+
+            emitter.send(payload);
+            logger.debug("Successfully published event {} to topic {}", event, topic);
+        } catch (Exception e) {
+            logger.error("Error while publishing event to topic {} for event {}", topic, event, e);
+        }
+    }
+
+    /**
+     * Event waiting to be sent, spilled events are read back already encoded.
+     */
+    private static class OutgoingEvent {
+
+        private final String topic;
+        private final DataEvent<?> event;
+        private final byte[] payload;
+
+        private OutgoingEvent(String topic, DataEvent<?> event, byte[] payload) {
+            this.topic = topic;
+            this.event = event;
+            this.payload = payload;
+        }
+    }
+
+    private class OutgoingEventCodec implements SpillCodec<OutgoingEvent> {
+
+        @Override
+        public void write(DataOutput output, OutgoingEvent item) throws IOException {
+            byte[] payload = item.event != null ? encode(item.event) : item.payload;
+            output.writeUTF(item.topic);
+            output.writeInt(payload.length);
+            output.write(payload);
+        }
+
+        @Override
+        public OutgoingEvent read(DataInput input) throws IOException {
+            String topic = input.readUTF();
+            byte[] payload = new byte[input.readInt()];
+            input.readFully(payload);
+            return new OutgoingEvent(topic, null, payload);
+        }
+    }
 }
@@ -20,6 +20,7 @@ import java.util.TimeZone;
 
 import org.kie.kogito.event.DataEvent;
 import org.kie.kogito.event.EventPublisher;
+import org.kie.kogito.services.event.ProcessInstanceDeltaDataEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -59,7 +60,7 @@ public class KafkaEventPublisher implements EventPublisher {
 
     @Override
     public void publish(DataEvent<?> event) {
-        if (event.getType().equals("ProcessInstanceEvent") && processInstancesEvents) {
+        if ((event.getType().equals("ProcessInstanceEvent") || event.getType().equals(ProcessInstanceDeltaDataEvent.TYPE)) && processInstancesEvents) {
 
             publishToTopic(event, eventsEmitter, PI_TOPIC_NAME);
         } else if (event.getType().equals("UserTaskInstanceEvent") && userTasksEvents) {
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * JobBatch is the payload of the bulk endpoint of the jobs service (POST /jobs/batch).
+ * It carries
+ * <ul>
+ * <li>cancelled - ids of the jobs to be cancelled, unknown ids are ignored</li>
+ * <li>scheduled - jobs to be scheduled</li>
+ * </ul>
+ *
+ * Cancellations are applied before the jobs are scheduled, so a job can be cancelled
+ * and scheduled again with the same id within one batch.
+ */
+public class JobBatch {
+
+    private List<Job> scheduled = new ArrayList<>();
+    private List<String> cancelled = new ArrayList<>();
+
+    public JobBatch() {
+    }
+
+    public JobBatch(List<Job> scheduled, List<String> cancelled) {
+        this.scheduled = scheduled;
+        this.cancelled = cancelled;
+    }
+
+    public List<Job> getScheduled() {
+        return scheduled;
+    }
+
+    public void setScheduled(List<Job> scheduled) {
+        this.scheduled = scheduled;
+    }
+
+    public List<String> getCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(List<String> cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JobBatch)) {
+            return false;
+        }
+        JobBatch batch = (JobBatch) o;
+        return Objects.equals(getScheduled(), batch.getScheduled()) &&
+                Objects.equals(getCancelled(), batch.getCancelled());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getScheduled(), getCancelled());
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", JobBatch.class.getSimpleName() + "[", "]")
+                .add("scheduled=" + scheduled)
+                .add("cancelled=" + cancelled)
+                .toString();
+    }
+}
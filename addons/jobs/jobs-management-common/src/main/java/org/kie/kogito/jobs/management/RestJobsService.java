@@ -16,21 +16,28 @@
 package org.kie.kogito.jobs.management;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 
-import org.kie.kogito.jobs.JobsService;
+import org.kie.kogito.jobs.BulkJobsService;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.api.Job;
+import org.kie.kogito.jobs.api.JobBatch;
 import org.kie.kogito.jobs.api.JobBuilder;
 import org.kie.kogito.jobs.api.URIBuilder;
 
-public abstract class RestJobsService implements JobsService {
+public abstract class RestJobsService implements BulkJobsService {
 
     @SuppressWarnings("squid:S1075")
     public static final String JOBS_PATH = "/jobs";
+    @SuppressWarnings("squid:S1075")
+    public static final String JOBS_BATCH_PATH = JOBS_PATH + "/batch";
 
     private URI jobsServiceUri;
     private String callbackEndpoint;
+    private boolean batchEnabled;
 
     public RestJobsService(String jobServiceUrl, String callbackEndpoint) {
         this.jobsServiceUri = Objects.nonNull(jobServiceUrl) ? buildJobsServiceURI(jobServiceUrl) : null;
@@ -56,6 +63,31 @@ public abstract class RestJobsService implements JobsService {
         return jobsServiceUri;
     }
 
+    @Override
+    public boolean isBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public void setBatchEnabled(boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+    }
+
+    @Override
+    public void executeBatch(Collection<ProcessInstanceJobDescription> scheduled, Collection<String> cancelled) {
+        List<Job> jobs = new ArrayList<>(scheduled.size());
+        for (ProcessInstanceJobDescription description : scheduled) {
+            jobs.add(buildJob(description, getCallbackEndpoint(description)));
+        }
+        sendBatch(new JobBatch(jobs, new ArrayList<>(cancelled)));
+    }
+
+    /**
+     * Sends given batch to the bulk endpoint of the jobs service ({@link #JOBS_BATCH_PATH}).
+     * 
+     * @param batch jobs to be cancelled and scheduled
+     */
+    protected abstract void sendBatch(JobBatch batch);
+
     public Job buildJob(ProcessInstanceJobDescription description, String callback) {
         return JobBuilder.builder()
                 .id(description.id())
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.management;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.jobs.ProcessJobDescription;
+import org.kie.kogito.jobs.api.Job;
+import org.kie.kogito.jobs.api.JobBatch;
+import org.kie.kogito.jobs.api.JobNotFoundException;
+
+/**
+ * Local stand-in for the jobs service endpoints, including the bulk one, that keeps
+ * the jobs in memory and records the batches it receives.
+ */
+public class LocalJobsService extends RestJobsService {
+
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private final List<JobBatch> batches = new ArrayList<>();
+
+    public LocalJobsService(String jobServiceUrl, String callbackEndpoint) {
+        super(jobServiceUrl, callbackEndpoint);
+    }
+
+    @Override
+    public String scheduleProcessJob(ProcessJobDescription description) {
+        throw new UnsupportedOperationException("Scheduling for process jobs is not yet implemented");
+    }
+
+    @Override
+    public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
+        Job job = buildJob(description, getCallbackEndpoint(description));
+        jobs.put(job.getId(), job);
+        return job.getId();
+    }
+
+    @Override
+    public boolean cancelJob(String id) {
+        return jobs.remove(id) != null;
+    }
+
+    @Override
+    public ZonedDateTime getScheduledTime(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new JobNotFoundException(id);
+        }
+        return job.getExpirationTime();
+    }
+
+    @Override
+    protected void sendBatch(JobBatch batch) {
+        batches.add(batch);
+        batch.getCancelled().forEach(jobs::remove);
+        batch.getScheduled().forEach(job -> jobs.put(job.getId(), job));
+    }
+
+    public Map<String, Job> jobs() {
+        return jobs;
+    }
+
+    public List<JobBatch> batches() {
+        return batches;
+    }
+}
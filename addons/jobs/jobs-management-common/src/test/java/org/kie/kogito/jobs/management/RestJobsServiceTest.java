@@ -17,11 +17,14 @@ package org.kie.kogito.jobs.management;
 
 import java.net.URI;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.jupiter.api.Test;
 import org.kie.kogito.jobs.ExactExpirationTime;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.ProcessJobDescription;
+import org.kie.kogito.jobs.api.JobBatch;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -52,6 +55,10 @@ public class RestJobsServiceTest {
             public ZonedDateTime getScheduledTime(String id) {
                 return null;
             }
+
+            @Override
+            protected void sendBatch(JobBatch batch) {
+            }
         };
     }
 
@@ -71,4 +78,20 @@ public class RestJobsServiceTest {
         URI jobsServiceUri = tested.getJobsServiceUri();
         assertThat(jobsServiceUri.toString()).isEqualTo(JOB_SERVICE_URL + "/jobs");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExecuteBatch() {
+        LocalJobsService local = new LocalJobsService(JOB_SERVICE_URL, CALLBACK_URL);
+        ProcessInstanceJobDescription first = ProcessInstanceJobDescription.of(1, ExactExpirationTime.now(), "processInstanceId", "processId");
+        ProcessInstanceJobDescription second = ProcessInstanceJobDescription.of(2, ExactExpirationTime.now(), "processInstanceId", "processId");
+        local.scheduleProcessInstanceJob(first);
+
+        local.executeBatch(Arrays.asList(first, second), Collections.singletonList(first.id()));
+
+        assertThat(local.batches()).hasSize(1);
+        assertThat(local.batches().get(0).getScheduled()).extracting(job -> job.getCallbackEndpoint())
+                .containsExactly(tested.getCallbackEndpoint(first), tested.getCallbackEndpoint(second));
+        assertThat(local.jobs()).containsOnlyKeys(first.id(), second.id());
+        assertThat(local.getScheduledTime(second.id())).isEqualTo(second.expirationTime().get());
+    }
+}
@@ -28,6 +28,7 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.ProcessJobDescription;
 import org.kie.kogito.jobs.api.Job;
+import org.kie.kogito.jobs.api.JobBatch;
 import org.kie.kogito.jobs.api.JobNotFoundException;
 import org.kie.kogito.jobs.management.RestJobsService;
 import org.slf4j.Logger;
@@ -66,6 +67,11 @@ public class VertxJobsService extends RestJobsService {
         this(null, null, null, null);
     }
 
+    @Inject
+    void configureBatch(@ConfigProperty(name = "kogito.jobs-service.batch", defaultValue = "false") boolean batchEnabled) {
+        setBatchEnabled(batchEnabled);
+    }
+
     @PostConstruct
     void initialize() {
         DatabindCodec.mapper().disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE);
@@ -112,6 +118,18 @@ public class VertxJobsService extends RestJobsService {
         return job.getId();
     }
 
+    @Override
+    protected void sendBatch(JobBatch batch) {
+        LOGGER.debug("Job batch to be sent {}", batch);
+        client.post(JOBS_BATCH_PATH).sendJson(batch, res -> {
+            if (res.succeeded() && res.result().statusCode() == 200) {
+                LOGGER.debug("Job batch {} done with status code {} ", batch, res.result().statusCode());
+            } else {
+                LOGGER.error("Job batch {} failed with response code {}", batch, res.result().statusCode(), res.cause());
+            }
+        });
+    }
+
     @Override
     public boolean cancelJob(String id) {
         client.delete(JOBS_PATH + "/" + id).send(res -> {
@@ -16,6 +16,7 @@
 package org.kie.kogito.jobs.management.quarkus;
 
 import java.time.ZonedDateTime;
+import java.util.Collections;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -31,6 +32,7 @@ import org.kie.kogito.jobs.ExactExpirationTime;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.ProcessJobDescription;
 import org.kie.kogito.jobs.api.Job;
+import org.kie.kogito.jobs.api.JobBatch;
 import org.kie.kogito.jobs.api.JobNotFoundException;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
@@ -127,6 +129,24 @@ public class VertxJobsServiceTest {
         assertThat(job.getProcessId()).isEqualTo(processInstanceJobDescription.processId());
     }
 
+    @Test
+    void testExecuteBatch(@Mock HttpRequest<Buffer> request) {
+        when(webClient.post(anyString())).thenReturn(request);
+
+        ProcessInstanceJobDescription processInstanceJobDescription = ProcessInstanceJobDescription.of(123,
+                ExactExpirationTime.now(),
+                "processInstanceId",
+                "processId");
+        tested.executeBatch(Collections.singletonList(processInstanceJobDescription), Collections.singletonList("456"));
+        verify(webClient).post("/jobs/batch");
+        ArgumentCaptor<JobBatch> batchArgumentCaptor = forClass(JobBatch.class);
+        verify(request).sendJson(batchArgumentCaptor.capture(), any(Handler.class));
+        JobBatch batch = batchArgumentCaptor.getValue();
+        assertThat(batch.getScheduled()).extracting(Job::getId).containsExactly(processInstanceJobDescription.id());
+        assertThat(batch.getScheduled().get(0).getCallbackEndpoint()).isEqualTo(tested.getCallbackEndpoint(processInstanceJobDescription));
+        assertThat(batch.getCancelled()).containsExactly("456");
+    }
+
     @Test
     void testCancelJob(@Mock HttpRequest<Buffer> request) {
         when(webClient.delete(anyString())).thenReturn(request);
@@ -22,6 +22,7 @@ import javax.annotation.PostConstruct;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.ProcessJobDescription;
 import org.kie.kogito.jobs.api.Job;
+import org.kie.kogito.jobs.api.JobBatch;
 import org.kie.kogito.jobs.api.JobNotFoundException;
 import org.kie.kogito.jobs.management.RestJobsService;
 import org.slf4j.Logger;
@@ -54,6 +55,12 @@ public class SpringRestJobsService extends RestJobsService {
         this(null, null, null);
     }
 
+    @Override
+    @Value("${kogito.jobs-service.batch:false}")
+    public void setBatchEnabled(boolean batchEnabled) {
+        super.setBatchEnabled(batchEnabled);
+    }
+
     @PostConstruct
     public void initialize() {
         if (restTemplate == null) {
@@ -82,6 +89,16 @@ public class SpringRestJobsService extends RestJobsService {
         return job.getId();
     }
 
+    @Override
+    protected void sendBatch(JobBatch batch) {
+        LOGGER.debug("Job batch to be sent {}", batch);
+        try {
+            restTemplate.postForEntity(getJobsServiceUri() + "/batch", batch, String.class);
+        } catch (RestClientException e) {
+            LOGGER.error("Job batch {} failed", batch, e);
+        }
+    }
+
     @Override
     public boolean cancelJob(String id) {
 
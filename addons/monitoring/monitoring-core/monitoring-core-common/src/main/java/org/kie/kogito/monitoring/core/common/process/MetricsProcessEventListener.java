@@ -15,11 +15,15 @@
  */
 package org.kie.kogito.monitoring.core.common.process;
 
+import java.time.Duration;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
+import org.jbpm.workflow.instance.impl.NodeInstanceImpl;
 import org.jbpm.workflow.instance.impl.WorkflowProcessInstanceImpl;
 import org.jbpm.workflow.instance.node.WorkItemNodeInstance;
 import org.kie.api.event.process.ProcessCompletedEvent;
@@ -37,14 +41,57 @@ import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
 
+/**
+ * Meters are registered the first time a process, node or work item type is seen and their handles
+ * are cached, so that recording an event is a lock free lookup plus the meter update.
+ */
 public class MetricsProcessEventListener extends DefaultKogitoProcessEventListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MetricsProcessEventListener.class);
-    private static Map<String, AtomicInteger> gaugeMap = new HashMap<String, AtomicInteger>();
+    private static final Duration[] DURATION_BUCKETS = {
+            Duration.ofMillis(10), Duration.ofMillis(100), Duration.ofSeconds(1),
+            Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofMinutes(10) };
     private final String identifier;
     private final KogitoGAV gav;
     private final MeterRegistry meterRegistry;
+    private final Map<String, ProcessMeters> processMeters = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> workItemDurations = new ConcurrentHashMap<>();
+    private final Map<String, Timer> workItemTypeDurations = new ConcurrentHashMap<>();
+
+    private class ProcessMeters {
+
+        private final String processId;
+        private final Counter started;
+        private final AtomicInteger running = new AtomicInteger(0);
+        private final DistributionSummary duration;
+        private final Map<Integer, Counter> completed = new ConcurrentHashMap<>();
+        private final Map<String, Counter> slaViolated = new ConcurrentHashMap<>();
+        private final Map<String, Timer> nodeDurations = new ConcurrentHashMap<>();
+
+        private ProcessMeters(String processId) {
+            this.processId = processId;
+            this.started = getNumberOfProcessInstancesStartedCounter(identifier, processId);
+            this.duration = getProcessInstancesDurationSummary(identifier, processId);
+            Gauge.builder("kie_process_instance_running_total", running, AtomicInteger::doubleValue)
+                    .description("Running Process Instances")
+                    .tags(Arrays.asList(Tag.of("app_id", identifier), Tag.of("process_id", processId), Tag.of("artifactId", gav.getArtifactId()), Tag.of("version", gav.getVersion())))
+                    .register(meterRegistry);
+        }
+
+        private Counter completed(int state) {
+            return cached(completed, state, s -> getNumberOfProcessInstancesCompletedCounter(identifier, processId, String.valueOf(s)));
+        }
+
+        private Counter slaViolated(String nodeName) {
+            return cached(slaViolated, nodeName, n -> getNumberOfSLAsViolatedCounter(identifier, processId, n));
+        }
+
+        private Timer nodeDuration(String nodeId, String nodeName) {
+            return cached(nodeDurations, nodeId, id -> getNodeInstancesDurationTimer(identifier, processId, id, nodeName));
+        }
+    }
 
     public MetricsProcessEventListener(String identifier, KogitoGAV gav, MeterRegistry meterRegistry) {
         this.identifier = identifier;
@@ -52,6 +99,16 @@ public class MetricsProcessEventListener extends DefaultKogitoProcessEventListen
         this.meterRegistry = meterRegistry;
     }
 
+    private static <K, V> V cached(Map<K, V> meters, K key, Function<K, V> factory) {
+        // a plain get first, computeIfAbsent locks the bin even when the key is present
+        V meter = meters.get(key);
+        return meter != null ? meter : meters.computeIfAbsent(key, factory);
+    }
+
+    private ProcessMeters getProcessMeters(String processId) {
+        return cached(processMeters, processId, ProcessMeters::new);
+    }
+
     private Counter getNumberOfProcessInstancesStartedCounter(String appId, String processId) {
         return Counter
                 .builder("kie_process_instance_started_total")
@@ -78,19 +135,6 @@ public class MetricsProcessEventListener extends DefaultKogitoProcessEventListen
                 .register(meterRegistry);
     }
 
-    private AtomicInteger getRunningProcessInstancesGauge(String appId, String processId) {
-        if (gaugeMap.containsKey(appId + processId)) {
-            return gaugeMap.get(appId + processId);
-        }
-        AtomicInteger atomicInteger = new AtomicInteger(0);
-        Gauge.builder("kie_process_instance_running_total", atomicInteger, AtomicInteger::doubleValue)
-                .description("Running Process Instances")
-                .tags(Arrays.asList(Tag.of("app_id", appId), Tag.of("process_id", processId), Tag.of("artifactId", gav.getArtifactId()), Tag.of("version", gav.getVersion())))
-                .register(meterRegistry);
-        gaugeMap.put(appId + processId, atomicInteger);
-        return atomicInteger;
-    }
-
     private DistributionSummary getProcessInstancesDurationSummary(String appId, String processId) {
         return DistributionSummary.builder("kie_process_instance_duration_seconds")
                 .description("Process Instances Duration")
@@ -105,8 +149,27 @@ public class MetricsProcessEventListener extends DefaultKogitoProcessEventListen
                 .register(meterRegistry);
     }
 
+    private Timer getNodeInstancesDurationTimer(String appId, String processId, String nodeId, String nodeName) {
+        return histogram(Timer.builder("kie_node_instance_duration")
+                .description("Node Instances Duration, from trigger to leave")
+                .tags(Arrays.asList(Tag.of("app_id", appId), Tag.of("process_id", processId), Tag.of("node_id", nodeId), Tag.of("node_name", nodeName),
+                        Tag.of("artifactId", gav.getArtifactId()), Tag.of("version", gav.getVersion()))));
+    }
+
+    private Timer getWorkItemTypeDurationTimer(String workItemType) {
+        return histogram(Timer.builder("kie_work_item_type_duration")
+                .description("Work Items Duration by work item type")
+                .tags(Arrays.asList(Tag.of("type", workItemType), Tag.of("artifactId", gav.getArtifactId()), Tag.of("version", gav.getVersion()))));
+    }
+
+    private Timer histogram(Timer.Builder builder) {
+        // fixed buckets rather than a percentile histogram, these timers are tagged per process and node
+        return builder.serviceLevelObjectives(DURATION_BUCKETS)
+                .register(meterRegistry);
+    }
+
     protected void recordRunningProcessInstance(String containerId, String processId) {
-        getRunningProcessInstancesGauge(containerId, processId).incrementAndGet();
+        getProcessMeters(processId).running.incrementAndGet();
     }
 
     protected static double millisToSeconds(long millis) {
@@ -117,7 +180,7 @@ public class MetricsProcessEventListener extends DefaultKogitoProcessEventListen
     public void afterProcessStarted(ProcessStartedEvent event) {
         LOGGER.debug("After process started event: {}", event);
         final WorkflowProcessInstanceImpl processInstance = (WorkflowProcessInstanceImpl) event.getProcessInstance();
-        getNumberOfProcessInstancesStartedCounter(identifier, processInstance.getProcessId()).increment();
+        getProcessMeters(processInstance.getProcessId()).started.increment();
         recordRunningProcessInstance(identifier, processInstance.getProcessId());
     }
 
@@ -125,13 +188,14 @@ public class MetricsProcessEventListener extends DefaultKogitoProcessEventListen
     public void afterProcessCompleted(ProcessCompletedEvent event) {
         LOGGER.debug("After process completed event: {}", event);
         final WorkflowProcessInstanceImpl processInstance = (WorkflowProcessInstanceImpl) event.getProcessInstance();
-        getRunningProcessInstancesGauge(identifier, processInstance.getProcessId()).decrementAndGet();
+        ProcessMeters meters = getProcessMeters(processInstance.getProcessId());
+        meters.running.decrementAndGet();
 
-        getNumberOfProcessInstancesCompletedCounter(identifier, processInstance.getProcessId(), String.valueOf(processInstance.getState())).increment();
+        meters.completed(processInstance.getState()).increment();
 
         if (processInstance.getStartDate() != null) {
             final double duration = millisToSeconds(processInstance.getEndDate().getTime() - processInstance.getStartDate().getTime());
-            getProcessInstancesDurationSummary(identifier, processInstance.getProcessId()).record(duration);
+            meters.duration.record(duration);
             LOGGER.debug("Process Instance duration: {}s", duration);
         }
     }
@@ -140,12 +204,23 @@ public class MetricsProcessEventListener extends DefaultKogitoProcessEventListen
     public void beforeNodeLeft(ProcessNodeLeftEvent event) {
         LOGGER.debug("Before Node left event: {}", event);
         final NodeInstance nodeInstance = event.getNodeInstance();
+        if (nodeInstance instanceof NodeInstanceImpl) {
+            NodeInstanceImpl ni = (NodeInstanceImpl) nodeInstance;
+            if (ni.getTriggerTime() != null && ni.getLeaveTime() != null) {
+                long duration = ni.getLeaveTime().getTime() - ni.getTriggerTime().getTime();
+                String nodeId = ni.getNodeDefinitionId() != null ? ni.getNodeDefinitionId() : String.valueOf(ni.getNodeId());
+                getProcessMeters(event.getProcessInstance().getProcessId()).nodeDuration(nodeId, String.valueOf(ni.getNodeName()))
+                        .record(duration, TimeUnit.MILLISECONDS);
+            }
+        }
         if (nodeInstance instanceof WorkItemNodeInstance) {
             WorkItemNodeInstance wi = (WorkItemNodeInstance) nodeInstance;
             if (wi.getTriggerTime() != null) {
                 final String name = (String) wi.getWorkItem().getParameters().getOrDefault("TaskName", wi.getWorkItem().getName());
-                final double duration = millisToSeconds(wi.getLeaveTime().getTime() - wi.getTriggerTime().getTime());
-                getWorkItemsDurationSummary(name).record(duration);
+                final long millis = wi.getLeaveTime().getTime() - wi.getTriggerTime().getTime();
+                final double duration = millisToSeconds(millis);
+                cached(workItemDurations, name, this::getWorkItemsDurationSummary).record(duration);
+                cached(workItemTypeDurations, wi.getWorkItem().getName(), this::getWorkItemTypeDurationTimer).record(millis, TimeUnit.MILLISECONDS);
                 LOGGER.debug("Work Item {}, duration: {}s", name, duration);
             }
         }
@@ -156,7 +231,7 @@ public class MetricsProcessEventListener extends DefaultKogitoProcessEventListen
         LOGGER.debug("After SLA violated event: {}", event);
         final WorkflowProcessInstanceImpl processInstance = (WorkflowProcessInstanceImpl) event.getProcessInstance();
         if (processInstance != null && event.getNodeInstance() != null) {
-            getNumberOfSLAsViolatedCounter(identifier, processInstance.getProcessId(), event.getNodeInstance().getNodeName()).increment();
+            getProcessMeters(processInstance.getProcessId()).slaViolated(event.getNodeInstance().getNodeName()).increment();
         }
     }
 }
@@ -17,6 +17,7 @@ package org.kie.kogito.monitoring.core.common.process;
 
 import org.kie.kogito.KogitoGAV;
 import org.kie.kogito.process.impl.DefaultProcessEventListenerConfig;
+import org.kie.kogito.process.impl.ProcessInstanceCache;
 
 import io.micrometer.core.instrument.MeterRegistry;
 
@@ -24,5 +25,6 @@ public class MonitoringProcessEventListenerConfig extends DefaultProcessEventLis
 
     public MonitoringProcessEventListenerConfig(KogitoGAV gav, MeterRegistry meterRegistry) {
         super(new MetricsProcessEventListener("default-process-monitoring-listener", gav, meterRegistry));
+        new ProcessInstanceCacheMetrics(ProcessInstanceCache.Statistics.global(), gav).bindTo(meterRegistry);
     }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.monitoring.core.common.process;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.kie.kogito.KogitoGAV;
+import org.kie.kogito.process.impl.ProcessInstanceCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes hits, misses, puts, evictions and occupancy of {@link ProcessInstanceCache process instance caches}, summed
+ * over the caches the given statistics aggregate.
+ */
+public class ProcessInstanceCacheMetrics implements MeterBinder {
+
+    private final ProcessInstanceCache.Statistics statistics;
+    private final KogitoGAV gav;
+
+    public ProcessInstanceCacheMetrics(ProcessInstanceCache.Statistics statistics, KogitoGAV gav) {
+        this.statistics = statistics;
+        this.gav = gav;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("kie_process_instance_cache_gets_total", statistics, ProcessInstanceCache.Statistics::hitCount)
+                .description("Process Instance Cache Hits")
+                .tags(tags("hit"))
+                .register(registry);
+        FunctionCounter.builder("kie_process_instance_cache_gets_total", statistics, ProcessInstanceCache.Statistics::missCount)
+                .description("Process Instance Cache Misses")
+                .tags(tags("miss"))
+                .register(registry);
+        FunctionCounter.builder("kie_process_instance_cache_puts_total", statistics, ProcessInstanceCache.Statistics::putCount)
+                .description("Process Instance Cache Puts")
+                .tags(tags())
+                .register(registry);
+        FunctionCounter.builder("kie_process_instance_cache_evictions_total", statistics, ProcessInstanceCache.Statistics::evictionCount)
+                .description("Process Instance Cache Evictions")
+                .tags(tags())
+                .register(registry);
+        Gauge.builder("kie_process_instance_cache_size", statistics, ProcessInstanceCache.Statistics::size)
+                .description("Process Instance Cache Entries")
+                .tags(tags())
+                .register(registry);
+        Gauge.builder("kie_process_instance_cache_weight_bytes", statistics, ProcessInstanceCache.Statistics::weight)
+                .description("Process Instance Cache Weight")
+                .tags(tags())
+                .register(registry);
+    }
+
+    private List<Tag> tags() {
+        return Arrays.asList(Tag.of("artifactId", gav.getArtifactId()), Tag.of("version", gav.getVersion()));
+    }
+
+    private List<Tag> tags(String result) {
+        return Arrays.asList(Tag.of("result", result), Tag.of("artifactId", gav.getArtifactId()), Tag.of("version", gav.getVersion()));
+    }
+}
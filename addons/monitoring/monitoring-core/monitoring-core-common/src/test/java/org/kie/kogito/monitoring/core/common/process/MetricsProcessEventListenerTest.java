@@ -15,17 +15,27 @@
  */
 package org.kie.kogito.monitoring.core.common.process;
 
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.jbpm.workflow.instance.impl.NodeInstanceImpl;
 import org.jbpm.workflow.instance.impl.WorkflowProcessInstanceImpl;
+import org.jbpm.workflow.instance.node.WorkItemNodeInstance;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.kie.api.event.process.ProcessNodeLeftEvent;
 import org.kie.api.event.process.ProcessStartedEvent;
 import org.kie.api.runtime.process.ProcessInstance;
 import org.kie.kogito.KogitoGAV;
+import org.kie.kogito.process.workitems.InternalKogitoWorkItem;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -57,4 +67,50 @@ public class MetricsProcessEventListenerTest {
                 .gauge()
                 .value());
     }
+
+    @Test
+    public void testNodeInstanceDuration() {
+        MetricsProcessEventListener eventListener = new MetricsProcessEventListener("myId", KogitoGAV.EMPTY_GAV, registry);
+        NodeInstanceImpl nodeInstance = mock(NodeInstanceImpl.class);
+        when(nodeInstance.getNodeDefinitionId()).thenReturn("_node1");
+        when(nodeInstance.getNodeName()).thenReturn("myNode");
+        when(nodeInstance.getTriggerTime()).thenReturn(new Date(1000));
+        when(nodeInstance.getLeaveTime()).thenReturn(new Date(1250));
+
+        eventListener.beforeNodeLeft(nodeLeftEvent(nodeInstance));
+        Timer timer = registry.find("kie_node_instance_duration").tag("process_id", "myProcessId").tag("node_id", "_node1").tag("node_name", "myNode").timer();
+        eventListener.beforeNodeLeft(nodeLeftEvent(nodeInstance));
+
+        assertSame(timer, registry.find("kie_node_instance_duration").timer());
+        assertEquals(2, timer.count());
+        assertEquals(500, timer.totalTime(TimeUnit.MILLISECONDS));
+        // a fixed set of buckets, not a percentile histogram per node
+        assertEquals(6, timer.takeSnapshot().histogramCounts().length);
+    }
+
+    @Test
+    public void testWorkItemTypeDuration() {
+        MetricsProcessEventListener eventListener = new MetricsProcessEventListener("myId", KogitoGAV.EMPTY_GAV, registry);
+        InternalKogitoWorkItem workItem = mock(InternalKogitoWorkItem.class);
+        when(workItem.getName()).thenReturn("Human Task");
+        when(workItem.getParameters()).thenReturn(Collections.singletonMap("TaskName", "approve"));
+        WorkItemNodeInstance nodeInstance = mock(WorkItemNodeInstance.class);
+        when(nodeInstance.getWorkItem()).thenReturn(workItem);
+        when(nodeInstance.getTriggerTime()).thenReturn(new Date(1000));
+        when(nodeInstance.getLeaveTime()).thenReturn(new Date(3000));
+
+        eventListener.beforeNodeLeft(nodeLeftEvent(nodeInstance));
+
+        assertEquals(2000, registry.find("kie_work_item_type_duration").tag("type", "Human Task").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(2, registry.find("kie_work_item_duration_seconds").tag("name", "approve").summary().totalAmount());
+    }
+
+    private ProcessNodeLeftEvent nodeLeftEvent(NodeInstanceImpl nodeInstance) {
+        ProcessInstance processInstanceMock = mock(WorkflowProcessInstanceImpl.class);
+        when(processInstanceMock.getProcessId()).thenReturn("myProcessId");
+        ProcessNodeLeftEvent event = mock(ProcessNodeLeftEvent.class);
+        when(event.getNodeInstance()).thenReturn(nodeInstance);
+        when(event.getProcessInstance()).thenReturn(processInstanceMock);
+        return event;
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.monitoring.core.common.process;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.KogitoGAV;
+import org.kie.kogito.process.impl.ProcessInstanceCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ProcessInstanceCacheMetricsTest {
+
+    MeterRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testCacheMetrics() {
+        // Arrange
+        ProcessInstanceCache cache = new ProcessInstanceCache(1, 0);
+        new ProcessInstanceCacheMetrics(cache.statistics(), KogitoGAV.EMPTY_GAV).bindTo(registry);
+
+        // Act
+        cache.put("1", 1L, new byte[10]);
+        cache.get("1");
+        cache.put("2", 1L, new byte[20]);
+        cache.get("1");
+
+        // Assert
+        assertEquals(1, registry.find("kie_process_instance_cache_gets_total").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.find("kie_process_instance_cache_gets_total").tag("result", "miss").functionCounter().count());
+        assertEquals(2, registry.find("kie_process_instance_cache_puts_total").functionCounter().count());
+        assertEquals(1, registry.find("kie_process_instance_cache_evictions_total").functionCounter().count());
+        assertEquals(1, registry.find("kie_process_instance_cache_size").gauge().value());
+        assertEquals(20, registry.find("kie_process_instance_cache_weight_bytes").gauge().value());
+    }
+}
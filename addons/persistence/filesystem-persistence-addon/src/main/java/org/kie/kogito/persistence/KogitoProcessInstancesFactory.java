@@ -20,6 +20,8 @@ import java.nio.file.Paths;
 import org.kie.kogito.persistence.filesystem.FileSystemProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
+import org.kie.kogito.serialization.process.DeltaSnapshots;
+import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
 
 /**
  * This class must always have exact FQCN as <code>org.kie.kogito.persistence.KogitoProcessInstancesFactory</code>
@@ -28,9 +30,24 @@ import org.kie.kogito.process.ProcessInstancesFactory;
 public abstract class KogitoProcessInstancesFactory implements ProcessInstancesFactory {
 
     public FileSystemProcessInstances createProcessInstances(Process<?> process) {
-        return new FileSystemProcessInstances(process, Paths.get(path()));
+        return new FileSystemProcessInstances(process, Paths.get(path()), ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build(),
+                new DeltaSnapshots(deltaCompactionInterval(), deltaBaselineMaxBytes()));
     }
 
     public abstract String path();
 
+    /**
+     * Number of delta snapshots appended before a full snapshot is written again, deltas are disabled by default.
+     */
+    public int deltaCompactionInterval() {
+        return 0;
+    }
+
+    /**
+     * Total size of the serialized states deltas are computed against that is kept in memory.
+     */
+    public long deltaBaselineMaxBytes() {
+        return DeltaSnapshots.DEFAULT_MAX_BASELINE_BYTES;
+    }
+
 }
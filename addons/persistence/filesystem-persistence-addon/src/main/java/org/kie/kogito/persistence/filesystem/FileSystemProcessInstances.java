@@ -21,6 +21,7 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.UserDefinedFileAttributeView;
 import java.util.Collection;
 import java.util.Optional;
@@ -32,8 +33,11 @@ import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.serialization.process.CacheableProcessInstances;
+import org.kie.kogito.serialization.process.DeltaSnapshots;
 import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,26 +45,42 @@ import org.slf4j.LoggerFactory;
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 
 @SuppressWarnings({ "rawtypes" })
-public class FileSystemProcessInstances implements MutableProcessInstances {
+public class FileSystemProcessInstances implements MutableProcessInstances, CacheableProcessInstances {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemProcessInstances.class);
 
     public static final String PI_DESCRIPTION = "ProcessInstanceDescription";
     public static final String PI_STATUS = "ProcessInstanceStatus";
+    public static final String PI_BUSINESS_KEY = "ProcessInstanceBusinessKey";
 
     private Process<?> process;
     private Path storage;
 
     private ProcessInstanceMarshallerService marshaller;
+    private DeltaSnapshots deltaSnapshots;
+    private SnapshotListener snapshotListener;
 
     public FileSystemProcessInstances(Process<?> process, Path storage) {
-        this(process, storage, ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build());
+        this(process, storage, 0);
+    }
+
+    public FileSystemProcessInstances(Process<?> process, Path storage, int deltaCompactionInterval) {
+        this(process, storage, ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build(), new DeltaSnapshots(deltaCompactionInterval));
     }
 
     public FileSystemProcessInstances(Process<?> process, Path storage, ProcessInstanceMarshallerService marshaller) {
+        this(process, storage, marshaller, new DeltaSnapshots(0));
+    }
+
+    /**
+     * When delta snapshots are enabled, updates are appended to the instance file as deltas, which is rewritten
+     * with a full snapshot once the compaction interval is reached.
+     */
+    public FileSystemProcessInstances(Process<?> process, Path storage, ProcessInstanceMarshallerService marshaller, DeltaSnapshots deltaSnapshots) {
         this.process = process;
         this.storage = Paths.get(storage.toString(), process.id());
         this.marshaller = marshaller;
+        this.deltaSnapshots = deltaSnapshots;
 
         try {
             Files.createDirectories(this.storage);
@@ -86,21 +106,66 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
         if (Files.notExists(processInstanceStorage)) {
             return Optional.empty();
         }
-        byte[] data = readBytesFromFile(processInstanceStorage);
-        return Optional.of(mode == MUTABLE ? marshaller.unmarshallProcessInstance(data, process) : marshaller.unmarshallReadOnlyProcessInstance(data, process));
+        return Optional.of(unmarshall(readSnapshot(processInstanceStorage), mode));
+    }
+
+    private ProcessInstance<?> unmarshall(DeltaSnapshots.Snapshot snapshot, ProcessInstanceReadMode mode) {
+        byte[] data = snapshot.state();
+        ProcessInstance<?> instance = mode == MUTABLE ? marshaller.unmarshallProcessInstance(data, process) : marshaller.unmarshallReadOnlyProcessInstance(data, process);
+        // read only instances are never written back
+        if (mode == MUTABLE) {
+            deltaSnapshots.track(instance, snapshot);
+        }
+        return instance;
     }
 
     @Override
     public Collection values(ProcessInstanceReadMode mode) {
-        try (Stream<Path> stream = Files.walk(storage)) {
-            return stream
-                    .filter(file -> !Files.isDirectory(file))
-                    .map(this::readBytesFromFile)
-                    .map(b -> mode == MUTABLE ? marshaller.unmarshallProcessInstance(b, process) : marshaller.unmarshallReadOnlyProcessInstance(b, process))
-                    .collect(Collectors.toList());
+        try (Stream<ProcessInstance> stream = stream(ProcessInstanceQuery.all(), mode)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Stream stream(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        Stream<Path> files;
+        try {
+            files = Files.list(storage).filter(file -> !Files.isDirectory(file));
         } catch (IOException e) {
             throw new RuntimeException("Unable to read process instances ", e);
         }
+        if (query.isPaged()) {
+            // file names are the instance ids, sorting them gives a stable order across pages
+            files = files.sorted();
+        }
+        // status and business key are kept as file attributes, so filter and page are resolved before reading any payload
+        boolean pushDown = !query.hasFilter() || supportsUserDefinedAttributes(storage);
+        if (pushDown) {
+            if (query.hasFilter()) {
+                files = files.filter(file -> matchesMetadata(file, query));
+            }
+            files = query.applyPage(files);
+        }
+        Stream<ProcessInstance> instances = files
+                .map(this::readSnapshot)
+                .map(snapshot -> unmarshall(snapshot, mode));
+        return pushDown ? instances : query.apply((Stream) instances);
+    }
+
+    protected boolean matchesMetadata(Path file, ProcessInstanceQuery query) {
+        if (query.getStatus() != null && !String.valueOf(query.getStatus()).equals(getMetadata(file, PI_STATUS))) {
+            return false;
+        }
+        if (query.getBusinessKey() == null) {
+            return true;
+        }
+        String businessKey = getMetadata(file, PI_BUSINESS_KEY);
+        if (businessKey == null) {
+            // stored before the business key was kept as a file attribute, only the instance itself knows it
+            businessKey = marshaller.unmarshallReadOnlyProcessInstance(readSnapshot(file).state(), process).businessKey();
+        }
+        return query.getBusinessKey().equals(businessKey);
     }
 
     @Override
@@ -133,6 +198,7 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
 
     @Override
     public void remove(String id) {
+        deltaSnapshots.forget(id);
         Path processInstanceStorage = Paths.get(storage.toString(), id);
         try {
             Files.deleteIfExists(processInstanceStorage);
@@ -144,16 +210,47 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
     protected void storeProcessInstance(Path processInstanceStorage, ProcessInstance<?> instance) {
         try {
             byte[] data = marshaller.marshallProcessInstance(instance);
-            Files.write(processInstanceStorage, data);
+            byte[] delta = Files.exists(processInstanceStorage) ? deltaSnapshots.deltaFor(instance, data) : null;
+            if (delta != null) {
+                // a frame left incomplete by a crash is ignored when reading, which then forces a full snapshot
+                Files.write(processInstanceStorage, DeltaSnapshots.frame(delta), StandardOpenOption.APPEND);
+            } else {
+                Files.write(processInstanceStorage, deltaSnapshots.isEnabled() ? DeltaSnapshots.container(data) : data);
+            }
+            deltaSnapshots.written(instance, data, delta != null);
+            if (snapshotListener != null) {
+                snapshotListener.written(instance.id(), instance.version(), data);
+            }
             setMetadata(processInstanceStorage, PI_DESCRIPTION, instance.description());
             setMetadata(processInstanceStorage, PI_STATUS, String.valueOf(instance.status()));
+            // always present, so that a missing attribute identifies files stored before it was introduced
+            setMetadata(processInstanceStorage, PI_BUSINESS_KEY, instance.businessKey() == null ? "" : instance.businessKey());
 
             disconnect(processInstanceStorage, instance);
         } catch (IOException e) {
+            // the file may end with an incomplete frame, nothing must be appended after it
+            deltaSnapshots.forget(instance.id());
             throw new RuntimeException("Unable to store process instance with id " + instance.id(), e);
         }
     }
 
+    @Override
+    public void setSnapshotListener(SnapshotListener snapshotListener) {
+        this.snapshotListener = snapshotListener;
+    }
+
+    @Override
+    public boolean isCurrent(String id, Long version) {
+        // files keep no version, they are only written by this application, which invalidates what it writes
+        return Files.exists(Paths.get(storage.toString(), id));
+    }
+
+    @Override
+    public boolean isCacheable() {
+        // files are written in place as soon as the instance is stored and are owned by this application
+        return true;
+    }
+
     protected byte[] readBytesFromFile(Path processInstanceStorage) {
         try {
             return Files.readAllBytes(processInstanceStorage);
@@ -162,8 +259,16 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
         }
     }
 
+    protected DeltaSnapshots.Snapshot readSnapshot(Path processInstanceStorage) {
+        return DeltaSnapshots.materialize(readBytesFromFile(processInstanceStorage));
+    }
+
     protected void disconnect(Path processInstanceStorage, ProcessInstance instance) {
-        Supplier<byte[]> supplier = () -> readBytesFromFile(processInstanceStorage);
+        Supplier<byte[]> supplier = () -> {
+            DeltaSnapshots.Snapshot snapshot = readSnapshot(processInstanceStorage);
+            deltaSnapshots.track(instance, snapshot);
+            return snapshot.state();
+        };
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(supplier));
     }
 
@@ -15,7 +15,15 @@
  */
 package org.kie.persistence.filesystem;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import org.drools.core.io.impl.ClassPathResource;
 import org.jbpm.process.instance.impl.Action;
@@ -27,9 +35,11 @@ import org.kie.api.definition.process.Node;
 import org.kie.kogito.auth.SecurityPolicy;
 import org.kie.kogito.persistence.KogitoProcessInstancesFactory;
 import org.kie.kogito.persistence.filesystem.FileSystemProcessInstances;
+import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessConfig;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.ProcessInstances;
 import org.kie.kogito.process.WorkItem;
@@ -37,7 +47,10 @@ import org.kie.kogito.process.bpmn2.BpmnProcess;
 import org.kie.kogito.process.bpmn2.BpmnVariables;
 import org.kie.kogito.process.impl.DefaultProcessEventListenerConfig;
 import org.kie.kogito.process.impl.DefaultWorkItemHandlerConfig;
+import org.kie.kogito.process.impl.ProcessInstanceCache;
 import org.kie.kogito.process.impl.StaticProcessConfig;
+import org.kie.kogito.serialization.process.CachedProcessInstances;
+import org.kie.kogito.serialization.process.DeltaSnapshots;
 import org.kie.kogito.services.identity.StaticIdentityProvider;
 import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
 import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
@@ -124,6 +137,43 @@ class FileSystemProcessInstancesTest {
         assertThat(instances.size()).isZero();
     }
 
+    @Test
+    void testStreamQuery() {
+        BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
+        for (String businessKey : Arrays.asList("a", "b", "c")) {
+            process.createInstance(businessKey, BpmnVariables.create(Collections.singletonMap("test", businessKey))).start();
+        }
+
+        ProcessInstances<BpmnVariables> instances = process.instances();
+        try (Stream<ProcessInstance<BpmnVariables>> stream = instances.stream(ProcessInstanceQuery.builder().withBusinessKey("b").build())) {
+            assertThat(stream.map(ProcessInstance::businessKey)).containsExactly("b");
+        }
+        try (Stream<ProcessInstance<BpmnVariables>> stream = instances.stream(ProcessInstanceQuery.builder().withStatus(STATE_ACTIVE).withOffset(1).withLimit(1).build())) {
+            assertThat(stream.count()).isOne();
+        }
+        try (Stream<ProcessInstance<BpmnVariables>> stream = instances.stream(ProcessInstanceQuery.builder().withStatus(STATE_ERROR).build())) {
+            assertThat(stream.count()).isZero();
+        }
+        try (Stream<ProcessInstance<BpmnVariables>> stream = instances.stream(ProcessInstanceQuery.builder().withOffset(2).build())) {
+            assertThat(stream.count()).isOne();
+        }
+    }
+
+    @Test
+    void testStreamQueryByBusinessKeyWithoutAttribute() {
+        BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance("a", BpmnVariables.create(Collections.singletonMap("test", "a")));
+        processInstance.start();
+
+        FileSystemProcessInstances instances = (FileSystemProcessInstances) process.instances();
+        // instances stored before the business key attribute was introduced
+        instances.setMetadata(Paths.get("target", process.id(), processInstance.id()), FileSystemProcessInstances.PI_BUSINESS_KEY, null);
+
+        try (Stream<ProcessInstance<BpmnVariables>> stream = process.instances().stream(ProcessInstanceQuery.builder().withBusinessKey("a").build())) {
+            assertThat(stream.map(ProcessInstance::id)).containsExactly(processInstance.id());
+        }
+    }
+
     @Test
     void testBasicFlow() {
         BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
@@ -232,6 +282,148 @@ class FileSystemProcessInstancesTest {
         assertThat(fileSystemBasedStorage.size()).isZero();
     }
 
+    @Test
+    void testCachedSnapshots() {
+        ProcessInstanceCache cache = new ProcessInstanceCache(10, 0);
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new FileSystemProcessInstancesFactory() {
+            @Override
+            public MutableProcessInstances<?> decorate(Process<?> process, MutableProcessInstances<?> instances) {
+                return CachedProcessInstances.decorate(process, instances, cache);
+            }
+        });
+        process.configure();
+        assertThat(process.instances()).isInstanceOf(CachedProcessInstances.class);
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+        assertThat(cache.size()).isOne();
+
+        long hits = cache.statistics().hitCount();
+        ProcessInstance<BpmnVariables> found = process.instances().findById(processInstance.id()).get();
+        assertThat(cache.statistics().hitCount()).isEqualTo(hits + 1);
+        assertThat(found.status()).isEqualTo(STATE_ACTIVE);
+        assertThat(found.variables().toMap()).containsEntry("test", "test");
+
+        found.abort();
+        assertThat(cache.size()).isZero();
+        assertThat(process.instances().findById(processInstance.id())).isEmpty();
+    }
+
+    @Test
+    void testDeltaSnapshots() throws Exception {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new FileSystemProcessInstancesFactory() {
+            @Override
+            public int deltaCompactionInterval() {
+                return 2;
+            }
+        });
+        process.configure();
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("test", "test");
+        variables.put("large", String.join("", Collections.nCopies(1000, "x")));
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(variables));
+        processInstance.start();
+
+        Path file = Paths.get("target", process.id(), processInstance.id());
+        long fullSize = Files.size(file);
+        for (int i = 0; i < 2; i++) {
+            processInstance.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "delta" + i)));
+        }
+        assertThat(Files.size(file)).isGreaterThan(fullSize).isLessThan(fullSize * 2);
+        assertThat(DeltaSnapshots.materialize(Files.readAllBytes(file)).deltas()).isEqualTo(2);
+
+        ProcessInstance<BpmnVariables> loaded = process.instances().findById(processInstance.id()).get();
+        assertThat(loaded.variables().toMap()).containsEntry("test", "delta1").containsKey("large");
+
+        // compaction interval reached, the next update rewrites the full snapshot
+        loaded.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "compacted")));
+        assertThat(DeltaSnapshots.materialize(Files.readAllBytes(file)).deltas()).isZero();
+        assertThat(process.instances().findById(processInstance.id()).get().variables().toMap()).containsEntry("test", "compacted");
+        loaded.abort();
+    }
+
+    @Test
+    void testDeltaSnapshotsUpgradePlainFile() throws Exception {
+        BpmnProcess plain = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        plain.setProcessInstancesFactory(new FileSystemProcessInstancesFactory());
+        plain.configure();
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("test", "test");
+        variables.put("large", String.join("", Collections.nCopies(1000, "x")));
+        ProcessInstance<BpmnVariables> processInstance = plain.createInstance(BpmnVariables.create(variables));
+        processInstance.start();
+
+        // stored before deltas were enabled, the file holds a plain snapshot
+        Path file = Paths.get("target", plain.id(), processInstance.id());
+        byte[] stored = Files.readAllBytes(file);
+        assertThat(DeltaSnapshots.materialize(stored).isAppendable()).isFalse();
+
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new FileSystemProcessInstancesFactory() {
+            @Override
+            public int deltaCompactionInterval() {
+                return 2;
+            }
+        });
+        process.configure();
+
+        ProcessInstance<BpmnVariables> loaded = process.instances().findById(processInstance.id()).get();
+        loaded.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "upgraded")));
+        assertThat(DeltaSnapshots.materialize(Files.readAllBytes(file)).isAppendable()).as("rewritten as a container").isTrue();
+        assertThat(process.instances().findById(processInstance.id()).get().variables().toMap()).containsEntry("test", "upgraded");
+
+        loaded.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "delta")));
+        assertThat(DeltaSnapshots.materialize(Files.readAllBytes(file)).deltas()).isOne();
+        assertThat(process.instances().findById(processInstance.id()).get().variables().toMap()).containsEntry("test", "delta").containsKey("large");
+        loaded.abort();
+    }
+
+    @Test
+    void testDeltaSnapshotsIgnoreIncompleteFrame() throws Exception {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new FileSystemProcessInstancesFactory() {
+            @Override
+            public int deltaCompactionInterval() {
+                return 10;
+            }
+        });
+        process.configure();
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("test", "test");
+        variables.put("large", String.join("", Collections.nCopies(1000, "x")));
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(variables));
+        processInstance.start();
+        processInstance.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "delta")));
+
+        // a crash while appending the next delta leaves its length and part of its content
+        Path file = Paths.get("target", process.id(), processInstance.id());
+        Files.write(file, new byte[] { 0, 0, 1, 0, 42, 42 }, StandardOpenOption.APPEND);
+        assertThat(DeltaSnapshots.materialize(Files.readAllBytes(file)).isAppendable()).isFalse();
+
+        BpmnProcess restarted = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        restarted.setProcessInstancesFactory(new FileSystemProcessInstancesFactory() {
+            @Override
+            public int deltaCompactionInterval() {
+                return 10;
+            }
+        });
+        restarted.configure();
+
+        ProcessInstance<BpmnVariables> loaded = restarted.instances().findById(processInstance.id()).get();
+        assertThat(loaded.variables().toMap()).containsEntry("test", "delta").containsKey("large");
+        loaded.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "recovered")));
+        DeltaSnapshots.Snapshot stored = DeltaSnapshots.materialize(Files.readAllBytes(file));
+        assertThat(stored.isAppendable()).as("rewritten as a full snapshot").isTrue();
+        assertThat(stored.deltas()).isZero();
+        assertThat(restarted.instances().findById(processInstance.id()).get().variables().toMap()).containsEntry("test", "recovered");
+        loaded.abort();
+    }
+
     private class FileSystemProcessInstancesFactory extends KogitoProcessInstancesFactory {
 
         @Override
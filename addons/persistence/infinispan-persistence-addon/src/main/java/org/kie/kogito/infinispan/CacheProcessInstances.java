@@ -15,17 +15,30 @@
  */
 package org.kie.kogito.infinispan;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.commons.util.CloseableIterator;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
@@ -35,13 +48,19 @@ import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 @SuppressWarnings({ "rawtypes" })
 public class CacheProcessInstances implements MutableProcessInstances {
 
+    private static final String EVENT_TYPES_SEPARATOR = "\n";
+    private static final int BATCH_SIZE = 100;
+
     private final RemoteCache<String, byte[]> cache;
+    // event types each instance was listening to when last written, joined by EVENT_TYPES_SEPARATOR
+    private final RemoteCache<String, String> eventTypes;
     private ProcessInstanceMarshallerService marshaller;
     private org.kie.kogito.process.Process<?> process;
 
     public CacheProcessInstances(Process<?> process, RemoteCacheManager cacheManager, String templateName) {
         this.process = process;
         this.cache = cacheManager.administration().getOrCreateCache(process.id() + "_store", ignoreNullOrEmpty(templateName));
+        this.eventTypes = cacheManager.administration().getOrCreateCache(process.id() + "_event_types", ignoreNullOrEmpty(templateName));
         this.marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build();
     }
 
@@ -68,6 +87,26 @@ public class CacheProcessInstances implements MutableProcessInstances {
                 .collect(Collectors.toList());
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public Stream stream(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        // entries are opaque to the server, so only the iteration is remote and batched while the query is applied locally
+        CloseableIterator<byte[]> iterator = cache.values().iterator();
+        Stream<ProcessInstance> instances = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                .onClose(iterator::close)
+                .map(data -> mode == MUTABLE ? marshaller.unmarshallProcessInstance(data, process) : marshaller.unmarshallReadOnlyProcessInstance(data, process));
+        return query.apply((Stream) instances);
+    }
+
+    @Override
+    public Stream waitingForEvent(String eventType, ProcessInstanceReadMode mode) {
+        // only the keys and the index entries are iterated, payloads are read for the subscribed instances only
+        CloseableIterator<String> ids = cache.keySet().iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new SubscribedPayloads(ids, eventType), Spliterator.NONNULL), false)
+                .onClose(ids::close)
+                .map(data -> mode == MUTABLE ? marshaller.unmarshallProcessInstance(data, process) : marshaller.unmarshallReadOnlyProcessInstance(data, process));
+    }
+
     @Override
     public void update(String id, ProcessInstance instance) {
         updateStorage(id, instance, false);
@@ -76,6 +115,7 @@ public class CacheProcessInstances implements MutableProcessInstances {
     @Override
     public void remove(String id) {
         cache.remove(id);
+        eventTypes.remove(id);
     }
 
     protected String ignoreNullOrEmpty(String value) {
@@ -95,6 +135,7 @@ public class CacheProcessInstances implements MutableProcessInstances {
     protected void updateStorage(String id, ProcessInstance instance, boolean checkDuplicates) {
         if (isActive(instance)) {
             byte[] data = marshaller.marshallProcessInstance(instance);
+            String subscriptions = String.join(EVENT_TYPES_SEPARATOR, ((AbstractProcessInstance<?>) instance).internalGetEventTypes());
 
             if (checkDuplicates) {
                 byte[] existing = cache.putIfAbsent(id, data);
@@ -102,8 +143,11 @@ public class CacheProcessInstances implements MutableProcessInstances {
                     throw new ProcessInstanceDuplicatedException(id);
                 }
             } else {
+                // instances without an index entry are always included, so the index is never behind the payload
+                eventTypes.remove(id);
                 cache.put(id, data);
             }
+            eventTypes.put(id, subscriptions);
             Supplier<byte[]> supplier = () -> cache.get(id);
             ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(supplier));
         }
@@ -113,4 +157,43 @@ public class CacheProcessInstances implements MutableProcessInstances {
     public boolean exists(String id) {
         return cache.containsKey(id);
     }
+
+    /**
+     * Payloads of the instances subscribed to an event type, or written before subscriptions were indexed, selected
+     * and read one batch of keys at a time.
+     */
+    private class SubscribedPayloads implements Iterator<byte[]> {
+
+        private final Iterator<String> ids;
+        private final String eventType;
+        private Iterator<byte[]> batch = Collections.emptyIterator();
+
+        private SubscribedPayloads(Iterator<String> ids, String eventType) {
+            this.ids = ids;
+            this.eventType = eventType;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!batch.hasNext() && ids.hasNext()) {
+                Set<String> keys = new HashSet<>();
+                while (keys.size() < BATCH_SIZE && ids.hasNext()) {
+                    keys.add(ids.next());
+                }
+                Map<String, String> subscriptions = eventTypes.getAll(keys);
+                keys.removeIf(id -> subscriptions.containsKey(id) && !Arrays.asList(subscriptions.get(id).split(EVENT_TYPES_SEPARATOR)).contains(eventType));
+                // instances removed meanwhile are not returned
+                batch = keys.isEmpty() ? Collections.emptyIterator() : cache.getAll(keys).values().iterator();
+            }
+            return batch.hasNext();
+        }
+
+        @Override
+        public byte[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.next();
+        }
+    }
 }
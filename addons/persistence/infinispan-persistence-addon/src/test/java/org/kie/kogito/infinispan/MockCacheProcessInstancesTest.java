@@ -15,16 +15,22 @@
  */
 package org.kie.kogito.infinispan;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.drools.core.io.impl.ClassPathResource;
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
 import org.infinispan.client.hotrod.RemoteCacheManagerAdmin;
+import org.infinispan.commons.util.CloseableIteratorSet;
+import org.infinispan.commons.util.Closeables;
 import org.jbpm.process.instance.impl.Action;
 import org.jbpm.workflow.core.DroolsAction;
 import org.jbpm.workflow.core.WorkflowProcess;
@@ -51,6 +57,7 @@ import static org.assertj.core.api.Assertions.entry;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ACTIVE;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_COMPLETED;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ERROR;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -58,18 +65,25 @@ import static org.mockito.Mockito.when;
 public class MockCacheProcessInstancesTest {
 
     private final ConcurrentHashMap<Object, Object> mockCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Object> mockEventTypesCache = new ConcurrentHashMap<>();
     private RemoteCacheManager cacheManager;
 
     @BeforeEach
     public void setup() {
         mockCache.clear();
+        mockEventTypesCache.clear();
         cacheManager = mock(RemoteCacheManager.class);
         RemoteCacheManagerAdmin admin = mock(RemoteCacheManagerAdmin.class);
-        RemoteCache<Object, Object> cache = mock(RemoteCache.class);
+        RemoteCache<Object, Object> cache = mockCache(mockCache);
+        RemoteCache<Object, Object> eventTypesCache = mockCache(mockEventTypesCache);
 
         when(cacheManager.administration()).thenReturn(admin);
-        when(admin.getOrCreateCache(any(), (String) any())).thenReturn(cache);
+        when(admin.getOrCreateCache(anyString(), (String) any())).then(invocation -> invocation.getArgument(0, String.class).endsWith("_event_types") ? eventTypesCache : cache);
+    }
 
+    @SuppressWarnings("unchecked")
+    private RemoteCache<Object, Object> mockCache(Map<Object, Object> mockCache) {
+        RemoteCache<Object, Object> cache = mock(RemoteCache.class);
         when(cache.put(any(), any())).then(invocation -> {
             Object key = invocation.getArgument(0, Object.class);
             Object value = invocation.getArgument(1, Object.class);
@@ -89,6 +103,15 @@ public class MockCacheProcessInstancesTest {
             return mockCache.remove(key);
         });
         when(cache.size()).then(invocation -> mockCache.size());
+        when(cache.getAll(any())).then(invocation -> ((Collection<Object>) invocation.getArgument(0, Collection.class)).stream()
+                .filter(mockCache::containsKey)
+                .collect(Collectors.toMap(key -> key, mockCache::get)));
+        when(cache.keySet()).then(invocation -> {
+            CloseableIteratorSet<Object> keys = mock(CloseableIteratorSet.class);
+            when(keys.iterator()).thenReturn(Closeables.iterator(mockCache.keySet().iterator()));
+            return keys;
+        });
+        return cache;
     }
 
     @Test
@@ -175,6 +198,34 @@ public class MockCacheProcessInstancesTest {
         assertThat(processInstance.status()).isEqualTo(STATE_COMPLETED);
     }
 
+    @Test
+    public void testWaitingForEvent() {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new CacheProcessInstancesFactory(cacheManager));
+        process.configure();
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+        assertThat(processInstance.status()).isEqualTo(STATE_ACTIVE);
+        assertThat(mockEventTypesCache).containsKey(processInstance.id());
+
+        assertThat(waitingFor(process.instances(), "unknown")).isEmpty();
+
+        // instances written before subscriptions were indexed are always included
+        mockEventTypesCache.clear();
+        assertThat(waitingFor(process.instances(), "unknown")).containsExactly(processInstance.id());
+
+        processInstance.abort();
+        assertThat(mockEventTypesCache).isEmpty();
+        assertThat(waitingFor(process.instances(), "unknown")).isEmpty();
+    }
+
+    private List<String> waitingFor(ProcessInstances<BpmnVariables> instances, String eventType) {
+        try (Stream<ProcessInstance<BpmnVariables>> stream = instances.waitingForEvent(eventType, ProcessInstanceReadMode.READ_ONLY)) {
+            return stream.map(ProcessInstance::id).collect(Collectors.toList());
+        }
+    }
+
     @Test
     public void testProcessInstanceNotFound() {
         BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
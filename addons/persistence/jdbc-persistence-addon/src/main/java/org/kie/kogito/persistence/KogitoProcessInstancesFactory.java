@@ -17,9 +17,11 @@ package org.kie.kogito.persistence;
 
 import javax.sql.DataSource;
 
+import org.kie.kogito.persistence.jdbc.JDBCBatchManager;
 import org.kie.kogito.persistence.jdbc.JDBCProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
+import org.kie.kogito.serialization.process.DeltaSnapshots;
 
 /**
  * This class must always have exact FQCN as <code>org.kie.kogito.persistence.KogitoProcessInstancesFactory</code>
@@ -41,8 +43,29 @@ public abstract class KogitoProcessInstancesFactory implements ProcessInstancesF
 
     public abstract boolean lock();
 
+    /**
+     * Batch manager deferring writes to the end of the unit of work, none by default.
+     */
+    public JDBCBatchManager batchManager() {
+        return null;
+    }
+
+    /**
+     * Number of delta snapshots appended before a full snapshot is written again, deltas are disabled by default.
+     */
+    public int deltaCompactionInterval() {
+        return 0;
+    }
+
+    /**
+     * Total size of the serialized states deltas are computed against that is kept in memory.
+     */
+    public long deltaBaselineMaxBytes() {
+        return DeltaSnapshots.DEFAULT_MAX_BASELINE_BYTES;
+    }
+
     @Override
     public JDBCProcessInstances createProcessInstances(Process<?> process) {
-        return new JDBCProcessInstances(process, dataSource, autoDDL, lock());
+        return new JDBCProcessInstances(process, dataSource, autoDDL, lock(), batchManager(), new DeltaSnapshots(deltaCompactionInterval(), deltaBaselineMaxBytes()));
     }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+
+/**
+ * Statements collected during a unit of work, executed at its end as JDBC batches
+ * on a single connection and within a single transaction.
+ * Consecutive statements sharing the same SQL are grouped in the same JDBC batch,
+ * so the relative order of all operations is preserved.
+ */
+public class JDBCBatch {
+
+    @FunctionalInterface
+    public interface StatementBinder {
+
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    /**
+     * Statement executed in place of an operation which updated no row.
+     */
+    public static class Fallback {
+
+        private final String sql;
+        private final StatementBinder binder;
+        private final Runnable onSuccess;
+
+        public Fallback(String sql, StatementBinder binder, Runnable onSuccess) {
+            this.sql = sql;
+            this.binder = binder;
+            this.onSuccess = onSuccess;
+        }
+    }
+
+    private static class Operation {
+
+        private final StatementBinder binder;
+        private final String conflictId;
+        private final Runnable onSuccess;
+        private final Fallback fallback;
+        private boolean fellBack;
+
+        private Operation(StatementBinder binder, String conflictId, Runnable onSuccess, Fallback fallback) {
+            this.binder = binder;
+            this.conflictId = conflictId;
+            this.onSuccess = onSuccess;
+            this.fallback = fallback;
+        }
+
+        private Runnable onSuccess() {
+            return fellBack ? fallback.onSuccess : onSuccess;
+        }
+    }
+
+    private static class Group {
+
+        private final String sql;
+        private final List<Operation> operations = new ArrayList<>();
+
+        private Group(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private final List<Group> groups = new ArrayList<>();
+    private int size;
+
+    /**
+     * Adds a statement to the batch.
+     *
+     * @param sql statement to execute
+     * @param binder sets the statement parameters
+     * @param conflictId when not null, id of the process instance the statement is expected to update exactly one row of,
+     *        the whole batch is rolled back with a {@link ProcessInstanceOptimisticLockingException} otherwise
+     * @param onSuccess invoked once the batch has been committed, can be null
+     */
+    public void add(String sql, StatementBinder binder, String conflictId, Runnable onSuccess) {
+        add(sql, binder, conflictId, onSuccess, null);
+    }
+
+    /**
+     * Adds a statement to the batch, replaced by the given fallback when it updates no row.
+     *
+     * @param fallback executed right away on the same transaction when the statement updates no row, in which case
+     *        its own callback is invoked once the batch has been committed instead of the statement one
+     */
+    public void add(String sql, StatementBinder binder, String conflictId, Runnable onSuccess, Fallback fallback) {
+        Group last = groups.isEmpty() ? null : groups.get(groups.size() - 1);
+        if (last == null || !last.sql.equals(sql)) {
+            last = new Group(sql);
+            groups.add(last);
+        }
+        last.operations.add(new Operation(binder, conflictId, onSuccess, fallback));
+        size++;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void flush(DataSource dataSource) {
+        if (isEmpty()) {
+            return;
+        }
+        List<Group> pending = new ArrayList<>(groups);
+        int pendingSize = size;
+        groups.clear();
+        size = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            // a connection already enlisted in a managed transaction is left to its owner
+            boolean localTransaction = connection.getAutoCommit();
+            if (localTransaction) {
+                connection.setAutoCommit(false);
+            }
+            try {
+                for (Group group : pending) {
+                    execute(connection, group);
+                }
+                if (localTransaction) {
+                    connection.commit();
+                }
+            } catch (Exception e) {
+                if (localTransaction) {
+                    connection.rollback();
+                }
+                throw e;
+            } finally {
+                if (localTransaction) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Error flushing batch of " + pendingSize + " process instance operations", e);
+        }
+        for (Group group : pending) {
+            for (Operation operation : group.operations) {
+                Runnable onSuccess = operation.onSuccess();
+                if (onSuccess != null) {
+                    onSuccess.run();
+                }
+            }
+        }
+    }
+
+    private void execute(Connection connection, Group group) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(group.sql)) {
+            for (Operation operation : group.operations) {
+                operation.binder.bind(statement);
+                statement.addBatch();
+            }
+            int[] counts = statement.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                Operation operation = group.operations.get(i);
+                if (counts[i] == 0 && operation.fallback != null) {
+                    fallback(connection, operation);
+                } else if (operation.conflictId != null && counts[i] != 1 && counts[i] != Statement.SUCCESS_NO_INFO) {
+                    throw new ProcessInstanceOptimisticLockingException(operation.conflictId);
+                }
+            }
+        }
+    }
+
+    private void fallback(Connection connection, Operation operation) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(operation.fallback.sql)) {
+            operation.fallback.binder.bind(statement);
+            statement.executeUpdate();
+        }
+        operation.fellBack = true;
+    }
+}
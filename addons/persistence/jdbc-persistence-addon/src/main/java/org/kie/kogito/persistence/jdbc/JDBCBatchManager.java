@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.jdbc;
+
+import javax.sql.DataSource;
+
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.WorkUnit;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
+
+/**
+ * Collects the statements issued by {@link JDBCProcessInstances} while a unit of work is running
+ * and flushes them once it ends, so all the changes of a unit of work reach the database
+ * in one round trip per statement type and within one transaction.
+ * The flush is a work unit of its own, performed right after the process instances work units
+ * and before the events of the unit of work are published, so a failed flush publishes nothing.
+ */
+public abstract class JDBCBatchManager implements UnitOfWorkEventListener {
+
+    // after the process instances work units, that issue the statements
+    static final int FLUSH_PRIORITY = 20;
+
+    private DataSource dataSource;
+
+    private ThreadLocal<JDBCBatch> batchLocal = new ThreadLocal<>();
+
+    public JDBCBatchManager(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void onBeforeStartEvent(UnitOfWorkStartEvent event) {
+        if (!enabled()) {
+            return;
+        }
+
+        JDBCBatch batch = new JDBCBatch();
+        batchLocal.set(batch);
+        UnitOfWork unitOfWork = event.getUnitOfWork();
+        // starting is idempotent, the unit of work has to be started to accept work
+        unitOfWork.start();
+        unitOfWork.intercept(new FlushWorkUnit(batch));
+    }
+
+    @Override
+    public void onAfterEndEvent(UnitOfWorkEndEvent event) {
+        batchLocal.remove();
+    }
+
+    @Override
+    public void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
+        batchLocal.remove();
+    }
+
+    /**
+     * Returns the batch bound to the unit of work running on the current thread, if any.
+     */
+    public JDBCBatch getBatch() {
+        return batchLocal.get();
+    }
+
+    public abstract boolean enabled();
+
+    private void flush(JDBCBatch batch) {
+        // statements issued by later work units are executed right away
+        batchLocal.remove();
+        batch.flush(dataSource);
+    }
+
+    private class FlushWorkUnit implements WorkUnit<JDBCBatch> {
+
+        private final JDBCBatch batch;
+
+        FlushWorkUnit(JDBCBatch batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public JDBCBatch data() {
+            return batch;
+        }
+
+        @Override
+        public void perform() {
+            flush(batch);
+        }
+
+        @Override
+        public void abort() {
+            batchLocal.remove();
+        }
+
+        @Override
+        public Integer priority() {
+            return FLUSH_PRIORITY;
+        }
+    }
+}
@@ -20,35 +20,44 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.sql.DataSource;
 
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.serialization.process.CacheableProcessInstances;
+import org.kie.kogito.serialization.process.DeltaSnapshots;
 import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 
-public class JDBCProcessInstances implements MutableProcessInstances {
+public class JDBCProcessInstances implements MutableProcessInstances, CacheableProcessInstances {
 
     private static final String VERSION = "version";
 
     private static final String PAYLOAD = "payload";
 
+    private static final String DELTAS = "deltas";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(JDBCProcessInstances.class);
 
     private final Process<?> process;
@@ -56,17 +65,61 @@ public class JDBCProcessInstances implements MutableProcessInstances {
     private final boolean autoDDL;
     private final DataSource dataSource;
     private final boolean lock;
-
-    private static final String FIND_ALL = "SELECT payload FROM process_instances WHERE process_id = ?";
-    private static final String FIND_BY_ID = "SELECT payload, version FROM process_instances WHERE id = ?";
-    private static final String INSERT = "INSERT INTO process_instances (id, payload, process_id, version) VALUES (?, ?, ?, ?)";
-    private static final String UPDATE = "UPDATE process_instances SET payload = ? WHERE id = ?";
-    private static final String UPDATE_WITH_LOCK = "UPDATE process_instances SET payload = ?, version = ? WHERE id = ? and version = ?";
+    private final JDBCBatchManager batchManager;
+    private final DeltaSnapshots deltaSnapshots;
+    private SnapshotListener snapshotListener;
+    // every write sets status and business key, so once no untracked row is left none is ever found again
+    private volatile boolean untrackedRows = true;
+
+    private static final String FIND_ALL = "SELECT payload, deltas FROM process_instances WHERE process_id = ?";
+    private static final String PAGE = " ORDER BY id LIMIT ? OFFSET ?";
+    private static final String FILTER_STATUS = " AND status = ?";
+    private static final String FILTER_BUSINESS_KEY = " AND business_key = ?";
+    // rows written before status and business key were tracked have none, hence they are always included
+    private static final String FILTER_STATUS_OR_UNTRACKED = " AND (status = ? OR status IS NULL)";
+    private static final String FILTER_BUSINESS_KEY_OR_UNTRACKED = " AND (business_key = ? OR status IS NULL)";
+    private static final String FIND_UNTRACKED = "SELECT 1 FROM process_instances WHERE process_id = ? AND status IS NULL LIMIT 1";
+    // rows written before event types were tracked have none, hence they are always included
+    private static final String FIND_WAITING_FOR_EVENT = FIND_ALL + " AND (event_types @> ? OR event_types IS NULL)";
+    private static final String FIND_BY_ID = "SELECT payload, deltas, version FROM process_instances WHERE id = ?";
+    private static final String FIND_VERSION = "SELECT version FROM process_instances WHERE id = ?";
+    private static final String INSERT =
+            "INSERT INTO process_instances (id, payload, process_id, version, event_types, status, business_key) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // the version is bumped even without locking, so that a delta computed against the previous state is not appended
+    private static final String UPDATE =
+            "UPDATE process_instances SET payload = ?, deltas = NULL, version = COALESCE(version, 0) + 1, event_types = ?, status = ?, business_key = ? WHERE id = ?";
+    private static final String UPDATE_WITH_LOCK =
+            "UPDATE process_instances SET payload = ?, deltas = NULL, version = ?, event_types = ?, status = ?, business_key = ? WHERE id = ? and version = ?";
+    // deltas are appended to the ones already stored, the payload itself is left untouched until the next compaction,
+    // and only on top of the version they have been computed against, whether locking is enabled or not
+    private static final String APPEND_DELTA =
+            "UPDATE process_instances SET deltas = COALESCE(deltas, ''::bytea) || ?, version = ?, event_types = ?, status = ?, business_key = ? WHERE id = ? and version = ?";
     private static final String DELETE = "DELETE FROM process_instances WHERE id = ?";
     private static final String COUNT = "SELECT COUNT(id) FROM process_instances WHERE process_id = ?";
+    private static final int FETCH_SIZE = 100;
+    private static final String EVENT_TYPE_SQL_TYPE = "varchar";
+    private static final String DELETE_CONFLICT = "The document with ID: %s was deleted by other request.";
 
     public JDBCProcessInstances(Process<?> process, DataSource dataSource, boolean autoDDL, boolean lock) {
+        this(process, dataSource, autoDDL, lock, null);
+    }
+
+    public JDBCProcessInstances(Process<?> process, DataSource dataSource, boolean autoDDL, boolean lock, JDBCBatchManager batchManager) {
+        this(process, dataSource, autoDDL, lock, batchManager, 0);
+    }
+
+    /**
+     * When the delta compaction interval is positive, updates only store the difference with the previous snapshot
+     * and the full payload is rewritten once that many deltas have been appended.
+     */
+    public JDBCProcessInstances(Process<?> process, DataSource dataSource, boolean autoDDL, boolean lock, JDBCBatchManager batchManager, int deltaCompactionInterval) {
+        this(process, dataSource, autoDDL, lock, batchManager, new DeltaSnapshots(deltaCompactionInterval));
+    }
+
+    public JDBCProcessInstances(Process<?> process, DataSource dataSource, boolean autoDDL, boolean lock, JDBCBatchManager batchManager, DeltaSnapshots deltaSnapshots) {
         this.dataSource = dataSource;
+        this.batchManager = batchManager;
+        this.deltaSnapshots = deltaSnapshots;
         this.process = process;
         this.autoDDL = autoDDL;
         this.lock = lock;
@@ -109,7 +162,7 @@ public class JDBCProcessInstances implements MutableProcessInstances {
                         })
                         .orElseGet(() -> {
                             LOGGER.info("Table process_instances already exists.");
-                            return false;
+                            return updateTable(connection);
                         });
             }
 
@@ -124,6 +177,15 @@ public class JDBCProcessInstances implements MutableProcessInstances {
         }
     }
 
+    private boolean updateTable(Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement(getQueryFromFile("update_tables"))) {
+            return statement.execute();
+        } catch (SQLException e) {
+            LOGGER.error("Error updating process_instances table", e);
+        }
+        return false;
+    }
+
     private String getQueryFromFile(String scriptName) {
 
         try (InputStream stream = Thread.currentThread().getContextClassLoader().getResourceAsStream(String.format("sql/%s.sql", scriptName))) {
@@ -144,58 +206,122 @@ public class JDBCProcessInstances implements MutableProcessInstances {
     @Override
     public void create(String id, ProcessInstance instance) {
         if (isActive(instance)) {
-            insertInternal(UUID.fromString(id), marshaller.marshallProcessInstance(instance));
+            UUID uuid = UUID.fromString(id);
+            Columns columns = new Columns(instance);
+            byte[] payload = marshaller.marshallProcessInstance(instance);
+            JDBCBatch batch = currentBatch();
+            if (batch != null) {
+                batch.add(INSERT, statement -> bindInsert(statement, uuid, payload, columns), null, () -> {
+                    setVersion(instance, 1L);
+                    deltaSnapshots.written(instance, payload, false);
+                    snapshotWritten(id, 1L, payload);
+                });
+            } else {
+                insertInternal(uuid, payload, columns);
+                setVersion(instance, 1L);
+                deltaSnapshots.written(instance, payload, false);
+                snapshotWritten(id, 1L, payload);
+            }
         }
         disconnect(instance);
     }
 
-    private void insertInternal(UUID id, byte[] payload) {
+    private void insertInternal(UUID id, byte[] payload, Columns columns) {
         try (Connection connection = dataSource.getConnection();
                 PreparedStatement statement = connection.prepareStatement(INSERT)) {
-            statement.setObject(1, id);
-            statement.setBytes(2, payload);
-            statement.setString(3, process.id());
-            statement.setLong(4, 1L);
+            bindInsert(statement, id, payload, columns);
             statement.executeUpdate();
         } catch (Exception e) {
             throw uncheckedException(e, "Error inserting process instance %s", id);
         }
     }
 
+    private void bindInsert(PreparedStatement statement, UUID id, byte[] payload, Columns columns) throws SQLException {
+        statement.setObject(1, id);
+        statement.setBytes(2, payload);
+        statement.setString(3, process.id());
+        statement.setLong(4, 1L);
+        columns.bind(statement, 5);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void update(String id, ProcessInstance instance) {
         if (isActive(instance)) {
+            UUID uuid = UUID.fromString(id);
+            Columns columns = new Columns(instance);
+            byte[] current = marshaller.marshallProcessInstance(instance);
+            byte[] delta = instance.version() == null ? null : deltaSnapshots.deltaFor(instance, current);
+            boolean isDelta = delta != null;
+            byte[] payload = isDelta ? DeltaSnapshots.frame(delta) : current;
+            Runnable written = () -> deltaSnapshots.written(instance, current, isDelta);
+            JDBCBatch batch = currentBatch();
             if (lock) {
-                boolean isUpdated = updateWithLock(UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance.version());
-                if (!isUpdated) {
-                    throw uncheckedException(null, "The document with ID: %s was updated or deleted by other request.", id);
+                long version = instance.version();
+                String sql = isDelta ? APPEND_DELTA : UPDATE_WITH_LOCK;
+                if (batch != null) {
+                    batch.add(sql, statement -> bindUpdateWithLock(statement, uuid, payload, columns, version), id, () -> {
+                        setVersion(instance, version + 1);
+                        written.run();
+                        snapshotWritten(id, version + 1, current);
+                    });
+                } else {
+                    if (!updateWithLock(sql, uuid, payload, columns, version)) {
+                        throw new ProcessInstanceOptimisticLockingException(id);
+                    }
+                    setVersion(instance, version + 1);
+                    written.run();
+                    snapshotWritten(id, version + 1, current);
+                }
+            } else if (isDelta) {
+                long version = instance.version();
+                // without locking, a delta computed against a state updated since is replaced by the full snapshot
+                Runnable deltaWritten = () -> {
+                    setVersion(instance, version + 1);
+                    written.run();
+                };
+                Runnable fullWritten = () -> deltaSnapshots.written(instance, current, false);
+                if (batch != null) {
+                    batch.add(APPEND_DELTA, statement -> bindUpdateWithLock(statement, uuid, payload, columns, version), null, deltaWritten,
+                            new JDBCBatch.Fallback(UPDATE, statement -> bindUpdate(statement, uuid, current, columns), fullWritten));
+                } else if (updateWithLock(APPEND_DELTA, uuid, payload, columns, version)) {
+                    deltaWritten.run();
+                } else {
+                    updateInternal(UPDATE, uuid, current, columns);
+                    fullWritten.run();
                 }
             } else {
-                updateInternal(UUID.fromString(id), marshaller.marshallProcessInstance(instance));
+                if (batch != null) {
+                    batch.add(UPDATE, statement -> bindUpdate(statement, uuid, payload, columns), null, written);
+                } else {
+                    updateInternal(UPDATE, uuid, payload, columns);
+                    written.run();
+                }
             }
         }
         disconnect(instance);
     }
 
-    private void updateInternal(UUID id, byte[] payload) {
+    private void updateInternal(String sql, UUID id, byte[] payload, Columns columns) {
         try (Connection connection = dataSource.getConnection();
-                PreparedStatement statement = connection.prepareStatement(UPDATE)) {
-            statement.setBytes(1, payload);
-            statement.setObject(2, id);
+                PreparedStatement statement = connection.prepareStatement(sql)) {
+            bindUpdate(statement, id, payload, columns);
             statement.executeUpdate();
         } catch (Exception e) {
             throw uncheckedException(e, "Error updating process instance %s", id);
         }
     }
 
-    private boolean updateWithLock(UUID id, byte[] payload, long version) {
+    private void bindUpdate(PreparedStatement statement, UUID id, byte[] payload, Columns columns) throws SQLException {
+        statement.setBytes(1, payload);
+        columns.bind(statement, 2);
+        statement.setObject(5, id);
+    }
+
+    private boolean updateWithLock(String sql, UUID id, byte[] payload, Columns columns, long version) {
         try (Connection connection = dataSource.getConnection();
-                PreparedStatement statement = connection.prepareStatement(UPDATE_WITH_LOCK)) {
-            statement.setBytes(1, payload);
-            statement.setLong(2, version + 1);
-            statement.setObject(3, id);
-            statement.setLong(4, version);
+                PreparedStatement statement = connection.prepareStatement(sql)) {
+            bindUpdateWithLock(statement, id, payload, columns, version);
             int count = statement.executeUpdate();
             return count == 1;
         } catch (Exception e) {
@@ -203,11 +329,26 @@ public class JDBCProcessInstances implements MutableProcessInstances {
         }
     }
 
+    private void bindUpdateWithLock(PreparedStatement statement, UUID id, byte[] payload, Columns columns, long version) throws SQLException {
+        statement.setBytes(1, payload);
+        statement.setLong(2, version + 1);
+        columns.bind(statement, 3);
+        statement.setObject(6, id);
+        statement.setLong(7, version);
+    }
+
     @Override
     public void remove(String id) {
-        boolean isDeleted = deleteInternal(UUID.fromString(id));
+        deltaSnapshots.forget(id);
+        UUID uuid = UUID.fromString(id);
+        JDBCBatch batch = currentBatch();
+        if (batch != null) {
+            batch.add(DELETE, statement -> statement.setObject(1, uuid), lock ? id : null, null);
+            return;
+        }
+        boolean isDeleted = deleteInternal(uuid);
         if (lock && !isDeleted) {
-            throw uncheckedException(null, "The document with ID: %s was deleted by other request.", id);
+            throw new ProcessInstanceOptimisticLockingException(id, String.format(DELETE_CONFLICT, id));
         }
     }
 
@@ -228,19 +369,83 @@ public class JDBCProcessInstances implements MutableProcessInstances {
         ProcessInstance<?> instance = null;
         Map<String, Object> map = findByIdInternal(UUID.fromString(id));
         if (map.containsKey(PAYLOAD)) {
-            byte[] b = (byte[]) map.get(PAYLOAD);
-            instance = mode == MUTABLE ? marshaller.unmarshallProcessInstance(b, process)
-                    : marshaller.unmarshallReadOnlyProcessInstance(b, process);
-            ((AbstractProcessInstance<?>) instance).setVersion((Long) map.get(VERSION));
+            instance = unmarshall((DeltaSnapshots.Snapshot) map.get(PAYLOAD), mode, (Long) map.get(VERSION));
             return Optional.of(instance);
         }
         return Optional.empty();
     }
 
+    @Override
+    public boolean isCacheable() {
+        // without locking, an update made by another node would not be noticed by the next write
+        return lock;
+    }
+
+    @Override
+    public void setSnapshotListener(SnapshotListener snapshotListener) {
+        this.snapshotListener = snapshotListener;
+    }
+
+    @Override
+    public boolean isCurrent(String id, Long version) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(FIND_VERSION)) {
+            statement.setObject(1, UUID.fromString(id));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && version != null && version == resultSet.getLong(VERSION);
+            }
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error finding version of process instance %s", id);
+        }
+    }
+
+    private void snapshotWritten(String id, long version, byte[] data) {
+        // only called once committed, either by the batch or by the statement run on its own connection
+        if (snapshotListener != null) {
+            snapshotListener.written(id, version, data);
+        }
+    }
+
     @Override
     public Collection<ProcessInstance> values(ProcessInstanceReadMode mode) {
-        return findAllInternal().stream().map(b -> mode == MUTABLE ? marshaller.unmarshallProcessInstance(b, process) : marshaller.unmarshallReadOnlyProcessInstance(b, process))
-                .collect(Collectors.toList());
+        try (Stream<ProcessInstance> instances = stream(ProcessInstanceQuery.all(), mode)) {
+            return instances.collect(Collectors.toList());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Stream<ProcessInstance> stream(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        // rows stored before status and business key were tracked have to be checked once unmarshalled, the whole
+        // query is pushed down when there is none
+        boolean pushDown = !query.hasFilter() || !hasUntrackedRows();
+        Stream<ProcessInstance> instances = unmarshall(findAllInternal(query, pushDown), mode);
+        return pushDown ? instances : query.apply((Stream) instances);
+    }
+
+    @Override
+    public Stream<ProcessInstance> waitingForEvent(String eventType, ProcessInstanceReadMode mode) {
+        return unmarshall(queryInternal(FIND_WAITING_FOR_EVENT, statement -> {
+            statement.setString(1, process.id());
+            statement.setArray(2, statement.getConnection().createArrayOf(EVENT_TYPE_SQL_TYPE, new String[] { eventType }));
+        }), mode);
+    }
+
+    private Stream<ProcessInstance> unmarshall(Stream<DeltaSnapshots.Snapshot> snapshots, ProcessInstanceReadMode mode) {
+        return snapshots.map(snapshot -> unmarshall(snapshot, mode, null));
+    }
+
+    private ProcessInstance<?> unmarshall(DeltaSnapshots.Snapshot snapshot, ProcessInstanceReadMode mode, Long version) {
+        byte[] b = snapshot.state();
+        ProcessInstance<?> instance = mode == MUTABLE ? marshaller.unmarshallProcessInstance(b, process) : marshaller.unmarshallReadOnlyProcessInstance(b, process);
+        if (version != null) {
+            setVersion(instance, version);
+        }
+        // read only instances are never written back
+        if (mode == MUTABLE) {
+            deltaSnapshots.track(instance, snapshot);
+        }
+        return instance;
     }
 
     private Map<String, Object> findByIdInternal(UUID id) {
@@ -252,7 +457,7 @@ public class JDBCProcessInstances implements MutableProcessInstances {
                 if (resultSet.next()) {
                     Optional<byte[]> b = Optional.ofNullable(resultSet.getBytes(PAYLOAD));
                     if (b.isPresent()) {
-                        result.put(PAYLOAD, b.get());
+                        result.put(PAYLOAD, DeltaSnapshots.materialize(b.get(), resultSet.getBytes(DELTAS)));
                     }
                     result.put(VERSION, resultSet.getLong(VERSION));
                     return result;
@@ -264,20 +469,148 @@ public class JDBCProcessInstances implements MutableProcessInstances {
         return result;
     }
 
-    private List<byte[]> findAllInternal() {
-        List<byte[]> result = new ArrayList<>();
+    private boolean hasUntrackedRows() {
+        if (!untrackedRows) {
+            return false;
+        }
         try (Connection connection = dataSource.getConnection();
-                PreparedStatement statement = connection.prepareStatement(FIND_ALL)) {
+                PreparedStatement statement = connection.prepareStatement(FIND_UNTRACKED)) {
             statement.setString(1, process.id());
             try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    result.add(resultSet.getBytes(PAYLOAD));
-                }
+                untrackedRows = resultSet.next();
             }
-            return result;
         } catch (Exception e) {
+            throw uncheckedException(e, "Error finding process instances without status, for processId %s", process.id());
+        }
+        return untrackedRows;
+    }
+
+    /**
+     * @param exact whether the query is resolved entirely by the database, filter and page, otherwise rows that may
+     *        match the filter are returned, without paging
+     */
+    private Stream<DeltaSnapshots.Snapshot> findAllInternal(ProcessInstanceQuery query, boolean exact) {
+        StringBuilder sql = new StringBuilder(FIND_ALL);
+        if (query.getStatus() != null) {
+            sql.append(exact ? FILTER_STATUS : FILTER_STATUS_OR_UNTRACKED);
+        }
+        if (query.getBusinessKey() != null) {
+            sql.append(exact ? FILTER_BUSINESS_KEY : FILTER_BUSINESS_KEY_OR_UNTRACKED);
+        }
+        boolean paged = exact && query.isPaged();
+        if (paged) {
+            sql.append(PAGE);
+        }
+        return queryInternal(sql.toString(), statement -> {
+            int index = 1;
+            statement.setString(index++, process.id());
+            if (query.getStatus() != null) {
+                statement.setInt(index++, query.getStatus());
+            }
+            if (query.getBusinessKey() != null) {
+                statement.setString(index++, query.getBusinessKey());
+            }
+            if (paged) {
+                statement.setLong(index++, query.getLimit() == ProcessInstanceQuery.UNBOUNDED ? Long.MAX_VALUE : query.getLimit());
+                statement.setInt(index, query.getOffset());
+            }
+        });
+    }
+
+    private Stream<DeltaSnapshots.Snapshot> queryInternal(String sql, JDBCBatch.StatementBinder binder) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        boolean restoreAutoCommit = false;
+        try {
+            connection = dataSource.getConnection();
+            // the driver only reads through a cursor, honouring the fetch size, within a transaction,
+            // otherwise the whole result set would be loaded on execution
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+            statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            binder.bind(statement);
+            resultSet = statement.executeQuery();
+        } catch (Exception e) {
+            release(resultSet, statement, connection, restoreAutoCommit);
             throw uncheckedException(e, "Error finding all process instances, for processId %s", process.id());
         }
+        ResultSetSpliterator spliterator = new ResultSetSpliterator(resultSet, statement, connection, restoreAutoCommit);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    private void release(ResultSet resultSet, PreparedStatement statement, Connection connection, boolean restoreAutoCommit) {
+        close(resultSet, statement);
+        if (connection != null && restoreAutoCommit) {
+            try {
+                // read only, nothing to commit
+                connection.rollback();
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                LOGGER.warn("Error restoring auto commit of JDBC connection", e);
+            }
+        }
+        close(connection);
+    }
+
+    private void close(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    LOGGER.warn("Error closing JDBC resource", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads snapshots from an open result set on demand, releasing the JDBC resources once exhausted or closed.
+     */
+    private class ResultSetSpliterator extends Spliterators.AbstractSpliterator<DeltaSnapshots.Snapshot> {
+
+        private final ResultSet resultSet;
+        private final PreparedStatement statement;
+        private final Connection connection;
+        private final boolean restoreAutoCommit;
+        private boolean closed;
+
+        ResultSetSpliterator(ResultSet resultSet, PreparedStatement statement, Connection connection, boolean restoreAutoCommit) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.resultSet = resultSet;
+            this.statement = statement;
+            this.connection = connection;
+            this.restoreAutoCommit = restoreAutoCommit;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super DeltaSnapshots.Snapshot> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (resultSet.next()) {
+                    action.accept(DeltaSnapshots.materialize(resultSet.getBytes(PAYLOAD), resultSet.getBytes(DELTAS)));
+                    return true;
+                }
+            } catch (SQLException e) {
+                close();
+                throw uncheckedException(e, "Error finding all process instances, for processId %s", process.id());
+            }
+            close();
+            return false;
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                release(resultSet, statement, connection, restoreAutoCommit);
+            }
+        }
     }
 
     @Override
@@ -305,11 +638,44 @@ public class JDBCProcessInstances implements MutableProcessInstances {
         return 0l;
     }
 
+    private JDBCBatch currentBatch() {
+        return batchManager == null ? null : batchManager.getBatch();
+    }
+
+    /**
+     * Columns derived from the instance that allow to query it without unmarshalling the payload.
+     */
+    private static class Columns {
+
+        private final String[] eventTypes;
+        private final int status;
+        private final String businessKey;
+
+        Columns(ProcessInstance<?> instance) {
+            this.eventTypes = ((AbstractProcessInstance<?>) instance).internalGetEventTypes();
+            this.status = instance.status();
+            this.businessKey = instance.businessKey();
+        }
+
+        void bind(PreparedStatement statement, int index) throws SQLException {
+            statement.setArray(index, statement.getConnection().createArrayOf(EVENT_TYPE_SQL_TYPE, eventTypes));
+            statement.setInt(index + 1, status);
+            statement.setString(index + 2, businessKey);
+        }
+    }
+
+    private void setVersion(ProcessInstance<?> instance, long version) {
+        ((AbstractProcessInstance<?>) instance).setVersion(version);
+    }
+
     private void disconnect(ProcessInstance instance) {
         Supplier<byte[]> supplier = () -> {
             Map<String, Object> map = findByIdInternal(UUID.fromString(instance.id()));
+            DeltaSnapshots.Snapshot snapshot = (DeltaSnapshots.Snapshot) map.get(PAYLOAD);
             ((AbstractProcessInstance<?>) instance).setVersion((Long) map.get(VERSION));
-            return (byte[]) map.get(PAYLOAD);
+            // the reloaded state, possibly written by another node, is the one following deltas are computed against
+            deltaSnapshots.track(instance, snapshot);
+            return snapshot.state();
         };
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(supplier));
     }
@@ -1,10 +1,18 @@
 CREATE TABLE process_instances(id uuid NOT NULL,
                                       payload bytea NOT NULL,
+                                      deltas bytea,
                                       process_id character varying NOT NULL,
                                       version bigint,
+                                      event_types character varying[],
+                                      status integer,
+                                      business_key character varying,
                                       CONSTRAINT process_instances_pkey PRIMARY KEY (id)
                                       );
 CREATE INDEX idx_process_instances_process_id ON process_instances
     (
      process_id
+    );
+CREATE INDEX idx_process_instances_event_types ON process_instances USING GIN
+    (
+     event_types
     );
\ No newline at end of file
@@ -0,0 +1,8 @@
+ALTER TABLE process_instances ADD COLUMN IF NOT EXISTS deltas bytea;
+ALTER TABLE process_instances ADD COLUMN IF NOT EXISTS event_types character varying[];
+ALTER TABLE process_instances ADD COLUMN IF NOT EXISTS status integer;
+ALTER TABLE process_instances ADD COLUMN IF NOT EXISTS business_key character varying;
+CREATE INDEX IF NOT EXISTS idx_process_instances_event_types ON process_instances USING GIN
+    (
+     event_types
+    );
\ No newline at end of file
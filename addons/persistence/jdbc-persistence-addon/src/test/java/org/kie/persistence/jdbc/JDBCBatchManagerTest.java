@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.event.EventBatch;
+import org.kie.kogito.event.EventManager;
+import org.kie.kogito.persistence.jdbc.JDBCBatchManager;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.services.uow.CollectingUnitOfWork;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JDBCBatchManagerTest {
+
+    private final List<String> calls = new ArrayList<>();
+    private PreparedStatement statement;
+    private JDBCBatchManager batchManager;
+    private DefaultUnitOfWorkManager unitOfWorkManager;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        EventManager eventManager = mock(EventManager.class);
+        when(eventManager.newBatch()).thenReturn(mock(EventBatch.class));
+        doAnswer(invocation -> calls.add("publish")).when(eventManager).publish(any());
+
+        batchManager = new JDBCBatchManager(dataSource) {
+            @Override
+            public boolean enabled() {
+                return true;
+            }
+        };
+        unitOfWorkManager = new DefaultUnitOfWorkManager(manager -> new CollectingUnitOfWork(eventManager));
+        unitOfWorkManager.register(batchManager);
+    }
+
+    @Test
+    void testFlushBeforeEventsArePublished() throws SQLException {
+        when(statement.executeBatch()).thenAnswer(invocation -> {
+            calls.add("flush");
+            return new int[] { 1 };
+        });
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        batchManager.getBatch().add("UPDATE", s -> s.setString(1, "a"), "conflict", () -> calls.add("version"));
+        unitOfWork.end();
+
+        assertThat(calls).containsExactly("flush", "version", "publish");
+        assertThat(batchManager.getBatch()).isNull();
+    }
+
+    @Test
+    void testFailedFlushPublishesNothing() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[] { 0 });
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        batchManager.getBatch().add("UPDATE", s -> s.setString(1, "a"), "conflict", () -> calls.add("version"));
+
+        assertThatExceptionOfType(ProcessInstanceOptimisticLockingException.class).isThrownBy(unitOfWork::end).withMessageContaining("conflict");
+        assertThat(calls).isEmpty();
+        assertThat(batchManager.getBatch()).isNull();
+    }
+}
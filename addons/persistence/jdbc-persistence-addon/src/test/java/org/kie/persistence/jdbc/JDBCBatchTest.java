@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.persistence.jdbc.JDBCBatch;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.mockito.InOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JDBCBatchTest {
+
+    private DataSource dataSource;
+    private Connection connection;
+    private PreparedStatement statement;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+    }
+
+    @Test
+    void testFlushGroupsConsecutiveStatements() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[] { 1, 1 }, new int[] { 1 });
+        AtomicInteger committed = new AtomicInteger();
+
+        JDBCBatch batch = new JDBCBatch();
+        batch.add("INSERT", s -> s.setString(1, "a"), null, committed::incrementAndGet);
+        batch.add("INSERT", s -> s.setString(1, "b"), null, committed::incrementAndGet);
+        batch.add("DELETE", s -> s.setString(1, "c"), "conflict", committed::incrementAndGet);
+        assertThat(batch.size()).isEqualTo(3);
+
+        batch.flush(dataSource);
+
+        InOrder inOrder = inOrder(connection);
+        inOrder.verify(connection).setAutoCommit(false);
+        inOrder.verify(connection).prepareStatement("INSERT");
+        inOrder.verify(connection).prepareStatement("DELETE");
+        inOrder.verify(connection).commit();
+        inOrder.verify(connection).setAutoCommit(true);
+        verify(dataSource, times(1)).getConnection();
+        verify(statement, times(3)).addBatch();
+        assertThat(committed).hasValue(3);
+        assertThat(batch.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testFlushRollbackOnConflict() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[] { 0 });
+        AtomicInteger committed = new AtomicInteger();
+
+        JDBCBatch batch = new JDBCBatch();
+        batch.add("UPDATE", s -> s.setString(1, "a"), "conflict", committed::incrementAndGet);
+
+        assertThatExceptionOfType(ProcessInstanceOptimisticLockingException.class).isThrownBy(() -> batch.flush(dataSource)).withMessageContaining("conflict");
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        assertThat(committed).hasValue(0);
+        assertThat(batch.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testFlushFallbackWhenNoRowUpdated() throws SQLException {
+        when(statement.executeBatch()).thenReturn(new int[] { 1, 0 });
+        AtomicInteger appended = new AtomicInteger();
+        AtomicInteger replaced = new AtomicInteger();
+
+        JDBCBatch batch = new JDBCBatch();
+        JDBCBatch.Fallback fallback = new JDBCBatch.Fallback("UPDATE", s -> s.setString(1, "full"), replaced::incrementAndGet);
+        batch.add("APPEND", s -> s.setString(1, "a"), null, appended::incrementAndGet, fallback);
+        batch.add("APPEND", s -> s.setString(1, "b"), null, appended::incrementAndGet, fallback);
+
+        batch.flush(dataSource);
+
+        InOrder inOrder = inOrder(connection);
+        inOrder.verify(connection).prepareStatement("APPEND");
+        inOrder.verify(connection).prepareStatement("UPDATE");
+        inOrder.verify(connection).commit();
+        verify(statement).executeUpdate();
+        assertThat(appended).hasValue(1);
+        assertThat(replaced).hasValue(1);
+    }
+}
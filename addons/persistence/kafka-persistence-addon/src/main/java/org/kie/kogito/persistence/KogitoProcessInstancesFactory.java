@@ -15,6 +15,7 @@
  */
 package org.kie.kogito.persistence;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import javax.annotation.PreDestroy;
@@ -22,10 +23,13 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.persistence.kafka.KafkaProcessInstances;
 import org.kie.kogito.persistence.kafka.KafkaStreamsStateListener;
+import org.kie.kogito.persistence.kafka.KafkaWritePipeline;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
 import org.slf4j.Logger;
@@ -40,6 +44,7 @@ public abstract class KogitoProcessInstancesFactory implements ProcessInstancesF
 
     KafkaStreamsStateListener stateListener;
     KafkaProducer<String, byte[]> producer;
+    KafkaWritePipeline writePipeline;
 
     @Inject
     public void setStateListener(KafkaStreamsStateListener stateListener) {
@@ -47,9 +52,23 @@ public abstract class KogitoProcessInstancesFactory implements ProcessInstancesF
     }
 
     @Inject
-    @Named("default-kafka-broker")
+    public void setWritePipeline(KafkaWritePipeline writePipeline) {
+        this.writePipeline = writePipeline;
+    }
+
     public void setKafkaConfig(Map<String, Object> kafkaConfig) {
-        producer = new KafkaProducer<>(kafkaConfig, new StringSerializer(), new ByteArraySerializer());
+        setKafkaConfig(kafkaConfig, false);
+    }
+
+    @Inject
+    public void setKafkaConfig(@Named("default-kafka-broker") Map<String, Object> kafkaConfig,
+            @ConfigProperty(name = KafkaWritePipeline.PIPELINED_CONFIG, defaultValue = "false") boolean pipelined) {
+        Map<String, Object> producerConfig = new HashMap<>(kafkaConfig);
+        if (pipelined) {
+            // keeps the records of an instance in order when pipelined sends are retried
+            producerConfig.putIfAbsent(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        }
+        producer = new KafkaProducer<>(producerConfig, new StringSerializer(), new ByteArraySerializer());
     }
 
     @PreDestroy
@@ -62,7 +81,7 @@ public abstract class KogitoProcessInstancesFactory implements ProcessInstancesF
     public KafkaProcessInstances createProcessInstances(Process<?> process) {
         try {
             LOGGER.info("Creating KafkaProcessInstances for process: {}", process.id());
-            KafkaProcessInstances pi = new KafkaProcessInstances(process, producer);
+            KafkaProcessInstances pi = new KafkaProcessInstances(process, producer, writePipeline);
             stateListener.addProcessInstances(pi);
             return pi;
         } catch (Exception ex) {
@@ -15,22 +15,35 @@
  */
 package org.kie.kogito.persistence.kafka;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.state.KeyValueIterator;
 import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
@@ -43,6 +56,30 @@ import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 public class KafkaProcessInstances implements MutableProcessInstances {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaProcessInstances.class);
+    // acknowledged writes not yet seen in the state store after this delay are assumed to be superseded
+    private static final long PENDING_WRITE_RETENTION_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final int PENDING_WRITE_PRUNE_INTERVAL = 1024;
+
+    /**
+     * A record sent by this node which the state store, fed asynchronously from the topic, may not reflect yet.
+     */
+    private static class PendingWrite {
+
+        private final byte[] data;
+        private volatile long acknowledgedAt;
+
+        private PendingWrite(byte[] data) {
+            this.data = data;
+        }
+
+        private boolean isVisible(byte[] stored) {
+            return acknowledgedAt > 0 && Arrays.equals(stored, data);
+        }
+
+        private boolean isExpired(long now) {
+            return acknowledgedAt > 0 && now - acknowledgedAt > PENDING_WRITE_RETENTION_MILLIS;
+        }
+    }
 
     private Process<?> process;
     private KafkaProducer<String, byte[]> producer;
@@ -50,11 +87,19 @@ public class KafkaProcessInstances implements MutableProcessInstances {
     private ReadOnlyKeyValueStore<String, byte[]> store;
     private ProcessInstanceMarshallerService marshaller;
     private CountDownLatch latch = new CountDownLatch(1);
+    private KafkaWritePipeline pipeline;
+    private final Map<String, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+    private final AtomicLong pipelinedWrites = new AtomicLong();
 
     public KafkaProcessInstances(Process<?> process, KafkaProducer<String, byte[]> producer) {
+        this(process, producer, null);
+    }
+
+    public KafkaProcessInstances(Process<?> process, KafkaProducer<String, byte[]> producer, KafkaWritePipeline pipeline) {
         this.process = process;
         this.topic = topicName(process.id());
         this.producer = producer;
+        this.pipeline = pipeline;
         setMarshaller(ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build());
     }
 
@@ -97,18 +142,18 @@ public class KafkaProcessInstances implements MutableProcessInstances {
 
     @Override
     public boolean exists(String id) {
-        return getStore().get(id) != null;
+        return read(id) != null;
     }
 
     @Override
     public void create(String id, ProcessInstance instance) {
         if (isActive(instance)) {
-            if (getStore().get(id) != null) {
+            if (read(id) != null) {
                 throw new ProcessInstanceDuplicatedException(id);
             }
             byte[] data = marshaller.marshallProcessInstance(instance);
             try {
-                producer.send(new ProducerRecord<>(topic, id, data)).get();
+                send(id, data, "Unable to persist process instance id: " + id);
                 disconnect(instance);
             } catch (Exception e) {
                 throw new RuntimeException("Unable to persist process instance id: " + id, e);
@@ -121,7 +166,7 @@ public class KafkaProcessInstances implements MutableProcessInstances {
         if (isActive(instance)) {
             byte[] data = marshaller.marshallProcessInstance(instance);
             try {
-                producer.send(new ProducerRecord<>(topic, id, data)).get();
+                send(id, data, "Unable to update process instance id: " + id);
                 disconnect(instance);
             } catch (Exception e) {
                 throw new RuntimeException("Unable to update process instance id: " + id, e);
@@ -132,15 +177,63 @@ public class KafkaProcessInstances implements MutableProcessInstances {
     @Override
     public void remove(String id) {
         try {
-            producer.send(new ProducerRecord<>(topic, id, null)).get();
+            send(id, null, "Unable to remove process instance id: " + id);
         } catch (Exception e) {
             throw new RuntimeException("Unable to remove process instance id: " + id, e);
         }
     }
 
+    /**
+     * Sends the record and waits for its acknowledgement, unless a pipelined unit of work is running,
+     * in which case the acknowledgement is awaited before the unit of work publishes its events.
+     */
+    private void send(String id, byte[] data, String errorMessage) throws Exception {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, id, data);
+        if (pipeline == null || !pipeline.isActive()) {
+            producer.send(record).get();
+            return;
+        }
+        if (pipelinedWrites.incrementAndGet() % PENDING_WRITE_PRUNE_INTERVAL == 0) {
+            long now = System.currentTimeMillis();
+            pendingWrites.values().removeIf(write -> write.isExpired(now));
+        }
+        PendingWrite write = new PendingWrite(data);
+        pendingWrites.put(id, write);
+        try {
+            Future<RecordMetadata> ack = producer.send(record, (metadata, exception) -> {
+                if (exception == null) {
+                    write.acknowledgedAt = System.currentTimeMillis();
+                } else {
+                    pendingWrites.remove(id, write);
+                }
+            });
+            pipeline.add(producer, ack, errorMessage);
+        } catch (RuntimeException e) {
+            pendingWrites.remove(id, write);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the latest state of the given instance, giving precedence to the writes of this node
+     * which are not visible in the state store yet.
+     */
+    protected byte[] read(String id) {
+        byte[] stored = getStore().get(id);
+        PendingWrite write = pendingWrites.get(id);
+        if (write == null) {
+            return stored;
+        }
+        if (write.isVisible(stored) || write.isExpired(System.currentTimeMillis())) {
+            pendingWrites.remove(id, write);
+            return stored;
+        }
+        return write.data;
+    }
+
     @Override
     public Optional<ProcessInstance> findById(String id, ProcessInstanceReadMode mode) {
-        byte[] data = getStore().get(id);
+        byte[] data = read(id);
         if (data == null) {
             return Optional.empty();
         }
@@ -150,24 +243,42 @@ public class KafkaProcessInstances implements MutableProcessInstances {
 
     @Override
     public Collection<ProcessInstance> values(ProcessInstanceReadMode mode) {
-        final List<ProcessInstance> instances = new ArrayList<>();
-        try (final KeyValueIterator<String, byte[]> iterator = getStore().all()) {
-            while (iterator.hasNext()) {
-                instances.add(mode == MUTABLE ? marshaller.unmarshallProcessInstance(iterator.next().value, process) : marshaller.unmarshallReadOnlyProcessInstance(iterator.next().value, process));
-            }
-            return instances;
+        try (Stream<ProcessInstance> instances = stream(ProcessInstanceQuery.all(), mode)) {
+            return instances.collect(Collectors.toList());
         } catch (Exception e) {
             throw new RuntimeException("Unable to read process instances ", e);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public Stream<ProcessInstance> stream(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        // the local state store iterates in key order, which keeps pages stable
+        final KeyValueIterator<String, byte[]> iterator = getStore().all();
+        Stream<KeyValue<String, byte[]>> entries = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+        Stream<byte[]> values;
+        if (pendingWrites.isEmpty()) {
+            values = entries.map(entry -> entry.value);
+        } else {
+            // writes of this node take precedence, instances not yet in the state store are listed after the stored ones
+            Map<String, PendingWrite> pending = new HashMap<>(pendingWrites);
+            values = Stream.concat(entries.map(entry -> pending.remove(entry.key) != null ? read(entry.key) : entry.value),
+                    Stream.of(pending).flatMap(remaining -> remaining.keySet().stream()).map(this::read))
+                    .filter(Objects::nonNull);
+        }
+        Stream<ProcessInstance> instances = values
+                .map(data -> mode == MUTABLE ? marshaller.unmarshallProcessInstance(data, process) : marshaller.unmarshallReadOnlyProcessInstance(data, process));
+        return query.apply((Stream) instances);
+    }
+
     @Override
     public Integer size() {
         return (int) getStore().approximateNumEntries();
     }
 
     protected void disconnect(ProcessInstance instance) {
-        Supplier<byte[]> supplier = () -> getStore().get(instance.id());
+        Supplier<byte[]> supplier = () -> read(instance.id());
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(supplier));
     }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.kafka;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.WorkUnit;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
+
+/**
+ * Lets {@link KafkaProcessInstances} send the records of a unit of work without waiting for each broker
+ * acknowledgement. All the sends issued while the unit of work runs on the current thread are flushed and awaited
+ * by a work unit of its own, performed right after the process instances work units and before the events of the
+ * unit of work are published, so that a failed send publishes nothing and the failure surfaces to its caller.
+ */
+@ApplicationScoped
+public class KafkaWritePipeline implements UnitOfWorkEventListener {
+
+    public static final String PIPELINED_CONFIG = "kogito.persistence.kafka.pipelined";
+
+    // after the process instances work units, that issue the sends
+    static final int AWAIT_PRIORITY = 20;
+
+    private static class PendingSend {
+
+        private final Future<RecordMetadata> ack;
+        private final String errorMessage;
+
+        private PendingSend(Future<RecordMetadata> ack, String errorMessage) {
+            this.ack = ack;
+            this.errorMessage = errorMessage;
+        }
+    }
+
+    private static class PendingSends {
+
+        private final Set<Producer<?, ?>> producers = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final List<PendingSend> sends = new ArrayList<>();
+    }
+
+    private boolean enabled;
+
+    private ThreadLocal<PendingSends> sendsLocal = new ThreadLocal<>();
+
+    @Inject
+    public void setEnabled(@ConfigProperty(name = PIPELINED_CONFIG, defaultValue = "false") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void onBeforeStartEvent(UnitOfWorkStartEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        PendingSends sends = new PendingSends();
+        sendsLocal.set(sends);
+        UnitOfWork unitOfWork = event.getUnitOfWork();
+        // starting is idempotent, the unit of work has to be started to accept work
+        unitOfWork.start();
+        unitOfWork.intercept(new AwaitWorkUnit(sends));
+    }
+
+    @Override
+    public void onAfterEndEvent(UnitOfWorkEndEvent event) {
+        sendsLocal.remove();
+    }
+
+    @Override
+    public void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
+        // records already sent cannot be withdrawn, failures are still reported through the send callbacks
+        sendsLocal.remove();
+    }
+
+    /**
+     * Returns true when a pipelined unit of work is running on the current thread.
+     */
+    public boolean isActive() {
+        return sendsLocal.get() != null;
+    }
+
+    public void add(Producer<?, ?> producer, Future<RecordMetadata> ack, String errorMessage) {
+        PendingSends sends = sendsLocal.get();
+        if (sends == null) {
+            throw new IllegalStateException("No pipelined unit of work is running on the current thread");
+        }
+        sends.producers.add(producer);
+        sends.sends.add(new PendingSend(ack, errorMessage));
+    }
+
+    private void await(PendingSends sends) {
+        // records sent by later work units are awaited right away
+        sendsLocal.remove();
+        // buffered records are sent without waiting for the producer linger time
+        sends.producers.forEach(Producer::flush);
+        RuntimeException failure = null;
+        for (PendingSend send : sends.sends) {
+            try {
+                send.ack.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = addFailure(failure, new RuntimeException(send.errorMessage, e));
+            } catch (ExecutionException e) {
+                failure = addFailure(failure, new RuntimeException(send.errorMessage, e.getCause()));
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static RuntimeException addFailure(RuntimeException failure, RuntimeException e) {
+        if (failure == null) {
+            return e;
+        }
+        failure.addSuppressed(e);
+        return failure;
+    }
+
+    private class AwaitWorkUnit implements WorkUnit<PendingSends> {
+
+        private final PendingSends sends;
+
+        AwaitWorkUnit(PendingSends sends) {
+            this.sends = sends;
+        }
+
+        @Override
+        public PendingSends data() {
+            return sends;
+        }
+
+        @Override
+        public void perform() {
+            await(sends);
+        }
+
+        @Override
+        public void abort() {
+            sendsLocal.remove();
+        }
+
+        @Override
+        public Integer priority() {
+            return AWAIT_PRIORITY;
+        }
+    }
+}
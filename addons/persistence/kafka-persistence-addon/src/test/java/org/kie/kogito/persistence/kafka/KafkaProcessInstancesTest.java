@@ -21,8 +21,10 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.state.KeyValueIterator;
 import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
@@ -35,6 +37,10 @@ import org.kie.kogito.process.ProcessInstanceDuplicatedException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.WorkUnit;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -43,6 +49,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.topicName;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -143,6 +150,7 @@ public class KafkaProcessInstancesTest {
         KeyValueIterator iterator = mock(KeyValueIterator.class);
         when(iterator.hasNext()).thenReturn(true, false);
         when(iterator.next()).thenReturn(mock(KeyValue.class));
+        doCallRealMethod().when(iterator).forEachRemaining(any());
         doReturn(iterator).when(store).all();
 
         assertThat(instances.values()).hasSize(1);
@@ -154,6 +162,7 @@ public class KafkaProcessInstancesTest {
         KeyValueIterator iterator = mock(KeyValueIterator.class);
         when(iterator.hasNext()).thenReturn(true, false);
         when(iterator.next()).thenReturn(mock(KeyValue.class));
+        doCallRealMethod().when(iterator).forEachRemaining(any());
         doReturn(iterator).when(store).all();
 
         assertThat(instances.values(ProcessInstanceReadMode.MUTABLE)).hasSize(1);
@@ -254,4 +263,79 @@ public class KafkaProcessInstancesTest {
 
         assertThatExceptionOfType(ProcessInstanceDuplicatedException.class).isThrownBy(() -> instances.create(id, instance));
     }
+
+    @Test
+    public void testProcessInstancesPipelinedUpdate() {
+        KafkaWritePipeline pipeline = new KafkaWritePipeline();
+        pipeline.setEnabled(true);
+        instances = new KafkaProcessInstances(process, producer, pipeline);
+        instances.setStore(store);
+        instances.setMarshaller(marshaller);
+        CompletableFuture<RecordMetadata> ack = new CompletableFuture<>();
+        doReturn(ack).when(producer).send(any(), any());
+        AbstractProcessInstance instance = mock(AbstractProcessInstance.class);
+        byte[] data = new byte[] { 1 };
+        doReturn(data).when(marshaller).marshallProcessInstance(instance);
+        when(instance.status()).thenReturn(ProcessInstance.STATE_ACTIVE);
+
+        WorkUnit<?> await = startPipelined(pipeline);
+        instances.update(id, instance);
+
+        verify(producer, never()).send(any());
+        ArgumentCaptor<Callback> callback = ArgumentCaptor.forClass(Callback.class);
+        verify(producer).send(any(), callback.capture());
+        // not in the state store yet, read from the pending writes
+        assertThat(instances.read(id)).isEqualTo(data);
+
+        ack.complete(null);
+        callback.getValue().onCompletion(null, null);
+        await.perform();
+        verify(producer).flush();
+        pipeline.onAfterEndEvent(mock(UnitOfWorkEndEvent.class));
+        assertThat(instances.read(id)).isEqualTo(data);
+
+        doReturn(data).when(store).get(id);
+        assertThat(instances.read(id)).isEqualTo(data);
+        doReturn(null).when(store).get(id);
+        assertThat(instances.read(id)).isNull();
+    }
+
+    @Test
+    public void testProcessInstancesPipelinedRemoveFailure() {
+        KafkaWritePipeline pipeline = new KafkaWritePipeline();
+        pipeline.setEnabled(true);
+        instances = new KafkaProcessInstances(process, producer, pipeline);
+        instances.setStore(store);
+        CompletableFuture<RecordMetadata> ack = new CompletableFuture<>();
+        doReturn(ack).when(producer).send(any(), any());
+        doReturn(new byte[] {}).when(store).get(id);
+
+        WorkUnit<?> await = startPipelined(pipeline);
+        instances.remove(id);
+        assertThat(instances.exists(id)).isFalse();
+
+        RuntimeException error = new RuntimeException("broker unavailable");
+        ack.completeExceptionally(error);
+        ArgumentCaptor<Callback> callback = ArgumentCaptor.forClass(Callback.class);
+        verify(producer).send(any(), callback.capture());
+        callback.getValue().onCompletion(null, error);
+
+        assertThatExceptionOfType(RuntimeException.class).isThrownBy(await::perform)
+                .withMessage("Unable to remove process instance id: " + id)
+                .withCause(error);
+        assertThat(instances.exists(id)).isTrue();
+        assertThat(pipeline.isActive()).isFalse();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private WorkUnit<?> startPipelined(KafkaWritePipeline pipeline) {
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        pipeline.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+
+        // acknowledgements are awaited before the events of the unit of work are published
+        ArgumentCaptor<WorkUnit> await = ArgumentCaptor.forClass(WorkUnit.class);
+        verify(unitOfWork).intercept(await.capture());
+        assertThat(await.getValue().priority()).isEqualTo(KafkaWritePipeline.AWAIT_PRIORITY);
+        return await.getValue();
+    }
 }
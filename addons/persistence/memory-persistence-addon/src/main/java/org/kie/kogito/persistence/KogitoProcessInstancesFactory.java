@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence;
+
+import org.kie.kogito.persistence.memory.MemoryBudget;
+import org.kie.kogito.persistence.memory.MemoryProcessInstances;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstancesFactory;
+
+/**
+ * This class must always have exact FQCN as <code>org.kie.kogito.persistence.KogitoProcessInstancesFactory</code>
+ *
+ */
+public abstract class KogitoProcessInstancesFactory implements ProcessInstancesFactory {
+
+    private MemoryBudget budget;
+
+    public MemoryProcessInstances<?> createProcessInstances(Process<?> process) {
+        return new MemoryProcessInstances<>(process, budget());
+    }
+
+    /**
+     * Budget shared by the instances of all the processes of the application.
+     */
+    public synchronized MemoryBudget budget() {
+        if (budget == null) {
+            budget = new MemoryBudget(maxLiveInstances(), offHeapBudget());
+        }
+        return budget;
+    }
+
+    /**
+     * Number of recently used process instances kept as live objects, for all the processes.
+     */
+    public int maxLiveInstances() {
+        return 1000;
+    }
+
+    /**
+     * Bytes of off-heap memory available to the instances spilled by all the processes.
+     */
+    public long offHeapBudget() {
+        return 256L * 1024 * 1024;
+    }
+
+}
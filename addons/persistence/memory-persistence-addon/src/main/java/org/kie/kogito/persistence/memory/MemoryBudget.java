@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.memory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Memory shared by the in memory stores of an application: the number of live process instances and the off-heap
+ * segments of the spilled ones are bounded for all the processes together. The least recently used live instance
+ * of any store is the next one to be spilled. Stores synchronize on the budget they share.
+ */
+public class MemoryBudget {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryBudget.class);
+
+    static final class Key {
+
+        private final MemoryProcessInstances<?> store;
+        private final String id;
+
+        Key(MemoryProcessInstances<?> store, String id) {
+            this.store = store;
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(store) + id.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return store == other.store && Objects.equals(id, other.id);
+        }
+    }
+
+    private final int maxLiveInstances;
+    private final OffHeapSegments spilled;
+    // live instances of all the stores, access ordered, the eldest entry is the next one to spill
+    private final Map<Key, Boolean> live = new LinkedHashMap<>(16, 0.75f, true);
+    // no spill is attempted until some off-heap memory is released
+    private boolean exhausted;
+    private int stores;
+
+    public MemoryBudget(int maxLiveInstances, long offHeapBudget) {
+        this(maxLiveInstances, new OffHeapSegments(offHeapBudget));
+    }
+
+    MemoryBudget(int maxLiveInstances, OffHeapSegments spilled) {
+        if (maxLiveInstances < 0) {
+            throw new IllegalArgumentException("Maximum number of live process instances must not be negative: " + maxLiveInstances);
+        }
+        this.maxLiveInstances = maxLiveInstances;
+        this.spilled = spilled;
+    }
+
+    /**
+     * Prefix qualifying the off-heap keys of a new store, unique within this budget.
+     */
+    synchronized String newKeyPrefix() {
+        return (stores++) + ":";
+    }
+
+    OffHeapSegments spilled() {
+        return spilled;
+    }
+
+    synchronized int liveSize() {
+        return live.size();
+    }
+
+    synchronized long spilledBytes() {
+        return spilled.liveBytes();
+    }
+
+    synchronized void accessed(Key key) {
+        live.get(key);
+    }
+
+    synchronized void added(Key key) {
+        live.put(key, Boolean.TRUE);
+        spillEldest();
+    }
+
+    synchronized void removed(Key key) {
+        live.remove(key);
+    }
+
+    /**
+     * To be invoked once an off-heap entry was removed, so that spilling is attempted again.
+     */
+    synchronized void released() {
+        exhausted = false;
+    }
+
+    synchronized void spillEldest() {
+        Iterator<Key> eldest = live.keySet().iterator();
+        while (!exhausted && live.size() > maxLiveInstances && eldest.hasNext()) {
+            Key key = eldest.next();
+            switch (key.store.spill(key.id)) {
+                case SPILLED:
+                    eldest.remove();
+                    break;
+                case EXHAUSTED:
+                    exhausted = true;
+                    LOGGER.warn("Off-heap budget exhausted with {} bytes spilled, process instances are kept on heap", spilled.liveBytes());
+                    break;
+                default:
+                    // in use, it is spilled once released
+            }
+        }
+    }
+}
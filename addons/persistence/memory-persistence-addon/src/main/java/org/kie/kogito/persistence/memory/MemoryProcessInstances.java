@@ -0,0 +1,317 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jbpm.workflow.instance.WorkflowProcessInstance;
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceQuery;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.impl.AbstractProcess;
+import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.kie.kogito.uow.WorkUnit;
+
+import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
+
+/**
+ * In memory store which keeps recently used process instances as live objects, the least recently used ones are
+ * marshalled and spilled to off-heap segments. Both are bounded by a {@link MemoryBudget} shared by the stores of
+ * all the processes of the application.
+ * Spilled instances are unmarshalled on access and become live again once updated.
+ * When the off-heap budget is exhausted, instances are kept live instead, beyond the configured maximum.
+ * <p>
+ * Live instances found in mutable mode are handed out as is and are not spilled until the unit of work they were
+ * found in ends, since spilling disconnects them. Read only lookups get a view sharing the underlying instance,
+ * which remains readable even if the live instance is spilled meanwhile.
+ */
+public class MemoryProcessInstances<T> implements MutableProcessInstances<T> {
+
+    enum SpillResult {
+        SPILLED,
+        IN_USE,
+        EXHAUSTED
+    }
+
+    private final Process<T> process;
+    private final ProcessInstanceMarshallerService marshaller;
+    private final MemoryBudget budget;
+    // keys of the shared off-heap segments are qualified per store
+    private final String keyPrefix;
+    private final Map<String, ProcessInstance<T>> live = new HashMap<>();
+    private final Set<String> spilledIds = new HashSet<>();
+    // event type -> ids of the instances listening to it, and the reverse mapping to keep it up to date
+    private final Map<String, Set<String>> subscriptions = new HashMap<>();
+    private final Map<String, Set<String>> eventTypes = new HashMap<>();
+    // snapshots of live instances which did not fit in the budget, they are reloaded from it on next access
+    private final Map<String, byte[]> unspilled = new HashMap<>();
+    // live instances handed out in mutable mode, with the number of units of work using them, they are never spilled
+    private final Map<String, Integer> inUse = new HashMap<>();
+
+    public MemoryProcessInstances(Process<T> process, MemoryBudget budget) {
+        this(process, ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build(), budget);
+    }
+
+    public MemoryProcessInstances(Process<T> process, int maxLiveInstances, long offHeapBudget) {
+        this(process, new MemoryBudget(maxLiveInstances, offHeapBudget));
+    }
+
+    MemoryProcessInstances(Process<T> process, ProcessInstanceMarshallerService marshaller, MemoryBudget budget) {
+        this.process = process;
+        this.marshaller = marshaller;
+        this.budget = budget;
+        this.keyPrefix = budget.newKeyPrefix();
+    }
+
+    @Override
+    public Integer size() {
+        synchronized (budget) {
+            return live.size() + spilledIds.size();
+        }
+    }
+
+    public int liveSize() {
+        synchronized (budget) {
+            return live.size();
+        }
+    }
+
+    public long spilledBytes() {
+        synchronized (budget) {
+            long bytes = 0;
+            for (String id : spilledIds) {
+                bytes += budget.spilled().length(key(id));
+            }
+            return bytes;
+        }
+    }
+
+    private String key(String id) {
+        return keyPrefix + id;
+    }
+
+    @Override
+    public Optional<ProcessInstance<T>> findById(String id, ProcessInstanceReadMode mode) {
+        byte[] data;
+        synchronized (budget) {
+            ProcessInstance<T> instance = live.get(id);
+            if (instance != null) {
+                budget.accessed(new MemoryBudget.Key(this, id));
+                return Optional.of(handOut(id, instance, mode));
+            }
+            data = spilledIds.contains(id) ? budget.spilled().get(key(id)) : null;
+        }
+        return data == null ? Optional.empty() : Optional.of(unmarshall(data, mode));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProcessInstance<T> handOut(String id, ProcessInstance<T> instance, ProcessInstanceReadMode mode) {
+        if (mode == MUTABLE) {
+            pin(id, ((AbstractProcessInstance<?>) instance).internalGetUnitOfWorkManager());
+            return instance;
+        }
+        WorkflowProcessInstance processInstance = ((AbstractProcessInstance<?>) instance).internalGetProcessInstance();
+        if (processInstance == null) {
+            // kept live after the budget was exhausted, its state is only available from its snapshot
+            byte[] data = unspilled.get(id);
+            return data == null ? instance : unmarshall(data, mode);
+        }
+        return (ProcessInstance<T>) ((AbstractProcess<?>) process).createReadOnlyInstance(processInstance);
+    }
+
+    // the instance stays live until the unit of work it is used in ends, either way
+    private void pin(String id, UnitOfWorkManager unitOfWorkManager) {
+        if (unitOfWorkManager == null) {
+            return;
+        }
+        inUse.merge(id, 1, Integer::sum);
+        unitOfWorkManager.currentUnitOfWork().intercept(WorkUnit.create(id, this::unpin, this::unpin));
+    }
+
+    private void unpin(String id) {
+        synchronized (budget) {
+            if (inUse.computeIfPresent(id, (key, count) -> count > 1 ? count - 1 : null) == null) {
+                budget.spillEldest();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProcessInstance<T> unmarshall(byte[] data, ProcessInstanceReadMode mode) {
+        return (ProcessInstance<T>) (mode == MUTABLE ? marshaller.unmarshallProcessInstance(data, process) : marshaller.unmarshallReadOnlyProcessInstance(data, process));
+    }
+
+    @Override
+    public Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode) {
+        try (Stream<ProcessInstance<T>> stream = stream(ProcessInstanceQuery.all(), mode)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> stream(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        List<ProcessInstance<T>> liveInstances;
+        List<String> spilledInstanceIds;
+        synchronized (budget) {
+            liveInstances = new ArrayList<>(live.size());
+            // handing out may release pins and spill, so live instances are iterated over a copy
+            new ArrayList<>(live.entrySet()).forEach(entry -> liveInstances.add(handOut(entry.getKey(), entry.getValue(), mode)));
+            spilledInstanceIds = new ArrayList<>(spilledIds);
+        }
+        // spilled instances are only unmarshalled while the stream is consumed
+        Stream<ProcessInstance<T>> spilledInstances = spilledInstanceIds.stream()
+                .map(this::spilledData)
+                .filter(data -> data != null)
+                .map(data -> unmarshall(data, mode));
+        return query.apply(Stream.concat(liveInstances.stream(), spilledInstances));
+    }
+
+    private byte[] spilledData(String id) {
+        synchronized (budget) {
+            byte[] data = spilledIds.contains(id) ? budget.spilled().get(key(id)) : null;
+            return data == null ? unspilled.get(id) : data;
+        }
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> waitingForEvent(String eventType, ProcessInstanceReadMode mode) {
+        List<String> ids;
+        synchronized (budget) {
+            ids = new ArrayList<>(subscriptions.getOrDefault(eventType, Collections.emptySet()));
+        }
+        return ids.stream()
+                .map(id -> findById(id, mode))
+                .filter(Optional::isPresent)
+                .map(Optional::get);
+    }
+
+    @Override
+    public boolean exists(String id) {
+        synchronized (budget) {
+            return live.containsKey(id) || spilledIds.contains(id);
+        }
+    }
+
+    @Override
+    public void create(String id, ProcessInstance<T> instance) {
+        if (isActive(instance)) {
+            synchronized (budget) {
+                if (exists(id)) {
+                    throw new ProcessInstanceDuplicatedException(id);
+                }
+                store(id, instance);
+            }
+        }
+    }
+
+    @Override
+    public void update(String id, ProcessInstance<T> instance) {
+        if (isActive(instance)) {
+            synchronized (budget) {
+                release(id);
+                store(id, instance);
+            }
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        synchronized (budget) {
+            if (live.remove(id) != null) {
+                budget.removed(new MemoryBudget.Key(this, id));
+            }
+            unspilled.remove(id);
+            release(id);
+            Set<String> types = eventTypes.remove(id);
+            if (types != null) {
+                types.forEach(type -> unsubscribe(type, id));
+            }
+        }
+    }
+
+    private void release(String id) {
+        if (spilledIds.remove(id) && budget.spilled().remove(key(id))) {
+            budget.released();
+        }
+    }
+
+    private void store(String id, ProcessInstance<T> instance) {
+        unspilled.remove(id);
+        live.put(id, instance);
+        index(id, instance);
+        budget.added(new MemoryBudget.Key(this, id));
+    }
+
+    /**
+     * Invoked by the budget, holding its lock, to spill the given live instance.
+     */
+    SpillResult spill(String id) {
+        if (inUse.containsKey(id)) {
+            return SpillResult.IN_USE;
+        }
+        AbstractProcessInstance<?> instance = (AbstractProcessInstance<?>) live.get(id);
+        // marshalling disconnects the instance, so one which was not reloaded since can only be spilled from its snapshot
+        boolean loaded = instance.internalGetProcessInstance() != null;
+        byte[] data = loaded ? marshaller.marshallProcessInstance(instance) : unspilled.get(id);
+        SpillResult result;
+        if (budget.spilled().put(key(id), data)) {
+            live.remove(id);
+            spilledIds.add(id);
+            unspilled.remove(id);
+            result = SpillResult.SPILLED;
+        } else {
+            unspilled.put(id, data);
+            result = SpillResult.EXHAUSTED;
+        }
+        if (loaded) {
+            // a caller still holding the instance, e.g. its creator, reloads it from its snapshot on next access
+            instance.internalRemoveProcessInstance(marshaller.createdReloadFunction(() -> spilledData(id)));
+        }
+        return result;
+    }
+
+    private void index(String id, ProcessInstance<T> instance) {
+        Set<String> types = new HashSet<>(Arrays.asList(((AbstractProcessInstance<?>) instance).internalGetEventTypes()));
+        Set<String> previous = eventTypes.put(id, types);
+        if (previous != null) {
+            previous.stream().filter(type -> !types.contains(type)).forEach(type -> unsubscribe(type, id));
+        }
+        types.forEach(type -> subscriptions.computeIfAbsent(type, key -> new HashSet<>()).add(id));
+    }
+
+    private void unsubscribe(String type, String id) {
+        subscriptions.computeIfPresent(type, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
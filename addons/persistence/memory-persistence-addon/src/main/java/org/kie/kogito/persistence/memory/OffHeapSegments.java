@@ -0,0 +1,204 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.memory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Log structured store of byte arrays kept in direct buffers, outside of the java heap.
+ * Entries are appended to fixed size segments; once the budget does not allow to allocate a new segment,
+ * the segment with the fewest live bytes is compacted in place to make room. Each segment keeps track of its
+ * entries, so compacting it only visits them.
+ * This class is not thread safe, callers are expected to guard it.
+ */
+class OffHeapSegments {
+
+    static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private static class Segment {
+
+        private final ByteBuffer buffer;
+        private final Set<String> keys = new HashSet<>();
+        private int liveBytes;
+
+        private Segment(int size) {
+            this.buffer = ByteBuffer.allocateDirect(size);
+        }
+    }
+
+    private static class Location {
+
+        private final int segment;
+        private final int offset;
+        private final int length;
+
+        private Location(int segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private final long budget;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<String, Location> index = new HashMap<>();
+    private int active = -1;
+    private long liveBytes;
+
+    OffHeapSegments(long budget) {
+        this(budget, (int) Math.min(budget, DEFAULT_SEGMENT_SIZE));
+    }
+
+    OffHeapSegments(long budget, int segmentSize) {
+        if (segmentSize <= 0 || segmentSize > budget) {
+            throw new IllegalArgumentException(String.format("Segment size %d must be positive and not greater than the budget of %d bytes", segmentSize, budget));
+        }
+        this.budget = budget;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Stores the given data, replacing any previous entry with the same key.
+     *
+     * @return false when the budget does not leave room for the data, in that case no entry is kept for the key
+     */
+    boolean put(String key, byte[] data) {
+        Location previous = index.remove(key);
+        if (previous != null) {
+            release(key, previous);
+        }
+        if (data.length > segmentSize) {
+            return false;
+        }
+        Segment segment = segmentFor(data.length);
+        if (segment == null) {
+            return false;
+        }
+        int offset = segment.buffer.position();
+        segment.buffer.put(data);
+        segment.liveBytes += data.length;
+        segment.keys.add(key);
+        liveBytes += data.length;
+        index.put(key, new Location(active, offset, data.length));
+        return true;
+    }
+
+    byte[] get(String key) {
+        Location location = index.get(key);
+        return location == null ? null : read(location);
+    }
+
+    int length(String key) {
+        Location location = index.get(key);
+        return location == null ? 0 : location.length;
+    }
+
+    boolean remove(String key) {
+        Location location = index.remove(key);
+        if (location == null) {
+            return false;
+        }
+        release(key, location);
+        return true;
+    }
+
+    boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    List<String> keys() {
+        return new ArrayList<>(index.keySet());
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    long liveBytes() {
+        return liveBytes;
+    }
+
+    long allocatedBytes() {
+        return (long) segments.size() * segmentSize;
+    }
+
+    private void release(String key, Location location) {
+        Segment segment = segments.get(location.segment);
+        segment.liveBytes -= location.length;
+        segment.keys.remove(key);
+        liveBytes -= location.length;
+    }
+
+    private byte[] read(Location location) {
+        byte[] data = new byte[location.length];
+        ByteBuffer view = segments.get(location.segment).buffer.duplicate();
+        view.position(location.offset);
+        view.get(data);
+        return data;
+    }
+
+    private Segment segmentFor(int length) {
+        if (active >= 0 && segments.get(active).buffer.remaining() >= length) {
+            return segments.get(active);
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i).buffer.remaining() >= length) {
+                active = i;
+                return segments.get(i);
+            }
+        }
+        if (allocatedBytes() + segmentSize <= budget) {
+            segments.add(new Segment(segmentSize));
+            active = segments.size() - 1;
+            return segments.get(active);
+        }
+        int candidate = -1;
+        for (int i = 0; i < segments.size(); i++) {
+            if (segmentSize - segments.get(i).liveBytes >= length && (candidate < 0 || segments.get(i).liveBytes < segments.get(candidate).liveBytes)) {
+                candidate = i;
+            }
+        }
+        if (candidate < 0) {
+            return null;
+        }
+        compact(candidate);
+        active = candidate;
+        return segments.get(candidate);
+    }
+
+    private void compact(int segmentIndex) {
+        Segment segment = segments.get(segmentIndex);
+        // live entries are copied to the heap and written back contiguously, so no extra off-heap memory is needed
+        List<String> keys = new ArrayList<>(segment.keys);
+        List<byte[]> contents = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            contents.add(read(index.get(key)));
+        }
+        segment.buffer.clear();
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] data = contents.get(i);
+            index.put(keys.get(i), new Location(segmentIndex, segment.buffer.position(), data.length));
+            segment.buffer.put(data);
+        }
+    }
+}
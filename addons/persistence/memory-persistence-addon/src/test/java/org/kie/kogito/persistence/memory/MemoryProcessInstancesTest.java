@@ -0,0 +1,223 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.drools.core.io.impl.ClassPathResource;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.auth.SecurityPolicy;
+import org.kie.kogito.persistence.KogitoProcessInstancesFactory;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceQuery;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.WorkItem;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+import org.kie.kogito.services.identity.StaticIdentityProvider;
+import org.kie.kogito.uow.UnitOfWork;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ACTIVE;
+import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_COMPLETED;
+
+class MemoryProcessInstancesTest {
+
+    private SecurityPolicy securityPolicy = SecurityPolicy.of(new StaticIdentityProvider("john"));
+
+    private BpmnProcess createProcess(KogitoProcessInstancesFactory factory) {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(factory);
+        process.configure();
+        return process;
+    }
+
+    private List<ProcessInstance<BpmnVariables>> start(BpmnProcess process, String... businessKeys) {
+        List<ProcessInstance<BpmnVariables>> result = new ArrayList<>();
+        for (String businessKey : businessKeys) {
+            ProcessInstance<BpmnVariables> processInstance = process.createInstance(businessKey, BpmnVariables.create(Collections.singletonMap("test", businessKey)));
+            processInstance.start();
+            result.add(processInstance);
+        }
+        return result;
+    }
+
+    @Test
+    void testSpillAndReload() {
+        BpmnProcess process = createProcess(new MemoryProcessInstancesFactory(1, 1024 * 1024));
+        List<ProcessInstance<BpmnVariables>> started = start(process, "a", "b", "c");
+
+        MemoryProcessInstances<?> instances = (MemoryProcessInstances<?>) process.instances();
+        assertThat(instances.size()).isEqualTo(3);
+        assertThat(instances.liveSize()).isOne();
+        assertThat(instances.spilledBytes()).isPositive();
+        started.forEach(pi -> assertThat(instances.exists(pi.id())).isTrue());
+
+        ProcessInstance<BpmnVariables> spilled = process.instances().findById(started.get(0).id(), ProcessInstanceReadMode.READ_ONLY).get();
+        assertThat(spilled.status()).isEqualTo(STATE_ACTIVE);
+        assertThat(spilled.businessKey()).isEqualTo("a");
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(spilled::abort);
+
+        // the reference handed out before spilling reloads its state
+        ProcessInstance<BpmnVariables> processInstance = started.get(0);
+        assertThat(processInstance.variables().get("test")).isEqualTo("a");
+        WorkItem workItem = processInstance.workItems(securityPolicy).get(0);
+        processInstance.completeWorkItem(workItem.getId(), null, securityPolicy);
+        assertThat(processInstance.status()).isEqualTo(STATE_COMPLETED);
+
+        assertThat(instances.size()).isEqualTo(2);
+        assertThat(instances.exists(processInstance.id())).isFalse();
+    }
+
+    @Test
+    void testInstanceInUseIsNotSpilled() {
+        BpmnProcess process = createProcess(new MemoryProcessInstancesFactory(1, 1024 * 1024));
+        List<ProcessInstance<BpmnVariables>> started = start(process, "a");
+
+        UnitOfWork uow = ((AbstractProcessInstance<?>) started.get(0)).internalGetUnitOfWorkManager().newUnitOfWork();
+        uow.start();
+        ProcessInstance<BpmnVariables> inUse = process.instances().findById(started.get(0).id(), ProcessInstanceReadMode.MUTABLE).get();
+        ProcessInstance<BpmnVariables> view = process.instances().findById(started.get(0).id(), ProcessInstanceReadMode.READ_ONLY).get();
+        assertThat(inUse).isSameAs(started.get(0));
+        assertThat(view).isNotSameAs(inUse);
+        start(process, "b", "c");
+        uow.end();
+
+        // the instance handed out for modification stays connected while the others are spilled
+        MemoryProcessInstances<?> instances = (MemoryProcessInstances<?>) process.instances();
+        assertThat(instances.liveSize()).isOne();
+        assertThat(((AbstractProcessInstance<?>) inUse).internalGetProcessInstance()).isNotNull();
+        assertThat(view.businessKey()).isEqualTo("a");
+        assertThat(view.workItems(securityPolicy)).hasSize(1);
+
+        WorkItem workItem = inUse.workItems(securityPolicy).get(0);
+        inUse.completeWorkItem(workItem.getId(), null, securityPolicy);
+        assertThat(inUse.status()).isEqualTo(STATE_COMPLETED);
+        assertThat(instances.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testInstanceReleasedWhenUnitOfWorkEnds() {
+        BpmnProcess process = createProcess(new MemoryProcessInstancesFactory(1, 1024 * 1024));
+        List<ProcessInstance<BpmnVariables>> started = start(process, "a");
+
+        // the instance is not modified, so it is not written back
+        UnitOfWork uow = ((AbstractProcessInstance<?>) started.get(0)).internalGetUnitOfWorkManager().newUnitOfWork();
+        uow.start();
+        ProcessInstance<BpmnVariables> handedOut = process.instances().findById(started.get(0).id(), ProcessInstanceReadMode.MUTABLE).get();
+        uow.end();
+        start(process, "b");
+
+        MemoryProcessInstances<?> instances = (MemoryProcessInstances<?>) process.instances();
+        assertThat(instances.liveSize()).isOne();
+        assertThat(((AbstractProcessInstance<?>) handedOut).internalGetProcessInstance()).isNull();
+        assertThat(process.instances().findById(started.get(0).id(), ProcessInstanceReadMode.READ_ONLY).get().businessKey()).isEqualTo("a");
+    }
+
+    @Test
+    void testBudgetSharedByProcesses() {
+        KogitoProcessInstancesFactory factory = new MemoryProcessInstancesFactory(2, 1024 * 1024);
+        BpmnProcess first = createProcess(factory);
+        BpmnProcess second = createProcess(factory);
+        List<ProcessInstance<BpmnVariables>> started = start(first, "a", "b");
+        started.addAll(start(second, "c", "d"));
+
+        // the least recently used instances are spilled, whichever process they belong to
+        MemoryProcessInstances<?> firstInstances = (MemoryProcessInstances<?>) first.instances();
+        MemoryProcessInstances<?> secondInstances = (MemoryProcessInstances<?>) second.instances();
+        assertThat(factory.budget().liveSize()).isEqualTo(2);
+        assertThat(firstInstances.liveSize()).isZero();
+        assertThat(secondInstances.liveSize()).isEqualTo(2);
+        assertThat(factory.budget().spilledBytes()).isEqualTo(firstInstances.spilledBytes());
+
+        // instances of both processes are kept apart in the shared off-heap segments
+        assertThat(first.instances().values()).extracting(ProcessInstance::businessKey).containsExactlyInAnyOrder("a", "b");
+        assertThat(second.instances().values()).extracting(ProcessInstance::businessKey).containsExactlyInAnyOrder("c", "d");
+        for (ProcessInstance<BpmnVariables> processInstance : started) {
+            WorkItem workItem = processInstance.workItems(securityPolicy).get(0);
+            processInstance.completeWorkItem(workItem.getId(), null, securityPolicy);
+        }
+        assertThat(firstInstances.size()).isZero();
+        assertThat(secondInstances.size()).isZero();
+        assertThat(factory.budget().spilledBytes()).isZero();
+    }
+
+    @Test
+    void testStreamQuery() {
+        BpmnProcess process = createProcess(new MemoryProcessInstancesFactory(1, 1024 * 1024));
+        start(process, "a", "b", "c");
+
+        try (Stream<ProcessInstance<BpmnVariables>> stream = process.instances().stream(ProcessInstanceQuery.builder().withBusinessKey("a").build())) {
+            assertThat(stream.map(ProcessInstance::businessKey)).containsExactly("a");
+        }
+        assertThat(process.instances().values()).extracting(ProcessInstance::businessKey).containsExactlyInAnyOrder("a", "b", "c");
+    }
+
+    @Test
+    void testBudgetExhausted() {
+        BpmnProcess process = createProcess(new KogitoProcessInstancesFactory() {
+            @Override
+            public MemoryProcessInstances<?> createProcessInstances(Process<?> process) {
+                return new MemoryProcessInstances<>(process, ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build(),
+                        new MemoryBudget(1, new OffHeapSegments(16)));
+            }
+        });
+        List<ProcessInstance<BpmnVariables>> started = start(process, "a", "b");
+
+        // nothing fits in the budget, so both instances stay live
+        MemoryProcessInstances<?> instances = (MemoryProcessInstances<?>) process.instances();
+        assertThat(instances.liveSize()).isEqualTo(2);
+        assertThat(instances.spilledBytes()).isZero();
+        assertThat(Arrays.asList(process.instances().findById(started.get(0).id()).get(), process.instances().findById(started.get(1).id()).get()))
+                .containsExactlyElementsOf(started);
+
+        for (ProcessInstance<BpmnVariables> processInstance : started) {
+            WorkItem workItem = processInstance.workItems(securityPolicy).get(0);
+            processInstance.completeWorkItem(workItem.getId(), null, securityPolicy);
+            assertThat(processInstance.status()).isEqualTo(STATE_COMPLETED);
+        }
+        assertThat(instances.size()).isZero();
+    }
+
+    private static class MemoryProcessInstancesFactory extends KogitoProcessInstancesFactory {
+
+        private final int maxLiveInstances;
+        private final long offHeapBudget;
+
+        private MemoryProcessInstancesFactory(int maxLiveInstances, long offHeapBudget) {
+            this.maxLiveInstances = maxLiveInstances;
+            this.offHeapBudget = offHeapBudget;
+        }
+
+        @Override
+        public int maxLiveInstances() {
+            return maxLiveInstances;
+        }
+
+        @Override
+        public long offHeapBudget() {
+            return offHeapBudget;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class OffHeapSegmentsTest {
+
+    @Test
+    void testPutGetRemove() {
+        OffHeapSegments segments = new OffHeapSegments(64, 32);
+        assertThat(segments.put("a", new byte[] { 1, 2, 3 })).isTrue();
+        assertThat(segments.put("b", new byte[] { 4 })).isTrue();
+        assertThat(segments.put("a", new byte[] { 5, 6 })).isTrue();
+
+        assertThat(segments.get("a")).containsExactly(5, 6);
+        assertThat(segments.get("b")).containsExactly(4);
+        assertThat(segments.size()).isEqualTo(2);
+        assertThat(segments.liveBytes()).isEqualTo(3);
+
+        assertThat(segments.remove("a")).isTrue();
+        assertThat(segments.remove("a")).isFalse();
+        assertThat(segments.get("a")).isNull();
+        assertThat(segments.keys()).containsExactly("b");
+    }
+
+    @Test
+    void testCompaction() {
+        OffHeapSegments segments = new OffHeapSegments(32, 16);
+        for (int i = 0; i < 4; i++) {
+            assertThat(segments.put("key" + i, new byte[] { (byte) i, (byte) i, (byte) i, (byte) i, (byte) i, (byte) i, (byte) i, (byte) i })).isTrue();
+        }
+        assertThat(segments.allocatedBytes()).isEqualTo(32);
+        assertThat(segments.put("full", new byte[1])).isFalse();
+
+        segments.remove("key0");
+        segments.remove("key2");
+        assertThat(segments.put("key4", new byte[] { 4, 4, 4, 4, 4, 4, 4, 4 })).isTrue();
+        assertThat(segments.put("key5", new byte[] { 5, 5, 5, 5, 5, 5, 5, 5 })).isTrue();
+
+        assertThat(segments.allocatedBytes()).isEqualTo(32);
+        assertThat(segments.get("key1")).containsOnly(1);
+        assertThat(segments.get("key3")).containsOnly(3);
+        assertThat(segments.get("key4")).containsOnly(4);
+        assertThat(segments.get("key5")).containsOnly(5);
+    }
+
+    @Test
+    void testOversizedEntry() {
+        OffHeapSegments segments = new OffHeapSegments(32, 16);
+        assertThat(segments.put("key", new byte[17])).isFalse();
+        assertThat(segments.size()).isZero();
+
+        assertThat(segments.put("key", new byte[] { 1 })).isTrue();
+        assertThat(segments.put("key", new byte[17])).isFalse();
+        assertThat(segments.get("key")).isNull();
+        assertThat(segments.liveBytes()).isZero();
+        assertThatIllegalArgumentException().isThrownBy(() -> new OffHeapSegments(16, 32));
+    }
+}
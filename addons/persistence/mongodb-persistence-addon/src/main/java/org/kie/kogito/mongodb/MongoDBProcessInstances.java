@@ -16,17 +16,25 @@
 package org.kie.kogito.mongodb;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.kie.kogito.Model;
 import org.kie.kogito.mongodb.transaction.MongoDBTransactionManager;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.kie.kogito.serialization.process.MarshallerContextName;
@@ -40,9 +48,14 @@ import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
 
 import static java.util.Collections.singletonMap;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.BUSINESS_KEY;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.EVENT_TYPES;
 import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_INSTANCE_ID;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.STATE;
 import static org.kie.kogito.mongodb.utils.DocumentUtils.getCollection;
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 
@@ -62,6 +75,16 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
                 .withContextEntries(singletonMap(MarshallerContextName.MARSHALLER_FORMAT, "json"))
                 .build();
         this.transactionManager = transactionManager;
+        createEventTypesIndex();
+    }
+
+    private void createEventTypesIndex() {
+        try {
+            collection.createIndex(Indexes.ascending(EVENT_TYPES));
+        } catch (Exception e) {
+            //not break the execution flow in case of any missing permission for db application user, for instance.
+            LOGGER.warn("Error creating {} index for process {}, signals will be delivered without it", EVENT_TYPES, process.id(), e);
+        }
     }
 
     @Override
@@ -76,16 +99,53 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
 
     @Override
     public Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode) {
-        FindIterable<Document> docs = Optional.ofNullable(transactionManager.getClientSession())
-                .map(collection::find)
-                .orElseGet(collection::find);
-        List<ProcessInstance<T>> list = new ArrayList<>();
-        try (MongoCursor<Document> cursor = docs.iterator()) {
-            while (cursor.hasNext()) {
-                list.add(unmarshall(cursor.next(), mode));
+        try (Stream<ProcessInstance<T>> stream = stream(ProcessInstanceQuery.all(), mode)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> stream(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        FindIterable<Document> docs = findAll(toFilter(query));
+        if (query.isPaged()) {
+            docs = docs.sort(Sorts.ascending(PROCESS_INSTANCE_ID)).skip(query.getOffset());
+            if (query.getLimit() != ProcessInstanceQuery.UNBOUNDED) {
+                docs = docs.limit(query.getLimit());
             }
         }
-        return list;
+        return toStream(docs, mode);
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> waitingForEvent(String eventType, ProcessInstanceReadMode mode) {
+        // documents written before the event types were tracked have no such field, hence they are always included
+        return toStream(findAll(Filters.in(EVENT_TYPES, Arrays.asList(eventType, null))), mode);
+    }
+
+    private FindIterable<Document> findAll(Bson filter) {
+        return Optional.ofNullable(transactionManager.getClientSession())
+                .map(r -> collection.find(r, filter))
+                .orElseGet(() -> collection.find(filter));
+    }
+
+    private Stream<ProcessInstance<T>> toStream(FindIterable<Document> docs, ProcessInstanceReadMode mode) {
+        MongoCursor<Document> cursor = docs.iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close)
+                .map(doc -> unmarshall(doc, mode));
+    }
+
+    private Bson toFilter(ProcessInstanceQuery query) {
+        List<Bson> filters = new ArrayList<>();
+        if (query.getStatus() != null) {
+            // default values are not printed in the json format, hence a missing state means pending
+            Bson status = Filters.eq(STATE, query.getStatus());
+            filters.add(query.getStatus() == ProcessInstance.STATE_PENDING ? Filters.or(status, Filters.exists(STATE, false)) : status);
+        }
+        if (query.getBusinessKey() != null) {
+            filters.add(Filters.eq(BUSINESS_KEY, query.getBusinessKey()));
+        }
+        return filters.isEmpty() ? new Document() : Filters.and(filters);
     }
 
     private ProcessInstance<T> unmarshall(Document document, ProcessInstanceReadMode mode) {
@@ -110,7 +170,9 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
         }
 
         ClientSession clientSession = transactionManager.getClientSession();
+        String[] eventTypes = ((AbstractProcessInstance<?>) instance).internalGetEventTypes();
         Document doc = Document.parse(new String(marshaller.marshallProcessInstance(instance)));
+        doc.put(EVENT_TYPES, Arrays.asList(eventTypes));
         if (checkDuplicates) {
             if (exists(id)) {
                 throw new ProcessInstanceDuplicatedException(id);
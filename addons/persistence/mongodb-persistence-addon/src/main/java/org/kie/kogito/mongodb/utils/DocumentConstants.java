@@ -21,6 +21,9 @@ public class DocumentConstants {
     public static final String VALUE = "value";
     public static final String DOCUMENT_ID = "_id";
     public static final String PROCESS_INSTANCE_ID = "id";
+    public static final String STATE = "state";
+    public static final String BUSINESS_KEY = "businessKey";
+    public static final String EVENT_TYPES = "eventTypes";
     public static final String STRATEGIES = "strategies";
     public static final String NAME = "name";
     public static final String PROCESS_INSTANCE = "processInstance";
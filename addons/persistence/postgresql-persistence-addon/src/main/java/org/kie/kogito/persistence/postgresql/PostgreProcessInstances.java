@@ -16,47 +16,69 @@
 package org.kie.kogito.persistence.postgresql;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.ReactiveProcessInstances;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.pgclient.PgPool;
+import io.vertx.sqlclient.Cursor;
+import io.vertx.sqlclient.PreparedStatement;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowIterator;
 import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Transaction;
 import io.vertx.sqlclient.Tuple;
 
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 
 @SuppressWarnings({ "rawtypes" })
-public class PostgreProcessInstances implements MutableProcessInstances {
+public class PostgreProcessInstances implements MutableProcessInstances, ReactiveProcessInstances {
 
     private static final String VERSION = "version";
 
     private static final String PAYLOAD = "payload";
 
+    private static final String FIND_ALL = "SELECT payload FROM process_instances WHERE process_id = $1";
+    private static final String FIND_UNTRACKED = "SELECT 1 FROM process_instances WHERE process_id = $1 AND status IS NULL LIMIT 1";
+    private static final int FETCH_SIZE = 100;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(PostgreProcessInstances.class);
 
     private final Process<?> process;
@@ -65,6 +87,8 @@ public class PostgreProcessInstances implements MutableProcessInstances {
     private final boolean autoDDL;
     private final Long queryTimeoutMillis;
     private final boolean lock;
+    // every write sets status and business key, so once no untracked row is left none is ever found again
+    private volatile boolean untrackedRows = true;
 
     public PostgreProcessInstances(Process<?> process, PgPool client, boolean autoDDL, Long queryTimeoutMillis,
             boolean lock) {
@@ -89,7 +113,7 @@ public class PostgreProcessInstances implements MutableProcessInstances {
             disconnect(instance);
             return;
         }
-        insertInternal(UUID.fromString(id), marshaller.marshallProcessInstance(instance));
+        insertInternal(UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance);
         disconnect(instance);
     }
 
@@ -101,9 +125,9 @@ public class PostgreProcessInstances implements MutableProcessInstances {
             return;
         }
         if (lock) {
-            updateWithLock(UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance.version());
+            updateWithLock(UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance, instance.version());
         } else {
-            updateInternal(UUID.fromString(id), marshaller.marshallProcessInstance(instance));
+            updateInternal(UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance);
         }
         disconnect(instance);
     }
@@ -112,34 +136,60 @@ public class PostgreProcessInstances implements MutableProcessInstances {
     public void remove(String id) {
         boolean isDeleted = deleteInternal(UUID.fromString(id));
         if (lock && !isDeleted) {
-            throw uncheckedException(null, "The document with ID: %s was updated or deleted by other request.", id);
+            throw new ProcessInstanceOptimisticLockingException(id);
         }
     }
 
     @Override
     public Optional<ProcessInstance> findById(String id, ProcessInstanceReadMode mode) {
-        Optional<Row> row = findByIdInternal(UUID.fromString(id));
+        return findByIdInternal(UUID.fromString(id)).flatMap(row -> unmarshall(row, mode));
+    }
 
-        if (row.isPresent()) {
-            Optional<byte[]> payload = row
-                    .map(r -> r.getBuffer(PAYLOAD))
-                    .map(Buffer::getBytes);
-            if (payload.isPresent()) {
-                ProcessInstance<?> instance = mode == MUTABLE ? marshaller.unmarshallProcessInstance(payload.get(),
-                        process)
-                        : marshaller.unmarshallReadOnlyProcessInstance(payload.get(), process);
-                ((AbstractProcessInstance) instance).setVersion(row.get().getLong(VERSION));
-                return Optional.of(instance);
-            }
-        }
-        return Optional.empty();
+    @Override
+    public CompletionStage<Optional<ProcessInstance>> findByIdAsync(String id, ProcessInstanceReadMode mode) {
+        UUID uuid = UUID.fromString(id);
+        return withTimeout((connection, context) -> findByIdQuery(connection, uuid)
+                .thenCompose(rows -> executeBlocking(context, () -> firstRow(rows).flatMap(row -> unmarshall(row, mode)))),
+                "Error finding process instance %s", uuid);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public CompletionStage<List<ProcessInstance>> valuesAsync(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        return withTimeout((connection, context) -> untrackedRowsQuery(connection, query).thenCompose(untracked -> {
+            FindAll findAll = new FindAll(query, !untracked);
+            return findAllQuery(connection, context, findAll, mode)
+                    .thenApply(instances -> findAll.exact ? instances : (List<ProcessInstance>) query.apply((Stream) instances.stream()).collect(Collectors.toList()));
+        }), "Error finding all process instances, for processId %s", process.id());
+    }
+
+    private Optional<ProcessInstance> unmarshall(Row row, ProcessInstanceReadMode mode) {
+        return Optional.ofNullable(row.getBuffer(PAYLOAD))
+                .map(Buffer::getBytes)
+                .map(payload -> {
+                    ProcessInstance<?> instance = unmarshall(payload, mode);
+                    ((AbstractProcessInstance) instance).setVersion(row.getLong(VERSION));
+                    return instance;
+                });
+    }
+
+    private ProcessInstance<?> unmarshall(byte[] payload, ProcessInstanceReadMode mode) {
+        return mode == MUTABLE ? marshaller.unmarshallProcessInstance(payload, process) : marshaller.unmarshallReadOnlyProcessInstance(payload, process);
     }
 
     @Override
     public Collection<ProcessInstance> values(ProcessInstanceReadMode mode) {
-        return findAllInternal().stream().map(b -> mode == MUTABLE ? marshaller.unmarshallProcessInstance(b, process)
-                : marshaller.unmarshallReadOnlyProcessInstance(b, process))
-                .collect(Collectors.toList());
+        return stream(ProcessInstanceQuery.all(), mode).collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Stream<ProcessInstance> stream(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        // rows stored before status and business key were tracked have to be checked once unmarshalled, the whole
+        // query is pushed down when there is none
+        FindAll findAll = new FindAll(query, !hasUntrackedRows(query));
+        Stream<ProcessInstance> instances = findAllInternal(findAll).map(b -> unmarshall(b, mode));
+        return findAll.exact ? instances : query.apply((Stream) instances);
     }
 
     @Override
@@ -163,11 +213,11 @@ public class PostgreProcessInstances implements MutableProcessInstances {
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(supplier));
     }
 
-    private boolean insertInternal(UUID id, byte[] payload) {
+    private boolean insertInternal(UUID id, byte[] payload, ProcessInstance instance) {
         try {
             final CompletableFuture<RowSet<Row>> future = new CompletableFuture<>();
-            client.preparedQuery("INSERT INTO process_instances (id, payload, process_id, version) VALUES ($1, $2, $3, $4)")
-                    .execute(Tuple.of(id, Buffer.buffer(payload), process.id(), 1L), getAsyncResultHandler(future));
+            client.preparedQuery("INSERT INTO process_instances (id, payload, process_id, version, status, business_key) VALUES ($1, $2, $3, $4, $5, $6)")
+                    .execute(Tuple.of(id, Buffer.buffer(payload), process.id(), 1L, instance.status(), instance.businessKey()), getAsyncResultHandler(future));
             return getExecutedResult(future);
         } catch (Exception e) {
             throw uncheckedException(e, "Error inserting process instance %s", id);
@@ -178,7 +228,7 @@ public class PostgreProcessInstances implements MutableProcessInstances {
         return new RuntimeException(String.format(message, param), ex);
     }
 
-    private Handler<AsyncResult<RowSet<Row>>> getAsyncResultHandler(CompletableFuture<RowSet<Row>> future) {
+    private <T> Handler<AsyncResult<T>> getAsyncResultHandler(CompletableFuture<T> future) {
         return ar -> {
             if (ar.succeeded()) {
                 future.complete(ar.result());
@@ -188,11 +238,11 @@ public class PostgreProcessInstances implements MutableProcessInstances {
         };
     }
 
-    private boolean updateInternal(UUID id, byte[] payload) {
+    private boolean updateInternal(UUID id, byte[] payload, ProcessInstance instance) {
         try {
             final CompletableFuture<RowSet<Row>> future = new CompletableFuture<>();
-            client.preparedQuery("UPDATE process_instances SET payload = $1 WHERE id = $2")
-                    .execute(Tuple.of(Buffer.buffer(payload), id), getAsyncResultHandler(future));
+            client.preparedQuery("UPDATE process_instances SET payload = $1, status = $2, business_key = $3 WHERE id = $4")
+                    .execute(Tuple.of(Buffer.buffer(payload), instance.status(), instance.businessKey(), id), getAsyncResultHandler(future));
             return getExecutedResult(future);
         } catch (Exception e) {
             throw uncheckedException(e, "Error updating process instance %s", id);
@@ -222,7 +272,7 @@ public class PostgreProcessInstances implements MutableProcessInstances {
         }
     }
 
-    private Optional<RowSet<Row>> getResultFromFuture(CompletableFuture<RowSet<Row>> future) throws ExecutionException, TimeoutException, InterruptedException {
+    private <T> Optional<T> getResultFromFuture(CompletableFuture<T> future) throws ExecutionException, TimeoutException, InterruptedException {
         try {
             return Optional.ofNullable(future.get(queryTimeoutMillis, TimeUnit.MILLISECONDS));
         } catch (InterruptedException e) {
@@ -233,32 +283,136 @@ public class PostgreProcessInstances implements MutableProcessInstances {
 
     private Optional<Row> findByIdInternal(UUID id) {
         try {
-            final CompletableFuture<RowSet<Row>> future = new CompletableFuture<>();
-            client.preparedQuery("SELECT payload, version FROM process_instances WHERE id = $1")
-                    .execute(Tuple.of(id), getAsyncResultHandler(future));
-            return getResultFromFuture(future)
-                    .map(RowSet::iterator)
-                    .filter(Iterator::hasNext)
-                    .map(Iterator::next);
+            return getResultFromFuture(findByIdQuery(client, id)).flatMap(this::firstRow);
         } catch (Exception e) {
             throw uncheckedException(e, "Error finding process instance %s", id);
         }
     }
 
-    private List<byte[]> findAllInternal() {
+    private CompletableFuture<RowSet<Row>> findByIdQuery(SqlClient sqlClient, UUID id) {
+        final CompletableFuture<RowSet<Row>> future = new CompletableFuture<>();
+        sqlClient.preparedQuery("SELECT payload, version FROM process_instances WHERE id = $1")
+                .execute(Tuple.of(id), getAsyncResultHandler(future));
+        return future;
+    }
+
+    private Optional<Row> firstRow(RowSet<Row> rows) {
+        return Optional.ofNullable(rows)
+                .map(RowSet::iterator)
+                .filter(Iterator::hasNext)
+                .map(Iterator::next);
+    }
+
+    private boolean hasUntrackedRows(ProcessInstanceQuery query) {
         try {
-            final CompletableFuture<RowSet<Row>> future = new CompletableFuture<>();
-            client.preparedQuery("SELECT payload FROM process_instances WHERE process_id = $1")
-                    .execute(Tuple.of(process.id()), getAsyncResultHandler(future));
-            return getResultFromFuture(future)
-                    .map(r -> StreamSupport.stream(r.spliterator(), false)
-                            .map(row -> row.getBuffer(PAYLOAD))
-                            .map(Buffer::getBytes)
-                            .collect(Collectors.toList()))
-                    .orElseGet(Collections::emptyList);
+            return getResultFromFuture(untrackedRowsQuery(client, query)).orElse(true);
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error finding process instances without status, for processId %s", process.id());
+        }
+    }
+
+    /**
+     * Whether rows stored before status and business key were tracked may have to be checked to resolve the filter
+     * of the given query.
+     */
+    private CompletableFuture<Boolean> untrackedRowsQuery(SqlClient sqlClient, ProcessInstanceQuery query) {
+        if (!query.hasFilter() || !untrackedRows) {
+            return CompletableFuture.completedFuture(false);
+        }
+        final CompletableFuture<RowSet<Row>> future = new CompletableFuture<>();
+        sqlClient.preparedQuery(FIND_UNTRACKED).execute(Tuple.of(process.id()), getAsyncResultHandler(future));
+        return future.thenApply(rows -> {
+            untrackedRows = rows.iterator().hasNext();
+            return untrackedRows;
+        });
+    }
+
+    /**
+     * Reads the payloads through a cursor, so that only one fetch of rows is held at a time.
+     */
+    private Stream<byte[]> findAllInternal(FindAll findAll) {
+        RowCursor cursor = new RowCursor();
+        try {
+            cursor.open(findAll);
         } catch (Exception e) {
+            cursor.close();
             throw uncheckedException(e, "Error finding all process instances, for processId %s", process.id());
         }
+        return StreamSupport.stream(cursor, false)
+                .onClose(cursor::close)
+                .map(row -> row.getBuffer(PAYLOAD))
+                .map(Buffer::getBytes);
+    }
+
+    /**
+     * Non blocking counterpart of {@link #findAllInternal(FindAll)}: one fetch of rows is read at a time, and its
+     * payloads are unmarshalled on a worker thread before the next one is read.
+     */
+    private CompletableFuture<List<ProcessInstance>> findAllQuery(SqlConnection connection, Context context, FindAll findAll, ProcessInstanceReadMode mode) {
+        final CompletableFuture<Transaction> begun = new CompletableFuture<>();
+        connection.begin(getAsyncResultHandler(begun));
+        return begun.thenCompose(transaction -> {
+            final CompletableFuture<PreparedStatement> prepared = new CompletableFuture<>();
+            connection.prepare(findAll.sql, getAsyncResultHandler(prepared));
+            return prepared.thenCompose(statement -> read(statement.cursor(findAll.params), context, mode, new ArrayList<>()))
+                    // read only, nothing to commit
+                    .whenComplete((instances, error) -> transaction.rollback());
+        });
+    }
+
+    private CompletableFuture<List<ProcessInstance>> read(Cursor cursor, Context context, ProcessInstanceReadMode mode, List<ProcessInstance> instances) {
+        if (!cursor.hasMore()) {
+            return CompletableFuture.completedFuture(instances);
+        }
+        final CompletableFuture<RowSet<Row>> fetched = new CompletableFuture<>();
+        cursor.read(FETCH_SIZE, getAsyncResultHandler(fetched));
+        return fetched.thenCompose(rows -> executeBlocking(context, () -> {
+            for (Row row : rows) {
+                instances.add(unmarshall(row.getBuffer(PAYLOAD).getBytes(), mode));
+            }
+            return instances;
+        })).thenCompose(next -> read(cursor, context, mode, next));
+    }
+
+    /**
+     * Runs the given task on a worker thread, unmarshalling is too expensive to be run on the event loop. The
+     * returned stage is completed back on the given context.
+     */
+    private <T> CompletableFuture<T> executeBlocking(Context context, Supplier<T> task) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        context.<T> executeBlocking(promise -> promise.complete(task.get()), false, getAsyncResultHandler(future));
+        return future;
+    }
+
+    /**
+     * Runs the query on a pooled connection and fails the returned stage once the query timeout elapses. The timeout
+     * is a timer of the connection's event loop, so no thread is blocked or dedicated to waiting.
+     */
+    private <T> CompletableFuture<T> withTimeout(BiFunction<SqlConnection, Context, CompletableFuture<T>> query, String message, Object... param) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        client.<T> withConnection(connection -> {
+            Promise<T> promise = Promise.promise();
+            Context context = Vertx.currentContext();
+            Vertx vertx = context.owner();
+            long timer = vertx.setTimer(queryTimeoutMillis, id -> promise.tryFail(new TimeoutException()));
+            query.apply(connection, context).whenComplete((value, error) -> {
+                vertx.cancelTimer(timer);
+                if (error != null) {
+                    promise.tryFail(error);
+                } else {
+                    promise.tryComplete(value);
+                }
+            });
+            return promise.future();
+        }, ar -> {
+            if (ar.succeeded()) {
+                result.complete(ar.result());
+            } else {
+                Throwable error = ar.cause();
+                result.completeExceptionally(uncheckedException(error instanceof Exception ? (Exception) error : new ExecutionException(error), message, param));
+            }
+        });
+        return result;
     }
 
     private Long countInternal() {
@@ -309,8 +463,9 @@ public class PostgreProcessInstances implements MutableProcessInstances {
                             return futureCreate;
                         })
                         .orElseGet(() -> {
-                            futureCreate.complete(null);
                             LOGGER.info("Table process_instances already exists.");
+                            // adds the columns introduced since the table was created
+                            client.query(getQueryFromFile("update_tables")).execute(getAsyncResultHandler(futureCreate));
                             return futureCreate;
                         });
             });
@@ -342,21 +497,120 @@ public class PostgreProcessInstances implements MutableProcessInstances {
         }
     }
 
-    private boolean updateWithLock(UUID id, byte[] payload, long version) {
+    private boolean updateWithLock(UUID id, byte[] payload, ProcessInstance instance, long version) {
+        boolean result = false;
         try {
             final CompletableFuture<RowSet<Row>> future = new CompletableFuture<>();
-            client.preparedQuery("UPDATE process_instances SET payload = $1, version = $2 WHERE id = $3 and version = $4")
-                    .execute(Tuple.of(Buffer.buffer(payload), version + 1, id, version), getAsyncResultHandler(future));
-            boolean result = getExecutedResult(future);
-            if (!result) {
-                throw uncheckedException(null, "The document with ID: %s was updated or deleted by other request.", id);
-            }
-            return result;
+            client.preparedQuery("UPDATE process_instances SET payload = $1, version = $2, status = $3, business_key = $4 WHERE id = $5 and version = $6")
+                    .execute(Tuple.of(Buffer.buffer(payload), version + 1, instance.status(), instance.businessKey(), id, version), getAsyncResultHandler(future));
+            result = getExecutedResult(future);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         } catch (Exception e) {
             throw uncheckedException(e, "Error updating process instance %s", id);
         }
-        return false;
+        if (!result) {
+            throw new ProcessInstanceOptimisticLockingException(id.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Query finding the instances matching a {@link ProcessInstanceQuery}: when exact, filter and page are resolved
+     * by the database, otherwise rows that may match the filter are returned, without paging.
+     */
+    private class FindAll {
+
+        private final boolean exact;
+        private final String sql;
+        private final Tuple params;
+
+        private FindAll(ProcessInstanceQuery query, boolean exact) {
+            this.exact = exact;
+            StringBuilder builder = new StringBuilder(FIND_ALL);
+            this.params = Tuple.of(process.id());
+            if (query.getStatus() != null) {
+                params.addInteger(query.getStatus());
+                builder.append(exact ? " AND status = $" : " AND (status IS NULL OR status = $").append(params.size()).append(exact ? "" : ")");
+            }
+            if (query.getBusinessKey() != null) {
+                params.addString(query.getBusinessKey());
+                builder.append(exact ? " AND business_key = $" : " AND (status IS NULL OR business_key = $").append(params.size()).append(exact ? "" : ")");
+            }
+            if (exact && query.isPaged()) {
+                params.addLong(query.getLimit() == ProcessInstanceQuery.UNBOUNDED ? Long.MAX_VALUE : (long) query.getLimit());
+                params.addLong((long) query.getOffset());
+                builder.append(" ORDER BY id LIMIT $").append(params.size() - 1).append(" OFFSET $").append(params.size());
+            }
+            this.sql = builder.toString();
+        }
+    }
+
+    /**
+     * Blocking iteration over the rows of a query, read through a cursor of a transaction of its own, which is
+     * rolled back and whose connection is released once closed.
+     */
+    private class RowCursor extends Spliterators.AbstractSpliterator<Row> {
+
+        private SqlConnection connection;
+        private Transaction transaction;
+        private Cursor cursor;
+        private Iterator<Row> rows = Collections.emptyIterator();
+
+        private RowCursor() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        private void open(FindAll findAll) throws Exception {
+            CompletableFuture<SqlConnection> connected = new CompletableFuture<>();
+            client.getConnection(getAsyncResultHandler(connected));
+            connection = get(connected);
+            CompletableFuture<Transaction> begun = new CompletableFuture<>();
+            connection.begin(getAsyncResultHandler(begun));
+            transaction = get(begun);
+            CompletableFuture<PreparedStatement> prepared = new CompletableFuture<>();
+            connection.prepare(findAll.sql, getAsyncResultHandler(prepared));
+            cursor = get(prepared).cursor(findAll.params);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Row> action) {
+            if (!rows.hasNext()) {
+                if (cursor == null || !cursor.hasMore()) {
+                    return false;
+                }
+                try {
+                    CompletableFuture<RowSet<Row>> fetched = new CompletableFuture<>();
+                    cursor.read(FETCH_SIZE, getAsyncResultHandler(fetched));
+                    rows = get(fetched).iterator();
+                } catch (Exception e) {
+                    throw uncheckedException(e, "Error finding all process instances, for processId %s", process.id());
+                }
+                if (!rows.hasNext()) {
+                    return false;
+                }
+            }
+            action.accept(rows.next());
+            return true;
+        }
+
+        private void close() {
+            // read only, nothing to commit, closing the connection releases the cursor and the transaction
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            if (connection != null) {
+                connection.close();
+            }
+        }
+
+        private <T> T get(CompletableFuture<T> future) throws Exception {
+            try {
+                return future.get(queryTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        }
     }
 }
@@ -0,0 +1,2 @@
+ALTER TABLE process_instances ADD COLUMN IF NOT EXISTS status integer;
+ALTER TABLE process_instances ADD COLUMN IF NOT EXISTS business_key character varying;
\ No newline at end of file
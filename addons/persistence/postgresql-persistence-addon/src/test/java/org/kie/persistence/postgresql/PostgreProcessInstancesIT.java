@@ -16,6 +16,7 @@
 package org.kie.persistence.postgresql;
 
 import java.util.Collections;
+import java.util.stream.Stream;
 
 import org.drools.core.io.impl.ClassPathResource;
 import org.junit.jupiter.api.AfterAll;
@@ -28,6 +29,7 @@ import org.kie.kogito.persistence.postgresql.PostgreProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessConfig;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.WorkItem;
 import org.kie.kogito.process.bpmn2.BpmnProcess;
@@ -119,6 +121,23 @@ class PostgreProcessInstancesIT {
         assertThat(process.instances().values()).isEmpty();
     }
 
+    @Test
+    void testFilteredPagedQuery() {
+        BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
+        for (String businessKey : new String[] { "a", "b", "a", "a" }) {
+            process.createInstance(businessKey, BpmnVariables.create(Collections.singletonMap("test", businessKey))).start();
+        }
+
+        ProcessInstanceQuery query = ProcessInstanceQuery.builder().withBusinessKey("a").withStatus(STATE_ACTIVE).withOffset(1).withLimit(5).build();
+        try (Stream<ProcessInstance<BpmnVariables>> instances = process.instances().stream(query, ProcessInstanceReadMode.READ_ONLY)) {
+            assertThat(instances.map(ProcessInstance::businessKey)).containsExactly("a", "a");
+        }
+        try (Stream<ProcessInstance<BpmnVariables>> instances = process.instances().stream(ProcessInstanceQuery.builder().withBusinessKey("b").build())) {
+            assertThat(instances.count()).isOne();
+        }
+        process.instances().values(ProcessInstanceReadMode.MUTABLE).forEach(ProcessInstance::abort);
+    }
+
     private class PostgreProcessInstancesFactory extends KogitoProcessInstancesFactory {
 
         public PostgreProcessInstancesFactory(PgPool client) {
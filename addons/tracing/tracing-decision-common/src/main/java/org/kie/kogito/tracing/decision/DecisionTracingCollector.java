@@ -15,18 +15,23 @@
  */
 package org.kie.kogito.tracing.decision;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 import org.kie.dmn.api.core.DMNModel;
 import org.kie.kogito.cloudevents.CloudEventUtils;
 import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.tracing.decision.aggregator.Aggregation;
 import org.kie.kogito.tracing.decision.aggregator.Aggregator;
 import org.kie.kogito.tracing.decision.aggregator.DefaultAggregator;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
@@ -37,18 +42,44 @@ import org.slf4j.LoggerFactory;
 
 public class DecisionTracingCollector {
 
+    public static final int DEFAULT_MAX_PENDING_EXECUTIONS = 10000;
+    public static final long DEFAULT_PENDING_EXECUTION_TTL_MILLIS = 60000L;
+
     private static final Logger LOG = LoggerFactory.getLogger(DecisionTracingCollector.class);
 
-    private final Map<String, List<EvaluateEvent>> cacheMap;
-    private final Map<String, TerminationDetector> terminationDetectorMap;
+    private static class PendingExecution {
+
+        private final Aggregation aggregation;
+        private final TerminationDetector terminationDetector;
+        private volatile long lastEventNanos;
+
+        private PendingExecution(Aggregation aggregation, TerminationDetector terminationDetector) {
+            this.aggregation = aggregation;
+            this.terminationDetector = terminationDetector;
+        }
+    }
+
+    private final Map<String, PendingExecution> pendingExecutions;
+    // executions dropped or evicted, whose remaining events must not start a new aggregation
+    private final Map<String, Boolean> discardedExecutions;
     private final Aggregator aggregator;
     private final Consumer<String> payloadConsumer;
     private final BiFunction<String, String, DMNModel> modelSupplier;
     private final Supplier<TerminationDetector> terminationDetectorSupplier;
     private final ConfigBean configBean;
+    private final int maxPendingExecutions;
+    private final long pendingExecutionTtlNanos;
+    private final PayloadEncoding payloadEncoding;
+    private final LongSupplier nanoClock;
+    private final AtomicLong nextEviction;
 
     public DecisionTracingCollector(Consumer<String> payloadConsumer, BiFunction<String, String, DMNModel> modelSupplier, ConfigBean configBean) {
-        this(new DefaultAggregator(), payloadConsumer, modelSupplier, CounterTerminationDetector::new, configBean);
+        this(payloadConsumer, modelSupplier, configBean, DEFAULT_MAX_PENDING_EXECUTIONS, DEFAULT_PENDING_EXECUTION_TTL_MILLIS, PayloadEncoding.JSON);
+    }
+
+    public DecisionTracingCollector(Consumer<String> payloadConsumer, BiFunction<String, String, DMNModel> modelSupplier, ConfigBean configBean,
+            int maxPendingExecutions, long pendingExecutionTtlMillis, PayloadEncoding payloadEncoding) {
+        this(new DefaultAggregator(), payloadConsumer, modelSupplier, CounterTerminationDetector::new, configBean, maxPendingExecutions, pendingExecutionTtlMillis, payloadEncoding);
     }
 
     public DecisionTracingCollector(
@@ -57,47 +88,124 @@ public class DecisionTracingCollector {
             BiFunction<String, String, DMNModel> modelSupplier,
             Supplier<TerminationDetector> terminationDetectorSupplier,
             ConfigBean configBean) {
-        this.cacheMap = new ConcurrentHashMap<>();
-        this.terminationDetectorMap = new ConcurrentHashMap<>();
+        this(aggregator, payloadConsumer, modelSupplier, terminationDetectorSupplier, configBean, DEFAULT_MAX_PENDING_EXECUTIONS, DEFAULT_PENDING_EXECUTION_TTL_MILLIS,
+                PayloadEncoding.JSON);
+    }
+
+    /**
+     * @param maxPendingExecutions maximum number of executions aggregated at the same time, events of further
+     *        executions are dropped until some of them terminate
+     * @param pendingExecutionTtlMillis executions without any event for longer are evicted without producing a trace
+     * @param payloadEncoding encoding of the payloads handed to the consumer
+     */
+    public DecisionTracingCollector(
+            Aggregator aggregator,
+            Consumer<String> payloadConsumer,
+            BiFunction<String, String, DMNModel> modelSupplier,
+            Supplier<TerminationDetector> terminationDetectorSupplier,
+            ConfigBean configBean,
+            int maxPendingExecutions,
+            long pendingExecutionTtlMillis,
+            PayloadEncoding payloadEncoding) {
+        this(aggregator, payloadConsumer, modelSupplier, terminationDetectorSupplier, configBean, maxPendingExecutions, pendingExecutionTtlMillis, payloadEncoding,
+                System::nanoTime);
+    }
+
+    DecisionTracingCollector(
+            Aggregator aggregator,
+            Consumer<String> payloadConsumer,
+            BiFunction<String, String, DMNModel> modelSupplier,
+            Supplier<TerminationDetector> terminationDetectorSupplier,
+            ConfigBean configBean,
+            int maxPendingExecutions,
+            long pendingExecutionTtlMillis,
+            PayloadEncoding payloadEncoding,
+            LongSupplier nanoClock) {
+        if (maxPendingExecutions <= 0) {
+            throw new IllegalArgumentException("Maximum number of pending executions must be positive: " + maxPendingExecutions);
+        }
+        if (pendingExecutionTtlMillis <= 0) {
+            throw new IllegalArgumentException("Pending execution TTL must be positive: " + pendingExecutionTtlMillis);
+        }
+        this.pendingExecutions = new ConcurrentHashMap<>();
+        this.discardedExecutions = Collections.synchronizedMap(new LinkedHashMap<String, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxPendingExecutions;
+            }
+        });
         this.aggregator = aggregator;
         this.payloadConsumer = payloadConsumer;
         this.modelSupplier = modelSupplier;
         this.terminationDetectorSupplier = terminationDetectorSupplier;
         this.configBean = configBean;
+        this.maxPendingExecutions = maxPendingExecutions;
+        this.pendingExecutionTtlNanos = TimeUnit.MILLISECONDS.toNanos(pendingExecutionTtlMillis);
+        this.payloadEncoding = payloadEncoding;
+        this.nanoClock = nanoClock;
+        this.nextEviction = new AtomicLong(nanoClock.getAsLong() + pendingExecutionTtlNanos / 2);
     }
 
     public void addEvent(EvaluateEvent event) {
         LOG.trace("Received {}(executionId: {}, modelName: {}, modelNamespace: {})", event.getType(), event.getExecutionId(), event.getModelName(), event.getModelNamespace());
 
         String executionId = event.getExecutionId();
-        if (!cacheMap.containsKey(executionId)) {
-            cacheMap.put(executionId, new LinkedList<>());
-            terminationDetectorMap.put(executionId, terminationDetectorSupplier.get());
-            LOG.trace("Added evaluation {} to cache (current size: {})", executionId, cacheMap.size());
+        long now = nanoClock.getAsLong();
+        evictExpired(now);
+
+        PendingExecution execution = pendingExecutions.get(executionId);
+        if (execution == null) {
+            if (discardedExecutions.containsKey(executionId)) {
+                return;
+            }
+            if (pendingExecutions.size() >= maxPendingExecutions) {
+                LOG.debug("Dropped evaluation {}, {} evaluations are already pending", executionId, pendingExecutions.size());
+                discardedExecutions.put(executionId, Boolean.TRUE);
+                return;
+            }
+            DMNModel dmnModel = modelSupplier.apply(event.getModelNamespace(), event.getModelName());
+            execution = new PendingExecution(aggregator.start(dmnModel, executionId, configBean), terminationDetectorSupplier.get());
+            pendingExecutions.put(executionId, execution);
+            LOG.trace("Added evaluation {} to cache (current size: {})", executionId, pendingExecutions.size());
         }
 
-        cacheMap.get(executionId).add(event);
-        terminationDetectorMap.get(executionId).add(event);
+        execution.lastEventNanos = now;
+        execution.aggregation.add(event);
+        execution.terminationDetector.add(event);
 
-        if (terminationDetectorMap.get(executionId).isTerminated()) {
-            DMNModel dmnModel = modelSupplier.apply(event.getModelNamespace(), event.getModelName());
-            Optional<String> optPayload = aggregate(dmnModel, executionId, cacheMap.get(executionId));
+        if (execution.terminationDetector.isTerminated()) {
+            pendingExecutions.remove(executionId);
+            Optional<String> optPayload = execution.aggregation.complete().flatMap(CloudEventUtils::encode);
 
             if (optPayload.isPresent()) {
                 String payload = optPayload.get();
-                payloadConsumer.accept(payload);
+                payloadConsumer.accept(payloadEncoding.encode(payload));
                 LOG.debug("Generated aggregated event for evaluation {} (length {})", executionId, payload.length());
             } else {
                 LOG.error("Failed aggregating data for evaluation {}", executionId);
             }
 
-            cacheMap.remove(executionId);
-            terminationDetectorMap.remove(executionId);
-            LOG.trace("Removed evaluation {} from cache (current size: {})", executionId, cacheMap.size());
+            LOG.trace("Removed evaluation {} from cache (current size: {})", executionId, pendingExecutions.size());
         }
     }
 
-    private Optional<String> aggregate(DMNModel model, String executionId, List<EvaluateEvent> events) {
-        return aggregator.aggregate(model, executionId, events, configBean).flatMap(CloudEventUtils::encode);
+    public int getPendingExecutions() {
+        return pendingExecutions.size();
+    }
+
+    private void evictExpired(long now) {
+        long next = nextEviction.get();
+        if (now - next < 0 || !nextEviction.compareAndSet(next, now + pendingExecutionTtlNanos / 2)) {
+            return;
+        }
+        Iterator<Map.Entry<String, PendingExecution>> iterator = pendingExecutions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, PendingExecution> entry = iterator.next();
+            if (now - entry.getValue().lastEventNanos > pendingExecutionTtlNanos) {
+                iterator.remove();
+                discardedExecutions.put(entry.getKey(), Boolean.TRUE);
+                LOG.warn("Evicted evaluation {} which did not terminate within {} ms", entry.getKey(), TimeUnit.NANOSECONDS.toMillis(pendingExecutionTtlNanos));
+            }
+        }
     }
 }
@@ -35,11 +35,17 @@ import static org.kie.kogito.explainability.Constants.SKIP_TRACING;
 public class DecisionTracingListener implements DMNRuntimeEventListener {
 
     private Consumer<EvaluateEvent> eventConsumer;
+    private DecisionTracingSampler sampler = DecisionTracingSampler.ALWAYS;
 
     public DecisionTracingListener(Consumer<EvaluateEvent> eventConsumer) {
         this.eventConsumer = eventConsumer;
     }
 
+    public DecisionTracingListener(Consumer<EvaluateEvent> eventConsumer, DecisionTracingSampler sampler) {
+        this.eventConsumer = eventConsumer;
+        this.sampler = sampler;
+    }
+
     protected DecisionTracingListener() {
     }
 
@@ -47,9 +53,13 @@ public class DecisionTracingListener implements DMNRuntimeEventListener {
         this.eventConsumer = eventConsumer;
     }
 
+    protected void setSampler(DecisionTracingSampler sampler) {
+        this.sampler = sampler;
+    }
+
     @Override
     public void beforeEvaluateAll(org.kie.dmn.api.core.event.BeforeEvaluateAllEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        commonHandleEvent(EvaluateEvent::from, event, event.getModelName());
     }
 
     @Override
@@ -89,7 +99,7 @@ public class DecisionTracingListener implements DMNRuntimeEventListener {
 
     @Override
     public void beforeEvaluateDecisionService(org.kie.dmn.api.core.event.BeforeEvaluateDecisionServiceEvent event) {
-        commonHandleEvent(EvaluateEvent::from, event);
+        commonHandleEvent(EvaluateEvent::from, event, event.getDecisionService().getModelName());
     }
 
     @Override
@@ -108,7 +118,12 @@ public class DecisionTracingListener implements DMNRuntimeEventListener {
     }
 
     private <T extends DMNEvent> void commonHandleEvent(Function<T, EvaluateEvent> factory, T event) {
-        if (!isTracingEnabled(event.getResult().getContext().getMetadata())) {
+        commonHandleEvent(factory, event, null);
+    }
+
+    private <T extends DMNEvent> void commonHandleEvent(Function<T, EvaluateEvent> factory, T event, String modelName) {
+        // sampling is checked before the event is created, evaluations left out don't allocate anything
+        if (!isTracingEnabled(event.getResult().getContext().getMetadata()) && sampler.isSampled(event.getResult().getContext(), modelName)) {
             eventConsumer.accept(factory.apply(event));
         }
     }
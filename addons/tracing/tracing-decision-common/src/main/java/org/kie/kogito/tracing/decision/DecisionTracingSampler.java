@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.tracing.decision;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.kie.dmn.api.core.DMNContext;
+import org.kie.kogito.decision.DecisionExecutionIdUtils;
+
+/**
+ * Head-based sampling of decision evaluations. Whether an evaluation is traced is decided once, when its
+ * first event is received, and recorded in the metadata of the evaluation context so that no event is
+ * created for the evaluations left out.
+ */
+public class DecisionTracingSampler {
+
+    public static final DecisionTracingSampler ALWAYS = new DecisionTracingSampler(1.0, Collections.emptyMap());
+
+    private static final String SAMPLING_KEY = "__kogito_tracing_sampling__";
+
+    private static class Sampling {
+
+        private final String executionId;
+        private final boolean sampled;
+
+        private Sampling(String executionId, boolean sampled) {
+            this.executionId = executionId;
+            this.sampled = sampled;
+        }
+    }
+
+    private final double rate;
+    private final Map<String, Double> modelRates;
+
+    /**
+     * @param rate fraction of the evaluations to trace, between 0 and 1
+     * @param modelRates rates overriding the default one, by model name
+     */
+    public DecisionTracingSampler(double rate, Map<String, Double> modelRates) {
+        this.rate = checkRate(rate);
+        this.modelRates = new HashMap<>(modelRates);
+        this.modelRates.values().forEach(DecisionTracingSampler::checkRate);
+    }
+
+    /**
+     * @param rate fraction of the evaluations to trace, between 0 and 1
+     * @param modelRates comma separated list of <code>modelName=rate</code> overrides, can be null or empty
+     */
+    public static DecisionTracingSampler of(double rate, String modelRates) {
+        Map<String, Double> rates = new HashMap<>();
+        if (modelRates != null) {
+            for (String modelRate : modelRates.split(",")) {
+                if (modelRate.trim().isEmpty()) {
+                    continue;
+                }
+                int separator = modelRate.lastIndexOf('=');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Invalid decision tracing model sampling rate " + modelRate + ", expected modelName=rate");
+                }
+                rates.put(modelRate.substring(0, separator).trim(), Double.parseDouble(modelRate.substring(separator + 1).trim()));
+            }
+        }
+        return rates.isEmpty() && rate >= 1.0 ? ALWAYS : new DecisionTracingSampler(rate, rates);
+    }
+
+    /**
+     * Whether the evaluation the context belongs to is traced.
+     *
+     * @param context context of the evaluation
+     * @param modelName name of the evaluated model, only needed for the first event of the evaluation
+     */
+    public boolean isSampled(DMNContext context, String modelName) {
+        if (this == ALWAYS) {
+            return true;
+        }
+        String executionId = DecisionExecutionIdUtils.get(context);
+        Object current = context.getMetadata().get(SAMPLING_KEY);
+        if (current instanceof Sampling && Objects.equals(((Sampling) current).executionId, executionId)) {
+            return ((Sampling) current).sampled;
+        }
+        boolean sampled = sample(modelName);
+        context.getMetadata().set(SAMPLING_KEY, new Sampling(executionId, sampled));
+        return sampled;
+    }
+
+    private boolean sample(String modelName) {
+        double modelRate = modelName == null ? rate : modelRates.getOrDefault(modelName, rate);
+        return modelRate >= 1.0 || modelRate > 0.0 && ThreadLocalRandom.current().nextDouble() < modelRate;
+    }
+
+    private static double checkRate(double rate) {
+        if (rate < 0.0 || rate > 1.0) {
+            throw new IllegalArgumentException("Decision tracing sampling rate must be between 0 and 1: " + rate);
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.tracing.decision;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding of the aggregated trace payloads handed to the event emitter.
+ */
+public enum PayloadEncoding {
+
+    /**
+     * Plain JSON CloudEvent, the default
+     */
+    JSON {
+        @Override
+        public String encode(String payload) {
+            return payload;
+        }
+    },
+    /**
+     * GZIP compressed JSON CloudEvent. Emitters only carry strings, so the compressed bytes are Base64 encoded.
+     */
+    GZIP {
+        @Override
+        public String encode(String payload) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length() / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+                gzip.write(payload.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return Base64.getEncoder().encodeToString(bytes.toByteArray());
+        }
+    };
+
+    public abstract String encode(String payload);
+
+    public static PayloadEncoding from(String value) {
+        for (PayloadEncoding encoding : values()) {
+            if (encoding.name().equalsIgnoreCase(value.trim())) {
+                return encoding;
+            }
+        }
+        throw new IllegalArgumentException("Unknown decision tracing payload encoding " + value);
+    }
+}
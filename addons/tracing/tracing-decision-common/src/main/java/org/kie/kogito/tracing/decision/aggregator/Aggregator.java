@@ -28,4 +28,13 @@ import io.cloudevents.CloudEvent;
 public interface Aggregator {
 
     Optional<CloudEvent> aggregate(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean);
+
+    /**
+     * Starts the aggregation of a new execution. By default events are buffered and aggregated
+     * all together when the execution terminates, implementations able to aggregate one event
+     * at a time should override it.
+     */
+    default Aggregation start(DMNModel model, String executionId, ConfigBean configBean) {
+        return new BufferingAggregation(this, model, executionId, configBean);
+    }
 }
@@ -18,11 +18,11 @@ package org.kie.kogito.tracing.decision.aggregator;
 import java.net.URI;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -78,9 +78,119 @@ public class DefaultAggregator implements Aggregator {
 
     @Override
     public Optional<CloudEvent> aggregate(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean) {
-        return events == null || events.isEmpty()
-                ? buildNotEnoughDataCloudEvent(model, executionId, configBean)
-                : buildDefaultCloudEvent(model, executionId, events, configBean);
+        if (events == null || events.isEmpty()) {
+            return buildNotEnoughDataCloudEvent(model, executionId, configBean);
+        }
+        Aggregation aggregation = start(model, executionId, configBean);
+        events.forEach(aggregation::add);
+        return aggregation.complete();
+    }
+
+    @Override
+    public Aggregation start(DMNModel model, String executionId, ConfigBean configBean) {
+        return new DefaultAggregation(model, executionId, configBean);
+    }
+
+    /**
+     * Builds the execution steps as events arrive, so that only the first event (inputs) and the latest one
+     * (outputs, once the execution terminates) are retained. Since the last event is only known when the
+     * aggregation completes, each event is processed when the following one is added.
+     */
+    private static class DefaultAggregation implements Aggregation {
+
+        private final DMNModel model;
+        private final String executionId;
+        private final ConfigBean configBean;
+        private final List<TraceExecutionStep> executionSteps = new ArrayList<>();
+        private final Deque<DefaultAggregatorStackEntry> stack = new ArrayDeque<>();
+        private EvaluateEvent firstEvent;
+        private EvaluateEvent pendingEvent;
+        // set when the hierarchy can't be built, steps are then listed without parent-child relations
+        private List<TraceExecutionStep> flatExecutionSteps;
+        private Message hierarchyMessage;
+
+        private DefaultAggregation(DMNModel model, String executionId, ConfigBean configBean) {
+            this.model = model;
+            this.executionId = executionId;
+            this.configBean = configBean;
+        }
+
+        @Override
+        public void add(EvaluateEvent event) {
+            if (firstEvent == null) {
+                firstEvent = event;
+                return;
+            }
+            if (pendingEvent != null) {
+                process(pendingEvent);
+            }
+            pendingEvent = event;
+        }
+
+        @Override
+        public Optional<CloudEvent> complete() {
+            if (firstEvent == null) {
+                return buildNotEnoughDataCloudEvent(model, executionId, configBean);
+            }
+            if (flatExecutionSteps == null && !stack.isEmpty()) {
+                flatten(new IllegalStateException("Can't match all after events with corresponding before events"));
+            }
+            EvaluateEvent lastEvent = firstEvent;
+            if (pendingEvent != null) {
+                lastEvent = pendingEvent;
+                if (flatExecutionSteps != null) {
+                    addFlat(pendingEvent);
+                }
+            }
+            List<Message> messages = hierarchyMessage == null ? Collections.emptyList() : Collections.singletonList(hierarchyMessage);
+            return buildDefaultCloudEvent(model, executionId, firstEvent, lastEvent,
+                    new Pair<>(flatExecutionSteps == null ? executionSteps : flatExecutionSteps, messages), configBean);
+        }
+
+        private void process(EvaluateEvent event) {
+            if (flatExecutionSteps == null) {
+                try {
+                    processEvaluateEventInHierarchy(model, stack, executionSteps, event);
+                    return;
+                } catch (IllegalStateException e) {
+                    flatten(e);
+                }
+            }
+            addFlat(event);
+        }
+
+        /**
+         * Switches to a flat list of steps, listing the steps built so far in the order of their after events.
+         */
+        private void flatten(IllegalStateException e) {
+            LOG.error(String.format("IllegalStateException during aggregation of evaluation %s", executionId), e);
+            hierarchyMessage = EventUtils.messageFrom(InternalMessageType.NO_EXECUTION_STEP_HIERARCHY, e);
+            flatExecutionSteps = new ArrayList<>();
+            addFlat(firstEvent);
+            executionSteps.forEach(this::addFlattened);
+            // steps completed while an entry was open are its children, the bottom of the stack was opened first
+            Iterator<DefaultAggregatorStackEntry> entries = stack.descendingIterator();
+            while (entries.hasNext()) {
+                entries.next().getChildren().forEach(this::addFlattened);
+            }
+            executionSteps.clear();
+            stack.clear();
+        }
+
+        private void addFlattened(TraceExecutionStep step) {
+            step.getChildren().forEach(this::addFlattened);
+            flatExecutionSteps.add(new TraceExecutionStep(step.getType(), 0L, step.getName(), step.getResult(), step.getMessages(), step.getAdditionalData(),
+                    Collections.emptyList()));
+        }
+
+        private void addFlat(EvaluateEvent event) {
+            if (event.getType().isAfter()) {
+                TraceExecutionStep step = buildTraceExecutionStep(model, null, event);
+                if (step != null) {
+                    flatExecutionSteps.add(step);
+                }
+            }
+        }
     }
 
     private static Optional<CloudEvent> buildNotEnoughDataCloudEvent(DMNModel model, String executionId, ConfigBean configBean) {
@@ -100,16 +210,12 @@ public class DefaultAggregator implements Aggregator {
                 .build(executionId, buildSource(configBean.getServiceUrl(), null), event, TraceEvent.class);
     }
 
-    private static Optional<CloudEvent> buildDefaultCloudEvent(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean) {
-        EvaluateEvent firstEvent = events.get(0);
-        EvaluateEvent lastEvent = events.get(events.size() - 1);
-
+    private static Optional<CloudEvent> buildDefaultCloudEvent(DMNModel model, String executionId, EvaluateEvent firstEvent, EvaluateEvent lastEvent,
+            Pair<List<TraceExecutionStep>, List<Message>> executionStepsPair, ConfigBean configBean) {
         List<TraceInputValue> inputs = buildTraceInputValues(model, firstEvent);
 
         List<TraceOutputValue> outputs = buildTraceOutputValues(model, lastEvent);
 
-        Pair<List<TraceExecutionStep>, List<Message>> executionStepsPair = buildTraceExecutionSteps(model, executionId, events);
-
         TraceHeader header = new TraceHeader(
                 TraceEventType.DMN,
                 executionId,
@@ -197,27 +303,6 @@ public class DefaultAggregator implements Aggregator {
                 .collect(Collectors.toList());
     }
 
-    private static Pair<List<TraceExecutionStep>, List<Message>> buildTraceExecutionSteps(DMNModel model, String executionId, List<EvaluateEvent> events) {
-        try {
-            return new Pair<>(buildTraceExecutionStepsHierarchy(model, events), Collections.emptyList());
-        } catch (IllegalStateException e) {
-            LOG.error(String.format("IllegalStateException during aggregation of evaluation %s", executionId), e);
-            return new Pair<>(buildTraceExecutionStepsList(model, events), Arrays.asList(EventUtils.messageFrom(InternalMessageType.NO_EXECUTION_STEP_HIERARCHY, e)));
-        }
-    }
-
-    private static List<TraceExecutionStep> buildTraceExecutionStepsHierarchy(DMNModel model, List<EvaluateEvent> events) {
-        List<TraceExecutionStep> executionSteps = new ArrayList<>(events.size() / 2);
-        Deque<DefaultAggregatorStackEntry> stack = new ArrayDeque<>(events.size() / 2);
-        for (int i = 1; i < events.size() - 1; i++) {
-            processEvaluateEventInHierarchy(model, stack, executionSteps, events.get(i));
-        }
-        if (!stack.isEmpty()) {
-            throw new IllegalStateException("Can't match all after events with corresponding before events");
-        }
-        return executionSteps;
-    }
-
     private static void processEvaluateEventInHierarchy(DMNModel model, Deque<DefaultAggregatorStackEntry> stack, List<TraceExecutionStep> executionSteps, EvaluateEvent event) {
         LOG.trace("Started aggregating event {} (execution steps: {}, stack size: {})", event.getType(), executionSteps.size(), stack.size());
         if (event.getType().isBefore()) {
@@ -226,11 +311,12 @@ public class DefaultAggregator implements Aggregator {
             if (stack.isEmpty() || !stack.peek().isValidAfterEvent(event)) {
                 throw new IllegalStateException(String.format("Can't match %s after event with corresponding before event", event.getType()));
             }
-            DefaultAggregatorStackEntry stackEntry = stack.pop();
-            TraceExecutionStep step = buildTraceExecutionStep(model, stackEntry, event);
+            // the entry is only popped once its step is built, so that its children are not lost on failure
+            TraceExecutionStep step = buildTraceExecutionStep(model, stack.peek(), event);
             if (step == null) {
                 throw new IllegalStateException(String.format("Can't build TraceExecutionStep for a %s event", event.getType()));
             }
+            stack.pop();
             if (stack.isEmpty()) {
                 executionSteps.add(step);
             } else {
@@ -240,14 +326,6 @@ public class DefaultAggregator implements Aggregator {
         LOG.trace("Finished aggregating event {} (execution steps: {}, stack size: {})", event.getType(), executionSteps.size(), stack.size());
     }
 
-    private static List<TraceExecutionStep> buildTraceExecutionStepsList(DMNModel model, List<EvaluateEvent> events) {
-        return events.stream()
-                .filter(e -> e.getType().isAfter())
-                .map(e -> buildTraceExecutionStep(model, null, e))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-    }
-
     private static TraceExecutionStep buildTraceExecutionStep(DMNModel model, DefaultAggregatorStackEntry stackEntry, EvaluateEvent afterEvent) {
         TraceExecutionStepType type = Optional.ofNullable(afterEvent.getType()).map(EvaluateEventType::toTraceExecutionStepType).orElse(null);
         if (type == null) {
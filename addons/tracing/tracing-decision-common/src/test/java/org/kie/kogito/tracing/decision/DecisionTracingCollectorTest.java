@@ -15,12 +15,21 @@
  */
 package org.kie.kogito.tracing.decision;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -29,6 +38,7 @@ import org.kie.dmn.feel.util.Pair;
 import org.kie.kogito.cloudevents.CloudEventUtils;
 import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.conf.StaticConfigBean;
+import org.kie.kogito.tracing.decision.aggregator.DefaultAggregator;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
 import org.kie.kogito.tracing.decision.mock.MockDefaultAggregator;
 import org.kie.kogito.tracing.decision.terminationdetector.BoundariesTerminationDetector;
@@ -116,6 +126,67 @@ class DecisionTracingCollectorTest {
         assertEquals(expectedEvaluateDecisionService, payloads.get(evaluateDecisionServiceIndex));
     }
 
+    @Test
+    void testCollectorDropsExecutionsOverTheLimit() throws IOException {
+        Consumer<String> payloadConsumer = mock(Consumer.class);
+        DecisionTracingCollector collector = new DecisionTracingCollector(new DefaultAggregator(), payloadConsumer, (namespace, name) -> model,
+                CounterTerminationDetector::new, configBean, 1, DecisionTracingCollector.DEFAULT_PENDING_EXECUTION_TTL_MILLIS, PayloadEncoding.JSON);
+
+        List<EvaluateEvent> evaluateAllEvents = readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        List<EvaluateEvent> evaluateDecisionServiceEvents = readEvaluateEventsFromJsonResource(EVALUATE_DECISION_SERVICE_JSON_RESOURCE);
+
+        collector.addEvent(evaluateAllEvents.get(0));
+        evaluateDecisionServiceEvents.forEach(collector::addEvent);
+        evaluateAllEvents.subList(1, evaluateAllEvents.size()).forEach(collector::addEvent);
+        // events of the dropped execution are ignored, even once there is room again
+        evaluateDecisionServiceEvents.forEach(collector::addEvent);
+
+        ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+        verify(payloadConsumer, times(1)).accept(payloadCaptor.capture());
+        assertEquals(EVALUATE_ALL_EXECUTION_ID, CloudEventUtils.decode(payloadCaptor.getValue()).map(CloudEvent::getId).orElse(null));
+        assertEquals(0, collector.getPendingExecutions());
+    }
+
+    @Test
+    void testCollectorEvictsExpiredExecutions() throws IOException {
+        AtomicLong clock = new AtomicLong();
+        Consumer<String> payloadConsumer = mock(Consumer.class);
+        DecisionTracingCollector collector = new DecisionTracingCollector(new DefaultAggregator(), payloadConsumer, (namespace, name) -> model,
+                CounterTerminationDetector::new, configBean, 10, 1000L, PayloadEncoding.JSON, clock::get);
+
+        List<EvaluateEvent> evaluateAllEvents = readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        List<EvaluateEvent> evaluateDecisionServiceEvents = readEvaluateEventsFromJsonResource(EVALUATE_DECISION_SERVICE_JSON_RESOURCE);
+
+        collector.addEvent(evaluateAllEvents.get(0));
+        assertEquals(1, collector.getPendingExecutions());
+
+        clock.set(TimeUnit.SECONDS.toNanos(2));
+        evaluateDecisionServiceEvents.forEach(collector::addEvent);
+        assertEquals(0, collector.getPendingExecutions());
+        evaluateAllEvents.subList(1, evaluateAllEvents.size()).forEach(collector::addEvent);
+
+        ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+        verify(payloadConsumer, times(1)).accept(payloadCaptor.capture());
+        assertEquals(EVALUATE_DECISION_SERVICE_EXECUTION_ID, CloudEventUtils.decode(payloadCaptor.getValue()).map(CloudEvent::getId).orElse(null));
+    }
+
+    @Test
+    void testCollectorWithGzipPayloadEncoding() throws IOException {
+        Consumer<String> payloadConsumer = mock(Consumer.class);
+        DecisionTracingCollector collector = new DecisionTracingCollector(payloadConsumer, (namespace, name) -> model, configBean,
+                DecisionTracingCollector.DEFAULT_MAX_PENDING_EXECUTIONS, DecisionTracingCollector.DEFAULT_PENDING_EXECUTION_TTL_MILLIS, PayloadEncoding.from("gzip"));
+
+        readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE).forEach(collector::addEvent);
+
+        ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+        verify(payloadConsumer).accept(payloadCaptor.capture());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(payloadCaptor.getValue()))), StandardCharsets.UTF_8))) {
+            String json = reader.lines().collect(Collectors.joining("\n"));
+            assertEquals(EVALUATE_ALL_EXECUTION_ID, CloudEventUtils.decode(json).map(CloudEvent::getId).orElse(null));
+        }
+    }
+
     private static String encodeFromCall(Map<String, Pair<List<EvaluateEvent>, CloudEvent>> aggregatorCalls, String key) {
         return Optional.ofNullable(aggregatorCalls.get(key))
                 .map(Pair::getRight)
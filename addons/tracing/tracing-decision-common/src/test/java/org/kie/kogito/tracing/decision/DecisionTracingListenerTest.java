@@ -40,6 +40,7 @@ import org.mockito.ArgumentCaptor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.kie.kogito.decision.DecisionTestUtils.DECISION_SERVICE_NODE_ID;
 import static org.kie.kogito.decision.DecisionTestUtils.DECISION_SERVICE_NODE_NAME;
@@ -51,7 +52,9 @@ import static org.kie.kogito.decision.DecisionTestUtils.getEvaluateAllContextFor
 import static org.kie.kogito.decision.DecisionTestUtils.getEvaluateAllContextForWarning;
 import static org.kie.kogito.decision.DecisionTestUtils.getEvaluateDecisionServiceContext;
 import static org.kie.kogito.decision.DecisionTestUtils.getEvaluateDecisionServiceContextForWarning;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -85,6 +88,31 @@ class DecisionTracingListenerTest {
         assertEvaluateAllEvents(eventCaptor.getAllValues(), MOCKED_MODEL_NAMESPACE, MOCKED_MODEL_NAME, TEST_EXECUTION_ID_1);
     }
 
+    @Test
+    void testListenerSamplesWholeEvaluations() {
+        Consumer<EvaluateEvent> eventConsumer = mock(Consumer.class);
+        DecisionTracingListener listener = new DecisionTracingListener(eventConsumer,
+                DecisionTracingSampler.of(1.0, MOCKED_MODEL_NAME + "=0.0"));
+
+        DMNResultImpl sampledOut = mockedResult(TEST_EXECUTION_ID_1);
+        listener.beforeEvaluateAll(new MockBeforeEvaluateAllEvent(MOCKED_MODEL_NAMESPACE, MOCKED_MODEL_NAME, sampledOut));
+        listener.afterEvaluateAll(new MockAfterEvaluateAllEvent(MOCKED_MODEL_NAMESPACE, MOCKED_MODEL_NAME, sampledOut));
+        verify(eventConsumer, never()).accept(any());
+
+        DMNResultImpl sampled = mockedResult(TEST_EXECUTION_ID_2);
+        listener.beforeEvaluateAll(new MockBeforeEvaluateAllEvent(MOCKED_MODEL_NAMESPACE, "otherModel", sampled));
+        listener.afterEvaluateAll(new MockAfterEvaluateAllEvent(MOCKED_MODEL_NAMESPACE, "otherModel", sampled));
+        verify(eventConsumer, times(2)).accept(any());
+    }
+
+    @Test
+    void testSamplerRejectsInvalidRates() {
+        assertThrows(IllegalArgumentException.class, () -> DecisionTracingSampler.of(1.5, null));
+        assertThrows(IllegalArgumentException.class, () -> DecisionTracingSampler.of(1.0, "model=-1"));
+        assertThrows(IllegalArgumentException.class, () -> DecisionTracingSampler.of(1.0, "0.5"));
+        assertSame(DecisionTracingSampler.ALWAYS, DecisionTracingSampler.of(1.0, " "));
+    }
+
     @Test
     void testListenerWithRealEvaluateAllIsWorking() {
         testWithRealEvaluateAll(getEvaluateAllContext(), 14);
@@ -116,6 +144,14 @@ class DecisionTracingListenerTest {
         testWithRealEvaluateDecisionService(contextVariables, 6);
     }
 
+    private static DMNResultImpl mockedResult(String executionId) {
+        DMNContextImpl context = new DMNContextImpl();
+        DecisionExecutionIdUtils.inject(context, () -> executionId);
+        DMNResultImpl result = new DMNResultImpl(new DMNModelImpl());
+        result.setContext(context);
+        return result;
+    }
+
     private static void testWithRealEvaluateAll(Map<String, Object> contextVariables, int expectedEvents) {
         List<EvaluateEvent> events = testWithRealRuntime(contextVariables, expectedEvents, DecisionModel::evaluateAll);
         assertEvaluateAllEvents(events, MODEL_NAMESPACE, MODEL_NAME, TEST_EXECUTION_ID_2);
@@ -20,6 +20,7 @@ import java.util.function.BiFunction;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.Application;
 import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
@@ -38,13 +39,23 @@ public class QuarkusDecisionTracingCollector {
         this.collector = new DecisionTracingCollector(eventEmitter::emit, modelSupplier, configBean);
     }
 
-    @Inject
     public QuarkusDecisionTracingCollector(final QuarkusTraceEventEmitter eventEmitter,
             final ConfigBean configBean,
             final Application application) {
         this(eventEmitter, configBean, new ApplicationModelSupplier(application));
     }
 
+    @Inject
+    public QuarkusDecisionTracingCollector(final QuarkusTraceEventEmitter eventEmitter,
+            final ConfigBean configBean,
+            final Application application,
+            @ConfigProperty(name = "kogito.addon.tracing.decision.max-pending-executions", defaultValue = "10000") final int maxPendingExecutions,
+            @ConfigProperty(name = "kogito.addon.tracing.decision.pending-execution-ttl-ms", defaultValue = "60000") final long pendingExecutionTtlMillis,
+            @ConfigProperty(name = "kogito.addon.tracing.decision.payload-encoding", defaultValue = "json") final String payloadEncoding) {
+        this.collector = new DecisionTracingCollector(eventEmitter::emit, new ApplicationModelSupplier(application), configBean,
+                maxPendingExecutions, pendingExecutionTtlMillis, PayloadEncoding.from(payloadEncoding));
+    }
+
     @ConsumeEvent("kogito-tracing-decision_EvaluateEvent")
     public void onEvent(final EvaluateEvent event) {
         collector.addEvent(event);
@@ -15,6 +15,8 @@
  */
 package org.kie.kogito.tracing.decision;
 
+import java.util.Optional;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
@@ -29,11 +31,18 @@ import io.vertx.core.eventbus.EventBus;
 @ApplicationScoped
 public final class QuarkusDecisionTracingListener extends DecisionTracingListener {
 
+    public QuarkusDecisionTracingListener(EventBus bus, QuarkusDecisionTracingCollector collector, boolean asyncEnabled) {
+        this(bus, collector, asyncEnabled, 1.0, Optional.empty());
+    }
+
     @Inject
     public QuarkusDecisionTracingListener(
             EventBus bus,
             QuarkusDecisionTracingCollector collector,
-            @ConfigProperty(name = "kogito.addon.tracing.decision.asyncEnabled", defaultValue = "true") boolean asyncEnabled) {
+            @ConfigProperty(name = "kogito.addon.tracing.decision.asyncEnabled", defaultValue = "true") boolean asyncEnabled,
+            @ConfigProperty(name = "kogito.addon.tracing.decision.sampling.rate", defaultValue = "1.0") double samplingRate,
+            @ConfigProperty(name = "kogito.addon.tracing.decision.sampling.model-rates") Optional<String> modelSamplingRates) {
+        setSampler(DecisionTracingSampler.of(samplingRate, modelSamplingRates.orElse(null)));
         if (asyncEnabled) {
             setEventConsumer(event -> bus.send("kogito-tracing-decision_EvaluateEvent", event));
         } else {
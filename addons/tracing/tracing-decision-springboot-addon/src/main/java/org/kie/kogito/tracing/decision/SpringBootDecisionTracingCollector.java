@@ -39,6 +39,16 @@ public class SpringBootDecisionTracingCollector {
         this(eventEmitter, configBean, new ApplicationModelSupplier(application));
     }
 
+    public SpringBootDecisionTracingCollector(final SpringBootTraceEventEmitter eventEmitter,
+            final ConfigBean configBean,
+            final Application application,
+            final int maxPendingExecutions,
+            final long pendingExecutionTtlMillis,
+            final PayloadEncoding payloadEncoding) {
+        this.collector = new DecisionTracingCollector(eventEmitter::emit, new ApplicationModelSupplier(application), configBean,
+                maxPendingExecutions, pendingExecutionTtlMillis, payloadEncoding);
+    }
+
     public void onApplicationEvent(final EvaluateEvent event) {
         collector.addEvent(event);
     }
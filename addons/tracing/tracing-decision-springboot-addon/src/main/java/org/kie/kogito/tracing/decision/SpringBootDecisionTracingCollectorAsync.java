@@ -34,6 +34,11 @@ public class SpringBootDecisionTracingCollectorAsync extends SpringBootDecisionT
         super(eventEmitter, configBean, application);
     }
 
+    public SpringBootDecisionTracingCollectorAsync(SpringBootTraceEventEmitter eventEmitter, ConfigBean configBean, Application application,
+            int maxPendingExecutions, long pendingExecutionTtlMillis, PayloadEncoding payloadEncoding) {
+        super(eventEmitter, configBean, application, maxPendingExecutions, pendingExecutionTtlMillis, payloadEncoding);
+    }
+
     @Override
     @Async("kogitoTracingDecisionAddonTaskExecutor")
     @EventListener
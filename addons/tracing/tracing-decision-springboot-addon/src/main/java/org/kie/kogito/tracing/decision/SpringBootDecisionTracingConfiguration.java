@@ -61,11 +61,15 @@ public class SpringBootDecisionTracingConfiguration {
             final SpringBootTraceEventEmitter eventEmitter,
             final ConfigBean configBean,
             final Application application,
-            @Value(value = "${kogito.addon.tracing.decision.asyncEnabled:true}") final boolean asyncEnabled) {
+            @Value(value = "${kogito.addon.tracing.decision.asyncEnabled:true}") final boolean asyncEnabled,
+            @Value(value = "${kogito.addon.tracing.decision.max-pending-executions:10000}") final int maxPendingExecutions,
+            @Value(value = "${kogito.addon.tracing.decision.pending-execution-ttl-ms:60000}") final long pendingExecutionTtlMillis,
+            @Value(value = "${kogito.addon.tracing.decision.payload-encoding:json}") final String payloadEncoding) {
+        PayloadEncoding encoding = PayloadEncoding.from(payloadEncoding);
         if (asyncEnabled) {
-            return new SpringBootDecisionTracingCollectorAsync(eventEmitter, configBean, application);
+            return new SpringBootDecisionTracingCollectorAsync(eventEmitter, configBean, application, maxPendingExecutions, pendingExecutionTtlMillis, encoding);
         } else {
-            return new SpringBootDecisionTracingCollector(eventEmitter, configBean, application);
+            return new SpringBootDecisionTracingCollector(eventEmitter, configBean, application, maxPendingExecutions, pendingExecutionTtlMillis, encoding);
         }
     }
 
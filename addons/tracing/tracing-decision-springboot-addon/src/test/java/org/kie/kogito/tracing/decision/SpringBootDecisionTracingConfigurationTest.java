@@ -33,10 +33,10 @@ class SpringBootDecisionTracingConfigurationTest {
 
         SpringBootDecisionTracingConfiguration config = new SpringBootDecisionTracingConfiguration("localhost:9092", "kogito-tracing-decision", 1, (short) 1);
 
-        SpringBootDecisionTracingCollector asyncCollector = config.collector(mockedEmitter, mockedConfigBean, mockedApplication, true);
+        SpringBootDecisionTracingCollector asyncCollector = config.collector(mockedEmitter, mockedConfigBean, mockedApplication, true, 10000, 60000L, "json");
         assertTrue(asyncCollector instanceof SpringBootDecisionTracingCollectorAsync);
 
-        SpringBootDecisionTracingCollector syncCollector = config.collector(mockedEmitter, mockedConfigBean, mockedApplication, false);
+        SpringBootDecisionTracingCollector syncCollector = config.collector(mockedEmitter, mockedConfigBean, mockedApplication, false, 10000, 60000L, "json");
         assertFalse(syncCollector instanceof SpringBootDecisionTracingCollectorAsync);
     }
 }
@@ -22,12 +22,25 @@ import org.kie.kogito.KogitoGAV;
 
 public interface ConfigBean extends KogitoConfig {
 
+    int DEFAULT_MVEL_EXPRESSION_CACHE_SIZE = 1024;
+
     boolean useCloudEvents();
 
     default boolean failOnEmptyBean() {
         return false;
     }
 
+    default boolean useDeltaProcessInstanceEvents() {
+        return false;
+    }
+
+    /**
+     * Maximum number of compiled MVEL process expressions kept at runtime.
+     */
+    default int mvelExpressionCacheSize() {
+        return DEFAULT_MVEL_EXPRESSION_CACHE_SIZE;
+    }
+
     String getServiceUrl();
 
     Optional<KogitoGAV> getGav();
@@ -24,6 +24,8 @@ public class StaticConfigBean implements ConfigBean {
     private String serviceUrl;
     private boolean useCloudEvents = true;
     private boolean failOnEmptyBean = false;
+    private boolean deltaProcessInstanceEvents = false;
+    private int mvelExpressionCacheSize = DEFAULT_MVEL_EXPRESSION_CACHE_SIZE;
     private KogitoGAV gav;
 
     public StaticConfigBean() {
@@ -47,6 +49,14 @@ public class StaticConfigBean implements ConfigBean {
         this.failOnEmptyBean = failOnEmptyBean;
     }
 
+    protected void setDeltaProcessInstanceEvents(boolean deltaProcessInstanceEvents) {
+        this.deltaProcessInstanceEvents = deltaProcessInstanceEvents;
+    }
+
+    protected void setMvelExpressionCacheSize(int mvelExpressionCacheSize) {
+        this.mvelExpressionCacheSize = mvelExpressionCacheSize;
+    }
+
     public void setGav(KogitoGAV gav) {
         this.gav = gav;
     }
@@ -70,4 +80,14 @@ public class StaticConfigBean implements ConfigBean {
     public boolean failOnEmptyBean() {
         return failOnEmptyBean;
     }
+
+    @Override
+    public boolean useDeltaProcessInstanceEvents() {
+        return deltaProcessInstanceEvents;
+    }
+
+    @Override
+    public int mvelExpressionCacheSize() {
+        return mvelExpressionCacheSize;
+    }
 }
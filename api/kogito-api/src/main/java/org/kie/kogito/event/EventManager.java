@@ -63,4 +63,15 @@ public interface EventManager {
      * @param addons addons available in the service
      */
     void setAddons(Addons addons);
+
+    /**
+     * Optionally switches process instance events to the delta format, in which each event
+     * carries only what changed since the previous event of the same process instance
+     * together with a sequence number.
+     * 
+     * @param delta true to publish delta events instead of full process instance snapshots
+     */
+    default void setDeltaProcessInstanceEvents(boolean delta) {
+        // full snapshots only by default
+    }
 }
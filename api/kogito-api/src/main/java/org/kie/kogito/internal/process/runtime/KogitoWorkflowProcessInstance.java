@@ -78,4 +78,19 @@ public interface KogitoWorkflowProcessInstance extends WorkflowProcessInstance,
      */
     Collection<AdHocFragment> adHocFragments();
 
+    /**
+     * Returns the sequence number of the last event produced for this process instance,
+     * it is stored together with the process instance so it carries on wherever the instance is loaded
+     * 
+     * @return sequence number of the last event, 0 if no event was produced yet
+     */
+    long getEventSequence();
+
+    /**
+     * Increments the event sequence number of this process instance
+     * 
+     * @return sequence number of the next event
+     */
+    long nextEventSequence();
+
 }
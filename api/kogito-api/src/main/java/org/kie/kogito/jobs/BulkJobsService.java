@@ -0,0 +1,44 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs;
+
+import java.util.Collection;
+
+/**
+ * JobsService that is able to apply many schedule and cancel requests at once,
+ * usually with a single round trip to a remote jobs service.
+ */
+public interface BulkJobsService extends JobsService {
+
+    /**
+     * Applies given requests as one batch. Cancellations are applied before the scheduled jobs
+     * so that a job can be cancelled and scheduled again with the same id within a batch.
+     * 
+     * @param scheduled process instance jobs to be scheduled
+     * @param cancelled ids of the jobs to be cancelled
+     */
+    void executeBatch(Collection<ProcessInstanceJobDescription> scheduled, Collection<String> cancelled);
+
+    /**
+     * Returns whether requests should be collected for the duration of the unit of work and sent
+     * with {@link #executeBatch(Collection, Collection)} instead of one by one.
+     * 
+     * @return true if batching is enabled, otherwise false
+     */
+    default boolean isBatchEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process;
+
+/**
+ * Thrown when a process instance could not be stored because it has been updated or removed
+ * since it was read, so the change must be applied again to its current state.
+ */
+public class ProcessInstanceOptimisticLockingException extends RuntimeException {
+
+    private static final long serialVersionUID = -3165384418386233917L;
+
+    private final String processInstanceId;
+
+    public ProcessInstanceOptimisticLockingException(String processInstanceId) {
+        this(processInstanceId, "The document with ID: " + processInstanceId + " was updated or deleted by other request.");
+    }
+
+    public ProcessInstanceOptimisticLockingException(String processInstanceId, String message) {
+        super(message);
+        this.processInstanceId = processInstanceId;
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Describes a subset of the process instances of a given process: an optional status and business key
+ * filter plus an offset/limit page. Stores are expected to push as much of it as possible down to their
+ * native query and to apply the rest with {@link #apply(Stream)}.
+ */
+public class ProcessInstanceQuery {
+
+    public static final int UNBOUNDED = -1;
+
+    private static final ProcessInstanceQuery ALL = builder().build();
+
+    private final Integer status;
+    private final String businessKey;
+    private final int offset;
+    private final int limit;
+
+    private ProcessInstanceQuery(Integer status, String businessKey, int offset, int limit) {
+        this.status = status;
+        this.businessKey = businessKey;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    public static ProcessInstanceQuery all() {
+        return ALL;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks a page requested by a client before building a query out of it.
+     */
+    public static boolean isValidPage(int offset, int limit) {
+        return offset >= 0 && (limit >= 0 || limit == UNBOUNDED);
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public String getBusinessKey() {
+        return businessKey;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean hasFilter() {
+        return status != null || businessKey != null;
+    }
+
+    public boolean isPaged() {
+        return offset > 0 || limit != UNBOUNDED;
+    }
+
+    public boolean test(ProcessInstance<?> instance) {
+        return (status == null || status == instance.status()) &&
+                (businessKey == null || businessKey.equals(instance.businessKey()));
+    }
+
+    /**
+     * Applies filter and page of this query to a stream of instances which has not been filtered yet.
+     */
+    public <T> Stream<ProcessInstance<T>> apply(Stream<ProcessInstance<T>> instances) {
+        return applyPage(hasFilter() ? instances.filter(this::test) : instances);
+    }
+
+    /**
+     * Applies only the page of this query, to be used when the filter was already resolved by the store.
+     */
+    public <T> Stream<T> applyPage(Stream<T> instances) {
+        Stream<T> result = offset > 0 ? instances.skip(offset) : instances;
+        return limit != UNBOUNDED ? result.limit(limit) : result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ProcessInstanceQuery that = (ProcessInstanceQuery) o;
+        return offset == that.offset && limit == that.limit && Objects.equals(status, that.status) && Objects.equals(businessKey, that.businessKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, businessKey, offset, limit);
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessInstanceQuery{" +
+                "status=" + status +
+                ", businessKey='" + businessKey + '\'' +
+                ", offset=" + offset +
+                ", limit=" + limit +
+                '}';
+    }
+
+    public static class Builder {
+
+        private Integer status;
+        private String businessKey;
+        private int offset;
+        private int limit = UNBOUNDED;
+
+        public Builder() {
+        }
+
+        public Builder withStatus(Integer status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder withBusinessKey(String businessKey) {
+            this.businessKey = businessKey;
+            return this;
+        }
+
+        public Builder withOffset(int offset) {
+            if (offset < 0) {
+                throw new IllegalArgumentException("Offset must not be negative: " + offset);
+            }
+            this.offset = offset;
+            return this;
+        }
+
+        public Builder withLimit(int limit) {
+            if (limit < 0 && limit != UNBOUNDED) {
+                throw new IllegalArgumentException("Limit must not be negative: " + limit);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public ProcessInstanceQuery build() {
+            return new ProcessInstanceQuery(status, businessKey, offset, limit);
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.kie.kogito.process;
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProcessInstances<T> {
 
@@ -32,5 +33,27 @@ public interface ProcessInstances<T> {
 
     Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode);
 
+    default Stream<ProcessInstance<T>> stream(ProcessInstanceQuery query) {
+        return stream(query, ProcessInstanceReadMode.READ_ONLY);
+    }
+
+    /**
+     * Lazily returns the instances matching the given query. Implementations backed by a remote store
+     * keep a cursor open while the stream is consumed, therefore the returned stream must be closed.
+     */
+    default Stream<ProcessInstance<T>> stream(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        return query.apply(values(mode).stream());
+    }
+
+    /**
+     * Returns the instances that may be waiting for the given event type, that is the ones which were listening
+     * to it when last persisted. Stores without a subscription index return every instance, hence the event must
+     * still be delivered to each of them. As for {@link #stream(ProcessInstanceQuery, ProcessInstanceReadMode)},
+     * the returned stream must be closed.
+     */
+    default Stream<ProcessInstance<T>> waitingForEvent(String eventType, ProcessInstanceReadMode mode) {
+        return stream(ProcessInstanceQuery.all(), mode);
+    }
+
     Integer size();
 }
@@ -18,4 +18,12 @@ package org.kie.kogito.process;
 public interface ProcessInstancesFactory {
 
     MutableProcessInstances<?> createProcessInstances(Process<?> process);
+
+    /**
+     * Allows to wrap the instances created for the given process, for example with a local cache,
+     * before they are bound to the process. Returns them unchanged by default.
+     */
+    default MutableProcessInstances<?> decorate(Process<?> process, MutableProcessInstances<?> instances) {
+        return instances;
+    }
 }
@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 
 import org.kie.kogito.MapOutput;
@@ -36,14 +37,32 @@ public interface ProcessService {
 
     <T extends MappableToModel<R>, R> List<R> getProcessInstanceOutput(Process<T> process);
 
+    <T extends MappableToModel<R>, R> List<R> getProcessInstanceOutput(Process<T> process, ProcessInstanceQuery query);
+
     <T extends MappableToModel<R>, R> Optional<R> findById(Process<T> process, String id);
 
+    /**
+     * Non blocking variant of {@link #getProcessInstanceOutput(Process, ProcessInstanceQuery)}, reads are run on the
+     * executor of the implementation unless the process instances are {@link ReactiveProcessInstances}.
+     */
+    <T extends MappableToModel<R>, R> CompletionStage<List<R>> getProcessInstanceOutputAsync(Process<T> process, ProcessInstanceQuery query);
+
+    /**
+     * Non blocking variant of {@link #findById(Process, String)}.
+     */
+    <T extends MappableToModel<R>, R> CompletionStage<Optional<R>> findByIdAsync(Process<T> process, String id);
+
     <T extends MappableToModel<R>, R> Optional<R> delete(Process<T> process, String id);
 
     <T extends MappableToModel<R>, R> Optional<R> update(Process<T> process, String id, T resource);
 
     <T extends Model> Optional<List<WorkItem>> getTasks(Process<T> process, String id, String user, List<String> groups);
 
+    /**
+     * Non blocking variant of {@link #getTasks(Process, String, String, List)}.
+     */
+    <T extends Model> CompletionStage<Optional<List<WorkItem>>> getTasksAsync(Process<T> process, String id, String user, List<String> groups);
+
     <T extends Model> Optional<WorkItem> signalTask(Process<T> process, String id, String taskNodeName, String taskName);
 
     <T extends Model> Optional<WorkItem> getTaskByName(ProcessInstance<T> pi, String taskName);
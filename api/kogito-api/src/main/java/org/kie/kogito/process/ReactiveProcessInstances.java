@@ -0,0 +1,31 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Implemented by process instance stores able to read without blocking the calling thread: the returned
+ * stages are completed by the I/O threads of the underlying client, so callers must not block within them.
+ */
+public interface ReactiveProcessInstances<T> extends ProcessInstances<T> {
+
+    CompletionStage<Optional<ProcessInstance<T>>> findByIdAsync(String id, ProcessInstanceReadMode mode);
+
+    CompletionStage<List<ProcessInstance<T>>> valuesAsync(ProcessInstanceQuery query, ProcessInstanceReadMode mode);
+}
@@ -18,8 +18,8 @@ package org.kie.kogito.event;
 import java.util.Optional;
 
 /*
- * Currently we are not discriminating on type, 
- * but an implementation not based on smallrye might want to do that
+ * The type, when present, is the CloudEvent type or source the subscriber is interested in;
+ * receivers may use it to dispatch only the matching events
  */
 public class SubscriptionInfo<T> {
 
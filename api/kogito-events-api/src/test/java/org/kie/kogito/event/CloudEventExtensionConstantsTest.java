@@ -31,6 +31,8 @@ class CloudEventExtensionConstantsTest {
         assertThat(CloudEventExtensionConstants.PROCESS_PARENT_PROCESS_INSTANCE_ID).matches(nameValidation);
         assertThat(CloudEventExtensionConstants.PROCESS_INSTANCE_ID).matches(nameValidation);
         assertThat(CloudEventExtensionConstants.PROCESS_INSTANCE_STATE).matches(nameValidation);
+        assertThat(CloudEventExtensionConstants.PROCESS_INSTANCE_SEQUENCE).matches(nameValidation);
+        assertThat(CloudEventExtensionConstants.PROCESS_INSTANCE_SNAPSHOT).matches(nameValidation);
         assertThat(CloudEventExtensionConstants.PROCESS_REFERENCE_ID).matches(nameValidation);
         assertThat(CloudEventExtensionConstants.PROCESS_ROOT_PROCESS_ID).matches(nameValidation);
         assertThat(CloudEventExtensionConstants.PROCESS_ROOT_PROCESS_INSTANCE_ID).matches(nameValidation);
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.event;
+
+import java.util.Map;
+
+import org.kie.kogito.event.CloudEventExtensionConstants;
+import org.kie.kogito.services.event.impl.ProcessInstanceEventBody;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Process instance event that carries only what changed in the unit of work that produced it:
+ * the variables that were assigned and the node instances that were triggered or left.
+ * Events of the same process instance are numbered from 1, a consumer that receives anything but
+ * the next number has missed events and should wait for the next snapshot. The number is stored
+ * with the process instance, so it carries on whichever node handles the instance next. Snapshots
+ * carry all the variables and are sent with the first event of an instance.
+ */
+public class ProcessInstanceDeltaDataEvent extends AbstractProcessDataEvent<ProcessInstanceEventBody> {
+
+    public static final String TYPE = "ProcessInstanceDeltaEvent";
+
+    @JsonProperty(CloudEventExtensionConstants.PROCESS_INSTANCE_SEQUENCE)
+    private long kogitoProcessinstanceSequence;
+
+    @JsonProperty(CloudEventExtensionConstants.PROCESS_INSTANCE_SNAPSHOT)
+    private boolean kogitoProcessinstanceSnapshot;
+
+    public ProcessInstanceDeltaDataEvent() {
+    }
+
+    public ProcessInstanceDeltaDataEvent(String source, String addons, Map<String, String> metaData, ProcessInstanceEventBody body, long sequence, boolean snapshot) {
+        super(TYPE,
+                source,
+                body,
+                metaData.get(ProcessInstanceEventBody.ID_META_DATA),
+                metaData.get(ProcessInstanceEventBody.PARENT_ID_META_DATA),
+                metaData.get(ProcessInstanceEventBody.ROOT_ID_META_DATA),
+                metaData.get(ProcessInstanceEventBody.PROCESS_ID_META_DATA),
+                metaData.get(ProcessInstanceEventBody.ROOT_PROCESS_ID_META_DATA),
+                metaData.get(ProcessInstanceEventBody.STATE_META_DATA),
+                addons);
+        this.kogitoProcessinstanceSequence = sequence;
+        this.kogitoProcessinstanceSnapshot = snapshot;
+    }
+
+    public long getKogitoProcessinstanceSequence() {
+        return kogitoProcessinstanceSequence;
+    }
+
+    public boolean isKogitoProcessinstanceSnapshot() {
+        return kogitoProcessinstanceSnapshot;
+    }
+}
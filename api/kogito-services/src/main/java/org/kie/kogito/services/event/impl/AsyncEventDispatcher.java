@@ -0,0 +1,566 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.event.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands items over from the threads that produce them to dedicated threads that deliver them in batches.
+ * <p>
+ * Items wait in a bounded ring buffer; what happens when it is full depends on the {@link OverflowPolicy}:
+ * the producer either waits, evicts the oldest item or appends the item to a spill file on local disk, which
+ * is drained once the buffer has room again and survives restarts. While the spill file is not empty new
+ * items are appended to it as well, so that items are delivered in the order they were submitted; with more
+ * than one thread the order is only kept within a batch. The spill file is bounded, items that do not fit
+ * are dropped.
+ * <p>
+ * A batch is only done once the sink reports which items were delivered, so no more than one batch per
+ * thread is in flight. Items that could not be delivered go through the overflow policy as well: they are
+ * retried until delivered with {@link OverflowPolicy#BLOCK}, which holds back the following items, dropped with
+ * {@link OverflowPolicy#DROP_OLDEST} and spilled with {@link OverflowPolicy#SPILL}. Delivery is retried after a
+ * growing pause while it keeps failing.
+ */
+public class AsyncEventDispatcher<T> implements Closeable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    public static final long DEFAULT_SPILL_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncEventDispatcher.class);
+    private static final long POLL_MILLIS = 100L;
+    private static final long MAX_BACKOFF_MILLIS = 5000L;
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP_OLDEST,
+        SPILL;
+
+        /**
+         * Accepts the names in any case, with dashes or underscores, e.g. drop-oldest
+         */
+        public static OverflowPolicy parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    /**
+     * Writes and reads back the items that are spilled to disk.
+     */
+    public interface SpillCodec<T> {
+
+        void write(DataOutput output, T item) throws IOException;
+
+        T read(DataInput input) throws IOException;
+    }
+
+    /**
+     * Delivers a batch of items, invoked by the dispatcher threads.
+     */
+    @FunctionalInterface
+    public interface Sink<T> {
+
+        /**
+         * Returns once each item is either delivered or failed.
+         * 
+         * @return the items that could not be delivered
+         */
+        List<T> deliver(List<T> items);
+    }
+
+    private static class Entry<T> {
+
+        private final T item;
+        private final long submittedNanos;
+
+        private Entry(T item, long submittedNanos) {
+            this.item = item;
+            this.submittedNanos = submittedNanos;
+        }
+    }
+
+    private final String name;
+    private final BlockingQueue<Entry<T>> buffer;
+    private final int batchSize;
+    private final OverflowPolicy policy;
+    private final Sink<T> sink;
+    private final SpillFile<T> spill;
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private volatile LongConsumer latencyRecorder = latency -> {
+    };
+    private volatile boolean running = true;
+    private volatile boolean stopped;
+
+    public AsyncEventDispatcher(String name, int capacity, int batchSize, int threads, Sink<T> sink) {
+        this(name, capacity, batchSize, threads, OverflowPolicy.BLOCK, null, DEFAULT_SPILL_MAX_BYTES, null, sink);
+    }
+
+    /**
+     * @param spillDirectory directory of the spill file, only used by {@link OverflowPolicy#SPILL}
+     * @param spillMaxBytes size of the spill file beyond which items are dropped, only used by {@link OverflowPolicy#SPILL}
+     * @param codec spill file format, only used by {@link OverflowPolicy#SPILL}
+     */
+    public AsyncEventDispatcher(String name, int capacity, int batchSize, int threads, OverflowPolicy policy, Path spillDirectory, long spillMaxBytes,
+            SpillCodec<T> codec, Sink<T> sink) {
+        if (capacity <= 0 || batchSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Capacity, batch size and threads must be positive: " + capacity + ", " + batchSize + ", " + threads);
+        }
+        this.name = name;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.policy = policy;
+        this.sink = sink;
+        if (policy == OverflowPolicy.SPILL) {
+            if (spillDirectory == null || codec == null) {
+                throw new IllegalArgumentException("Spilling requires a directory and a codec");
+            }
+            this.spill = new SpillFile<>(spillDirectory.resolve(name + ".spill"), spillMaxBytes, codec);
+        } else {
+            this.spill = null;
+        }
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::work, name + "-dispatcher-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Receives the time elapsed between the submission and the delivery of each item, in nanoseconds.
+     */
+    public void setLatencyRecorder(LongConsumer latencyRecorder) {
+        this.latencyRecorder = latencyRecorder;
+    }
+
+    public void submit(T item) {
+        if (!running) {
+            throw new IllegalStateException("Dispatcher " + name + " is closed");
+        }
+        Entry<T> entry = new Entry<>(item, System.nanoTime());
+        switch (policy) {
+            case DROP_OLDEST:
+                while (!buffer.offer(entry)) {
+                    if (buffer.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+                break;
+            case SPILL:
+                switch (spill.offerOrAppend(buffer, entry)) {
+                    case SPILLED:
+                        spilled.incrementAndGet();
+                        break;
+                    case DROPPED:
+                        dropped.incrementAndGet();
+                        LOGGER.warn("Spill file of dispatcher {} is full, item dropped", name);
+                        break;
+                    default:
+                }
+                break;
+            default:
+                try {
+                    buffer.put(entry);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                    LOGGER.warn("Interrupted while waiting for room in dispatcher {}, item dropped", name);
+                }
+        }
+    }
+
+    /**
+     * Number of items waiting to be delivered, including the spilled ones.
+     */
+    public int depth() {
+        return buffer.size() + (spill == null ? 0 : spill.pending());
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public long spilled() {
+        return spilled.get();
+    }
+
+    private void work() {
+        List<Entry<T>> batch = new ArrayList<>(batchSize);
+        long backoff = 0L;
+        while (!stopped && (running || depth() > 0)) {
+            try {
+                if (backoff > 0) {
+                    TimeUnit.MILLISECONDS.sleep(backoff);
+                }
+                Entry<T> first = buffer.poll();
+                if (first == null && spill != null && spill.pending() > 0) {
+                    spill.read(batch, batchSize);
+                } else {
+                    if (first == null) {
+                        first = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    }
+                    if (first != null) {
+                        batch.add(first);
+                        buffer.drainTo(batch, batchSize - 1);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    backoff = deliver(batch) ? 0L : nextBackoff(backoff);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("Unexpected error in dispatcher {}", name, e);
+                batch.clear();
+            }
+        }
+    }
+
+    private static long nextBackoff(long backoff) {
+        return Math.min(Math.max(backoff * 2, POLL_MILLIS), MAX_BACKOFF_MILLIS);
+    }
+
+    /**
+     * @return false when some items could not be delivered
+     */
+    private boolean deliver(List<Entry<T>> batch) throws InterruptedException {
+        List<Entry<T>> failed = attempt(batch);
+        if (failed.isEmpty()) {
+            return true;
+        }
+        switch (policy) {
+            case SPILL:
+                int lost = failed.size() - spill.append(failed);
+                spilled.addAndGet(failed.size() - (long) lost);
+                if (lost > 0) {
+                    dropped.addAndGet(lost);
+                    LOGGER.warn("Spill file of dispatcher {} is full, {} undelivered items dropped", name, lost);
+                }
+                return false;
+            case DROP_OLDEST:
+                dropped.addAndGet(failed.size());
+                LOGGER.warn("{} undelivered items dropped by dispatcher {}", failed.size(), name);
+                return false;
+            default:
+                retry(failed);
+                return true;
+        }
+    }
+
+    private void retry(List<Entry<T>> failed) throws InterruptedException {
+        long backoff = 0L;
+        try {
+            while (!failed.isEmpty() && !stopped) {
+                backoff = nextBackoff(backoff);
+                TimeUnit.MILLISECONDS.sleep(backoff);
+                failed = attempt(failed);
+            }
+        } finally {
+            if (!failed.isEmpty()) {
+                dropped.addAndGet(failed.size());
+                LOGGER.warn("Dispatcher {} closed with {} undelivered items", name, failed.size());
+            }
+        }
+    }
+
+    private List<Entry<T>> attempt(List<Entry<T>> batch) {
+        List<T> items = new ArrayList<>(batch.size());
+        for (Entry<T> entry : batch) {
+            items.add(entry.item);
+        }
+        Set<T> failedItems = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            failedItems.addAll(sink.deliver(items));
+        } catch (RuntimeException e) {
+            LOGGER.error("Error delivering batch of {} items in dispatcher {}", items.size(), name, e);
+            failedItems.addAll(items);
+        }
+        long now = System.nanoTime();
+        LongConsumer recorder = latencyRecorder;
+        List<Entry<T>> failed = new ArrayList<>(failedItems.size());
+        for (Entry<T> entry : batch) {
+            if (failedItems.contains(entry.item)) {
+                failed.add(entry);
+            } else {
+                recorder.accept(now - entry.submittedNanos);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Stops accepting items and waits up to the given time for the buffered ones to be delivered.
+     * Items still buffered afterwards are spilled to disk if spilling is enabled, dropped otherwise.
+     */
+    public void close(long timeout, TimeUnit unit) {
+        running = false;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            for (Thread worker : workers) {
+                worker.join(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stopped = true;
+        workers.forEach(Thread::interrupt);
+        List<Entry<T>> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (spill != null) {
+            spill.prepend(remaining);
+            spill.close();
+        } else if (!remaining.isEmpty()) {
+            dropped.addAndGet(remaining.size());
+            LOGGER.warn("Dispatcher {} closed with {} undelivered items", name, remaining.size());
+        }
+    }
+
+    @Override
+    public void close() {
+        close(5, TimeUnit.SECONDS);
+    }
+
+    private enum Outcome {
+        BUFFERED,
+        SPILLED,
+        DROPPED
+    }
+
+    /**
+     * Append only file of the items that did not fit in the buffer. Records are read back from the head of
+     * the file, which is truncated whenever all of them have been read. Records are forced to disk as soon as
+     * they are written, and none is appended beyond the maximum size, except the buffered items saved on close.
+     */
+    private static class SpillFile<T> {
+
+        private final Path file;
+        private final long maxBytes;
+        private final SpillCodec<T> codec;
+        private RandomAccessFile data;
+        private long readPosition;
+        private int pending;
+
+        private SpillFile(Path file, long maxBytes, SpillCodec<T> codec) {
+            if (maxBytes <= 0) {
+                throw new IllegalArgumentException("Spill file size must be positive: " + maxBytes);
+            }
+            this.file = file;
+            this.maxBytes = maxBytes;
+            this.codec = codec;
+            try {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                this.data = new RandomAccessFile(file.toFile(), "rw");
+                recover();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open spill file " + file, e);
+            }
+        }
+
+        // counts the records left by a previous run, dropping a record that was not completely written
+        private void recover() throws IOException {
+            long position = 0;
+            long length = data.length();
+            while (position + Long.BYTES + Integer.BYTES <= length) {
+                data.seek(position + Long.BYTES);
+                long next = position + Long.BYTES + Integer.BYTES + data.readInt();
+                if (next > length) {
+                    break;
+                }
+                position = next;
+                pending++;
+            }
+            data.setLength(position);
+            if (pending > 0) {
+                LOGGER.info("Found {} spilled items in {}", pending, file);
+            }
+        }
+
+        private synchronized int pending() {
+            return pending;
+        }
+
+        /**
+         * Appends the entry unless the spill file is empty and the buffer has room.
+         */
+        private synchronized Outcome offerOrAppend(BlockingQueue<Entry<T>> buffer, Entry<T> entry) {
+            if (pending == 0 && buffer.offer(entry)) {
+                return Outcome.BUFFERED;
+            }
+            try {
+                data.seek(data.length());
+                if (!write(entry, true)) {
+                    return Outcome.DROPPED;
+                }
+                sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot spill item to " + file, e);
+            }
+            return Outcome.SPILLED;
+        }
+
+        /**
+         * @return the number of entries appended, the following ones did not fit
+         */
+        private synchronized int append(List<Entry<T>> entries) {
+            int written = 0;
+            try {
+                data.seek(data.length());
+                while (written < entries.size() && write(entries.get(written), true)) {
+                    written++;
+                }
+                sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot spill items to " + file, e);
+            }
+            return written;
+        }
+
+        private synchronized void prepend(List<Entry<T>> entries) {
+            if (entries.isEmpty()) {
+                return;
+            }
+            try {
+                // buffered entries are older than the spilled ones, so the unread records are moved after them
+                byte[] unread = new byte[(int) (data.length() - readPosition)];
+                data.seek(readPosition);
+                data.readFully(unread);
+                int unreadCount = pending;
+                data.setLength(0);
+                readPosition = 0;
+                pending = 0;
+                for (Entry<T> entry : entries) {
+                    write(entry, false);
+                }
+                data.write(unread);
+                pending += unreadCount;
+                sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot spill items to " + file, e);
+            }
+        }
+
+        private boolean write(Entry<T> entry, boolean bounded) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream output = new DataOutputStream(bytes)) {
+                codec.write(output, entry.item);
+            }
+            // records already read are still in the file until it is compacted, they do not count against the bound
+            if (bounded && data.length() - readPosition + Long.BYTES + Integer.BYTES + bytes.size() > maxBytes) {
+                return false;
+            }
+            long submittedMillis = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - entry.submittedNanos);
+            data.writeLong(submittedMillis);
+            data.writeInt(bytes.size());
+            data.write(bytes.toByteArray());
+            pending++;
+            return true;
+        }
+
+        private void sync() throws IOException {
+            data.getChannel().force(false);
+        }
+
+        private synchronized void read(List<Entry<T>> batch, int max) {
+            try {
+                data.seek(readPosition);
+                while (pending > 0 && batch.size() < max) {
+                    long submittedMillis = data.readLong();
+                    byte[] bytes = new byte[data.readInt()];
+                    data.readFully(bytes);
+                    readPosition = data.getFilePointer();
+                    pending--;
+                    T item;
+                    try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                        item = codec.read(input);
+                    }
+                    long age = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, System.currentTimeMillis() - submittedMillis));
+                    batch.add(new Entry<>(item, System.nanoTime() - age));
+                }
+                if (pending == 0) {
+                    reset();
+                } else if (readPosition > data.length() - readPosition) {
+                    compact();
+                }
+            } catch (EOFException e) {
+                LOGGER.warn("Spill file {} is truncated, {} items lost", file, pending);
+                reset();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read spilled items from " + file, e);
+            }
+        }
+
+        // moves the unread records to the start of the file once they take less room than the ones already read
+        private void compact() throws IOException {
+            byte[] unread = new byte[(int) (data.length() - readPosition)];
+            data.seek(readPosition);
+            data.readFully(unread);
+            data.seek(0);
+            data.write(unread);
+            data.setLength(unread.length);
+            readPosition = 0;
+            sync();
+        }
+
+        private void reset() {
+            pending = 0;
+            readPosition = 0;
+            try {
+                data.setLength(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot truncate spill file " + file, e);
+            }
+        }
+
+        private synchronized void close() {
+            try {
+                data.close();
+            } catch (IOException e) {
+                LOGGER.warn("Error closing spill file {}", file, e);
+            }
+        }
+    }
+}
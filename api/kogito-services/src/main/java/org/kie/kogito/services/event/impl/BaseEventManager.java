@@ -30,10 +30,11 @@ public class BaseEventManager implements EventManager {
     private String service;
     private Addons addons;
     private Set<EventPublisher> publishers = new LinkedHashSet<>();
+    private boolean delta;
 
     @Override
     public EventBatch newBatch() {
-        return new ProcessInstanceEventBatch(service, addons);
+        return new ProcessInstanceEventBatch(service, addons, delta);
     }
 
     @Override
@@ -62,4 +63,9 @@ public class BaseEventManager implements EventManager {
         this.addons = addons;
     }
 
+    @Override
+    public void setDeltaProcessInstanceEvents(boolean delta) {
+        this.delta = delta;
+    }
+
 }
@@ -17,6 +17,8 @@ package org.kie.kogito.services.event.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -42,6 +44,7 @@ import org.kie.kogito.internal.process.runtime.KogitoWorkItem;
 import org.kie.kogito.internal.process.runtime.KogitoWorkflowProcessInstance;
 import org.kie.kogito.process.workitem.HumanTaskWorkItem;
 import org.kie.kogito.services.event.ProcessInstanceDataEvent;
+import org.kie.kogito.services.event.ProcessInstanceDeltaDataEvent;
 import org.kie.kogito.services.event.UserTaskDeadlineDataEvent;
 import org.kie.kogito.services.event.UserTaskInstanceDataEvent;
 import org.kie.kogito.services.event.VariableInstanceDataEvent;
@@ -49,20 +52,37 @@ import org.kie.kogito.services.event.VariableInstanceDataEvent;
 public class ProcessInstanceEventBatch implements EventBatch {
 
     public static final String TRACKED = "tracked";
+    public static final long FIRST_SEQUENCE = 1L;
 
     private final String service;
     private Addons addons;
+    private final boolean delta;
     private List<ProcessEvent> rawEvents = new ArrayList<>();
+    private Map<String, Long> sequences = new HashMap<>();
 
     public ProcessInstanceEventBatch(String service, Addons addons) {
+        this(service, addons, false);
+    }
+
+    /**
+     * @param delta when true, delta events are produced instead of full process instance events
+     */
+    public ProcessInstanceEventBatch(String service, Addons addons, boolean delta) {
         this.service = service;
         this.addons = addons;
+        this.delta = delta;
     }
 
     @Override
     public void append(Object rawEvent) {
         if (rawEvent instanceof ProcessEvent) {
-            rawEvents.add((ProcessEvent) rawEvent);
+            ProcessEvent event = (ProcessEvent) rawEvent;
+            if (delta) {
+                // events are appended before the process instance is persisted, so its sequence is stored with it
+                KogitoWorkflowProcessInstance pi = (KogitoWorkflowProcessInstance) event.getProcessInstance();
+                sequences.computeIfAbsent(pi.getStringId(), id -> pi.nextEventSequence());
+            }
+            rawEvents.add(event);
         }
     }
 
@@ -71,6 +91,7 @@ public class ProcessInstanceEventBatch implements EventBatch {
         Map<String, ProcessInstanceEventBody> processInstances = new LinkedHashMap<>();
         Map<String, UserTaskInstanceEventBody> userTaskInstances = new LinkedHashMap<>();
         Set<VariableInstanceEventBody> variables = new LinkedHashSet<>();
+        Map<String, Map<String, Object>> changedVariables = new HashMap<>();
 
         Collection<DataEvent<?>> processedEvents = new ArrayList<>();
         for (ProcessEvent event : rawEvents) {
@@ -86,16 +107,39 @@ public class ProcessInstanceEventBatch implements EventBatch {
                 handleProcessWorkItemTransitionEvent((ProcessWorkItemTransitionEvent) event, userTaskInstances);
             } else if (event instanceof ProcessVariableChangedEvent) {
                 handleProcessVariableChangedEvent((KogitoProcessVariableChangedEvent) event, variables);
+                if (delta) {
+                    collectChangedVariable((KogitoProcessVariableChangedEvent) event, body, changedVariables);
+                }
             } else if (event instanceof HumanTaskDeadlineEvent) {
                 processedEvents.add(buildUserTaskDeadlineEvent((HumanTaskDeadlineEvent) event));
             }
         }
-        processInstances.values().stream().map(pi -> new ProcessInstanceDataEvent(extractRuntimeSource(pi.metaData()), addons.toString(), pi.metaData(), pi)).forEach(processedEvents::add);
+        if (!delta) {
+            processInstances.values().stream().map(pi -> new ProcessInstanceDataEvent(extractRuntimeSource(pi.metaData()), addons.toString(), pi.metaData(), pi)).forEach(processedEvents::add);
+        } else {
+            processInstances.values().stream().map(pi -> buildDeltaEvent(pi, changedVariables)).forEach(processedEvents::add);
+        }
         userTaskInstances.values().stream().map(pi -> new UserTaskInstanceDataEvent(extractRuntimeSource(pi.metaData()), addons.toString(), pi.metaData(), pi)).forEach(processedEvents::add);
         variables.stream().map(pi -> new VariableInstanceDataEvent(extractRuntimeSource(pi.metaData()), addons.toString(), pi.metaData(), pi)).forEach(processedEvents::add);
         return processedEvents;
     }
 
+    private DataEvent<?> buildDeltaEvent(ProcessInstanceEventBody body, Map<String, Map<String, Object>> changedVariables) {
+        long sequence = sequences.get(body.getId());
+        boolean snapshot = sequence == FIRST_SEQUENCE;
+        if (!snapshot) {
+            body.update().variables(changedVariables.getOrDefault(body.getId(), Collections.emptyMap()));
+        }
+        return new ProcessInstanceDeltaDataEvent(extractRuntimeSource(body.metaData()), addons.toString(), body.metaData(), body, sequence, snapshot);
+    }
+
+    protected void collectChangedVariable(KogitoProcessVariableChangedEvent event, ProcessInstanceEventBody body, Map<String, Map<String, Object>> changedVariables) {
+        // variables of inner scopes are prefixed by their container id and are not part of the process instance variables
+        if (event.getVariableId().indexOf(':') < 0) {
+            changedVariables.computeIfAbsent(body.getId(), key -> new LinkedHashMap<>()).put(event.getVariableId(), event.getNewValue());
+        }
+    }
+
     private DataEvent<?> buildUserTaskDeadlineEvent(HumanTaskDeadlineEvent event) {
 
         HumanTaskWorkItem workItem = event.getWorkItem();
@@ -57,8 +57,12 @@ public class CollectingUnitOfWork implements UnitOfWork {
         checkStarted();
         EventBatch batch = eventManager.newBatch();
 
-        for (WorkUnit<?> work : sorted()) {
+        Collection<WorkUnit<?>> sortedWork = sorted();
+        // all events are appended before any work is performed, so that the batch sees the state to be persisted
+        for (WorkUnit<?> work : sortedWork) {
             batch.append(work.data());
+        }
+        for (WorkUnit<?> work : sortedWork) {
             work.perform();
         }
         eventManager.publish(batch);
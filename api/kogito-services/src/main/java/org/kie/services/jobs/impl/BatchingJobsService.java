@@ -0,0 +1,209 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.services.jobs.impl;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.kie.kogito.jobs.BulkJobsService;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.jobs.ProcessJobDescription;
+import org.kie.kogito.services.uow.CollectingUnitOfWork;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.kie.kogito.uow.WorkUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JobsService decorator that collects process instance job requests made within a unit of work
+ * and sends them to the delegate as a single batch once the unit of work completes. A job that is
+ * scheduled and cancelled within the same unit of work never reaches the delegate. Requests made
+ * outside of a unit of work are sent to the delegate right away, the fallback unit of work is shared
+ * by all threads so it cannot hold a batch.
+ */
+public class BatchingJobsService implements BulkJobsService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingJobsService.class);
+    // after the process instances are persisted
+    private static final int PRIORITY = 50;
+
+    private final BulkJobsService delegate;
+    private final UnitOfWorkManager unitOfWorkManager;
+    private final Map<UnitOfWork, JobsBatch> batches = new IdentityHashMap<>();
+
+    public BatchingJobsService(BulkJobsService delegate, UnitOfWorkManager unitOfWorkManager) {
+        this.delegate = delegate;
+        this.unitOfWorkManager = unitOfWorkManager;
+    }
+
+    @Override
+    public String scheduleProcessJob(ProcessJobDescription description) {
+        return delegate.scheduleProcessJob(description);
+    }
+
+    @Override
+    public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
+        UnitOfWork unitOfWork = unitOfWorkManager.currentUnitOfWork();
+        if (!isCollecting(unitOfWork)) {
+            return delegate.scheduleProcessInstanceJob(description);
+        }
+        enlist(unitOfWork, batch -> batch.schedule(description));
+        return description.id();
+    }
+
+    @Override
+    public boolean cancelJob(String id) {
+        UnitOfWork unitOfWork = unitOfWorkManager.currentUnitOfWork();
+        if (!isCollecting(unitOfWork)) {
+            return delegate.cancelJob(id);
+        }
+        enlist(unitOfWork, batch -> batch.cancel(id));
+        return true;
+    }
+
+    @Override
+    public ZonedDateTime getScheduledTime(String id) {
+        JobsBatch batch = currentBatch();
+        if (batch != null) {
+            ProcessInstanceJobDescription pending = batch.scheduled.get(id);
+            if (pending != null) {
+                return pending.expirationTime().get();
+            }
+        }
+        return delegate.getScheduledTime(id);
+    }
+
+    @Override
+    public void executeBatch(Collection<ProcessInstanceJobDescription> scheduled, Collection<String> cancelled) {
+        delegate.executeBatch(scheduled, cancelled);
+    }
+
+    @Override
+    public boolean isBatchEnabled() {
+        return true;
+    }
+
+    private JobsBatch currentBatch() {
+        UnitOfWork unitOfWork = unitOfWorkManager.currentUnitOfWork();
+        synchronized (batches) {
+            return batches.get(unitOfWork);
+        }
+    }
+
+    private static boolean isCollecting(UnitOfWork unitOfWork) {
+        return unitOfWork instanceof CollectingUnitOfWork;
+    }
+
+    private void enlist(UnitOfWork unitOfWork, Consumer<JobsBatch> request) {
+        JobsBatch batch;
+        synchronized (batches) {
+            batch = batches.get(unitOfWork);
+            if (batch != null) {
+                request.accept(batch);
+                return;
+            }
+            batch = new JobsBatch(unitOfWork);
+            request.accept(batch);
+            batches.put(unitOfWork, batch);
+        }
+        unitOfWork.intercept(new JobsBatchWorkUnit(batch));
+    }
+
+    private void flush(JobsBatch batch) {
+        synchronized (batches) {
+            batches.remove(batch.unitOfWork);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        LOGGER.debug("Sending batch of {} scheduled and {} cancelled jobs", batch.scheduled.size(), batch.cancelled.size());
+        delegate.executeBatch(batch.scheduled.values(), batch.cancelled);
+    }
+
+    private void discard(JobsBatch batch) {
+        synchronized (batches) {
+            batches.remove(batch.unitOfWork);
+        }
+    }
+
+    int pendingBatches() {
+        synchronized (batches) {
+            return batches.size();
+        }
+    }
+
+    static class JobsBatch {
+
+        private final UnitOfWork unitOfWork;
+        private final Map<String, ProcessInstanceJobDescription> scheduled = new LinkedHashMap<>();
+        private final Set<String> cancelled = new LinkedHashSet<>();
+
+        JobsBatch(UnitOfWork unitOfWork) {
+            this.unitOfWork = unitOfWork;
+        }
+
+        void schedule(ProcessInstanceJobDescription description) {
+            scheduled.put(description.id(), description);
+        }
+
+        void cancel(String id) {
+            // a job scheduled within this batch was never sent, so there is nothing to cancel
+            if (scheduled.remove(id) == null) {
+                cancelled.add(id);
+            }
+        }
+
+        boolean isEmpty() {
+            return scheduled.isEmpty() && cancelled.isEmpty();
+        }
+    }
+
+    private class JobsBatchWorkUnit implements WorkUnit<JobsBatch> {
+
+        private final JobsBatch batch;
+
+        JobsBatchWorkUnit(JobsBatch batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public JobsBatch data() {
+            return batch;
+        }
+
+        @Override
+        public void perform() {
+            flush(batch);
+        }
+
+        @Override
+        public void abort() {
+            discard(batch);
+        }
+
+        @Override
+        public Integer priority() {
+            return PRIORITY;
+        }
+    }
+}
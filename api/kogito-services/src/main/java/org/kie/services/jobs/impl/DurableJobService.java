@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.services.jobs.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.kie.kogito.Model;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.process.Signal;
+import org.kie.kogito.timer.TimerInstance;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Application wide {@link TimingWheelJobService} keeping process instance jobs in a {@link JobStore}, or only in
+ * memory when no store is given. One instance serves all the processes of the application, so that they share
+ * its ticker and worker threads.
+ * <p>
+ * Timers are delivered through {@link Processes}, as the external Jobs Service callback does, so that they reach
+ * process instances loaded from the configured persistence after a restart. Processes are looked up lazily, as
+ * they are themselves configured with this service. {@link #recover()} is meant to be invoked once the
+ * application has started, and {@link #shutdown()}, which also closes the store, when it stops.
+ */
+public class DurableJobService extends TimingWheelJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DurableJobService.class);
+
+    private final Supplier<Processes> processes;
+    private final JobStore store;
+
+    private static class TimerSignal implements Signal<TimerInstance> {
+
+        private final TimerInstance timer;
+
+        private TimerSignal(TimerInstance timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public String channel() {
+            return "timerTriggered";
+        }
+
+        @Override
+        public TimerInstance payload() {
+            return timer;
+        }
+
+        @Override
+        public String referenceId() {
+            return null;
+        }
+    }
+
+    public DurableJobService(Supplier<Processes> processes, UnitOfWorkManager unitOfWorkManager, JobStore store) {
+        this(DEFAULT_SHARDS, DEFAULT_WORKERS, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE, processes, unitOfWorkManager, store);
+    }
+
+    public DurableJobService(int shards, int workers, long tickMillis, int wheelSize, Supplier<Processes> processes, UnitOfWorkManager unitOfWorkManager,
+            JobStore store) {
+        super(shards, workers, tickMillis, wheelSize, null, unitOfWorkManager, store);
+        this.processes = processes;
+        this.store = store;
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        if (store instanceof Closeable) {
+            try {
+                ((Closeable) store).close();
+            } catch (IOException e) {
+                LOGGER.warn("Error closing job store", e);
+            }
+        }
+    }
+
+    @Override
+    protected void startProcessInstance(String processId) {
+        Process<? extends Model> process = processes.get().processById(processId);
+        if (process == null) {
+            LOGGER.warn("Process {} not found, the job starting it is ignored", processId);
+            return;
+        }
+        process.createInstance(process.createModel()).start(TRIGGER, null);
+    }
+
+    @Override
+    protected boolean signalProcessInstance(String processId, String processInstanceId, TimerInstance timer) {
+        Process<?> process = processId != null ? processes.get().processById(processId) : null;
+        if (process == null) {
+            return false;
+        }
+        Optional<? extends ProcessInstance<?>> processInstance = process.instances().findById(processInstanceId);
+        processInstance.ifPresent(pi -> pi.send(new TimerSignal(timer)));
+        return processInstance.isPresent();
+    }
+}
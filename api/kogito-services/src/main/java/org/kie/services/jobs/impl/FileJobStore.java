@@ -0,0 +1,214 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.services.jobs.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link JobStore} backed by an append only log file.
+ * <p>
+ * Every change is appended and synced to the file, the live jobs are also kept in memory. Superseded records
+ * are dropped by rewriting the live jobs to a new file which atomically replaces the log; this happens when
+ * the store is opened, which also discards a record left incomplete by a crash, and then in the background
+ * once superseded records outnumber the live ones.
+ */
+public class FileJobStore implements JobStore, Closeable {
+
+    public static final long DEFAULT_COMPACTION_INTERVAL_MILLIS = 60000L;
+    public static final int DEFAULT_MIN_GARBAGE = 1000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileJobStore.class);
+    private static final byte STORE = 1;
+    private static final byte REMOVE = 2;
+
+    private final Path file;
+    private final int minGarbage;
+    private final Map<String, StoredJob> jobs = new LinkedHashMap<>();
+    private final ScheduledExecutorService compactor;
+    private FileOutputStream fileOutput;
+    private DataOutputStream output;
+    private int garbage;
+
+    public FileJobStore(Path file) {
+        this(file, DEFAULT_COMPACTION_INTERVAL_MILLIS, DEFAULT_MIN_GARBAGE);
+    }
+
+    public FileJobStore(Path file, long compactionIntervalMillis, int minGarbage) {
+        this.file = file;
+        this.minGarbage = minGarbage;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            if (Files.exists(file)) {
+                read();
+            }
+            compact();
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot open job store " + file, e);
+        }
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kogito-job-store-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded, compactionIntervalMillis, compactionIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void store(StoredJob job) {
+        try {
+            write(output, job);
+            sync();
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot store job " + job.getId(), e);
+        }
+        if (jobs.put(job.getId(), job) != null) {
+            garbage++;
+        }
+    }
+
+    @Override
+    public synchronized void remove(String id) {
+        if (!jobs.containsKey(id)) {
+            return;
+        }
+        try {
+            output.writeByte(REMOVE);
+            output.writeUTF(id);
+            sync();
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot remove job " + id, e);
+        }
+        jobs.remove(id);
+        // both the stored record and the removal are now superseded
+        garbage += 2;
+    }
+
+    @Override
+    public synchronized Collection<StoredJob> load() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    public synchronized int size() {
+        return jobs.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        compactor.shutdownNow();
+        try {
+            output.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error closing job store {}", file, e);
+        }
+    }
+
+    synchronized void compactIfNeeded() {
+        if (garbage >= minGarbage && garbage > jobs.size()) {
+            try {
+                compact();
+            } catch (Exception e) {
+                LOGGER.error("Error compacting job store {}", file, e);
+            }
+        }
+    }
+
+    private void sync() throws IOException {
+        output.flush();
+        fileOutput.getChannel().force(false);
+    }
+
+    private void read() throws IOException {
+        int records = 0;
+        try (InputStream stream = Files.newInputStream(file); DataInputStream input = new DataInputStream(new BufferedInputStream(stream))) {
+            while (true) {
+                byte type = input.readByte();
+                String id = input.readUTF();
+                if (type == STORE) {
+                    String processId = input.readBoolean() ? input.readUTF() : null;
+                    String processInstanceId = input.readUTF();
+                    long expiration = input.readLong();
+                    long repeatInterval = input.readLong();
+                    int limit = input.readInt();
+                    jobs.put(id, new StoredJob(id, processId, processInstanceId, expiration, repeatInterval >= 0 ? repeatInterval : null, limit));
+                } else if (type == REMOVE) {
+                    jobs.remove(id);
+                } else {
+                    LOGGER.warn("Unknown record type {} in job store {}, ignoring the rest of the file", type, file);
+                    break;
+                }
+                records++;
+            }
+        } catch (EOFException e) {
+            // end of the log, possibly a record which was not completely written
+        }
+        LOGGER.debug("Read {} records and {} jobs from job store {}", records, jobs.size(), file);
+    }
+
+    private void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileOutputStream stream = new FileOutputStream(compacted.toFile())) {
+            DataOutputStream compactedOutput = new DataOutputStream(new BufferedOutputStream(stream));
+            for (StoredJob job : jobs.values()) {
+                write(compactedOutput, job);
+            }
+            compactedOutput.flush();
+            stream.getFD().sync();
+        }
+        if (fileOutput != null) {
+            fileOutput.close();
+        }
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        fileOutput = new FileOutputStream(file.toFile(), true);
+        output = new DataOutputStream(new BufferedOutputStream(fileOutput));
+        garbage = 0;
+    }
+
+    private static void write(DataOutputStream output, StoredJob job) throws IOException {
+        output.writeByte(STORE);
+        output.writeUTF(job.getId());
+        output.writeBoolean(job.getProcessId() != null);
+        if (job.getProcessId() != null) {
+            output.writeUTF(job.getProcessId());
+        }
+        output.writeUTF(job.getProcessInstanceId());
+        output.writeLong(job.getExpirationMillis());
+        output.writeLong(job.getRepeatInterval() != null ? job.getRepeatInterval() : -1L);
+        output.writeInt(job.getLimit());
+    }
+}
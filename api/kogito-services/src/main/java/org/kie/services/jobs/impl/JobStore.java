@@ -0,0 +1,40 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.services.jobs.impl;
+
+import java.util.Collection;
+
+/**
+ * Durable storage of the process instance jobs scheduled by a {@link TimingWheelJobService}, so that
+ * they can be recovered after a restart.
+ */
+public interface JobStore {
+
+    /**
+     * Stores the job, replacing any previous version with the same id.
+     */
+    void store(StoredJob job);
+
+    /**
+     * Removes the job, unknown ids are ignored.
+     */
+    void remove(String id);
+
+    /**
+     * @return all the jobs currently stored
+     */
+    Collection<StoredJob> load();
+}
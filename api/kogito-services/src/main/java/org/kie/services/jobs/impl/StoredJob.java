@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.services.jobs.impl;
+
+import java.util.Objects;
+
+public class StoredJob {
+
+    private final String id;
+    private final String processId;
+    private final String processInstanceId;
+    private final long expirationMillis;
+    private final Long repeatInterval;
+    private final int limit;
+
+    public StoredJob(String id, String processId, String processInstanceId, long expirationMillis, Long repeatInterval, int limit) {
+        this.id = Objects.requireNonNull(id);
+        this.processId = processId;
+        this.processInstanceId = Objects.requireNonNull(processInstanceId);
+        this.expirationMillis = expirationMillis;
+        this.repeatInterval = repeatInterval;
+        this.limit = limit;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getProcessId() {
+        return processId;
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    public Long getRepeatInterval() {
+        return repeatInterval;
+    }
+
+    /**
+     * @return remaining executions, negative when unbounded
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        StoredJob that = (StoredJob) o;
+        return expirationMillis == that.expirationMillis && limit == that.limit && id.equals(that.id) && Objects.equals(processId, that.processId)
+                && processInstanceId.equals(that.processInstanceId) && Objects.equals(repeatInterval, that.repeatInterval);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, processId, processInstanceId, expirationMillis, repeatInterval, limit);
+    }
+
+    @Override
+    public String toString() {
+        return "StoredJob{" +
+                "id='" + id + '\'' +
+                ", processId='" + processId + '\'' +
+                ", processInstanceId='" + processInstanceId + '\'' +
+                ", expirationMillis=" + expirationMillis +
+                ", repeatInterval=" + repeatInterval +
+                ", limit=" + limit +
+                '}';
+    }
+}
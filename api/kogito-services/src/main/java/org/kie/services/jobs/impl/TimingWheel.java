@@ -0,0 +1,225 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.services.jobs.impl;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel working on absolute ticks.
+ * <p>
+ * Level {@code n} has {@code wheelSize} slots of {@code wheelSize^n} ticks each; timeouts are kept in the
+ * lowest level able to hold them and cascade to the lower levels as their slot is reached, so that adding,
+ * removing and advancing by one tick are constant time operations.
+ * <p>
+ * This class is not thread safe, callers are expected to guard every wheel with their own lock.
+ */
+class TimingWheel<T> {
+
+    static class Timeout<T> {
+
+        private final T payload;
+        private long deadline;
+        private Slot<T> slot;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        Timeout(T payload) {
+            this.payload = payload;
+        }
+
+        T payload() {
+            return payload;
+        }
+
+        long deadline() {
+            return deadline;
+        }
+
+        boolean isScheduled() {
+            return slot != null;
+        }
+    }
+
+    private static class Slot<T> {
+
+        private Timeout<T> head;
+
+        private void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.slot = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        private Timeout<T> clear() {
+            Timeout<T> first = head;
+            head = null;
+            return first;
+        }
+    }
+
+    private static class Level<T> {
+
+        private final long ticksPerSlot;
+        // allocated on first use, most slots of the higher levels are never used
+        private final Slot<T>[] slots;
+
+        @SuppressWarnings("unchecked")
+        private Level(long ticksPerSlot, int wheelSize) {
+            this.ticksPerSlot = ticksPerSlot;
+            this.slots = new Slot[wheelSize];
+        }
+
+        private int index(long tick) {
+            return (int) ((tick / ticksPerSlot) % slots.length);
+        }
+
+        private Slot<T> slot(long tick) {
+            int index = index(tick);
+            Slot<T> slot = slots[index];
+            if (slot == null) {
+                slot = slots[index] = new Slot<>();
+            }
+            return slot;
+        }
+
+        private Timeout<T> clear(long tick) {
+            Slot<T> slot = slots[index(tick)];
+            return slot != null ? slot.clear() : null;
+        }
+    }
+
+    private final int wheelSize;
+    private Level<T>[] levels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(int wheelSize, long currentTick) {
+        if (wheelSize < 2) {
+            throw new IllegalArgumentException("Wheel size must be at least 2: " + wheelSize);
+        }
+        this.wheelSize = wheelSize;
+        this.currentTick = currentTick;
+        this.levels = new Level[] { new Level<>(1, wheelSize) };
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules the timeout at the given tick.
+     *
+     * @return false when the deadline is not in the future, in which case the timeout is left unscheduled
+     *         and it is up to the caller to expire it
+     */
+    boolean add(Timeout<T> timeout, long deadline) {
+        if (timeout.isScheduled()) {
+            throw new IllegalStateException("Timeout already scheduled");
+        }
+        timeout.deadline = deadline;
+        if (deadline <= currentTick) {
+            return false;
+        }
+        place(timeout);
+        size++;
+        return true;
+    }
+
+    /**
+     * @return true when the timeout was scheduled and has been removed
+     */
+    boolean remove(Timeout<T> timeout) {
+        if (!timeout.isScheduled()) {
+            return false;
+        }
+        timeout.slot.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward up to the given tick, handing every timeout reaching its deadline to the consumer.
+     */
+    void advance(long tick, Consumer<Timeout<T>> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            for (Level<T> level : levels) {
+                if (currentTick % level.ticksPerSlot != 0) {
+                    // higher levels have coarser slots, they cannot be due either
+                    break;
+                }
+                Timeout<T> timeout = level.clear(currentTick);
+                while (timeout != null) {
+                    Timeout<T> next = timeout.next;
+                    timeout.slot = null;
+                    timeout.prev = null;
+                    timeout.next = null;
+                    if (timeout.deadline <= currentTick) {
+                        size--;
+                        expired.accept(timeout);
+                    } else {
+                        place(timeout);
+                    }
+                    timeout = next;
+                }
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        int index = 0;
+        // the slot of a level is only reached again after a whole revolution, so the deadline must fall
+        // within wheelSize slots from the current one
+        while (timeout.deadline / levels[index].ticksPerSlot - currentTick / levels[index].ticksPerSlot >= wheelSize) {
+            index++;
+            if (index == levels.length) {
+                grow();
+            }
+        }
+        levels[index].slot(timeout.deadline).add(timeout);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        Level<T>[] grown = new Level[levels.length + 1];
+        System.arraycopy(levels, 0, grown, 0, levels.length);
+        grown[levels.length] = new Level<>(levels[levels.length - 1].ticksPerSlot * wheelSize, wheelSize);
+        levels = grown;
+    }
+}
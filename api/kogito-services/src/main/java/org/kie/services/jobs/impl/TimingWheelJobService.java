@@ -0,0 +1,470 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.services.jobs.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kie.kogito.internal.process.runtime.KogitoProcessInstance;
+import org.kie.kogito.internal.process.runtime.KogitoProcessRuntime;
+import org.kie.kogito.jobs.JobDescription;
+import org.kie.kogito.jobs.JobsService;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.jobs.ProcessJobDescription;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.timer.TimerInstance;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.kie.kogito.uow.WorkUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In memory {@link JobsService} meant for large numbers of timers.
+ * <p>
+ * Jobs are spread over a number of shards, each one holding a {@link TimingWheel} guarded by its own lock,
+ * so that scheduling and cancelling are constant time and contend only within a shard. A single ticker
+ * thread detects expired jobs and hands them to a bounded set of worker lanes; all jobs of a process instance
+ * go to the same lane, so they fire in order and a slow job only delays the jobs sharing its lane.
+ * <p>
+ * When a {@link JobStore} is given, process instance jobs are kept in it until they are completed or cancelled
+ * and {@link #recover()} schedules them again after a restart. Jobs are stored once the unit of work scheduling
+ * them completes, so that the timers of a unit of work that is rolled back are never recovered.
+ */
+public class TimingWheelJobService implements JobsService {
+
+    public static final long DEFAULT_TICK_MILLIS = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+    public static final int DEFAULT_SHARDS = 16;
+    public static final int DEFAULT_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    public static final int DEFAULT_RECOVERY_BATCH_SIZE = 100;
+    public static final long DEFAULT_RECOVERY_BATCH_INTERVAL_MILLIS = 100L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimingWheelJobService.class);
+    protected static final String TRIGGER = "timer";
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    protected final KogitoProcessRuntime processRuntime;
+    protected final UnitOfWorkManager unitOfWorkManager;
+
+    private final long tickNanos;
+    private final long origin = System.nanoTime();
+    private final Shard[] shards;
+    private final ExecutorService[] workers;
+    private final JobStore store;
+    private final Map<String, TimingWheel.Timeout<Job>> scheduledJobs = new ConcurrentHashMap<>();
+    private final String name = "kogito-jobs-" + INSTANCES.incrementAndGet();
+    private volatile ScheduledExecutorService ticker;
+
+    private static class Shard {
+
+        private final TimingWheel<Job> wheel;
+
+        private Shard(int wheelSize, long currentTick) {
+            this.wheel = new TimingWheel<>(wheelSize, currentTick);
+        }
+    }
+
+    private abstract class Job implements Runnable {
+
+        protected final String id;
+        private final String lane;
+        protected final Long repeatInterval;
+        protected int limit;
+        protected volatile long expirationMillis;
+        private volatile boolean cancelled;
+
+        private Job(String id, String lane, JobDescription description, boolean repeat) {
+            this(id, lane, repeat ? description.expirationTime().repeatInterval() : null, !repeat ? 1 : limit(description));
+        }
+
+        private Job(String id, String lane, Long repeatInterval, int limit) {
+            this.id = id;
+            this.lane = lane;
+            this.repeatInterval = repeatInterval;
+            this.limit = limit;
+        }
+
+        protected abstract void execute();
+
+        protected StoredJob toStored() {
+            return null;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            try {
+                LOGGER.debug("Job {} started", id);
+                execute();
+                LOGGER.debug("Job {} completed", id);
+            } catch (Exception e) {
+                LOGGER.error("Job {} failed", id, e);
+            } finally {
+                // rescheduled once it has run, so that executions of a repeatable job never overlap
+                if (!cancelled && limit != 0 && repeatInterval != null) {
+                    schedule(this, expirationMillis + repeatInterval - System.currentTimeMillis(), true);
+                } else {
+                    scheduledJobs.remove(id);
+                    unstore(id);
+                }
+            }
+        }
+    }
+
+    public TimingWheelJobService(KogitoProcessRuntime processRuntime, UnitOfWorkManager unitOfWorkManager) {
+        this(DEFAULT_SHARDS, DEFAULT_WORKERS, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE, processRuntime, unitOfWorkManager);
+    }
+
+    public TimingWheelJobService(int shards, int workers, long tickMillis, int wheelSize, KogitoProcessRuntime processRuntime, UnitOfWorkManager unitOfWorkManager) {
+        this(shards, workers, tickMillis, wheelSize, processRuntime, unitOfWorkManager, null);
+    }
+
+    public TimingWheelJobService(int shards, int workers, long tickMillis, int wheelSize, KogitoProcessRuntime processRuntime, UnitOfWorkManager unitOfWorkManager,
+            JobStore store) {
+        if (shards < 1 || workers < 1 || tickMillis < 1) {
+            throw new IllegalArgumentException("Shards, workers and tick must be positive: " + shards + ", " + workers + ", " + tickMillis);
+        }
+        this.processRuntime = processRuntime;
+        this.unitOfWorkManager = unitOfWorkManager;
+        this.store = store;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard(wheelSize, 0);
+        }
+        this.workers = new ExecutorService[workers];
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = Executors.newSingleThreadExecutor(threadFactory(name + "-worker-" + i));
+        }
+    }
+
+    @Override
+    public String scheduleProcessJob(ProcessJobDescription description) {
+        LOGGER.debug("ScheduleProcessJob: {}", description);
+        boolean repeat = description.expirationTime().repeatInterval() != null;
+        Job job;
+        if (description.process() != null) {
+            job = new StartProcessJob(description, repeat);
+        } else {
+            job = new LegacyStartProcessJob(description, repeat);
+        }
+        schedule(job, calculateDelay(description), false);
+        return description.id();
+    }
+
+    @Override
+    public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
+        boolean repeat = description.expirationTime().repeatInterval() != null;
+        schedule(new SignalProcessInstanceJob(description, repeat), calculateDelay(description), true);
+        return description.id();
+    }
+
+    @Override
+    public boolean cancelJob(String id) {
+        LOGGER.debug("Cancel Job: {}", id);
+        TimingWheel.Timeout<Job> timeout = scheduledJobs.remove(id);
+        if (timeout == null) {
+            return false;
+        }
+        timeout.payload().cancelled = true;
+        Shard shard = shard(id);
+        synchronized (shard) {
+            shard.wheel.remove(timeout);
+        }
+        unstore(id);
+        return true;
+    }
+
+    @Override
+    public ZonedDateTime getScheduledTime(String id) {
+        TimingWheel.Timeout<Job> timeout = scheduledJobs.get(id);
+        if (timeout != null) {
+            long expiration = timeout.payload().expirationMillis;
+            if (expiration > System.currentTimeMillis()) {
+                return ZonedDateTime.ofInstant(Instant.ofEpochMilli(expiration), ZoneId.systemDefault());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Schedules again the jobs found in the store, see {@link #recover(int, long)}.
+     */
+    public int recover() {
+        return recover(DEFAULT_RECOVERY_BATCH_SIZE, DEFAULT_RECOVERY_BATCH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Schedules again the jobs found in the store, meant to be invoked once at startup. Jobs whose expiration
+     * passed while the application was down are released in batches, oldest first, so that a backlog does not
+     * flood the workers.
+     *
+     * @param batchSize number of overdue jobs fired together
+     * @param batchIntervalMillis delay between two batches of overdue jobs
+     * @return number of recovered jobs
+     */
+    public int recover(int batchSize, long batchIntervalMillis) {
+        if (store == null) {
+            return 0;
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Recovery batch size must be positive: " + batchSize);
+        }
+        List<StoredJob> jobs = new ArrayList<>(store.load());
+        jobs.sort(Comparator.comparingLong(StoredJob::getExpirationMillis));
+        long now = System.currentTimeMillis();
+        int recovered = 0;
+        int overdue = 0;
+        for (StoredJob stored : jobs) {
+            if (scheduledJobs.containsKey(stored.getId())) {
+                continue;
+            }
+            long delay = stored.getExpirationMillis() - now;
+            if (delay <= 0) {
+                delay = (overdue++ / batchSize) * batchIntervalMillis;
+            }
+            schedule(new SignalProcessInstanceJob(stored), delay, false);
+            recovered++;
+        }
+        LOGGER.info("Recovered {} jobs, {} of them overdue", recovered, overdue);
+        return recovered;
+    }
+
+    /**
+     * Stops the ticker and the workers, jobs not yet fired are discarded.
+     */
+    public void shutdown() {
+        ScheduledExecutorService current = ticker;
+        if (current != null) {
+            current.shutdownNow();
+        }
+        for (ExecutorService worker : workers) {
+            worker.shutdownNow();
+        }
+        scheduledJobs.clear();
+    }
+
+    protected long calculateDelay(JobDescription description) {
+        return Duration.between(ZonedDateTime.now(), description.expirationTime().get()).toMillis();
+    }
+
+    /**
+     * Starts a new instance of the given process, invoked within a unit of work.
+     */
+    protected void startProcessInstance(String processId) {
+        KogitoProcessInstance pi = processRuntime.createProcessInstance(processId, null);
+        if (pi != null) {
+            processRuntime.startProcessInstance(pi.getStringId(), TRIGGER);
+        }
+    }
+
+    /**
+     * Signals the timer to the process instance, invoked within a unit of work.
+     *
+     * @return false when the process instance does not exist anymore
+     */
+    protected boolean signalProcessInstance(String processId, String processInstanceId, TimerInstance timer) {
+        KogitoProcessInstance pi = processRuntime.getProcessInstance(processInstanceId);
+        if (pi == null) {
+            return false;
+        }
+        pi.signalEvent("timerTriggered", timer);
+        return true;
+    }
+
+    private static int limit(JobDescription description) {
+        Integer repeatLimit = description.expirationTime().repeatLimit();
+        return repeatLimit != null ? repeatLimit : -1;
+    }
+
+    private void schedule(Job job, long delayMillis, boolean persist) {
+        job.expirationMillis = System.currentTimeMillis() + delayMillis;
+        TimingWheel.Timeout<Job> timeout = new TimingWheel.Timeout<>(job);
+        scheduledJobs.put(job.id, timeout);
+        StoredJob stored = persist && store != null ? job.toStored() : null;
+        if (stored != null) {
+            // skipped when the job already fired or was cancelled before the unit of work completed
+            unitOfWorkManager.currentUnitOfWork().intercept(WorkUnit.create(stored, s -> {
+                if (scheduledJobs.get(s.getId()) == timeout) {
+                    store.store(s);
+                }
+            }));
+        }
+        // rounded up, a job never fires before its expiration
+        long deadline = (System.nanoTime() - origin + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis)) + tickNanos - 1) / tickNanos;
+        boolean scheduled;
+        Shard shard = shard(job.id);
+        synchronized (shard) {
+            scheduled = !job.cancelled && shard.wheel.add(timeout, deadline);
+        }
+        if (scheduled) {
+            startTicker();
+        } else if (job.cancelled) {
+            // cancelled while a repeatable job was being rescheduled
+            if (scheduledJobs.remove(job.id, timeout)) {
+                unstore(job.id);
+            }
+        } else {
+            fire(timeout);
+        }
+    }
+
+    private void unstore(String id) {
+        if (store != null) {
+            store.remove(id);
+        }
+    }
+
+    private void fire(TimingWheel.Timeout<Job> timeout) {
+        Job job = timeout.payload();
+        workers[Math.floorMod(job.lane.hashCode(), workers.length)].execute(job);
+    }
+
+    private void tick() {
+        try {
+            long now = (System.nanoTime() - origin) / tickNanos;
+            List<TimingWheel.Timeout<Job>> expired = new ArrayList<>();
+            for (Shard shard : shards) {
+                synchronized (shard) {
+                    shard.wheel.advance(now, expired::add);
+                }
+            }
+            // fired outside of the shard locks, expiry detection never waits for the workers
+            expired.forEach(this::fire);
+        } catch (Exception e) {
+            LOGGER.error("Error advancing the job timing wheels", e);
+        }
+    }
+
+    private Shard shard(String id) {
+        return shards[Math.floorMod(id.hashCode(), shards.length)];
+    }
+
+    private void startTicker() {
+        if (ticker == null) {
+            synchronized (this) {
+                if (ticker == null) {
+                    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(threadFactory(name + "-ticker"));
+                    executor.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+                    ticker = executor;
+                }
+            }
+        }
+    }
+
+    private static ThreadFactory threadFactory(String threadName) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private class SignalProcessInstanceJob extends Job {
+
+        private final String processId;
+        private final String processInstanceId;
+
+        private SignalProcessInstanceJob(ProcessInstanceJobDescription description, boolean repeat) {
+            super(description.id(), description.processInstanceId(), description, repeat);
+            this.processId = description.processId();
+            this.processInstanceId = description.processInstanceId();
+        }
+
+        private SignalProcessInstanceJob(StoredJob stored) {
+            super(stored.getId(), stored.getProcessInstanceId(), stored.getRepeatInterval(), stored.getLimit());
+            this.processId = stored.getProcessId();
+            this.processInstanceId = stored.getProcessInstanceId();
+        }
+
+        @Override
+        protected void execute() {
+            UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+                String[] ids = id.split("_");
+                if (signalProcessInstance(processId, processInstanceId, TimerInstance.with(Long.valueOf(ids[1]), id, limit - 1))) {
+                    limit--;
+                } else {
+                    // since owning process instance does not exist cancel timers
+                    limit = 0;
+                }
+                return null;
+            });
+        }
+
+        @Override
+        protected StoredJob toStored() {
+            return new StoredJob(id, processId, processInstanceId, expirationMillis, repeatInterval, limit);
+        }
+    }
+
+    private class StartProcessJob extends Job {
+
+        @SuppressWarnings("rawtypes")
+        private final org.kie.kogito.process.Process process;
+
+        private StartProcessJob(ProcessJobDescription description, boolean repeat) {
+            super(description.id(), description.id(), description, repeat);
+            this.process = description.process();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected void execute() {
+            UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+                org.kie.kogito.process.ProcessInstance<?> pi = process.createInstance(process.createModel());
+                if (pi != null) {
+                    pi.start(TRIGGER, null);
+                }
+                return null;
+            });
+            limit--;
+        }
+    }
+
+    private class LegacyStartProcessJob extends Job {
+
+        private final String processId;
+
+        private LegacyStartProcessJob(ProcessJobDescription description, boolean repeat) {
+            super(description.id(), description.id(), description, repeat);
+            this.processId = description.processId();
+        }
+
+        @Override
+        protected void execute() {
+            UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+                startProcessInstance(processId);
+                return null;
+            });
+            limit--;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.event.impl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.kogito.services.event.impl.AsyncEventDispatcher.OverflowPolicy;
+import org.kie.kogito.services.event.impl.AsyncEventDispatcher.Sink;
+import org.kie.kogito.services.event.impl.AsyncEventDispatcher.SpillCodec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncEventDispatcherTest {
+
+    private static final SpillCodec<String> CODEC = new SpillCodec<String>() {
+
+        @Override
+        public void write(DataOutput output, String item) throws IOException {
+            output.writeUTF(item);
+        }
+
+        @Override
+        public String read(DataInput input) throws IOException {
+            return input.readUTF();
+        }
+    };
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    public void testBatchesInOrder() throws Exception {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        AtomicLong latencies = new AtomicLong();
+        AsyncEventDispatcher<String> dispatcher = new AsyncEventDispatcher<>("test", 16, 4, 1, collect(batches));
+        dispatcher.setLatencyRecorder(latency -> latencies.incrementAndGet());
+
+        List<String> items = items(10);
+        items.forEach(dispatcher::submit);
+        dispatcher.close(5, TimeUnit.SECONDS);
+
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(4));
+        assertThat(flatten(batches)).isEqualTo(items);
+        assertThat(latencies.get()).isEqualTo(10);
+        assertThat(dispatcher.depth()).isZero();
+        assertThatThrownBy(() -> dispatcher.submit("late")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testDropOldest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        AsyncEventDispatcher<String> dispatcher = new AsyncEventDispatcher<>("test", 2, 1, 1, OverflowPolicy.DROP_OLDEST, null, AsyncEventDispatcher.DEFAULT_SPILL_MAX_BYTES, null,
+                blockingSink(started, release, batches));
+
+        dispatcher.submit("first");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        items(5).forEach(dispatcher::submit);
+        assertThat(dispatcher.dropped()).isEqualTo(3);
+        assertThat(dispatcher.depth()).isEqualTo(2);
+
+        release.countDown();
+        dispatcher.close(5, TimeUnit.SECONDS);
+        assertThat(flatten(batches)).containsExactly("first", "item-3", "item-4");
+    }
+
+    @Test
+    public void testSpillKeepsOrder() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        AsyncEventDispatcher<String> dispatcher = new AsyncEventDispatcher<>("test", 2, 3, 1, OverflowPolicy.SPILL, spillDirectory, AsyncEventDispatcher.DEFAULT_SPILL_MAX_BYTES, CODEC,
+                blockingSink(started, release, batches));
+
+        dispatcher.submit("first");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        List<String> items = items(10);
+        items.forEach(dispatcher::submit);
+        assertThat(dispatcher.spilled()).isEqualTo(8);
+        assertThat(dispatcher.depth()).isEqualTo(10);
+
+        release.countDown();
+        dispatcher.close(5, TimeUnit.SECONDS);
+        items.add(0, "first");
+        assertThat(flatten(batches)).isEqualTo(items);
+        assertThat(dispatcher.dropped()).isZero();
+    }
+
+    @Test
+    public void testSpilledItemsSurviveClose() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        AsyncEventDispatcher<String> dispatcher = new AsyncEventDispatcher<>("test", 2, 1, 1, OverflowPolicy.SPILL, spillDirectory, AsyncEventDispatcher.DEFAULT_SPILL_MAX_BYTES, CODEC,
+                blockingSink(started, release, batches));
+
+        dispatcher.submit("first");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        List<String> items = items(5);
+        items.forEach(dispatcher::submit);
+        // the sink never returns in time, buffered items are moved to the spill file
+        dispatcher.close(100, TimeUnit.MILLISECONDS);
+        release.countDown();
+
+        List<List<String>> recovered = new CopyOnWriteArrayList<>();
+        AsyncEventDispatcher<String> restarted = new AsyncEventDispatcher<>("test", 2, 2, 1, OverflowPolicy.SPILL, spillDirectory,
+                AsyncEventDispatcher.DEFAULT_SPILL_MAX_BYTES, CODEC, collect(recovered));
+        restarted.close(5, TimeUnit.SECONDS);
+        assertThat(flatten(recovered)).isEqualTo(items);
+    }
+
+    @Test
+    public void testParsePolicy() {
+        assertThat(OverflowPolicy.parse("drop-oldest")).isEqualTo(OverflowPolicy.DROP_OLDEST);
+        assertThat(OverflowPolicy.parse(" Spill ")).isEqualTo(OverflowPolicy.SPILL);
+        assertThatThrownBy(() -> new AsyncEventDispatcher<String>("test", 1, 1, 1, OverflowPolicy.SPILL, null, AsyncEventDispatcher.DEFAULT_SPILL_MAX_BYTES, null,
+                collect(new ArrayList<>()))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testFailedItemsAreRetried() throws Exception {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+        AsyncEventDispatcher<String> dispatcher = new AsyncEventDispatcher<>("test", 16, 4, 1, batch -> {
+            batches.add(batch);
+            // the last item of the first batch is rejected once
+            return attempts.getAndIncrement() == 0 ? batch.subList(batch.size() - 1, batch.size()) : Collections.emptyList();
+        });
+
+        List<String> items = items(4);
+        items.forEach(dispatcher::submit);
+        dispatcher.close(5, TimeUnit.SECONDS);
+
+        assertThat(batches).hasSizeGreaterThanOrEqualTo(2);
+        assertThat(batches.get(1)).containsExactly(batches.get(0).get(batches.get(0).size() - 1));
+        assertThat(flatten(batches)).containsAll(items);
+        assertThat(dispatcher.dropped()).isZero();
+    }
+
+    @Test
+    public void testFailedItemsAreSpilled() throws Exception {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+        AsyncEventDispatcher<String> dispatcher = new AsyncEventDispatcher<>("test", 16, 2, 1, OverflowPolicy.SPILL, spillDirectory,
+                AsyncEventDispatcher.DEFAULT_SPILL_MAX_BYTES, CODEC, batch -> {
+                    batches.add(batch);
+                    return attempts.getAndIncrement() == 0 ? batch : Collections.emptyList();
+                });
+
+        dispatcher.submit("first");
+        dispatcher.close(5, TimeUnit.SECONDS);
+
+        assertThat(flatten(batches)).containsExactly("first", "first");
+        assertThat(dispatcher.spilled()).isEqualTo(1);
+        assertThat(dispatcher.dropped()).isZero();
+    }
+
+    @Test
+    public void testSpillFileIsBounded() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        // room for two records of a timestamp, a length and a short string
+        AsyncEventDispatcher<String> dispatcher = new AsyncEventDispatcher<>("test", 1, 1, 1, OverflowPolicy.SPILL, spillDirectory, 40, CODEC,
+                blockingSink(started, release, batches));
+
+        dispatcher.submit("first");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        items(5).forEach(dispatcher::submit);
+        assertThat(dispatcher.spilled()).isEqualTo(2);
+        assertThat(dispatcher.dropped()).isEqualTo(2);
+
+        release.countDown();
+        dispatcher.close(5, TimeUnit.SECONDS);
+        assertThat(flatten(batches)).containsExactly("first", "item-0", "item-1", "item-2");
+    }
+
+    private static Sink<String> collect(List<List<String>> batches) {
+        return batch -> {
+            batches.add(batch);
+            return Collections.emptyList();
+        };
+    }
+
+    private static Sink<String> blockingSink(CountDownLatch started, CountDownLatch release, List<List<String>> batches) {
+        return batch -> {
+            batches.add(batch);
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Collections.emptyList();
+        };
+    }
+
+    private static List<String> items(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "item-" + i).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static List<String> flatten(List<List<String>> batches) {
+        return batches.stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+}
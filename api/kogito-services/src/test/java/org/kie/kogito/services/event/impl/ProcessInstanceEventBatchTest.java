@@ -16,15 +16,29 @@
 
 package org.kie.kogito.services.event.impl;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.junit.jupiter.api.Test;
+import org.kie.api.definition.process.Process;
+import org.kie.api.event.process.ProcessCompletedEvent;
+import org.kie.kogito.Addons;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.internal.process.event.KogitoProcessVariableChangedEvent;
+import org.kie.kogito.internal.process.runtime.KogitoProcessInstance;
 import org.kie.kogito.internal.process.runtime.KogitoWorkflowProcessInstance;
 import org.kie.kogito.process.flexible.Milestone;
+import org.kie.kogito.services.event.ProcessInstanceDataEvent;
+import org.kie.kogito.services.event.ProcessInstanceDeltaDataEvent;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.kie.kogito.process.flexible.ItemDescription.Status;
 import static org.kie.kogito.services.event.impl.ProcessInstanceEventBody.PROCESS_ID_META_DATA;
 import static org.mockito.Mockito.mock;
@@ -72,4 +86,98 @@ public class ProcessInstanceEventBatchTest {
         MilestoneEventBody milestoneEventBody = MilestoneEventBody.create().id("id").name("name").status(Status.AVAILABLE.name()).build();
         assertThat(batch.createMilestones(pi)).containsOnly(milestoneEventBody);
     }
+
+    @Test
+    public void testFullEventsByDefault() {
+        KogitoWorkflowProcessInstance pi = mockProcessInstance(new HashMap<>());
+        ProcessInstanceEventBatch batch = new ProcessInstanceEventBatch("http://localhost:8080", Addons.EMTPY);
+        batch.append(variableChanged(pi, "x", 1));
+
+        Collection<DataEvent<?>> events = batch.events();
+        assertThat(events).hasSize(1).first().isInstanceOf(ProcessInstanceDataEvent.class);
+    }
+
+    @Test
+    public void testDeltaEvents() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("x", 1);
+        variables.put("y", "large");
+        KogitoWorkflowProcessInstance pi = mockProcessInstance(variables);
+
+        // first event of the instance is a snapshot with all the variables
+        ProcessInstanceEventBatch batch = new ProcessInstanceEventBatch("http://localhost:8080", Addons.EMTPY, true);
+        batch.append(variableChanged(pi, "x", 1));
+        ProcessInstanceDeltaDataEvent event = singleDeltaEvent(batch);
+        assertThat(event.getType()).isEqualTo(ProcessInstanceDeltaDataEvent.TYPE);
+        assertThat(event.getKogitoProcessinstanceSequence()).isEqualTo(1L);
+        assertThat(event.isKogitoProcessinstanceSnapshot()).isTrue();
+        assertThat(event.getData().getVariables()).isEqualTo(variables);
+
+        // then only the variables changed in the unit of work
+        variables.put("x", 2);
+        batch = new ProcessInstanceEventBatch("http://localhost:8080", Addons.EMTPY, true);
+        batch.append(variableChanged(pi, "x", 2));
+        batch.append(variableChanged(pi, "subprocess:z", 3));
+        event = singleDeltaEvent(batch);
+        assertThat(event.getKogitoProcessinstanceSequence()).isEqualTo(2L);
+        assertThat(event.isKogitoProcessinstanceSnapshot()).isFalse();
+        assertThat(event.getData().getVariables()).containsOnly(entry("x", 2));
+
+        when(pi.getState()).thenReturn(KogitoProcessInstance.STATE_COMPLETED);
+        ProcessCompletedEvent completed = mock(ProcessCompletedEvent.class);
+        when(completed.getProcessInstance()).thenReturn(pi);
+        batch = new ProcessInstanceEventBatch("http://localhost:8080", Addons.EMTPY, true);
+        batch.append(completed);
+        event = singleDeltaEvent(batch);
+        assertThat(event.getKogitoProcessinstanceSequence()).isEqualTo(3L);
+        assertThat(event.getData().getVariables()).isEmpty();
+    }
+
+    @Test
+    public void testSequenceStoredWithInstance() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("x", 1);
+        KogitoWorkflowProcessInstance pi = mockProcessInstance(variables);
+        // instance last handled by another node
+        for (int i = 0; i < 5; i++) {
+            pi.nextEventSequence();
+        }
+
+        ProcessInstanceEventBatch batch = new ProcessInstanceEventBatch("http://localhost:8080", Addons.EMTPY, true);
+        batch.append(variableChanged(pi, "x", 2));
+        batch.append(variableChanged(pi, "x", 3));
+        ProcessInstanceDeltaDataEvent event = singleDeltaEvent(batch);
+        assertThat(event.getKogitoProcessinstanceSequence()).isEqualTo(6L);
+        assertThat(event.isKogitoProcessinstanceSnapshot()).isFalse();
+        assertThat(pi.getEventSequence()).isEqualTo(6L);
+    }
+
+    private ProcessInstanceDeltaDataEvent singleDeltaEvent(ProcessInstanceEventBatch batch) {
+        Collection<DataEvent<?>> events = batch.events();
+        assertThat(events).hasSize(1).first().isInstanceOf(ProcessInstanceDeltaDataEvent.class);
+        return (ProcessInstanceDeltaDataEvent) events.iterator().next();
+    }
+
+    private KogitoWorkflowProcessInstance mockProcessInstance(Map<String, Object> variables) {
+        Process process = mock(Process.class);
+        when(process.getMetaData()).thenReturn(new HashMap<>());
+        KogitoWorkflowProcessInstance pi = mock(KogitoWorkflowProcessInstance.class);
+        when(pi.getStringId()).thenReturn("pi-1");
+        when(pi.getProcessId()).thenReturn("travels");
+        when(pi.getProcess()).thenReturn(process);
+        when(pi.getState()).thenReturn(KogitoProcessInstance.STATE_ACTIVE);
+        when(pi.getVariables()).thenReturn(variables);
+        AtomicLong sequence = new AtomicLong();
+        when(pi.getEventSequence()).thenAnswer(i -> sequence.get());
+        when(pi.nextEventSequence()).thenAnswer(i -> sequence.incrementAndGet());
+        return pi;
+    }
+
+    private KogitoProcessVariableChangedEvent variableChanged(KogitoWorkflowProcessInstance pi, String variableId, Object value) {
+        KogitoProcessVariableChangedEvent event = mock(KogitoProcessVariableChangedEvent.class);
+        when(event.getProcessInstance()).thenReturn(pi);
+        when(event.getVariableId()).thenReturn(variableId);
+        when(event.getNewValue()).thenReturn(value);
+        return event;
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.services.jobs.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.jobs.BulkJobsService;
+import org.kie.kogito.jobs.DurationExpirationTime;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class BatchingJobsServiceTest {
+
+    private final List<List<String>> scheduled = new ArrayList<>();
+    private final List<List<String>> cancelled = new ArrayList<>();
+    private UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+    private BulkJobsService delegate;
+    private BatchingJobsService jobsService;
+
+    @BeforeEach
+    public void setup() {
+        delegate = mock(BulkJobsService.class);
+        doAnswer(invocation -> {
+            List<String> ids = new ArrayList<>();
+            for (ProcessInstanceJobDescription description : (Collection<ProcessInstanceJobDescription>) invocation.getArgument(0)) {
+                ids.add(description.id());
+            }
+            scheduled.add(ids);
+            cancelled.add(new ArrayList<>((Collection<String>) invocation.getArgument(1)));
+            return null;
+        }).when(delegate).executeBatch(any(), any());
+        jobsService = new BatchingJobsService(delegate, unitOfWorkManager);
+    }
+
+    @Test
+    void testRequestsAreSentOnceUnitOfWorkEnds() {
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        String first = jobsService.scheduleProcessInstanceJob(job());
+        String second = jobsService.scheduleProcessInstanceJob(job());
+        assertThat(jobsService.cancelJob(first)).isTrue();
+        jobsService.cancelJob("existing");
+        assertThat(scheduled).isEmpty();
+
+        unitOfWork.end();
+
+        assertThat(scheduled).containsExactly(Collections.singletonList(second));
+        assertThat(cancelled).containsExactly(Collections.singletonList("existing"));
+        assertThat(jobsService.pendingBatches()).isZero();
+    }
+
+    @Test
+    void testCancelledPairIsNotSent() {
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        jobsService.cancelJob(jobsService.scheduleProcessInstanceJob(job()));
+        unitOfWork.end();
+
+        assertThat(scheduled).isEmpty();
+    }
+
+    @Test
+    void testAbortedUnitOfWorkDiscardsRequests() {
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        jobsService.scheduleProcessInstanceJob(job());
+        unitOfWork.abort();
+
+        assertThat(scheduled).isEmpty();
+        assertThat(jobsService.pendingBatches()).isZero();
+    }
+
+    @Test
+    void testRequestsOutsideOfUnitOfWorkAreSentRightAway() {
+        ProcessInstanceJobDescription description = job();
+        jobsService.scheduleProcessInstanceJob(description);
+        jobsService.cancelJob("existing");
+
+        verify(delegate).scheduleProcessInstanceJob(description);
+        verify(delegate).cancelJob("existing");
+        verify(delegate, never()).executeBatch(any(), any());
+        assertThat(jobsService.pendingBatches()).isZero();
+    }
+
+    @Test
+    void testScheduledTimeOfPendingJob() {
+        ProcessInstanceJobDescription description = job();
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        jobsService.scheduleProcessInstanceJob(description);
+
+        assertThat(jobsService.getScheduledTime(description.id())).isEqualTo(description.expirationTime().get());
+        jobsService.getScheduledTime("existing");
+        verify(delegate).getScheduledTime("existing");
+        unitOfWork.end();
+    }
+
+    private static ProcessInstanceJobDescription job() {
+        return ProcessInstanceJobDescription.of(1, DurationExpirationTime.after(60000), "processInstanceId", "processId");
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.services.jobs.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileJobStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testReopen() {
+        Path file = dir.resolve("jobs.log");
+        StoredJob first = new StoredJob("1_1", "process", "pi1", 1000L, null, 1);
+        StoredJob second = new StoredJob("2_1", null, "pi2", 2000L, 500L, -1);
+        StoredJob updated = new StoredJob("2_1", null, "pi2", 2500L, 500L, -1);
+        try (FileJobStore store = new FileJobStore(file)) {
+            store.store(first);
+            store.store(second);
+            store.store(new StoredJob("3_1", "process", "pi3", 3000L, null, 1));
+            store.remove("3_1");
+            store.store(updated);
+        }
+
+        try (FileJobStore store = new FileJobStore(file)) {
+            assertThat(store.load()).containsExactlyInAnyOrder(first, updated);
+        }
+    }
+
+    @Test
+    public void testIncompleteRecordIsDiscarded() throws IOException {
+        Path file = dir.resolve("jobs.log");
+        StoredJob job = new StoredJob("1_1", "process", "pi1", 1000L, null, 1);
+        try (FileJobStore store = new FileJobStore(file)) {
+            store.store(job);
+        }
+        Files.write(file, new byte[] { 1, 0, 3, 'a' }, StandardOpenOption.APPEND);
+
+        try (FileJobStore store = new FileJobStore(file)) {
+            assertThat(store.load()).containsExactly(job);
+            store.remove("1_1");
+        }
+        try (FileJobStore store = new FileJobStore(file)) {
+            assertThat(store.load()).isEmpty();
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        Path file = dir.resolve("jobs.log");
+        try (FileJobStore store = new FileJobStore(file, 60000L, 10)) {
+            for (int i = 0; i < 100; i++) {
+                store.store(new StoredJob(i + "_1", "process", "pi", i, null, 1));
+                if (i > 0) {
+                    store.remove((i - 1) + "_1");
+                }
+            }
+            long size = Files.size(file);
+
+            store.compactIfNeeded();
+
+            assertThat(Files.size(file)).isLessThan(size);
+            assertThat(store.load()).containsExactly(new StoredJob("99_1", "process", "pi", 99, null, 1));
+            store.store(new StoredJob("100_1", "process", "pi", 100, null, 1));
+        }
+        try (FileJobStore store = new FileJobStore(file)) {
+            assertThat(store.size()).isEqualTo(2);
+        }
+    }
+}
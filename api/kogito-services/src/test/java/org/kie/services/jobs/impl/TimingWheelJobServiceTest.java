@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.services.jobs.impl;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.kogito.internal.process.runtime.KogitoProcessInstance;
+import org.kie.kogito.internal.process.runtime.KogitoProcessRuntime;
+import org.kie.kogito.jobs.DurationExpirationTime;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.jobs.ProcessJobDescription;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstances;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.process.Signal;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.timer.TimerInstance;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TimingWheelJobServiceTest {
+
+    private final List<String> triggered = new CopyOnWriteArrayList<>();
+    private CountDownLatch latch;
+    private TimingWheelJobService jobService;
+    private KogitoProcessRuntime processRuntime;
+    private UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    public void setup() {
+        KogitoProcessInstance processInstance = mock(KogitoProcessInstance.class);
+        doAnswer(invocation -> {
+            triggered.add(((TimerInstance) invocation.getArgument(1)).getId());
+            latch.countDown();
+            return null;
+        }).when(processInstance).signalEvent(eq("timerTriggered"), any());
+        processRuntime = mock(KogitoProcessRuntime.class);
+        when(processRuntime.getProcessInstance("pi")).thenReturn(processInstance);
+        jobService = new TimingWheelJobService(2, 2, 5, 8, processRuntime, unitOfWorkManager);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        jobService.shutdown();
+    }
+
+    @Test
+    public void testJobsFireInExpirationOrder() throws Exception {
+        latch = new CountDownLatch(3);
+        String late = jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, DurationExpirationTime.after(300), "pi", "test"));
+        String early = jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(2, DurationExpirationTime.after(50), "pi", "test"));
+        String now = jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(3, DurationExpirationTime.now(), "pi", "test"));
+        assertThat(jobService.getScheduledTime(late)).isNotNull();
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(triggered).containsExactly(now, early, late);
+        assertThat(jobService.getScheduledTime(late)).isNull();
+    }
+
+    @Test
+    public void testCancelJob() throws Exception {
+        latch = new CountDownLatch(1);
+        String cancelled = jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, DurationExpirationTime.after(100), "pi", "test"));
+        String fired = jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(2, DurationExpirationTime.after(200), "pi", "test"));
+
+        assertThat(jobService.cancelJob(cancelled)).isTrue();
+        assertThat(jobService.cancelJob(cancelled)).isFalse();
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(triggered).containsExactly(fired);
+    }
+
+    @Test
+    public void testRepeatableJobWithLimit() throws Exception {
+        latch = new CountDownLatch(3);
+        String id = jobService.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, DurationExpirationTime.repeat(10, 20L, 3), "pi", "test"));
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        assertThat(triggered).containsExactly(id, id, id);
+        assertThat(jobService.getScheduledTime(id)).isNull();
+    }
+
+    @Test
+    public void testRecoverStoredJobs() throws Exception {
+        latch = new CountDownLatch(2);
+        String overdue;
+        String pending;
+        String cancelled;
+        try (FileJobStore store = new FileJobStore(dir.resolve("jobs.log"))) {
+            TimingWheelJobService stopped = new TimingWheelJobService(1, 1, 5, 8, processRuntime, unitOfWorkManager, store);
+            overdue = stopped.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, DurationExpirationTime.after(100), "pi", "test"));
+            pending = stopped.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(2, DurationExpirationTime.after(200), "pi", "test"));
+            cancelled = stopped.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(3, DurationExpirationTime.after(100), "pi", "test"));
+            stopped.cancelJob(cancelled);
+            // process jobs are registered again by the process runtime, they are not stored
+            stopped.scheduleProcessJob(ProcessJobDescription.of(DurationExpirationTime.after(10000), "test"));
+            stopped.shutdown();
+            assertThat(store.load()).extracting(StoredJob::getId).containsExactlyInAnyOrder(overdue, pending);
+        }
+        Thread.sleep(150);
+
+        try (FileJobStore store = new FileJobStore(dir.resolve("jobs.log"))) {
+            TimingWheelJobService recovered = new TimingWheelJobService(1, 1, 5, 8, processRuntime, unitOfWorkManager, store);
+            assertThat(recovered.recover(1, 20)).isEqualTo(2);
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(triggered).containsExactly(overdue, pending);
+            Thread.sleep(50);
+            assertThat(store.load()).isEmpty();
+            recovered.shutdown();
+        }
+    }
+
+    @Test
+    public void testJobStoredOnceUnitOfWorkEnds() {
+        try (FileJobStore store = new FileJobStore(dir.resolve("jobs.log"))) {
+            TimingWheelJobService durable = new TimingWheelJobService(1, 1, 5, 8, processRuntime, unitOfWorkManager, store);
+
+            UnitOfWork committed = unitOfWorkManager.newUnitOfWork();
+            committed.start();
+            String stored = durable.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, DurationExpirationTime.after(10000), "pi", "test"));
+            assertThat(store.load()).isEmpty();
+            committed.end();
+            assertThat(store.load()).extracting(StoredJob::getId).containsExactly(stored);
+
+            UnitOfWork aborted = unitOfWorkManager.newUnitOfWork();
+            aborted.start();
+            durable.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(2, DurationExpirationTime.after(10000), "pi", "test"));
+            aborted.abort();
+            assertThat(store.load()).extracting(StoredJob::getId).containsExactly(stored);
+            durable.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testApplicationWideServiceWithoutStore() throws Exception {
+        latch = new CountDownLatch(2);
+        ProcessInstance processInstance = mock(ProcessInstance.class);
+        doAnswer(invocation -> {
+            triggered.add(((Signal<TimerInstance>) invocation.getArgument(0)).payload().getId());
+            latch.countDown();
+            return null;
+        }).when(processInstance).send(any());
+        ProcessInstances instances = mock(ProcessInstances.class);
+        when(instances.findById("pi")).thenReturn(Optional.of(processInstance));
+        Process process = mock(Process.class);
+        when(process.instances()).thenReturn(instances);
+        Processes processes = mock(Processes.class);
+        when(processes.processById(any())).thenReturn(process);
+
+        // the jobs of all the processes are served by the same service, through Processes
+        DurableJobService shared = new DurableJobService(1, 1, 5, 8, () -> processes, unitOfWorkManager, null);
+        String first = shared.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, DurationExpirationTime.after(10), "pi", "first"));
+        String second = shared.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(2, DurationExpirationTime.after(10), "pi", "second"));
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(triggered).containsExactlyInAnyOrder(first, second);
+        assertThat(shared.recover()).isZero();
+        shared.shutdown();
+    }
+}
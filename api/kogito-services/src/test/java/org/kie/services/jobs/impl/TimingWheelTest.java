@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.services.jobs.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelTest {
+
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    public void testExpiresAtDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, 0);
+        wheel.add(new TimingWheel.Timeout<>("a"), 3);
+        wheel.add(new TimingWheel.Timeout<>("b"), 5);
+
+        wheel.advance(2, t -> expired.add(t.payload()));
+        assertThat(expired).isEmpty();
+        wheel.advance(3, t -> expired.add(t.payload()));
+        assertThat(expired).containsExactly("a");
+        wheel.advance(10, t -> expired.add(t.payload()));
+        assertThat(expired).containsExactly("a", "b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void testCascadesFromHigherLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(4, 0);
+        long[] deadlines = { 1, 4, 7, 15, 16, 17, 63, 64, 65, 1000 };
+        for (long deadline : deadlines) {
+            wheel.add(new TimingWheel.Timeout<>(deadline), deadline);
+        }
+        List<Long> fired = new ArrayList<>();
+        for (long tick = 1; tick <= 1000; tick++) {
+            long current = tick;
+            wheel.advance(tick, t -> {
+                assertThat(t.deadline()).isEqualTo(current);
+                fired.add(t.payload());
+            });
+        }
+        assertThat(fired).containsExactly(1L, 4L, 7L, 15L, 16L, 17L, 63L, 64L, 65L, 1000L);
+    }
+
+    @Test
+    public void testAddRelativeToCurrentTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(4, 0);
+        wheel.advance(13, t -> expired.add(t.payload()));
+        wheel.add(new TimingWheel.Timeout<>("a"), 18);
+
+        wheel.advance(17, t -> expired.add(t.payload()));
+        assertThat(expired).isEmpty();
+        wheel.advance(18, t -> expired.add(t.payload()));
+        assertThat(expired).containsExactly("a");
+    }
+
+    @Test
+    public void testRemove() {
+        TimingWheel<String> wheel = new TimingWheel<>(4, 0);
+        TimingWheel.Timeout<String> a = new TimingWheel.Timeout<>("a");
+        TimingWheel.Timeout<String> b = new TimingWheel.Timeout<>("b");
+        wheel.add(a, 20);
+        wheel.add(b, 20);
+
+        assertThat(wheel.remove(a)).isTrue();
+        assertThat(wheel.remove(a)).isFalse();
+        wheel.advance(20, t -> expired.add(t.payload()));
+        assertThat(expired).containsExactly("b");
+    }
+
+    @Test
+    public void testPastDeadlineIsNotScheduled() {
+        TimingWheel<String> wheel = new TimingWheel<>(4, 5);
+        TimingWheel.Timeout<String> timeout = new TimingWheel.Timeout<>("a");
+
+        assertThat(wheel.add(timeout, 5)).isFalse();
+        assertThat(timeout.isScheduled()).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -419,6 +419,11 @@ public abstract class AbstractNodeHandler extends BaseAbstractHandler implements
     @SuppressWarnings("unchecked")
     protected void readMultiInstanceLoopCharacteristics(org.w3c.dom.Node xmlNode, ForEachNode forEachNode, ExtensibleXmlParser parser) {
 
+        String maxConcurrency = ((Element) xmlNode).getAttribute("maxConcurrency");
+        if (maxConcurrency != null && !maxConcurrency.isEmpty()) {
+            forEachNode.setMaxConcurrency(Integer.parseInt(maxConcurrency));
+        }
+
         // sourceRef
         org.w3c.dom.Node subNode = xmlNode.getFirstChild();
         while (subNode != null) {
@@ -62,7 +62,7 @@ public class ForEachNodeHandler extends AbstractCompositeNodeHandler {
         }
         // multiInstanceLoopCharacteristics
         xmlDump.append(
-                "      <multiInstanceLoopCharacteristics>" + EOL +
+                "      <multiInstanceLoopCharacteristics" + (forEachNode.getMaxConcurrency() > 0 ? " tns:maxConcurrency=\"" + forEachNode.getMaxConcurrency() + "\"" : "") + ">" + EOL +
                         "        <loopDataInputRef>" + XmlBPMNProcessDumper.getUniqueNodeId(forEachNode) + "_input</loopDataInputRef>" + EOL);
         if (parameterName != null) {
             xmlDump.append("        <inputDataItem id=\"" + XmlBPMNProcessDumper.replaceIllegalCharsAttribute(parameterName) + "\" itemSubjectRef=\""
@@ -17,6 +17,7 @@ package org.jbpm.bpmn2;
 
 import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -1244,6 +1245,48 @@ public class FlowTest extends JbpmBpmn2TestCase {
 
     }
 
+    @Test
+    public void testMultiInstanceLoopCharacteristicsTaskMaxConcurrency() throws Exception {
+        kruntime = createKogitoProcessRuntime("BPMN2-MultiInstanceLoopCharacteristicsTaskMaxConcurrency.bpmn2");
+        kruntime.getKogitoWorkItemManager().registerWorkItemHandler("Human Task",
+                new SystemOutWorkItemHandler());
+        Map<String, Object> params = new HashMap<>();
+        List<String> myListOut = new ArrayList<>();
+        params.put("list", Arrays.asList("1", "2", "3", "4", "5"));
+        params.put("listOut", myListOut);
+        KogitoProcessInstance processInstance = kruntime.startProcess(
+                "MultiInstanceLoopCharacteristicsTask", params);
+        assertProcessInstanceCompleted(processInstance);
+        assertEquals(5, myListOut.size());
+    }
+
+    @Test
+    public void testMultiInstanceLoopCharacteristicsTaskMaxConcurrencyAsync() throws Exception {
+        kruntime = createKogitoProcessRuntime("BPMN2-MultiInstanceLoopCharacteristicsTaskMaxConcurrency.bpmn2");
+        TestWorkItemHandler workItemHandler = new TestWorkItemHandler();
+        kruntime.getKogitoWorkItemManager().registerWorkItemHandler("Human Task", workItemHandler);
+        Map<String, Object> params = new HashMap<>();
+        List<String> myListOut = new ArrayList<>();
+        params.put("list", Arrays.asList("1", "2", "3", "4", "5"));
+        params.put("listOut", myListOut);
+        KogitoProcessInstance processInstance = kruntime.startProcess(
+                "MultiInstanceLoopCharacteristicsTask", params);
+        assertProcessInstanceActive(processInstance);
+
+        List<KogitoWorkItem> active = new ArrayList<>(workItemHandler.getWorkItems());
+        assertEquals(2, active.size());
+        int completed = 0;
+        while (!active.isEmpty()) {
+            kruntime.getKogitoWorkItemManager().completeWorkItem(active.remove(0).getStringId(), null);
+            completed++;
+            active.addAll(workItemHandler.getWorkItems());
+            assertTrue(active.size() <= 2);
+        }
+        assertEquals(5, completed);
+        assertProcessInstanceCompleted(processInstance);
+        assertEquals(5, myListOut.size());
+    }
+
     @Test
     public void testMultiInstanceLoopCharacteristicsTask() throws Exception {
         kruntime = createKogitoProcessRuntime("BPMN2-MultiInstanceLoopCharacteristicsTask.bpmn2");
@@ -18,6 +18,9 @@ package org.jbpm.bpmn2.canonical;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -32,7 +35,10 @@ import org.jbpm.bpmn2.objects.TestWorkItemHandler;
 import org.jbpm.compiler.canonical.ProcessMetaData;
 import org.jbpm.compiler.canonical.ProcessToExecModelGenerator;
 import org.jbpm.compiler.canonical.UserTaskModelMetaData;
+import org.jbpm.process.core.context.variable.VariableScope;
+import org.jbpm.process.instance.context.variable.VariableScopeInstance;
 import org.jbpm.process.instance.impl.demo.SystemOutWorkItemHandler;
+import org.jbpm.workflow.instance.node.ForEachNodeInstance;
 import org.junit.jupiter.api.Test;
 import org.kie.api.definition.process.Process;
 import org.kie.api.definition.process.WorkflowProcess;
@@ -40,11 +46,15 @@ import org.kie.kogito.auth.SecurityPolicy;
 import org.kie.kogito.internal.process.runtime.KogitoProcessInstance;
 import org.kie.kogito.internal.process.runtime.KogitoWorkItem;
 import org.kie.kogito.internal.process.runtime.KogitoWorkItemHandler;
+import org.kie.kogito.jobs.JobsService;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.jobs.ProcessJobDescription;
 import org.kie.kogito.process.ProcessConfig;
 import org.kie.kogito.process.ProcessError;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.bpmn2.BpmnProcess;
 import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.kie.kogito.process.impl.CachedWorkItemHandlerConfig;
 import org.kie.kogito.process.impl.DefaultProcessEventListenerConfig;
 import org.kie.kogito.process.impl.StaticProcessConfig;
@@ -478,6 +488,54 @@ public class ActivityGenerationModelTest extends JbpmBpmn2TestCase {
         assertEquals(STATE_COMPLETED, processInstance.status());
     }
 
+    @Test
+    public void testMultiInstanceMaxConcurrencyProcess() throws Exception {
+        List<String> jobs = new ArrayList<>();
+        TestWorkItemHandler workItemHandler = new TestWorkItemHandler();
+        BpmnProcess process = createMultiInstanceMaxConcurrencyProcess(workItemHandler, jobs);
+        ProcessInstance<BpmnVariables> processInstance = startMultiInstanceMaxConcurrencyProcess(process);
+
+        // the first iterations are started inline, within the unit of work starting the instance
+        assertEquals(STATE_ACTIVE, processInstance.status());
+        List<KogitoWorkItem> active = workItemHandler.getWorkItems();
+        assertThat(active).hasSize(2);
+        assertThat(getPendingItems(processInstance)).containsExactly("3", "4", "5");
+
+        completeWorkItems(processInstance, workItemHandler, active);
+        assertEquals(STATE_COMPLETED, processInstance.status());
+        assertThat((List<?>) processInstance.variables().get("listOut")).hasSize(5);
+        assertThat(jobs).as("no iteration is dispatched on another thread").isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testMultiInstanceMaxConcurrencyProcessWithMarshalling() throws Exception {
+        List<String> jobs = new ArrayList<>();
+        TestWorkItemHandler workItemHandler = new TestWorkItemHandler();
+        BpmnProcess process = createMultiInstanceMaxConcurrencyProcess(workItemHandler, jobs);
+        ProcessInstance<BpmnVariables> processInstance = startMultiInstanceMaxConcurrencyProcess(process);
+        List<KogitoWorkItem> active = workItemHandler.getWorkItems();
+        assertThat(active).hasSize(2);
+
+        // the freed slot is refilled by the completing call, before the instance is marshalled
+        processInstance.completeWorkItem(active.remove(0).getStringId(), null);
+        assertThat(getPendingItems(processInstance)).containsExactly("4", "5");
+
+        ProcessInstanceMarshallerService marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build();
+        byte[] data = marshaller.marshallProcessInstance(processInstance);
+        assertNotNull(data);
+
+        processInstance = (ProcessInstance<BpmnVariables>) marshaller.unmarshallProcessInstance(data, process);
+        assertThat(getPendingItems(processInstance)).containsExactly("4", "5");
+        active.addAll(workItemHandler.getWorkItems());
+        assertThat(active).hasSize(2);
+
+        completeWorkItems(processInstance, workItemHandler, active);
+        assertEquals(STATE_COMPLETED, processInstance.status());
+        assertThat((List<?>) processInstance.variables().get("listOut")).hasSize(5);
+        assertThat(jobs).isEmpty();
+    }
+
     @Test
     public void testCallActivityProcess() throws Exception {
         BpmnProcess process = BpmnProcess.from(new ClassPathResource("PrefixesProcessIdCallActivity.bpmn2")).get(0);
@@ -502,6 +560,10 @@ public class ActivityGenerationModelTest extends JbpmBpmn2TestCase {
     }
 
     protected Map<String, BpmnProcess> createProcesses(Map<String, String> classData, Map<String, KogitoWorkItemHandler> handlers) throws Exception {
+        return createProcesses(classData, handlers, null);
+    }
+
+    protected Map<String, BpmnProcess> createProcesses(Map<String, String> classData, Map<String, KogitoWorkItemHandler> handlers, JobsService jobsService) throws Exception {
         MemoryFileSystem srcMfs = new MemoryFileSystem();
         MemoryFileSystem trgMfs = new MemoryFileSystem();
 
@@ -523,7 +585,7 @@ public class ActivityGenerationModelTest extends JbpmBpmn2TestCase {
             wiConfig.register(entry.getKey(), entry.getValue());
         }
 
-        ProcessConfig config = new StaticProcessConfig(wiConfig, new DefaultProcessEventListenerConfig(), new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory()), null);
+        ProcessConfig config = new StaticProcessConfig(wiConfig, new DefaultProcessEventListenerConfig(), new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory()), jobsService);
 
         TestClassLoader cl = new TestClassLoader(this.getClass().getClassLoader(), trgMfs.getMap());
         Map<String, BpmnProcess> processes = new HashMap<>();
@@ -540,6 +602,69 @@ public class ActivityGenerationModelTest extends JbpmBpmn2TestCase {
         return processes;
     }
 
+    protected BpmnProcess createMultiInstanceMaxConcurrencyProcess(TestWorkItemHandler workItemHandler, List<String> jobs) throws Exception {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-MultiInstanceLoopCharacteristicsTaskMaxConcurrency.bpmn2")).get(0);
+
+        ProcessMetaData metaData = ProcessToExecModelGenerator.INSTANCE.generate((WorkflowProcess) process.process());
+        String content = metaData.getGeneratedClassModel().toString();
+        assertThat(content).isNotNull();
+        log(content);
+
+        Map<String, String> classData = new HashMap<>();
+        classData.put(metaData.getProcessClassName(), content);
+
+        // jobs are only recorded, so that a dispatch handed to the jobs service would be noticed
+        JobsService jobsService = new JobsService() {
+            @Override
+            public String scheduleProcessJob(ProcessJobDescription description) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
+                jobs.add(description.id());
+                return description.id();
+            }
+
+            @Override
+            public boolean cancelJob(String id) {
+                return jobs.remove(id);
+            }
+
+            @Override
+            public ZonedDateTime getScheduledTime(String id) {
+                return null;
+            }
+        };
+        return createProcesses(classData, Collections.singletonMap("Human Task", workItemHandler), jobsService).get("MultiInstanceLoopCharacteristicsTask");
+    }
+
+    protected ProcessInstance<BpmnVariables> startMultiInstanceMaxConcurrencyProcess(BpmnProcess process) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("list", Arrays.asList("1", "2", "3", "4", "5"));
+        parameters.put("listOut", new ArrayList<>());
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(parameters));
+        processInstance.start();
+        return processInstance;
+    }
+
+    protected void completeWorkItems(ProcessInstance<BpmnVariables> processInstance, TestWorkItemHandler workItemHandler, List<KogitoWorkItem> active) {
+        while (!active.isEmpty()) {
+            processInstance.completeWorkItem(active.remove(0).getStringId(), null);
+            active.addAll(workItemHandler.getWorkItems());
+            assertThat(active.size()).isLessThanOrEqualTo(2);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected List<Object> getPendingItems(ProcessInstance<BpmnVariables> processInstance) {
+        ForEachNodeInstance forEachNodeInstance = (ForEachNodeInstance) ((AbstractProcessInstance<?>) processInstance).internalGetProcessInstance().getNodeInstances().stream()
+                .filter(ForEachNodeInstance.class::isInstance)
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        return (List<Object>) ((VariableScopeInstance) forEachNodeInstance.getContextInstance(VariableScope.VARIABLE_SCOPE)).getVariable("foreach_pending");
+    }
+
     private static class TestClassLoader extends URLClassLoader {
         private final Map<String, byte[]> extraClassDefs;
 
@@ -24,6 +24,7 @@ import org.jbpm.workflow.core.Node;
 import org.jbpm.workflow.core.node.ForEachNode;
 
 import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
 import com.github.javaparser.ast.expr.LongLiteralExpr;
 import com.github.javaparser.ast.expr.ObjectCreationExpr;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
@@ -34,6 +35,7 @@ import static org.jbpm.ruleflow.core.factory.CompositeContextNodeFactory.METHOD_
 import static org.jbpm.ruleflow.core.factory.CompositeContextNodeFactory.METHOD_LINK_OUTGOING_CONNECTIONS;
 import static org.jbpm.ruleflow.core.factory.CompositeContextNodeFactory.METHOD_VARIABLE;
 import static org.jbpm.ruleflow.core.factory.ForEachNodeFactory.METHOD_COLLECTION_EXPRESSION;
+import static org.jbpm.ruleflow.core.factory.ForEachNodeFactory.METHOD_MAX_CONCURRENCY;
 import static org.jbpm.ruleflow.core.factory.ForEachNodeFactory.METHOD_OUTPUT_COLLECTION_EXPRESSION;
 import static org.jbpm.ruleflow.core.factory.ForEachNodeFactory.METHOD_OUTPUT_VARIABLE;
 
@@ -65,6 +67,9 @@ public class ForEachNodeVisitor extends AbstractCompositeNodeVisitor<ForEachNode
                             new ObjectCreationExpr(null, new ClassOrInterfaceType(null, ObjectDataType.class.getSimpleName()), NodeList.nodeList(
                                     new StringLiteralExpr(node.getOutputVariableType().getStringType())))));
         }
+        if (node.getMaxConcurrency() > 0) {
+            body.addStatement(getFactoryMethod(getNodeId(node), METHOD_MAX_CONCURRENCY, new IntegerLiteralExpr(String.valueOf(node.getMaxConcurrency()))));
+        }
         // visit nodes
         visitNodes(getNodeId(node), node.getNodes(), body, ((VariableScope) node.getCompositeNode().getDefaultContext(VariableScope.VARIABLE_SCOPE)), metadata);
         body.addStatement(getFactoryMethod(getNodeId(node), METHOD_LINK_INCOMING_CONNECTIONS, new LongLiteralExpr(node.getLinkedIncomingNode(Node.CONNECTION_DEFAULT_TYPE).getNodeId())))
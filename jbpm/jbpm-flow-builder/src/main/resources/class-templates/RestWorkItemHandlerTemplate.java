@@ -15,18 +15,21 @@
  */
 package org.jbpm.process.codegen;
 
-import io.vertx.mutiny.ext.web.client.WebClient;
+import io.vertx.core.http.HttpClientOptions;
 import io.vertx.mutiny.core.Vertx;
 import org.kogito.workitem.rest.RestWorkItemHandler;
 
 public class xxxRestWorkItemHandler extends RestWorkItemHandler {
 
     public xxxRestWorkItemHandler() {
-        this(Vertx.vertx());
+        this(Vertx.vertx(), false, HttpClientOptions.DEFAULT_MAX_POOL_SIZE, 0);
     }
 
-    public xxxRestWorkItemHandler(Vertx vertx) {
-        super(WebClient.create(vertx));
+    public xxxRestWorkItemHandler(Vertx vertx,
+            @ConfigProperty(name = "kogito.rest.workitem.async", defaultValue = "false") boolean async,
+            @ConfigProperty(name = "kogito.rest.workitem.max-pool-size", defaultValue = "5") int maxPoolSize,
+            @ConfigProperty(name = "kogito.rest.workitem.max-in-flight", defaultValue = "0") int maxInFlightPerHost) {
+        super(vertx, async, maxPoolSize, maxInFlightPerHost);
     }
     
     @Override
@@ -45,7 +45,7 @@ public class VariableUtil {
                     replacements.put(paramName, variableValueString);
                 } else {
                     try {
-                        Object variableValue = MVELProcessHelper.evaluator().eval(paramName, new NodeInstanceResolverFactory((org.jbpm.workflow.instance.NodeInstance) nodeInstance));
+                        Object variableValue = MVELProcessHelper.evaluate(paramName, new NodeInstanceResolverFactory((org.jbpm.workflow.instance.NodeInstance) nodeInstance));
                         String variableValueString = variableValue == null ? "" : variableValue.toString();
                         replacements.put(paramName, variableValueString);
                     } catch (Throwable t) {
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jbpm.process.instance.impl.workitem;
+
+/**
+ * Payload of the event signalled when a work item completing asynchronously failed.
+ * The node instance owning the work item handles the error as it would have, had the
+ * handler thrown it when executing the work item.
+ */
+public class WorkItemFailure {
+
+    public static final String EVENT_TYPE = "workItemFailed";
+
+    private final String workItemId;
+    private final Exception error;
+
+    public WorkItemFailure(String workItemId, Exception error) {
+        this.workItemId = workItemId;
+        this.error = error;
+    }
+
+    public String getWorkItemId() {
+        return workItemId;
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkItemFailure [workItemId=" + workItemId + ", error=" + error + "]";
+    }
+}
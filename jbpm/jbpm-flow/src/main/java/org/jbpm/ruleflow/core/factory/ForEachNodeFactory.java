@@ -25,6 +25,7 @@ public class ForEachNodeFactory<T extends RuleFlowNodeContainerFactory<T, ?>> ex
     public static final String METHOD_COLLECTION_EXPRESSION = "collectionExpression";
     public static final String METHOD_OUTPUT_COLLECTION_EXPRESSION = "outputCollectionExpression";
     public static final String METHOD_OUTPUT_VARIABLE = "outputVariable";
+    public static final String METHOD_MAX_CONCURRENCY = "maxConcurrency";
 
     public ForEachNodeFactory(T nodeContainerFactory, NodeContainer nodeContainer, long id) {
         super(nodeContainerFactory, nodeContainer, new ForEachNode(), id);
@@ -59,4 +60,9 @@ public class ForEachNodeFactory<T extends RuleFlowNodeContainerFactory<T, ?>> ex
         getForEachNode().setWaitForCompletion(waitForCompletion);
         return this;
     }
+
+    public ForEachNodeFactory<T> maxConcurrency(int maxConcurrency) {
+        getForEachNode().setMaxConcurrency(maxConcurrency);
+        return this;
+    }
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jbpm.workflow.core.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jbpm.process.core.event.EventFilter;
+import org.jbpm.process.core.event.EventTypeFilter;
+import org.jbpm.process.core.event.NonAcceptingEventTypeFilter;
+import org.jbpm.workflow.core.node.BoundaryEventNode;
+import org.jbpm.workflow.core.node.CompositeContextNode;
+import org.jbpm.workflow.core.node.CompositeNode;
+import org.jbpm.workflow.core.node.DynamicNode;
+import org.jbpm.workflow.core.node.EventNode;
+import org.jbpm.workflow.core.node.EventNodeInterface;
+import org.jbpm.workflow.core.node.EventSubProcessNode;
+import org.jbpm.workflow.core.node.ForEachNode;
+import org.jbpm.workflow.core.node.StateNode;
+import org.kie.api.definition.process.Node;
+
+/**
+ * Precomputed lookup of the top level nodes of a process that may be interested in a signal,
+ * so that signalling an instance does not need to evaluate every node of its process.
+ * <p>
+ * The table only narrows down candidates, each of them still has to accept the event: nodes whose
+ * event types cannot be known upfront (variable expressions, broadcast or custom filters, nodes without
+ * filters) are candidates for every type. Candidates are returned in the order of the process nodes.
+ */
+public class EventDispatchTable {
+
+    private static final String EXPRESSION_PREFIX = "#{";
+
+    private final Map<String, List<Node>> nodesByType;
+    private final List<Node> anyTypeNodes;
+    private final Map<String, List<Node>> dynamicNodesByName;
+    private final List<Node> dynamicCompositeNodes;
+
+    private EventDispatchTable(Map<String, List<Node>> nodesByType, List<Node> anyTypeNodes,
+            Map<String, List<Node>> dynamicNodesByName, List<Node> dynamicCompositeNodes) {
+        this.nodesByType = nodesByType;
+        this.anyTypeNodes = anyTypeNodes;
+        this.dynamicNodesByName = dynamicNodesByName;
+        this.dynamicCompositeNodes = dynamicCompositeNodes;
+    }
+
+    public static EventDispatchTable of(Node[] nodes) {
+        List<Set<String>> typesByNode = new ArrayList<>(nodes.length);
+        Set<String> types = new LinkedHashSet<>();
+        Set<String> names = new LinkedHashSet<>();
+        for (Node node : nodes) {
+            Set<String> nodeTypes = node instanceof EventNodeInterface ? eventTypes(node) : Collections.emptySet();
+            typesByNode.add(nodeTypes);
+            if (nodeTypes != null) {
+                types.addAll(nodeTypes);
+            }
+            if (isStartedByName(node)) {
+                names.add(node.getName());
+            }
+        }
+
+        Map<String, List<Node>> nodesByType = emptyLists(types);
+        List<Node> anyTypeNodes = new ArrayList<>();
+        Map<String, List<Node>> dynamicNodesByName = emptyLists(names);
+        List<Node> dynamicCompositeNodes = new ArrayList<>();
+        for (int i = 0; i < nodes.length; i++) {
+            Node node = nodes[i];
+            Set<String> nodeTypes = typesByNode.get(i);
+            if (nodeTypes == null) {
+                anyTypeNodes.add(node);
+                nodesByType.values().forEach(l -> l.add(node));
+            } else {
+                nodeTypes.forEach(t -> nodesByType.get(t).add(node));
+            }
+            String startName = isStartedByName(node) ? node.getName() : null;
+            if (startName != null) {
+                dynamicNodesByName.get(startName).add(node);
+            }
+            if (node instanceof CompositeNode) {
+                dynamicCompositeNodes.add(node);
+                dynamicNodesByName.forEach((name, l) -> {
+                    if (!name.equals(startName)) {
+                        l.add(node);
+                    }
+                });
+            }
+        }
+        return new EventDispatchTable(nodesByType, anyTypeNodes, dynamicNodesByName, dynamicCompositeNodes);
+    }
+
+    /**
+     * Nodes that may accept an event of the given type.
+     */
+    public List<Node> getNodes(String type) {
+        return nodesByType.getOrDefault(type, anyTypeNodes);
+    }
+
+    /**
+     * Nodes of a dynamic process to be considered for an event of the given type:
+     * nodes without incoming connections named after the type and composite nodes.
+     */
+    public List<Node> getDynamicNodes(String type) {
+        return dynamicNodesByName.getOrDefault(type, dynamicCompositeNodes);
+    }
+
+    private static Map<String, List<Node>> emptyLists(Collection<String> keys) {
+        Map<String, List<Node>> lists = new HashMap<>();
+        for (String key : keys) {
+            lists.put(key, new ArrayList<>());
+        }
+        return lists;
+    }
+
+    private static boolean isStartedByName(Node node) {
+        return node.getName() != null && node.getIncomingConnections().isEmpty();
+    }
+
+    /**
+     * Returns the event types the node may accept or null when they cannot be determined.
+     * Only node and filter types whose matching rules are known are resolved.
+     */
+    private static Set<String> eventTypes(Node node) {
+        Class<?> nodeClass = node.getClass();
+        if (nodeClass == EventNode.class || nodeClass == BoundaryEventNode.class) {
+            List<EventFilter> filters = ((EventNode) node).getEventFilters();
+            return filters.isEmpty() ? null : filterTypes(filters, new LinkedHashSet<>());
+        } else if (nodeClass == EventSubProcessNode.class) {
+            Set<String> types = filterTypes(((EventSubProcessNode) node).getEventTypeFilters(), new LinkedHashSet<>());
+            return types == null ? null : childrenTypes((CompositeNode) node, types);
+        } else if (nodeClass == CompositeNode.class || nodeClass == CompositeContextNode.class || nodeClass == DynamicNode.class
+                || nodeClass == StateNode.class || nodeClass == ForEachNode.class) {
+            return childrenTypes((CompositeNode) node, new LinkedHashSet<>());
+        }
+        return null;
+    }
+
+    private static Set<String> filterTypes(List<? extends EventFilter> filters, Set<String> types) {
+        for (EventFilter filter : filters) {
+            if (filter.getClass() == EventTypeFilter.class) {
+                String type = ((EventTypeFilter) filter).getType();
+                if (type != null) {
+                    if (type.contains(EXPRESSION_PREFIX)) {
+                        return null;
+                    }
+                    types.add(type);
+                }
+            } else if (filter.getClass() != NonAcceptingEventTypeFilter.class) {
+                return null;
+            }
+        }
+        return types;
+    }
+
+    private static Set<String> childrenTypes(CompositeNode node, Set<String> types) {
+        for (Node child : node.internalGetNodes()) {
+            if (child instanceof EventNodeInterface) {
+                Set<String> childTypes = eventTypes(child);
+                if (childTypes == null) {
+                    return null;
+                }
+                types.addAll(childTypes);
+            }
+        }
+        return types;
+    }
+
+    @Override
+    public String toString() {
+        return "EventDispatchTable{" +
+                "nodesByType=" + nodesByType.keySet() +
+                ", anyTypeNodes=" + anyTypeNodes.size() +
+                '}';
+    }
+}
@@ -47,6 +47,8 @@ public class WorkflowProcessImpl extends ProcessImpl implements WorkflowProcess,
     private boolean autoComplete = false;
     private boolean dynamic = false;
     private org.jbpm.workflow.core.NodeContainer nodeContainer;
+    // built on first signal, once the process definition is complete
+    private transient volatile EventDispatchTable eventDispatchTable;
 
     private transient BiFunction<String, ProcessInstance, String> expressionEvaluator = (expression, p) -> {
 
@@ -57,8 +59,7 @@ public class WorkflowProcessImpl extends ProcessImpl implements WorkflowProcess,
             String paramName = matcher.group(1);
             if (replacements.get(paramName) == null) {
                 try {
-                    String value = (String) MVELProcessHelper.evaluator()
-                            .eval(paramName, new ProcessInstanceResolverFactory(((WorkflowProcessInstance) p)));
+                    String value = (String) MVELProcessHelper.evaluate(paramName, new ProcessInstanceResolverFactory(((WorkflowProcessInstance) p)));
                     replacements.put(paramName, value);
                 } catch (Throwable t) {
                     logger.error("Could not resolve, parameter {} while evaluating expression {}", paramName, expression, t);
@@ -109,11 +110,22 @@ public class WorkflowProcessImpl extends ProcessImpl implements WorkflowProcess,
     public void removeNode(final org.kie.api.definition.process.Node node) {
         nodeContainer.removeNode(node);
         ((Node) node).setParentContainer(null);
+        eventDispatchTable = null;
     }
 
     public void addNode(final org.kie.api.definition.process.Node node) {
         nodeContainer.addNode(node);
         ((Node) node).setParentContainer(this);
+        eventDispatchTable = null;
+    }
+
+    public EventDispatchTable getEventDispatchTable() {
+        EventDispatchTable table = eventDispatchTable;
+        if (table == null) {
+            table = EventDispatchTable.of(getNodes());
+            eventDispatchTable = table;
+        }
+        return table;
     }
 
     public boolean isAutoComplete() {
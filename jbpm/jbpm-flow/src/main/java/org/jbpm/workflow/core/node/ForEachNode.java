@@ -45,6 +45,7 @@ public class ForEachNode extends CompositeContextNode {
     private String outputCollectionExpression;
     private String completionConditionExpression;
     private boolean waitForCompletion = true;
+    private int maxConcurrency;
 
     public ForEachNode() {
         // Split
@@ -242,6 +243,22 @@ public class ForEachNode extends CompositeContextNode {
         this.waitForCompletion = waitForCompletion;
     }
 
+    /**
+     * Maximum number of iterations active at the same time, 0 (the default) triggers all of them at once.
+     * An iteration keeps its slot until it completes, so a bound only makes a difference for iterations
+     * waiting for an asynchronous completion such as a work item or a subprocess.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 0) {
+            throw new IllegalArgumentException("Max concurrency must not be negative: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
     public static class ForEachSplitNode extends ExtendedNodeImpl {
         private static final long serialVersionUID = 510l;
     }
@@ -16,20 +16,40 @@
 package org.jbpm.workflow.instance.impl;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.drools.mvel.MVELSafeHelper;
+import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.internal.RuntimeEnvironment;
 import org.kie.soup.project.datamodel.commons.util.MVELEvaluator;
 import org.mvel2.ErrorDetail;
 import org.mvel2.MVEL;
 import org.mvel2.ParserContext;
 import org.mvel2.compiler.ExpressionCompiler;
+import org.mvel2.integration.VariableResolverFactory;
 
 public class MVELProcessHelper {
 
+    // expressions are mostly the fixed data associations and #{} templates of the deployed processes,
+    // the bound only protects against expressions built at runtime
+    private static volatile int expressionCacheSize = ConfigBean.DEFAULT_MVEL_EXPRESSION_CACHE_SIZE;
+
+    private static final Map<String, Serializable> COMPILED_EXPRESSIONS = Collections.synchronizedMap(new LinkedHashMap<String, Serializable>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Serializable> eldest) {
+            return size() > expressionCacheSize;
+        }
+    });
+
     private static final Supplier<MVELEvaluator> EVALUATOR_SUPPLIER =
             RuntimeEnvironment.isJdk() ? MVELSafeHelper::getEvaluator : () -> {
                 throw new UnsupportedOperationException("MVEL evaluation is not supported in native image");
@@ -45,6 +65,23 @@ public class MVELProcessHelper {
                 throw new UnsupportedOperationException("MVEL compilation is not supported in native image");
             };
 
+    /**
+     * Sets the maximum number of compiled expressions kept, evicting the least recently used ones beyond it.
+     */
+    public static void setExpressionCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("MVEL expression cache size must not be negative: " + size);
+        }
+        expressionCacheSize = size;
+        synchronized (COMPILED_EXPRESSIONS) {
+            Iterator<String> eldest = COMPILED_EXPRESSIONS.keySet().iterator();
+            while (COMPILED_EXPRESSIONS.size() > size && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
     public static MVELEvaluator evaluator() {
         return EVALUATOR_SUPPLIER.get();
     }
@@ -53,6 +90,26 @@ public class MVELProcessHelper {
         return EXPR_COMPILER.apply(expr);
     }
 
+    /**
+     * Returns the compiled form of the expression, compiling it only the first time it is seen.
+     */
+    public static Serializable compiledExpression(String expr) {
+        Serializable compiled = COMPILED_EXPRESSIONS.get(expr);
+        if (compiled == null) {
+            compiled = compileExpression(expr);
+            COMPILED_EXPRESSIONS.put(expr, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Evaluates the expression against the given variables using its cached compiled form,
+     * rather than interpreting it on every call.
+     */
+    public static Object evaluate(String expr, VariableResolverFactory factory) {
+        return evaluator().executeExpression(compiledExpression(expr), factory);
+    }
+
     public static List<ErrorDetail> validateExpression(String expression) {
         return EXPR_COMPILER_DETAILED.apply(expression);
     }
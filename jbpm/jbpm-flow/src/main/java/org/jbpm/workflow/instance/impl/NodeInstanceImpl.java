@@ -97,7 +97,11 @@ public abstract class NodeInstanceImpl implements org.jbpm.workflow.instance.Nod
     }
 
     public void setNodeId(final long nodeId) {
+        long previousNodeId = this.nodeId;
         this.nodeId = nodeId;
+        if (previousNodeId != nodeId && nodeInstanceContainer instanceof WorkflowProcessInstanceImpl) {
+            ((WorkflowProcessInstanceImpl) nodeInstanceContainer).reindexNodeInstance(this, previousNodeId);
+        }
     }
 
     public long getNodeId() {
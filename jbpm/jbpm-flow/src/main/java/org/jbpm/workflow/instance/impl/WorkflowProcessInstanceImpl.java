@@ -49,7 +49,9 @@ import org.jbpm.ruleflow.core.Metadata;
 import org.jbpm.util.PatternConstants;
 import org.jbpm.workflow.core.DroolsAction;
 import org.jbpm.workflow.core.Node;
+import org.jbpm.workflow.core.impl.EventDispatchTable;
 import org.jbpm.workflow.core.impl.NodeImpl;
+import org.jbpm.workflow.core.impl.WorkflowProcessImpl;
 import org.jbpm.workflow.core.node.ActionNode;
 import org.jbpm.workflow.core.node.BoundaryEventNode;
 import org.jbpm.workflow.core.node.CompositeNode;
@@ -90,7 +92,6 @@ import org.kie.kogito.process.flexible.AdHocFragment;
 import org.kie.kogito.process.flexible.ItemDescription;
 import org.kie.kogito.process.flexible.Milestone;
 import org.kie.kogito.timer.TimerInstance;
-import org.kie.soup.project.datamodel.commons.util.MVELEvaluator;
 import org.mvel2.integration.VariableResolverFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -118,6 +119,8 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
     private static final Logger logger = LoggerFactory.getLogger(WorkflowProcessInstanceImpl.class);
 
     private final List<NodeInstance> nodeInstances = new ArrayList<>();
+    // node instances by node id, kept along with nodeInstances and rebuilt when missing after deserialization
+    private transient Map<Long, List<NodeInstance>> nodeInstancesByNodeId;
 
     private Map<String, List<KogitoEventListener>> eventListeners = new HashMap<>();
     private Map<String, List<KogitoEventListener>> externalEventListeners = new HashMap<>();
@@ -146,6 +149,8 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
 
     private String referenceId;
 
+    private long eventSequence;
+
     private AgendaFilter agendaFilter;
 
     @Override
@@ -161,6 +166,37 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
             ((NodeInstanceImpl) nodeInstance).setId(UUID.randomUUID().toString());
         }
         this.nodeInstances.add(nodeInstance);
+        nodeInstancesByNodeId().computeIfAbsent(nodeInstance.getNodeId(), k -> new ArrayList<>(1)).add(nodeInstance);
+    }
+
+    private Map<Long, List<NodeInstance>> nodeInstancesByNodeId() {
+        if (nodeInstancesByNodeId == null) {
+            nodeInstancesByNodeId = new HashMap<>();
+            for (NodeInstance nodeInstance : nodeInstances) {
+                nodeInstancesByNodeId.computeIfAbsent(nodeInstance.getNodeId(), k -> new ArrayList<>(1)).add(nodeInstance);
+            }
+        }
+        return nodeInstancesByNodeId;
+    }
+
+    private boolean unindexNodeInstance(NodeInstance nodeInstance, long nodeId) {
+        List<NodeInstance> indexed = nodeInstancesByNodeId().get(nodeId);
+        if (indexed == null || !indexed.remove(nodeInstance)) {
+            return false;
+        }
+        if (indexed.isEmpty()) {
+            nodeInstancesByNodeId.remove(nodeId);
+        }
+        return true;
+    }
+
+    /**
+     * To be invoked when the node of one of the node instances changes, as when migrating, to keep them indexed.
+     */
+    public void reindexNodeInstance(NodeInstance nodeInstance, long previousNodeId) {
+        if (unindexNodeInstance(nodeInstance, previousNodeId)) {
+            nodeInstancesByNodeId().computeIfAbsent(nodeInstance.getNodeId(), k -> new ArrayList<>(1)).add(nodeInstance);
+        }
     }
 
     @Override
@@ -188,7 +224,9 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
             getKnowledgeRuntime().delete(
                     getKnowledgeRuntime().getFactHandle(nodeInstance));
         }
-        this.nodeInstances.remove(nodeInstance);
+        if (this.nodeInstances.remove(nodeInstance)) {
+            unindexNodeInstance(nodeInstance, nodeInstance.getNodeId());
+        }
     }
 
     @Override
@@ -261,8 +299,8 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
 
     @Override
     public NodeInstance getFirstNodeInstance(final long nodeId) {
-        for (final NodeInstance nodeInstance : this.nodeInstances) {
-            if (nodeInstance.getNodeId() == nodeId && nodeInstance.getLevel() == getCurrentLevel()) {
+        for (final NodeInstance nodeInstance : nodeInstancesByNodeId().getOrDefault(nodeId, Collections.emptyList())) {
+            if (nodeInstance.getLevel() == getCurrentLevel()) {
                 return nodeInstance;
             }
         }
@@ -270,13 +308,7 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
     }
 
     public List<NodeInstance> getNodeInstances(final long nodeId) {
-        List<NodeInstance> result = new ArrayList<>();
-        for (final NodeInstance nodeInstance : this.nodeInstances) {
-            if (nodeInstance.getNodeId() == nodeId) {
-                result.add(nodeInstance);
-            }
-        }
-        return result;
+        return new ArrayList<>(nodeInstancesByNodeId().getOrDefault(nodeId, Collections.emptyList()));
     }
 
     public List<NodeInstance> getNodeInstances(final long nodeId, final List<NodeInstance> currentView) {
@@ -602,7 +634,12 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                 return;
             }
 
-            List<NodeInstance> currentView = new ArrayList<>(this.nodeInstances);
+            EventDispatchTable dispatchTable = getEventDispatchTable();
+            // node instances created while the event is dispatched do not receive it
+            Map<Long, List<NodeInstance>> currentView = new HashMap<>();
+            for (org.kie.api.definition.process.Node node : dispatchTable.getNodes(type)) {
+                currentView.put(node.getId(), getNodeInstances(node.getId()));
+            }
 
             try {
                 this.activatingNodeIds = new ArrayList<>();
@@ -618,9 +655,8 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                         listener.signalEvent(type, event);
                     }
                 }
-                for (org.kie.api.definition.process.Node node : getWorkflowProcess().getNodes()) {
-                    if (node instanceof EventNodeInterface
-                            && ((EventNodeInterface) node).acceptsEvent(type, event, getResolver(node, currentView))) {
+                for (org.kie.api.definition.process.Node node : dispatchTable.getNodes(type)) {
+                    if (((EventNodeInterface) node).acceptsEvent(type, event, getResolver(node, currentView))) {
                         if (node instanceof EventNode && ((EventNode) node).getFrom() == null) {
                             EventNodeInstance eventNodeInstance = (EventNodeInstance) getNodeInstance(node);
                             eventNodeInstance.signalEvent(type, event);
@@ -629,18 +665,15 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                                 EventSubProcessNodeInstance eventNodeInstance = (EventSubProcessNodeInstance) getNodeInstance(node);
                                 eventNodeInstance.signalEvent(type, event);
                             } else {
-                                List<NodeInstance> nodeInstances = getNodeInstances(node.getId(), currentView);
-                                if (nodeInstances != null && !nodeInstances.isEmpty()) {
-                                    for (NodeInstance nodeInstance : nodeInstances) {
-                                        ((EventNodeInstanceInterface) nodeInstance).signalEvent(type, event);
-                                    }
+                                for (NodeInstance nodeInstance : currentView.getOrDefault(node.getId(), Collections.emptyList())) {
+                                    ((EventNodeInstanceInterface) nodeInstance).signalEvent(type, event);
                                 }
                             }
                         }
                     }
                 }
                 if (((org.jbpm.workflow.core.WorkflowProcess) getWorkflowProcess()).isDynamic()) {
-                    for (org.kie.api.definition.process.Node node : getWorkflowProcess().getNodes()) {
+                    for (org.kie.api.definition.process.Node node : dispatchTable.getDynamicNodes(type)) {
                         if (type.equals(node.getName()) && node.getIncomingConnections().isEmpty()) {
                             NodeInstance nodeInstance = getNodeInstance(node);
                             if (event != null) {
@@ -654,7 +687,7 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                             }
                             nodeInstance.trigger(null, Node.CONNECTION_DEFAULT_TYPE);
                         } else if (node instanceof CompositeNode) {
-                            Optional<NodeInstance> instance = this.nodeInstances.stream().filter(ni -> ni.getNodeId() == node.getId()).findFirst();
+                            Optional<NodeInstance> instance = nodeInstancesByNodeId().getOrDefault(node.getId(), Collections.emptyList()).stream().findFirst();
                             instance.ifPresent(n -> ((CompositeNodeInstance) n).signalEvent(type, event));
                         }
                     }
@@ -668,12 +701,17 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
         }
     }
 
-    private Function<String, String> getResolver(org.kie.api.definition.process.Node node, List<NodeInstance> currentView) {
+    private EventDispatchTable getEventDispatchTable() {
+        org.kie.api.definition.process.Process process = getProcess();
+        return process instanceof WorkflowProcessImpl ? ((WorkflowProcessImpl) process).getEventDispatchTable() : EventDispatchTable.of(getWorkflowProcess().getNodes());
+    }
+
+    private Function<String, String> getResolver(org.kie.api.definition.process.Node node, Map<Long, List<NodeInstance>> currentView) {
         if (node instanceof DynamicNode) {
             // special handling for dynamic node to allow to resolve variables from individual node instances of the dynamic node
             // instead of just relying on process instance's variables
             return e -> {
-                List<NodeInstance> nodeInstances = getNodeInstances(node.getId(), currentView);
+                List<NodeInstance> nodeInstances = currentView.get(node.getId());
                 if (nodeInstances != null && !nodeInstances.isEmpty()) {
                     StringBuilder st = new StringBuilder();
                     for (NodeInstance ni : nodeInstances) {
@@ -710,8 +748,7 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                     replacements.put(paramName, variableValue.toString());
                 } else {
                     try {
-                        MVELEvaluator mvelEvaluator = MVELProcessHelper.evaluator();
-                        variableValue = mvelEvaluator.eval(paramName, factory);
+                        variableValue = MVELProcessHelper.evaluate(paramName, factory);
                         String variableValueString = variableValue == null ? "" : variableValue.toString();
                         replacements.put(paramName, variableValueString);
                     } catch (Throwable t) {
@@ -1073,6 +1110,20 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
         return this.referenceId;
     }
 
+    @Override
+    public long getEventSequence() {
+        return eventSequence;
+    }
+
+    public void setEventSequence(long eventSequence) {
+        this.eventSequence = eventSequence;
+    }
+
+    @Override
+    public long nextEventSequence() {
+        return ++eventSequence;
+    }
+
     private boolean isVariableExpression(String eventType) {
         if (eventType == null) {
             return false;
@@ -49,6 +49,10 @@ public class ForEachNodeInstance extends CompositeContextNodeInstance {
     private static final long serialVersionUID = 510L;
 
     private static final String TEMP_OUTPUT_VAR = "foreach_output";
+    // items not dispatched yet when the number of concurrent iterations is bounded
+    private static final String TEMP_PENDING_VAR = "foreach_pending";
+
+    private transient boolean dispatching;
 
     public ForEachNode getForEachNode() {
         return (ForEachNode) getNode();
@@ -99,7 +103,7 @@ public class ForEachNodeInstance extends CompositeContextNodeInstance {
             collection = variableScopeInstance.getVariable(collectionExpression);
         } else {
             try {
-                collection = MVELProcessHelper.evaluator().eval(collectionExpression, new NodeInstanceResolverFactory(this));
+                collection = MVELProcessHelper.evaluate(collectionExpression, new NodeInstanceResolverFactory(this));
             } catch (Throwable t) {
                 throw new IllegalArgumentException(
                         "Could not find collection " + collectionExpression);
@@ -120,6 +124,59 @@ public class ForEachNodeInstance extends CompositeContextNodeInstance {
                 "Unexpected collection type: " + collection.getClass());
     }
 
+    private NodeInstance createIteration(NodeInstance from, Object item) {
+        String variableName = getForEachNode().getVariableName();
+        NodeInstance nodeInstance = getNodeInstance(getForEachNode().getForEachSplitNode().getTo().getTo());
+        VariableScopeInstance variableScopeInstance = (VariableScopeInstance) nodeInstance.resolveContextInstance(VariableScope.VARIABLE_SCOPE, variableName);
+        variableScopeInstance.setVariable(from, variableName, item);
+        return nodeInstance;
+    }
+
+    /**
+     * Triggers pending items until the max concurrency is reached. Iterations completing synchronously
+     * free their slot while this is running and are refilled by the same loop, rather than recursively.
+     * Iterations are started on the thread completing the previous one, within its unit of work, so the
+     * instance is never touched by another thread before it is persisted.
+     *
+     * @param completed iteration that just completed and is not removed from this container yet, can be null
+     */
+    private void dispatchPendingIterations(NodeInstance from, KogitoNodeInstance completed) {
+        if (dispatching) {
+            return;
+        }
+        dispatching = true;
+        try {
+            List<Object> pending = getPendingItems();
+            while (!pending.isEmpty() && activeIterations(completed) < getForEachNode().getMaxConcurrency()) {
+                NodeInstance nodeInstance = createIteration(from, pending.remove(0));
+                setPendingItems(pending);
+                nodeInstance.trigger(from, getForEachNode().getForEachSplitNode().getTo().getToType());
+                pending = getPendingItems();
+            }
+        } finally {
+            dispatching = false;
+        }
+    }
+
+    private long activeIterations(KogitoNodeInstance completed) {
+        long iterationNodeId = getForEachNode().getCompositeNode().getId();
+        return getNodeInstances().stream().filter(ni -> ni != completed && ni.getNodeId() == iterationNodeId).count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> getPendingItems() {
+        List<Object> pending = (List<Object>) getPendingScope().getVariable(TEMP_PENDING_VAR);
+        return pending == null ? new ArrayList<>() : pending;
+    }
+
+    private void setPendingItems(List<Object> pending) {
+        getPendingScope().internalSetVariable(TEMP_PENDING_VAR, pending.isEmpty() ? null : pending);
+    }
+
+    private VariableScopeInstance getPendingScope() {
+        return (VariableScopeInstance) getContextInstance(VariableScope.VARIABLE_SCOPE);
+    }
+
     public class ForEachSplitNodeInstance extends NodeInstanceImpl {
 
         private static final long serialVersionUID = 510l;
@@ -136,14 +193,16 @@ public class ForEachNodeInstance extends CompositeContextNodeInstance {
             ((NodeInstanceContainer) getNodeInstanceContainer()).removeNodeInstance(this);
             if (collection.isEmpty()) {
                 ForEachNodeInstance.this.triggerCompleted(Node.CONNECTION_DEFAULT_TYPE, true);
+            } else if (getForEachNode().getMaxConcurrency() > 0) {
+                setPendingItems(new ArrayList<>(collection));
+                dispatchPendingIterations(this, null);
+                if (!getForEachNode().isWaitForCompletion()) {
+                    ForEachNodeInstance.this.triggerCompleted(Node.CONNECTION_DEFAULT_TYPE, false);
+                }
             } else {
                 List<NodeInstance> nodeInstances = new ArrayList<>();
                 for (Object o : collection) {
-                    String variableName = getForEachNode().getVariableName();
-                    NodeInstance nodeInstance = ((NodeInstanceContainer) getNodeInstanceContainer()).getNodeInstance(getForEachSplitNode().getTo().getTo());
-                    VariableScopeInstance variableScopeInstance = (VariableScopeInstance) nodeInstance.resolveContextInstance(VariableScope.VARIABLE_SCOPE, variableName);
-                    variableScopeInstance.setVariable(this, variableName, o);
-                    nodeInstances.add(nodeInstance);
+                    nodeInstances.add(createIteration(this, o));
                 }
                 for (NodeInstance nodeInstance : nodeInstances) {
                     logger.debug("Triggering [{}] in multi-instance loop.", nodeInstance.getNodeId());
@@ -193,6 +252,23 @@ public class ForEachNodeInstance extends CompositeContextNodeInstance {
                 tempVariables.put(outputCollectionName, outputCollection);
             }
             boolean isCompletionConditionMet = evaluateCompletionCondition(getForEachNode().getCompletionConditionExpression(), tempVariables);
+            if (getForEachNode().getMaxConcurrency() > 0) {
+                if (isCompletionConditionMet) {
+                    setPendingItems(Collections.emptyList());
+                } else {
+                    // iterations are started from a split, as the composite node only accepts triggers from it
+                    NodeInstance split = ForEachNodeInstance.this.getNodeInstance(getForEachNode().getForEachSplitNode());
+                    try {
+                        dispatchPendingIterations(split, from);
+                    } finally {
+                        ForEachNodeInstance.this.removeNodeInstance(split);
+                    }
+                    if (!getNodeInstanceContainer().getNodeInstances().contains(this) || !getPendingItems().isEmpty()) {
+                        // completed by an iteration dispatched above or still waiting for pending items
+                        return;
+                    }
+                }
+            }
             if (getNodeInstanceContainer().getNodeInstances().size() == 1 || isCompletionConditionMet) {
                 String outputCollection = getForEachNode().getOutputCollectionExpression();
                 if (outputCollection != null) {
@@ -227,7 +303,7 @@ public class ForEachNodeInstance extends CompositeContextNodeInstance {
                 return false;
             }
             try {
-                Object result = MVELProcessHelper.evaluator().eval(expression, new ForEachNodeInstanceResolverFactory(this, tempVariables));
+                Object result = MVELProcessHelper.evaluate(expression, new ForEachNodeInstanceResolverFactory(this, tempVariables));
                 if (!(result instanceof Boolean)) {
                     throw new RuntimeException("Completion condition expression must return boolean values: " + result
                             + " for expression " + expression);
@@ -265,7 +265,7 @@ public abstract class StateBasedNodeInstance extends ExtendedNodeInstanceImpl im
                     replacements.put(paramName, variableValueString);
                 } else {
                     try {
-                        Object variableValue = MVELProcessHelper.evaluator().eval(paramName, new NodeInstanceResolverFactory(this));
+                        Object variableValue = MVELProcessHelper.evaluate(paramName, new NodeInstanceResolverFactory(this));
                         String variableValueString = variableValue == null ? "" : variableValue.toString();
                         replacements.put(paramName, variableValueString);
                     } catch (Throwable t) {
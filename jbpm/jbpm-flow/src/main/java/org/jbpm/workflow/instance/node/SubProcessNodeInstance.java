@@ -15,7 +15,6 @@
  */
 package org.jbpm.workflow.instance.node;
 
-import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -106,7 +105,7 @@ public class SubProcessNodeInstance extends StateBasedNodeInstance implements Ev
                     parameterValue = variableScopeInstance.getVariable(mapping.getSources().get(0));
                 } else {
                     try {
-                        parameterValue = MVELProcessHelper.evaluator().eval(mapping.getSources().get(0), new NodeInstanceResolverFactory(this));
+                        parameterValue = MVELProcessHelper.evaluate(mapping.getSources().get(0), new NodeInstanceResolverFactory(this));
                     } catch (Throwable t) {
                         parameterValue = VariableUtil.resolveVariable(mapping.getSources().get(0), this);
                         if (parameterValue != null) {
@@ -141,7 +140,7 @@ public class SubProcessNodeInstance extends StateBasedNodeInstance implements Ev
                     replacements.put(paramName, variableValueString);
                 } else {
                     try {
-                        Object variableValue = MVELProcessHelper.evaluator().eval(paramName, new NodeInstanceResolverFactory(this));
+                        Object variableValue = MVELProcessHelper.evaluate(paramName, new NodeInstanceResolverFactory(this));
                         String variableValueString = variableValue == null ? "" : variableValue.toString();
                         replacements.put(paramName, variableValueString);
                     } catch (Throwable t) {
@@ -319,7 +318,7 @@ public class SubProcessNodeInstance extends StateBasedNodeInstance implements Ev
                         Object value = subProcessVariableScopeInstance.getVariable(mapping.getSources().get(0));
                         if (value == null) {
                             try {
-                                value = MVELProcessHelper.evaluator().eval(mapping.getSources().get(0), new VariableScopeResolverFactory(subProcessVariableScopeInstance));
+                                value = MVELProcessHelper.evaluate(mapping.getSources().get(0), new VariableScopeResolverFactory(subProcessVariableScopeInstance));
                             } catch (Throwable t) {
                                 // do nothing
                             }
@@ -336,8 +335,7 @@ public class SubProcessNodeInstance extends StateBasedNodeInstance implements Ev
                             String expression = paramName + " = " + output;
                             VariableScopeResolverFactory resolver = new VariableScopeResolverFactory(subProcessVariableScopeInstance);
                             resolver.addExtraParameters(((VariableScopeInstance) getProcessInstance().getContextInstance(VariableScope.VARIABLE_SCOPE)).getVariables());
-                            Serializable compiled = MVELProcessHelper.compileExpression(expression);
-                            MVELProcessHelper.evaluator().executeExpression(compiled, resolver);
+                            MVELProcessHelper.evaluate(expression, resolver);
                         } else {
                             logger.error("Could not find variable scope for variable {}", mapping.getTarget());
                             logger.error("when trying to complete SubProcess node {}", getSubProcessNode().getName());
@@ -423,7 +421,7 @@ public class SubProcessNodeInstance extends StateBasedNodeInstance implements Ev
                 parameterValue = variableScopeInstance.getVariable(sourceParam);
             } else {
                 try {
-                    parameterValue = MVELProcessHelper.evaluator().eval(sourceParam, new NodeInstanceResolverFactory(this));
+                    parameterValue = MVELProcessHelper.evaluate(sourceParam, new NodeInstanceResolverFactory(this));
                 } catch (Throwable t) {
                     logger.warn("Could not find variable scope for variable {}", sourceParam);
                 }
@@ -15,7 +15,6 @@
  */
 package org.jbpm.workflow.instance.node;
 
-import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -49,6 +48,7 @@ import org.jbpm.process.instance.impl.AssignmentAction;
 import org.jbpm.process.instance.impl.ContextInstanceFactory;
 import org.jbpm.process.instance.impl.ContextInstanceFactoryRegistry;
 import org.jbpm.process.instance.impl.ProcessInstanceImpl;
+import org.jbpm.process.instance.impl.workitem.WorkItemFailure;
 import org.jbpm.util.PatternConstants;
 import org.jbpm.workflow.core.Node;
 import org.jbpm.workflow.core.node.Assignment;
@@ -233,7 +233,7 @@ public class WorkItemNodeInstance extends StateBasedNodeInstance implements Even
                     parameterValue = variableScopeInstance.getVariable(association.getSources().get(0));
                 } else {
                     try {
-                        parameterValue = MVELProcessHelper.evaluator().eval(association.getSources().get(0), new NodeInstanceResolverFactory(this));
+                        parameterValue = MVELProcessHelper.evaluate(association.getSources().get(0), new NodeInstanceResolverFactory(this));
                     } catch (Throwable t) {
                         logger.error("Could not find variable scope for variable {}", association.getSources().get(0));
                         logger.error("when trying to execute Work Item {}", work.getName());
@@ -263,7 +263,7 @@ public class WorkItemNodeInstance extends StateBasedNodeInstance implements Even
                             replacements.put(paramName, variableValueString);
                         } else {
                             try {
-                                Object variableValue = MVELProcessHelper.evaluator().eval(paramName, new NodeInstanceResolverFactory(this));
+                                Object variableValue = MVELProcessHelper.evaluate(paramName, new NodeInstanceResolverFactory(this));
                                 String variableValueString = variableValue == null ? "" : variableValue.toString();
                                 replacements.put(paramName, variableValueString);
                             } catch (Throwable t) {
@@ -330,7 +330,7 @@ public class WorkItemNodeInstance extends StateBasedNodeInstance implements Even
                         Object value = workItem.getResult(association.getSources().get(0));
                         if (value == null) {
                             try {
-                                value = MVELProcessHelper.evaluator().eval(association.getSources().get(0), new WorkItemResolverFactory(workItem));
+                                value = MVELProcessHelper.evaluate(association.getSources().get(0), new WorkItemResolverFactory(workItem));
                             } catch (Throwable t) {
                                 // do nothing
                             }
@@ -356,8 +356,7 @@ public class WorkItemNodeInstance extends StateBasedNodeInstance implements Even
                             String expression = paramName + " = " + output;
                             NodeInstanceResolverFactory resolver = new NodeInstanceResolverFactory(this);
                             resolver.addExtraParameters(workItem.getResults());
-                            Serializable compiled = MVELProcessHelper.compileExpression(expression);
-                            MVELProcessHelper.evaluator().executeExpression(compiled, resolver);
+                            MVELProcessHelper.evaluate(expression, resolver);
                         } else {
                             logger.warn("Could not find variable scope for variable {}", association.getTarget());
                             logger.warn("when trying to complete Work Item {}", workItem.getName());
@@ -419,11 +418,13 @@ public class WorkItemNodeInstance extends StateBasedNodeInstance implements Even
     protected void addWorkItemListener() {
         getProcessInstance().addEventListener("workItemCompleted", this, false);
         getProcessInstance().addEventListener("workItemAborted", this, false);
+        getProcessInstance().addEventListener(WorkItemFailure.EVENT_TYPE, this, false);
     }
 
     protected void removeWorkItemListener() {
         getProcessInstance().removeEventListener("workItemCompleted", this, false);
         getProcessInstance().removeEventListener("workItemAborted", this, false);
+        getProcessInstance().removeEventListener(WorkItemFailure.EVENT_TYPE, this, false);
     }
 
     @Override
@@ -439,6 +440,8 @@ public class WorkItemNodeInstance extends StateBasedNodeInstance implements Even
             workItemCompleted((InternalKogitoWorkItem) event);
         } else if ("workItemAborted".equals(type)) {
             workItemAborted((InternalKogitoWorkItem) event);
+        } else if (WorkItemFailure.EVENT_TYPE.equals(type)) {
+            workItemFailed((WorkItemFailure) event);
         } else if (("processInstanceCompleted:" + exceptionHandlingProcessInstanceId).equals(type)) {
             exceptionHandlingCompleted((ProcessInstance) event, null);
         } else if (type.equals("RuleFlow-Activate" + getProcessInstance().getProcessId() + "-" + getNode().getMetaData().get("UniqueId"))) {
@@ -472,6 +475,25 @@ public class WorkItemNodeInstance extends StateBasedNodeInstance implements Even
         }
     }
 
+    /**
+     * Handles the failure of a work item completing asynchronously the same way as
+     * an exception thrown by its handler while executing it.
+     */
+    public void workItemFailed(WorkItemFailure failure) {
+        if (failure.getWorkItemId().equals(workItemId)) {
+            Exception e = failure.getError();
+            try {
+                if (e instanceof WorkItemExecutionException) {
+                    handleException(((WorkItemExecutionException) e).getErrorCode(), e);
+                } else {
+                    handleException(e.getClass().getName(), e);
+                }
+            } catch (Exception unhandled) {
+                captureError(unhandled);
+            }
+        }
+    }
+
     @Override
     public String getNodeName() {
         org.kie.api.definition.process.Node node = getNode();
@@ -546,7 +568,7 @@ public class WorkItemNodeInstance extends StateBasedNodeInstance implements Even
                 parameterValue = variableScopeInstance.getVariable(sourceParam);
             } else {
                 try {
-                    parameterValue = MVELProcessHelper.evaluator().eval(sourceParam, new NodeInstanceResolverFactory(this));
+                    parameterValue = MVELProcessHelper.evaluate(sourceParam, new NodeInstanceResolverFactory(this));
                 } catch (Throwable t) {
                     logger.warn("Could not find variable scope for variable {}", sourceParam);
                 }
@@ -18,7 +18,11 @@ package org.kie.kogito.process.impl;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.jbpm.process.core.timer.DateTimeUtils;
 import org.jbpm.process.core.timer.Timer;
@@ -27,8 +31,13 @@ import org.jbpm.process.instance.LightProcessRuntime;
 import org.jbpm.process.instance.LightProcessRuntimeContext;
 import org.jbpm.process.instance.LightProcessRuntimeServiceProvider;
 import org.jbpm.process.instance.ProcessRuntimeServiceProvider;
+import org.jbpm.util.PatternConstants;
 import org.jbpm.workflow.core.impl.WorkflowProcessImpl;
+import org.jbpm.workflow.core.node.BoundaryEventNode;
+import org.jbpm.workflow.core.node.DynamicNode;
+import org.jbpm.workflow.core.node.EventNode;
 import org.jbpm.workflow.core.node.StartNode;
+import org.kie.api.definition.process.Node;
 import org.kie.api.runtime.process.EventListener;
 import org.kie.api.runtime.process.WorkflowProcessInstance;
 import org.kie.kogito.Application;
@@ -64,6 +73,9 @@ public abstract class AbstractProcess<T extends Model> implements Process<T> {
     protected List<String> startTimerInstances = new ArrayList<>();
     protected KogitoProcessRuntime processRuntime;
 
+    private volatile boolean unindexedEventTypesResolved;
+    private Set<String> unindexedEventTypes;
+
     protected AbstractProcess() {
         this(new LightProcessRuntimeServiceProvider());
     }
@@ -125,14 +137,60 @@ public abstract class AbstractProcess<T extends Model> implements Process<T> {
 
     @Override
     public <S> void send(Signal<S> signal) {
-        instances().values(ProcessInstanceReadMode.MUTABLE).forEach(pi -> pi.send(signal));
+        Set<String> unindexed = unindexedEventTypes();
+        if (unindexed == null || unindexed.contains(signal.channel())) {
+            instances().values(ProcessInstanceReadMode.MUTABLE).forEach(pi -> pi.send(signal));
+            return;
+        }
+        List<ProcessInstance<T>> waiting;
+        try (Stream<ProcessInstance<T>> stream = instances().waitingForEvent(signal.channel(), ProcessInstanceReadMode.MUTABLE)) {
+            waiting = stream.collect(Collectors.toList());
+        }
+        waiting.forEach(pi -> pi.send(signal));
+    }
+
+    /**
+     * Event types that can reach an instance without it registering a listener for them, boundary events
+     * and catch events with no incoming connection, hence cannot be resolved through the subscription index
+     * of the store. Null when no event can be resolved through the index, as for dynamic processes.
+     */
+    protected Set<String> unindexedEventTypes() {
+        if (!unindexedEventTypesResolved) {
+            unindexedEventTypes = resolveUnindexedEventTypes();
+            unindexedEventTypesResolved = true;
+        }
+        return unindexedEventTypes;
+    }
+
+    private Set<String> resolveUnindexedEventTypes() {
+        if (!(process() instanceof WorkflowProcessImpl)) {
+            return null;
+        }
+        WorkflowProcessImpl workflowProcess = (WorkflowProcessImpl) process();
+        if (workflowProcess.isDynamic()) {
+            return null;
+        }
+        Set<String> types = new HashSet<>();
+        for (Node node : workflowProcess.getNodesRecursively()) {
+            if (node instanceof DynamicNode) {
+                return null;
+            }
+            if (node instanceof EventNode && (node instanceof BoundaryEventNode || ((EventNode) node).getFrom() == null)) {
+                String type = ((EventNode) node).getType();
+                if (type == null || PatternConstants.PARAMETER_MATCHER.matcher(type).find()) {
+                    return null;
+                }
+                types.add(type);
+            }
+        }
+        return types;
     }
 
     public Process<T> configure() {
 
         registerListeners();
         if (isProcessFactorySet()) {
-            this.instances = (MutableProcessInstances<T>) processInstancesFactory.createProcessInstances(this);
+            this.instances = (MutableProcessInstances<T>) processInstancesFactory.decorate(this, processInstancesFactory.createProcessInstances(this));
         }
 
         return this;
@@ -18,6 +18,7 @@ package org.kie.kogito.process.impl;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -25,6 +26,7 @@ import java.util.stream.StreamSupport;
 
 import org.kie.api.event.process.ProcessEventListener;
 import org.kie.kogito.event.EventPublisher;
+import org.kie.kogito.jobs.BulkJobsService;
 import org.kie.kogito.jobs.JobsService;
 import org.kie.kogito.process.ProcessConfig;
 import org.kie.kogito.process.ProcessEventListenerConfig;
@@ -34,6 +36,8 @@ import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
 import org.kie.kogito.signal.SignalManagerHub;
 import org.kie.kogito.uow.UnitOfWorkManager;
 import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.services.jobs.impl.BatchingJobsService;
+import org.kie.services.jobs.impl.TimingWheelJobService;
 import org.kie.services.signal.DefaultSignalManagerHub;
 
 public abstract class AbstractProcessConfig implements ProcessConfig {
@@ -53,13 +57,30 @@ public abstract class AbstractProcessConfig implements ProcessConfig {
             Iterable<EventPublisher> eventPublishers,
             String kogitoService,
             Iterable<UnitOfWorkEventListener> unitOfWorkListeners) {
+        this(workItemHandlerConfig, processEventListenerConfigs, processEventListeners, unitOfWorkManager, jobsService, eventPublishers, kogitoService,
+                unitOfWorkListeners, uow -> null);
+    }
+
+    /**
+     * @param defaultJobsService creates the jobs service used when none is provided, given the unit of work manager
+     */
+    protected AbstractProcessConfig(
+            Iterable<WorkItemHandlerConfig> workItemHandlerConfig,
+            Iterable<ProcessEventListenerConfig> processEventListenerConfigs,
+            Iterable<ProcessEventListener> processEventListeners,
+            Iterable<UnitOfWorkManager> unitOfWorkManager,
+            Iterable<JobsService> jobsService,
+            Iterable<EventPublisher> eventPublishers,
+            String kogitoService,
+            Iterable<UnitOfWorkEventListener> unitOfWorkListeners,
+            Function<UnitOfWorkManager, JobsService> defaultJobsService) {
 
         this.workItemHandlerConfig = orDefault(workItemHandlerConfig, DefaultWorkItemHandlerConfig::new);
         this.processEventListenerConfig = merge(processEventListenerConfigs, processEventListeners);
         this.unitOfWorkManager = orDefault(unitOfWorkManager,
                 () -> new DefaultUnitOfWorkManager(
                         new CollectingUnitOfWorkFactory()));
-        this.jobsService = orDefault(jobsService, () -> null);
+        this.jobsService = batching(orDefault(jobsService, () -> defaultJobsService.apply(this.unitOfWorkManager)));
 
         eventPublishers.forEach(publisher -> unitOfWorkManager().eventManager().addPublisher(publisher));
         unitOfWorkListeners.forEach(listener -> unitOfWorkManager().register(listener));
@@ -91,10 +112,36 @@ public abstract class AbstractProcessConfig implements ProcessConfig {
         return jobsService;
     }
 
+    /**
+     * Schedules again the jobs kept by an application wide {@link TimingWheelJobService}, meant to be invoked once
+     * the application has started.
+     */
+    protected void recoverJobs() {
+        if (jobsService instanceof TimingWheelJobService) {
+            ((TimingWheelJobService) jobsService).recover();
+        }
+    }
+
+    /**
+     * Stops an application wide {@link TimingWheelJobService}, meant to be invoked when the application stops.
+     */
+    protected void shutdownJobs() {
+        if (jobsService instanceof TimingWheelJobService) {
+            ((TimingWheelJobService) jobsService).shutdown();
+        }
+    }
+
     public org.kie.kogito.Addons addons() {
         return new org.kie.kogito.Addons(Arrays.asList());
     }
 
+    private JobsService batching(JobsService service) {
+        if (service instanceof BulkJobsService && !(service instanceof BatchingJobsService) && ((BulkJobsService) service).isBatchEnabled()) {
+            return new BatchingJobsService((BulkJobsService) service, unitOfWorkManager);
+        }
+        return service;
+    }
+
     static <T> T orDefault(Iterable<T> instance, Supplier<? extends T> supplier) {
         Iterator<T> iterator = instance.iterator();
         if (iterator.hasNext()) {
@@ -64,6 +64,7 @@ import org.kie.kogito.process.flexible.Milestone;
 import org.kie.kogito.process.workitem.Policy;
 import org.kie.kogito.process.workitem.Transition;
 import org.kie.kogito.services.uow.ProcessInstanceWorkUnit;
+import org.kie.kogito.uow.UnitOfWorkManager;
 
 public abstract class AbstractProcessInstance<T extends Model> implements ProcessInstance<T> {
 
@@ -189,6 +190,29 @@ public abstract class AbstractProcessInstance<T extends Model> implements Proces
         this.processInstance = processInstance;
     }
 
+    /**
+     * Event types the underlying instance is listening to, used by stores to index instances by subscription.
+     * Must be read before the instance is disconnected.
+     */
+    public String[] internalGetEventTypes() {
+        return processInstance == null ? new String[0] : processInstance.getEventTypes();
+    }
+
+    /**
+     * Unit of work manager of the runtime the instance is connected to, null when it is not connected.
+     */
+    public UnitOfWorkManager internalGetUnitOfWorkManager() {
+        return rt == null ? null : rt.getUnitOfWorkManager();
+    }
+
+    public Consumer<AbstractProcessInstance<?>> internalGetReloadSupplier() {
+        return reloadSupplier;
+    }
+
+    public void internalSetReloadSupplier(Consumer<AbstractProcessInstance<?>> reloadSupplier) {
+        this.reloadSupplier = reloadSupplier;
+    }
+
     public void internalRemoveProcessInstance(Consumer<AbstractProcessInstance<?>> reloadSupplier) {
         this.reloadSupplier = reloadSupplier;
         this.status = processInstance.getState();
@@ -15,9 +15,15 @@
  */
 package org.kie.kogito.process.impl;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.ProcessInstance;
@@ -27,6 +33,9 @@ import org.kie.kogito.process.ProcessInstanceReadMode;
 class MapProcessInstances<T> implements MutableProcessInstances<T> {
 
     private final ConcurrentHashMap<String, ProcessInstance<T>> instances = new ConcurrentHashMap<>();
+    // event type -> ids of the instances listening to it, and the reverse mapping to keep it up to date
+    private final ConcurrentHashMap<String, Set<String>> subscriptions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> eventTypes = new ConcurrentHashMap<>();
 
     @Override
     public Integer size() {
@@ -50,6 +59,7 @@ class MapProcessInstances<T> implements MutableProcessInstances<T> {
             if (existing != null) {
                 throw new ProcessInstanceDuplicatedException(id);
             }
+            index(id, instance);
         }
     }
 
@@ -57,12 +67,50 @@ class MapProcessInstances<T> implements MutableProcessInstances<T> {
     public void update(String id, ProcessInstance<T> instance) {
         if (isActive(instance)) {
             instances.put(id, instance);
+            index(id, instance);
         }
     }
 
     @Override
     public void remove(String id) {
         instances.remove(id);
+        Set<String> types = eventTypes.remove(id);
+        if (types != null) {
+            types.forEach(type -> unsubscribe(type, id));
+        }
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> waitingForEvent(String eventType, ProcessInstanceReadMode mode) {
+        return subscriptions.getOrDefault(eventType, Collections.emptySet()).stream()
+                .map(instances::get)
+                .filter(Objects::nonNull);
+    }
+
+    private void index(String id, ProcessInstance<T> instance) {
+        Set<String> types = new HashSet<>(Arrays.asList(((AbstractProcessInstance<?>) instance).internalGetEventTypes()));
+        eventTypes.compute(id, (key, previous) -> {
+            if (previous != null) {
+                previous.stream().filter(type -> !types.contains(type)).forEach(type -> unsubscribe(type, id));
+            }
+            types.forEach(type -> subscribe(type, id));
+            return types;
+        });
+    }
+
+    private void subscribe(String type, String id) {
+        subscriptions.compute(type, (key, ids) -> {
+            Set<String> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            result.add(id);
+            return result;
+        });
+    }
+
+    private void unsubscribe(String type, String id) {
+        subscriptions.computeIfPresent(type, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
     }
 
     @Override
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, least recently used cache of marshalled process instance snapshots, keyed by process instance id and
+ * holding the version each snapshot was committed with. Entries are only added once a write has been committed and
+ * are invalidated when the instance is written again, removed, or found to be updated elsewhere, so that lookups
+ * never need to go back to the store. A single cache is shared by the stores of all the processes of an application
+ * so that the bounds apply to the application as a whole; it is disabled (and stores nothing) until one is configured.
+ */
+public class ProcessInstanceCache {
+
+    public static class Entry {
+
+        private final Long version;
+        private final byte[] data;
+
+        Entry(Long version, byte[] data) {
+            this.version = version;
+            this.data = data;
+        }
+
+        /**
+         * Version the snapshot was written with, null for stores which do not keep versions.
+         */
+        public Long getVersion() {
+            return version;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+    }
+
+    /**
+     * Counters of a cache, also reported to the statistics aggregating all the caches of the application.
+     */
+    public static class Statistics {
+
+        private static final Statistics GLOBAL = new Statistics(null);
+
+        private final Statistics parent;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder puts = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder size = new LongAdder();
+        private final LongAdder weight = new LongAdder();
+
+        Statistics(Statistics parent) {
+            this.parent = parent;
+        }
+
+        /**
+         * Statistics summed over all the caches, as exported by the monitoring addons.
+         */
+        public static Statistics global() {
+            return GLOBAL;
+        }
+
+        void hit() {
+            hits.increment();
+            if (parent != null) {
+                parent.hit();
+            }
+        }
+
+        void miss() {
+            misses.increment();
+            if (parent != null) {
+                parent.miss();
+            }
+        }
+
+        void put() {
+            puts.increment();
+            if (parent != null) {
+                parent.put();
+            }
+        }
+
+        void eviction() {
+            evictions.increment();
+            if (parent != null) {
+                parent.eviction();
+            }
+        }
+
+        void resize(long entries, long bytes) {
+            size.add(entries);
+            weight.add(bytes);
+            if (parent != null) {
+                parent.resize(entries, bytes);
+            }
+        }
+
+        public long hitCount() {
+            return hits.sum();
+        }
+
+        public long missCount() {
+            return misses.sum();
+        }
+
+        public long putCount() {
+            return puts.sum();
+        }
+
+        public long evictionCount() {
+            return evictions.sum();
+        }
+
+        public long size() {
+            return size.sum();
+        }
+
+        public long weight() {
+            return weight.sum();
+        }
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Statistics statistics;
+    private final int maxEntries;
+    private final long maxWeight;
+    private long weight;
+
+    /**
+     * @param maxEntries maximum number of snapshots kept, 0 for no limit on the number of entries
+     * @param maxWeight maximum number of bytes kept, 0 for no limit on the size of the entries
+     */
+    public ProcessInstanceCache(int maxEntries, long maxWeight) {
+        this(maxEntries, maxWeight, Statistics.global());
+    }
+
+    ProcessInstanceCache(int maxEntries, long maxWeight, Statistics parent) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.statistics = new Statistics(parent);
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0 || maxWeight > 0;
+    }
+
+    /**
+     * Returns the last snapshot committed for the given instance, if still cached.
+     */
+    public Entry get(String id) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(id);
+        }
+        if (entry != null) {
+            statistics.hit();
+        } else {
+            statistics.miss();
+        }
+        return entry;
+    }
+
+    /**
+     * Caches the snapshot committed for the given instance, unless a more recent version is already cached.
+     */
+    public void put(String id, Long version, byte[] data) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            Entry previous = entries.get(id);
+            if (previous != null && previous.version != null && version != null && previous.version > version) {
+                return;
+            }
+            entries.put(id, new Entry(version, data));
+            if (previous != null) {
+                weight -= previous.data.length;
+                statistics.resize(-1, -previous.data.length);
+            }
+            weight += data.length;
+            statistics.resize(1, data.length);
+            evict();
+        }
+        statistics.put();
+    }
+
+    public synchronized void invalidate(String id) {
+        remove(id);
+    }
+
+    public synchronized void clear() {
+        statistics.resize(-entries.size(), -weight);
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public Statistics statistics() {
+        return statistics;
+    }
+
+    private void remove(String id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            weight -= previous.data.length;
+            statistics.resize(-1, -previous.data.length);
+        }
+    }
+
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && isOverBounds()) {
+            Entry evicted = iterator.next();
+            iterator.remove();
+            weight -= evicted.data.length;
+            statistics.resize(-1, -evicted.data.length);
+            statistics.eviction();
+        }
+    }
+
+    private boolean isOverBounds() {
+        return (maxEntries > 0 && entries.size() > maxEntries) || (maxWeight > 0 && weight > maxWeight);
+    }
+}
@@ -20,8 +20,12 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.jbpm.process.instance.impl.humantask.HumanTaskHelper;
 import org.jbpm.process.instance.impl.humantask.HumanTaskTransition;
@@ -33,8 +37,11 @@ import org.kie.kogito.Model;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessConfig;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.ProcessInstances;
 import org.kie.kogito.process.ProcessService;
+import org.kie.kogito.process.ReactiveProcessInstances;
 import org.kie.kogito.process.WorkItem;
 import org.kie.kogito.process.workitem.Attachment;
 import org.kie.kogito.process.workitem.AttachmentInfo;
@@ -46,9 +53,21 @@ import org.kie.kogito.services.uow.UnitOfWorkExecutor;
 public class ProcessServiceImpl implements ProcessService {
 
     private final Application application;
+    private final Executor executor;
 
+    /**
+     * Reads of stores that are not reactive are run on the calling thread.
+     */
     public ProcessServiceImpl(Application application) {
+        this(application, Runnable::run);
+    }
+
+    /**
+     * Reads of stores that are not reactive are run on the given executor, which is expected to be a managed one.
+     */
+    public ProcessServiceImpl(Application application, Executor executor) {
         this.application = application;
+        this.executor = executor;
     }
 
     @Override
@@ -68,10 +87,17 @@ public class ProcessServiceImpl implements ProcessService {
 
     @Override
     public <T extends MappableToModel<R>, R> List<R> getProcessInstanceOutput(Process<T> process) {
-        return process.instances().values().stream()
-                .map(ProcessInstance::variables)
-                .map(MappableToModel::toModel)
-                .collect(Collectors.toList());
+        return getProcessInstanceOutput(process, ProcessInstanceQuery.all());
+    }
+
+    @Override
+    public <T extends MappableToModel<R>, R> List<R> getProcessInstanceOutput(Process<T> process, ProcessInstanceQuery query) {
+        try (Stream<ProcessInstance<T>> instances = process.instances().stream(query)) {
+            return instances
+                    .map(ProcessInstance::variables)
+                    .map(MappableToModel::toModel)
+                    .collect(Collectors.toList());
+        }
     }
 
     @Override
@@ -82,6 +108,29 @@ public class ProcessServiceImpl implements ProcessService {
                 .map(MappableToModel::toModel);
     }
 
+    @Override
+    public <T extends MappableToModel<R>, R> CompletionStage<List<R>> getProcessInstanceOutputAsync(Process<T> process, ProcessInstanceQuery query) {
+        ProcessInstances<T> instances = process.instances();
+        if (instances instanceof ReactiveProcessInstances) {
+            return ((ReactiveProcessInstances<T>) instances).valuesAsync(query, ProcessInstanceReadMode.READ_ONLY)
+                    .thenApply(values -> values.stream()
+                            .map(ProcessInstance::variables)
+                            .map(MappableToModel::toModel)
+                            .collect(Collectors.toList()));
+        }
+        return CompletableFuture.supplyAsync(() -> getProcessInstanceOutput(process, query), executor);
+    }
+
+    @Override
+    public <T extends MappableToModel<R>, R> CompletionStage<Optional<R>> findByIdAsync(Process<T> process, String id) {
+        ProcessInstances<T> instances = process.instances();
+        if (instances instanceof ReactiveProcessInstances) {
+            return ((ReactiveProcessInstances<T>) instances).findByIdAsync(id, ProcessInstanceReadMode.READ_ONLY)
+                    .thenApply(pi -> pi.map(ProcessInstance::variables).map(MappableToModel::toModel));
+        }
+        return CompletableFuture.supplyAsync(() -> findById(process, id), executor);
+    }
+
     @Override
     public <T extends MappableToModel<R>, R> Optional<R> delete(Process<T> process, String id) {
         return UnitOfWorkExecutor.executeInUnitOfWork(
@@ -116,6 +165,16 @@ public class ProcessServiceImpl implements ProcessService {
                 .map(pi -> pi.workItems(Policies.of(user, groups)));
     }
 
+    @Override
+    public <T extends Model> CompletionStage<Optional<List<WorkItem>>> getTasksAsync(Process<T> process, String id, String user, List<String> groups) {
+        ProcessInstances<T> instances = process.instances();
+        if (instances instanceof ReactiveProcessInstances) {
+            return ((ReactiveProcessInstances<T>) instances).findByIdAsync(id, ProcessInstanceReadMode.READ_ONLY)
+                    .thenApply(pi -> pi.map(p -> p.workItems(Policies.of(user, groups))));
+        }
+        return CompletableFuture.supplyAsync(() -> getTasks(process, id, user, groups), executor);
+    }
+
     @Override
     public <T extends Model> Optional<WorkItem> signalTask(Process<T> process, String id, String taskNodeName, String taskName) {
         return UnitOfWorkExecutor.executeInUnitOfWork(application.unitOfWorkManager(), () -> process
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jbpm.workflow.core.impl;
+
+import org.jbpm.process.core.event.BroadcastEventTypeFilter;
+import org.jbpm.process.core.event.EventFilter;
+import org.jbpm.process.core.event.EventTypeFilter;
+import org.jbpm.process.core.event.NonAcceptingEventTypeFilter;
+import org.jbpm.ruleflow.core.RuleFlowProcess;
+import org.jbpm.workflow.core.node.BoundaryEventNode;
+import org.jbpm.workflow.core.node.CompositeNode;
+import org.jbpm.workflow.core.node.EventNode;
+import org.jbpm.workflow.core.node.EventSubProcessNode;
+import org.jbpm.workflow.core.node.HumanTaskNode;
+import org.junit.jupiter.api.Test;
+import org.kie.api.definition.process.Node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventDispatchTableTest {
+
+    @Test
+    public void testNodesByType() {
+        RuleFlowProcess process = new RuleFlowProcess();
+        EventNode signal = eventNode(1, new EventTypeFilter(), "signal");
+        BoundaryEventNode boundary = new BoundaryEventNode();
+        boundary.setId(2);
+        boundary.addEventFilter(typeFilter(new EventTypeFilter(), "boundary"));
+        EventNode broadcast = eventNode(3, new BroadcastEventTypeFilter(), "Message-");
+        EventNode nonAccepting = eventNode(4, new NonAcceptingEventTypeFilter(), "signal");
+        CompositeNode composite = new CompositeNode();
+        composite.setId(5);
+        composite.addNode(eventNode(6, new EventTypeFilter(), "inner"));
+        EventSubProcessNode expression = new EventSubProcessNode();
+        expression.setId(7);
+        expression.addEvent((EventTypeFilter) typeFilter(new EventTypeFilter(), "signal-#{id}"));
+        HumanTaskNode task = new HumanTaskNode();
+        task.setId(8);
+        addNodes(process, signal, boundary, broadcast, nonAccepting, composite, expression, task);
+
+        EventDispatchTable table = process.getEventDispatchTable();
+        assertThat(table.getNodes("signal")).containsExactly(signal, broadcast, expression);
+        assertThat(table.getNodes("boundary")).containsExactly(boundary, broadcast, expression);
+        assertThat(table.getNodes("inner")).containsExactly(broadcast, composite, expression);
+        assertThat(table.getNodes("Message-order")).containsExactly(broadcast, expression);
+        assertThat(process.getEventDispatchTable()).isSameAs(table);
+
+        EventNode added = eventNode(9, new EventTypeFilter(), "added");
+        process.addNode(added);
+        assertThat(process.getEventDispatchTable().getNodes("added")).containsExactly(broadcast, expression, added);
+    }
+
+    @Test
+    public void testDynamicNodes() {
+        RuleFlowProcess process = new RuleFlowProcess();
+        HumanTaskNode task = new HumanTaskNode();
+        task.setId(1);
+        task.setName("task");
+        CompositeNode composite = new CompositeNode();
+        composite.setId(2);
+        composite.setName("composite");
+        addNodes(process, task, composite);
+
+        EventDispatchTable table = process.getEventDispatchTable();
+        assertThat(table.getDynamicNodes("task")).containsExactly(task, composite);
+        assertThat(table.getDynamicNodes("composite")).containsExactly(composite);
+        assertThat(table.getDynamicNodes("other")).containsExactly(composite);
+    }
+
+    private static void addNodes(RuleFlowProcess process, Node... nodes) {
+        for (Node node : nodes) {
+            process.addNode(node);
+        }
+    }
+
+    private static EventNode eventNode(long id, EventTypeFilter filter, String type) {
+        EventNode node = new EventNode();
+        node.setId(id);
+        node.addEventFilter(typeFilter(filter, type));
+        return node;
+    }
+
+    private static EventFilter typeFilter(EventTypeFilter filter, String type) {
+        filter.setType(type);
+        return filter;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jbpm.workflow.instance.impl;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.conf.ConfigBean;
+import org.mvel2.integration.impl.MapVariableResolverFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class MVELProcessHelperTest {
+
+    @Test
+    public void testCompiledExpressionIsReused() {
+        assertThat(MVELProcessHelper.compiledExpression("person.name")).isSameAs(MVELProcessHelper.compiledExpression("person.name"));
+    }
+
+    @Test
+    public void testExpressionCacheSize() {
+        try {
+            MVELProcessHelper.setExpressionCacheSize(1);
+            Serializable compiled = MVELProcessHelper.compiledExpression("person.age");
+            MVELProcessHelper.compiledExpression("person.address");
+            assertThat(MVELProcessHelper.compiledExpression("person.age")).isNotSameAs(compiled);
+            assertThatIllegalArgumentException().isThrownBy(() -> MVELProcessHelper.setExpressionCacheSize(-1));
+        } finally {
+            MVELProcessHelper.setExpressionCacheSize(ConfigBean.DEFAULT_MVEL_EXPRESSION_CACHE_SIZE);
+        }
+    }
+
+    @Test
+    public void testEvaluate() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("a", 2);
+        variables.put("b", 3);
+        assertThat(MVELProcessHelper.evaluate("a + b", new MapVariableResolverFactory(variables))).isEqualTo(5);
+
+        variables.put("a", "x");
+        assertThat(MVELProcessHelper.evaluate("a + b", new MapVariableResolverFactory(variables))).isEqualTo("x3");
+
+        MVELProcessHelper.evaluate("c = a + b", new MapVariableResolverFactory(variables));
+        assertThat(variables).containsEntry("c", "x3");
+    }
+}
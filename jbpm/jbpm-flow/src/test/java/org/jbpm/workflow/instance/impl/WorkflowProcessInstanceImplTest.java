@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jbpm.workflow.instance.impl;
+
+import org.jbpm.ruleflow.instance.RuleFlowProcessInstance;
+import org.jbpm.workflow.instance.node.ActionNodeInstance;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WorkflowProcessInstanceImplTest {
+
+    @Test
+    public void testNodeInstancesIndexedByNodeId() {
+        RuleFlowProcessInstance processInstance = new RuleFlowProcessInstance();
+        NodeInstanceImpl first = nodeInstance(processInstance, 1);
+        NodeInstanceImpl second = nodeInstance(processInstance, 1);
+        NodeInstanceImpl third = nodeInstance(processInstance, 2);
+
+        assertThat(processInstance.getNodeInstances(1)).containsExactly(first, second);
+        assertThat(processInstance.getNodeInstances(2)).containsExactly(third);
+
+        processInstance.removeNodeInstance(first);
+        assertThat(processInstance.getNodeInstances(1)).containsExactly(second);
+
+        // as when migrating to another version of the process
+        third.setNodeId(3);
+        assertThat(processInstance.getNodeInstances(2)).isEmpty();
+        assertThat(processInstance.getNodeInstances(3)).containsExactly(third);
+
+        processInstance.removeNodeInstance(second);
+        processInstance.removeNodeInstance(third);
+        assertThat(processInstance.getNodeInstances(1)).isEmpty();
+        assertThat(processInstance.getNodeInstances(3)).isEmpty();
+        assertThat(processInstance.getNodeInstances(false)).isEmpty();
+    }
+
+    private NodeInstanceImpl nodeInstance(RuleFlowProcessInstance processInstance, long nodeId) {
+        NodeInstanceImpl nodeInstance = new ActionNodeInstance();
+        nodeInstance.setNodeId(nodeId);
+        nodeInstance.setNodeInstanceContainer(processInstance);
+        return nodeInstance;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MapProcessInstancesTest {
+
+    @Test
+    public void testWaitingForEvent() {
+        MapProcessInstances<Object> instances = new MapProcessInstances<>();
+        ProcessInstance<Object> first = instance("first", "signal", "Message-order");
+        ProcessInstance<Object> second = instance("second", "signal");
+
+        instances.create("first", first);
+        instances.create("second", second);
+
+        assertThat(waitingFor(instances, "signal")).containsExactlyInAnyOrder(first, second);
+        assertThat(waitingFor(instances, "Message-order")).containsExactly(first);
+        assertThat(waitingFor(instances, "unknown")).isEmpty();
+
+        when(((AbstractProcessInstance<?>) first).internalGetEventTypes()).thenReturn(new String[] { "Message-order" });
+        instances.update("first", first);
+
+        assertThat(waitingFor(instances, "signal")).containsExactly(second);
+        assertThat(waitingFor(instances, "Message-order")).containsExactly(first);
+
+        instances.remove("second");
+
+        assertThat(waitingFor(instances, "signal")).isEmpty();
+        assertThat(instances.size()).isOne();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProcessInstance<Object> instance(String id, String... eventTypes) {
+        AbstractProcessInstance<?> instance = mock(AbstractProcessInstance.class);
+        when(instance.id()).thenReturn(id);
+        when(instance.status()).thenReturn(ProcessInstance.STATE_ACTIVE);
+        when(instance.internalGetEventTypes()).thenReturn(eventTypes);
+        return (ProcessInstance<Object>) instance;
+    }
+
+    private Object[] waitingFor(MapProcessInstances<Object> instances, String eventType) {
+        try (Stream<ProcessInstance<Object>> stream = instances.waitingForEvent(eventType, ProcessInstanceReadMode.MUTABLE)) {
+            return stream.collect(Collectors.toList()).toArray();
+        }
+    }
+}
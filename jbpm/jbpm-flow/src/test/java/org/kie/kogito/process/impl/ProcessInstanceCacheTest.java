@@ -0,0 +1,106 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProcessInstanceCacheTest {
+
+    @Test
+    public void testDisabledByDefault() {
+        ProcessInstanceCache cache = new ProcessInstanceCache(0, 0);
+        cache.put("1", 1L, new byte[1]);
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(cache.get("1")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        ProcessInstanceCache cache = new ProcessInstanceCache(2, 0);
+        cache.put("1", 1L, new byte[1]);
+        cache.put("2", 1L, new byte[1]);
+        assertThat(cache.get("1")).isNotNull();
+        cache.put("3", 1L, new byte[1]);
+
+        assertThat(cache.get("2")).isNull();
+        assertThat(cache.get("1")).isNotNull();
+        assertThat(cache.get("3")).isNotNull();
+        assertThat(cache.statistics().evictionCount()).isOne();
+        assertThat(cache.statistics().hitCount()).isEqualTo(3);
+        assertThat(cache.statistics().missCount()).isOne();
+    }
+
+    @Test
+    public void testWeightBound() {
+        ProcessInstanceCache cache = new ProcessInstanceCache(0, 10);
+        cache.put("1", 1L, new byte[6]);
+        cache.put("2", 1L, new byte[4]);
+        assertThat(cache.weight()).isEqualTo(10);
+        cache.put("3", 1L, new byte[2]);
+
+        assertThat(cache.get("1")).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.weight()).isEqualTo(6);
+    }
+
+    @Test
+    public void testVersionAndInvalidation() {
+        ProcessInstanceCache cache = new ProcessInstanceCache(10, 0);
+        cache.put("1", 1L, new byte[1]);
+        cache.put("1", 2L, new byte[2]);
+        assertThat(cache.get("1").getVersion()).isEqualTo(2L);
+        assertThat(cache.weight()).isEqualTo(2);
+
+        cache.invalidate("1");
+        assertThat(cache.get("1")).isNull();
+        assertThat(cache.weight()).isZero();
+    }
+
+    @Test
+    public void testOlderVersionIsIgnored() {
+        ProcessInstanceCache cache = new ProcessInstanceCache(10, 0);
+        cache.put("1", 3L, new byte[3]);
+        // committed before the cached one but handed over after it
+        cache.put("1", 2L, new byte[2]);
+
+        assertThat(cache.get("1").getVersion()).isEqualTo(3L);
+        assertThat(cache.weight()).isEqualTo(3);
+    }
+
+    @Test
+    public void testStatisticsAggregatedAcrossCaches() {
+        ProcessInstanceCache.Statistics global = new ProcessInstanceCache.Statistics(null);
+        ProcessInstanceCache first = new ProcessInstanceCache(10, 0, global);
+        ProcessInstanceCache second = new ProcessInstanceCache(10, 0, global);
+        first.put("1", 1L, new byte[3]);
+        second.put("2", 1L, new byte[4]);
+        first.get("1");
+        second.get("1");
+
+        assertThat(global.putCount()).isEqualTo(2);
+        assertThat(global.hitCount()).isOne();
+        assertThat(global.missCount()).isOne();
+        assertThat(global.size()).isEqualTo(2);
+        assertThat(global.weight()).isEqualTo(7);
+
+        first.clear();
+        assertThat(global.size()).isOne();
+        assertThat(global.weight()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.Application;
+import org.kie.kogito.MappableToModel;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.ProcessInstances;
+import org.kie.kogito.process.ReactiveProcessInstances;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class ProcessServiceImplTest {
+
+    private final ProcessServiceImpl processService = new ProcessServiceImpl(mock(Application.class));
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testFindByIdAsyncWithReactiveInstances() {
+        Process<MappableToModel<String>> process = mock(Process.class);
+        ProcessInstances instances = mock(ProcessInstances.class, withSettings().extraInterfaces(ReactiveProcessInstances.class));
+        when(process.instances()).thenReturn(instances);
+        ProcessInstance<MappableToModel<String>> instance = mock(ProcessInstance.class);
+        MappableToModel<String> variables = mock(MappableToModel.class);
+        when(variables.toModel()).thenReturn("output");
+        when(instance.variables()).thenReturn(variables);
+        when(((ReactiveProcessInstances) instances).findByIdAsync("id", ProcessInstanceReadMode.READ_ONLY))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(instance)));
+
+        assertThat(processService.findByIdAsync(process, "id").toCompletableFuture().join()).hasValue("output");
+        verify(instances, never()).findById(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFindByIdAsyncWithBlockingInstances() {
+        Process<MappableToModel<String>> process = mock(Process.class);
+        ProcessInstances<MappableToModel<String>> instances = mock(ProcessInstances.class);
+        when(process.instances()).thenReturn(instances);
+        when(instances.findById("id", ProcessInstanceReadMode.READ_ONLY)).thenReturn(Optional.empty());
+
+        assertThat(processService.findByIdAsync(process, "id").toCompletableFuture().join()).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFindByIdAsyncWithBlockingInstancesRunsOnExecutor() {
+        Process<MappableToModel<String>> process = mock(Process.class);
+        ProcessInstances<MappableToModel<String>> instances = mock(ProcessInstances.class);
+        when(process.instances()).thenReturn(instances);
+        when(instances.findById("id", ProcessInstanceReadMode.READ_ONLY)).thenReturn(Optional.empty());
+        Executor executor = mock(Executor.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable> getArgument(0).run();
+            return null;
+        }).when(executor).execute(any());
+
+        assertThat(new ProcessServiceImpl(mock(Application.class), executor).findByIdAsync(process, "id").toCompletableFuture().join()).isEmpty();
+        verify(executor).execute(any());
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.serialization.process;
+
+/**
+ * Implemented by the stores that can be wrapped by {@link CachedProcessInstances}: they hand over the snapshots
+ * they write once committed, tell whether those can be served from a local cache, and whether a cached snapshot
+ * is still the one they hold.
+ */
+public interface CacheableProcessInstances {
+
+    @FunctionalInterface
+    interface SnapshotListener {
+
+        /**
+         * Called once the given snapshot has been committed by the store with the given version, null when
+         * the store keeps no versions.
+         */
+        void written(String id, Long version, byte[] data);
+    }
+
+    void setSnapshotListener(SnapshotListener listener);
+
+    /**
+     * Whether snapshots handed over by this store stay current until it writes the instance again, which
+     * requires that any update made elsewhere is detected when writing, through optimistic locking.
+     */
+    boolean isCacheable();
+
+    /**
+     * Whether the given instance is still held with the given version, the one its cached snapshot was written
+     * with, so that updates made by other nodes are noticed before the snapshot is served. Expected to be answered
+     * without reading the payload.
+     */
+    boolean isCurrent(String id, Long version);
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.serialization.process;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceQuery;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.process.impl.ProcessInstanceCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
+
+/**
+ * Keeps the snapshots written by the wrapped store in the {@link ProcessInstanceCache} shared by the stores of the
+ * application, so that following lookups and reloads of the same instance are served without reading the payload
+ * back from the store, nor marshalling it a second time.
+ * Snapshots are cached once the store reports them as committed, together with the version they were written with.
+ * The cached snapshot of an instance is invalidated as soon as it is written again, so a write that is rolled back
+ * leaves nothing behind, and when it is removed. Before a snapshot is served, the store is asked whether it still
+ * holds that version, which costs a lookup of the version alone, so that an update made by another node is never
+ * hidden by the cache.
+ */
+public class CachedProcessInstances<T> implements MutableProcessInstances<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachedProcessInstances.class);
+
+    private final MutableProcessInstances<T> delegate;
+    private final CacheableProcessInstances source;
+    private final Process<T> process;
+    private final ProcessInstanceCache cache;
+    private final ProcessInstanceMarshallerService marshaller;
+
+    public CachedProcessInstances(MutableProcessInstances<T> delegate, Process<T> process, ProcessInstanceCache cache) {
+        if (!(delegate instanceof CacheableProcessInstances)) {
+            throw new IllegalArgumentException("Process instances of type " + delegate.getClass().getName() + " cannot be cached");
+        }
+        this.delegate = delegate;
+        this.source = (CacheableProcessInstances) delegate;
+        this.process = process;
+        this.cache = cache;
+        this.marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build();
+        this.source.setSnapshotListener(cache::put);
+    }
+
+    /**
+     * Wraps the given instances with the given cache, or returns them unchanged when no bound is set on it, or when
+     * the store does not support caching.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static MutableProcessInstances<?> decorate(Process<?> process, MutableProcessInstances<?> instances, ProcessInstanceCache cache) {
+        if (!cache.isEnabled()) {
+            return instances;
+        }
+        if (!(instances instanceof CacheableProcessInstances) || !((CacheableProcessInstances) instances).isCacheable()) {
+            LOGGER.warn("Process instance cache is configured but not supported by the persistence of process {}, it requires optimistic locking", process.id());
+            return instances;
+        }
+        return new CachedProcessInstances(instances, process, cache);
+    }
+
+    public MutableProcessInstances<T> getDelegate() {
+        return delegate;
+    }
+
+    public ProcessInstanceCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return delegate.exists(id);
+    }
+
+    @Override
+    public void create(String id, ProcessInstance<T> instance) {
+        write(id, instance, () -> delegate.create(id, instance));
+    }
+
+    @Override
+    public void update(String id, ProcessInstance<T> instance) {
+        write(id, instance, () -> delegate.update(id, instance));
+    }
+
+    private void write(String id, ProcessInstance<T> instance, Runnable operation) {
+        // the new snapshot is only cached once committed, the previous one is not current anymore
+        cache.invalidate(id);
+        try {
+            operation.run();
+        } catch (RuntimeException e) {
+            cache.invalidate(id);
+            throw e;
+        }
+        AbstractProcessInstance<?> abstractInstance = (AbstractProcessInstance<?>) instance;
+        Consumer<AbstractProcessInstance<?>> storeReload = abstractInstance.internalGetReloadSupplier();
+        if (storeReload != null) {
+            abstractInstance.internalSetReloadSupplier(pi -> reload(pi, storeReload));
+        }
+    }
+
+    private void reload(AbstractProcessInstance<?> instance, Consumer<AbstractProcessInstance<?>> storeReload) {
+        ProcessInstanceCache.Entry entry = currentEntry(instance.id());
+        if (entry == null) {
+            storeReload.accept(instance);
+        } else {
+            instance.setVersion(entry.getVersion());
+            marshaller.createdReloadFunction(entry::getData).accept(instance);
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        try {
+            delegate.remove(id);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Optional<ProcessInstance<T>> findById(String id, ProcessInstanceReadMode mode) {
+        ProcessInstanceCache.Entry entry = currentEntry(id);
+        if (entry == null) {
+            return delegate.findById(id, mode);
+        }
+        ProcessInstance<T> instance = (ProcessInstance<T>) (mode == MUTABLE ? marshaller.unmarshallProcessInstance(entry.getData(), process)
+                : marshaller.unmarshallReadOnlyProcessInstance(entry.getData(), process));
+        ((AbstractProcessInstance<?>) instance).setVersion(entry.getVersion());
+        return Optional.of(instance);
+    }
+
+    private ProcessInstanceCache.Entry currentEntry(String id) {
+        ProcessInstanceCache.Entry entry = cache.get(id);
+        if (entry != null && !source.isCurrent(id, entry.getVersion())) {
+            // written or removed by another node
+            cache.invalidate(id);
+            return null;
+        }
+        return entry;
+    }
+
+    @Override
+    public Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode) {
+        return delegate.values(mode);
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> stream(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        return delegate.stream(query, mode);
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> waitingForEvent(String eventType, ProcessInstanceReadMode mode) {
+        return delegate.waitingForEvent(eventType, mode);
+    }
+
+    @Override
+    public Integer size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isActive(ProcessInstance<T> instance) {
+        return delegate.isActive(instance);
+    }
+
+    @Override
+    public boolean lock() {
+        return delegate.lock();
+    }
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.serialization.process;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.serialization.process.protobuf.KogitoProcessInstanceProtobuf;
+import org.kie.kogito.serialization.process.protobuf.KogitoTypesProtobuf;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+/**
+ * Incremental snapshots of process instances, so that an update only writes the variables and node instances
+ * (including the work items they hold) that changed since the last persisted version, instead of the whole
+ * instance. Every delta also carries the instance header, which is small, and the other context entries.
+ * <p>
+ * A full snapshot is written again, compacting the chain, once {@code compactionInterval} deltas have been
+ * written on top of it, or when a delta would not be significantly smaller than the full snapshot.
+ * Deltas are stored as length prefixed frames following the full snapshot; when both are kept in the same
+ * blob it starts with a header which cannot be the start of a protobuf message, so that plain snapshots
+ * written before deltas were enabled are still read as they are.
+ */
+public class DeltaSnapshots {
+
+    private static final byte[] HEADER = { 0, 'K', 'D', 1 };
+    // an instance without baseline is written as a full snapshot, so the least recently used ones can be dropped
+    public static final long DEFAULT_MAX_BASELINE_BYTES = 64L * 1024 * 1024;
+
+    private final int compactionInterval;
+    private final long maxBaselineBytes;
+    // state each instance was read from or last written with, by instance id, deltas are computed against it;
+    // kept in access order and guarded by its own monitor, together with the total size of the retained states
+    private final LinkedHashMap<String, Baseline> baselines = new LinkedHashMap<>(16, 0.75f, true);
+    private long baselineBytes;
+
+    public DeltaSnapshots(int compactionInterval) {
+        this(compactionInterval, DEFAULT_MAX_BASELINE_BYTES);
+    }
+
+    /**
+     * Baselines are retained up to {@code maxBaselineBytes} of serialized state in total, the least recently
+     * used ones being dropped first.
+     */
+    public DeltaSnapshots(int compactionInterval, long maxBaselineBytes) {
+        this.compactionInterval = compactionInterval;
+        this.maxBaselineBytes = maxBaselineBytes;
+    }
+
+    public boolean isEnabled() {
+        return compactionInterval > 0;
+    }
+
+    /**
+     * Records the materialized state the given instance has been unmarshalled from, at its current version.
+     * A snapshot which deltas cannot be appended to, such as a plain blob written before deltas were enabled,
+     * is not recorded, so that the next write replaces it with a full snapshot.
+     */
+    public void track(ProcessInstance<?> instance, Snapshot snapshot) {
+        if (isEnabled() && snapshot.isAppendable()) {
+            put(instance.id(), new Baseline(snapshot, instance.version()));
+        } else {
+            forget(instance.id());
+        }
+    }
+
+    /**
+     * Returns the delta leading from the last known state of the instance to the given one, or null when
+     * a full snapshot must be written instead, including when that state was recorded for another version.
+     */
+    public byte[] deltaFor(ProcessInstance<?> instance, byte[] current) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Baseline baseline = get(instance.id());
+        if (baseline == null || !Objects.equals(baseline.version, instance.version()) || baseline.snapshot.deltas() >= compactionInterval) {
+            return null;
+        }
+        byte[] delta = diff(baseline.snapshot.state(), current);
+        return delta.length * 2 < current.length ? delta : null;
+    }
+
+    /**
+     * Records the state the instance has just been written with, either as a delta or as a full snapshot,
+     * once its version has been updated.
+     */
+    public void written(ProcessInstance<?> instance, byte[] current, boolean delta) {
+        if (isEnabled()) {
+            Baseline baseline = get(instance.id());
+            int deltas = delta && baseline != null ? baseline.snapshot.deltas() + 1 : 0;
+            put(instance.id(), new Baseline(new Snapshot(current, deltas), instance.version()));
+        } else {
+            forget(instance.id());
+        }
+    }
+
+    public void forget(String id) {
+        synchronized (baselines) {
+            Baseline removed = baselines.remove(id);
+            if (removed != null) {
+                baselineBytes -= removed.size();
+            }
+        }
+    }
+
+    long baselineBytes() {
+        synchronized (baselines) {
+            return baselineBytes;
+        }
+    }
+
+    private Baseline get(String id) {
+        synchronized (baselines) {
+            return baselines.get(id);
+        }
+    }
+
+    private void put(String id, Baseline baseline) {
+        synchronized (baselines) {
+            Baseline previous = baselines.put(id, baseline);
+            baselineBytes += baseline.size() - (previous == null ? 0 : previous.size());
+            Iterator<Baseline> eldest = baselines.values().iterator();
+            while (baselineBytes > maxBaselineBytes && eldest.hasNext()) {
+                baselineBytes -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Wraps a full snapshot so that deltas can be appended to it with {@link #frame(byte[])}.
+     */
+    public static byte[] container(byte[] full) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER.length + Integer.BYTES + full.length);
+        out.write(HEADER, 0, HEADER.length);
+        byte[] frame = frame(full);
+        out.write(frame, 0, frame.length);
+        return out.toByteArray();
+    }
+
+    public static byte[] frame(byte[] data) {
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(Integer.BYTES + data.length);
+                DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(data.length);
+            out.write(data);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new ProcessInstanceMarshallerException("Error framing process instance snapshot", e);
+        }
+    }
+
+    /**
+     * Reads a blob which is either a plain snapshot or a {@link #container(byte[]) container} followed by deltas.
+     */
+    public static Snapshot materialize(byte[] stored) {
+        if (!isContainer(stored)) {
+            return new Snapshot(stored, 0, false);
+        }
+        List<byte[]> frames = frames(stored, HEADER.length);
+        if (frames.isEmpty()) {
+            throw new ProcessInstanceMarshallerException("Process instance snapshot is truncated");
+        }
+        return apply(frames.get(0), frames.subList(1, frames.size()), isComplete(stored, HEADER.length, frames));
+    }
+
+    /**
+     * Applies the given sequence of {@link #frame(byte[]) framed} deltas, possibly null, to a full snapshot.
+     */
+    public static Snapshot materialize(byte[] full, byte[] deltas) {
+        if (deltas == null || deltas.length == 0) {
+            return new Snapshot(full, 0);
+        }
+        List<byte[]> frames = frames(deltas, 0);
+        return apply(full, frames, isComplete(deltas, 0, frames));
+    }
+
+    /**
+     * @param appendable false when an incomplete frame follows the deltas, further deltas cannot be appended
+     *        after it so the next write must be a full snapshot
+     */
+    private static Snapshot apply(byte[] full, List<byte[]> deltas, boolean appendable) {
+        if (deltas.isEmpty()) {
+            return new Snapshot(full, 0, appendable);
+        }
+        KogitoProcessInstanceProtobuf.ProcessInstance state = parse(full);
+        for (byte[] delta : deltas) {
+            state = apply(state, delta);
+        }
+        return new Snapshot(state.toByteArray(), deltas.size(), appendable);
+    }
+
+    private static boolean isContainer(byte[] stored) {
+        if (stored.length < HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; i++) {
+            if (stored[i] != HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the complete frames, an incomplete trailing one, left by a write that did not finish, is ignored.
+     */
+    private static List<byte[]> frames(byte[] data, int offset) {
+        List<byte[]> frames = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.wrap(data, offset, data.length - offset);
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt(buffer.position());
+            if (length < 0 || length > buffer.remaining() - Integer.BYTES) {
+                break;
+            }
+            buffer.getInt();
+            byte[] frame = new byte[length];
+            buffer.get(frame);
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    private static boolean isComplete(byte[] data, int offset, List<byte[]> frames) {
+        long read = offset;
+        for (byte[] frame : frames) {
+            read += Integer.BYTES + frame.length;
+        }
+        return read == data.length;
+    }
+
+    /**
+     * Computes the delta between two full snapshots: the header and context entries of the current one, only
+     * the variables and node instances which differ from the previous one, and the keys of the removed ones.
+     */
+    public static byte[] diff(byte[] previous, byte[] current) {
+        KogitoProcessInstanceProtobuf.ProcessInstance before = parse(previous);
+        KogitoProcessInstanceProtobuf.ProcessInstance after = parse(current);
+
+        Map<String, KogitoTypesProtobuf.Variable> previousVariables = variables(before);
+        Map<String, KogitoTypesProtobuf.NodeInstance> previousNodeInstances = nodeInstances(before);
+        KogitoTypesProtobuf.WorkflowContext.Builder context = after.getContext().toBuilder().clearVariable().clearNodeInstance();
+        for (KogitoTypesProtobuf.Variable variable : after.getContext().getVariableList()) {
+            if (!variable.equals(previousVariables.remove(variable.getName()))) {
+                context.addVariable(variable);
+            }
+        }
+        for (KogitoTypesProtobuf.NodeInstance nodeInstance : after.getContext().getNodeInstanceList()) {
+            if (!nodeInstance.equals(previousNodeInstances.remove(nodeInstance.getId()))) {
+                context.addNodeInstance(nodeInstance);
+            }
+        }
+
+        KogitoProcessInstanceProtobuf.ProcessInstance.Builder delta = after.toBuilder();
+        if (after.hasContext()) {
+            delta.setContext(context);
+        }
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes)) {
+            writeKeys(out, previousVariables.keySet());
+            writeKeys(out, previousNodeInstances.keySet());
+            delta.build().writeTo(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new ProcessInstanceMarshallerException("Error writing process instance delta", e);
+        }
+    }
+
+    private static KogitoProcessInstanceProtobuf.ProcessInstance apply(KogitoProcessInstanceProtobuf.ProcessInstance state, byte[] data) {
+        KogitoProcessInstanceProtobuf.ProcessInstance delta;
+        List<String> removedVariables;
+        List<String> removedNodeInstances;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            removedVariables = readKeys(in);
+            removedNodeInstances = readKeys(in);
+            delta = KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(in);
+        } catch (IOException e) {
+            throw new ProcessInstanceMarshallerException("Error reading process instance delta", e);
+        }
+
+        Map<String, KogitoTypesProtobuf.Variable> variables = variables(state);
+        Map<String, KogitoTypesProtobuf.NodeInstance> nodeInstances = nodeInstances(state);
+        removedVariables.forEach(variables::remove);
+        removedNodeInstances.forEach(nodeInstances::remove);
+        delta.getContext().getVariableList().forEach(variable -> variables.put(variable.getName(), variable));
+        delta.getContext().getNodeInstanceList().forEach(nodeInstance -> nodeInstances.put(nodeInstance.getId(), nodeInstance));
+
+        KogitoProcessInstanceProtobuf.ProcessInstance.Builder result = delta.toBuilder();
+        if (delta.hasContext() || state.hasContext()) {
+            result.setContext(delta.getContext().toBuilder()
+                    .clearVariable()
+                    .addAllVariable(variables.values())
+                    .clearNodeInstance()
+                    .addAllNodeInstance(nodeInstances.values()));
+        }
+        return result.build();
+    }
+
+    private static Map<String, KogitoTypesProtobuf.Variable> variables(KogitoProcessInstanceProtobuf.ProcessInstance instance) {
+        Map<String, KogitoTypesProtobuf.Variable> variables = new LinkedHashMap<>();
+        instance.getContext().getVariableList().forEach(variable -> variables.put(variable.getName(), variable));
+        return variables;
+    }
+
+    private static Map<String, KogitoTypesProtobuf.NodeInstance> nodeInstances(KogitoProcessInstanceProtobuf.ProcessInstance instance) {
+        Map<String, KogitoTypesProtobuf.NodeInstance> nodeInstances = new LinkedHashMap<>();
+        instance.getContext().getNodeInstanceList().forEach(nodeInstance -> nodeInstances.put(nodeInstance.getId(), nodeInstance));
+        return nodeInstances;
+    }
+
+    private static void writeKeys(DataOutputStream out, Iterable<String> keys) throws IOException {
+        List<String> list = new ArrayList<>();
+        keys.forEach(list::add);
+        out.writeInt(list.size());
+        for (String key : list) {
+            out.writeUTF(key);
+        }
+    }
+
+    private static List<String> readKeys(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> keys = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            keys.add(in.readUTF());
+        }
+        return keys;
+    }
+
+    private static KogitoProcessInstanceProtobuf.ProcessInstance parse(byte[] data) {
+        try {
+            return KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(data);
+        } catch (InvalidProtocolBufferException e) {
+            throw new ProcessInstanceMarshallerException("Error parsing process instance snapshot", e);
+        }
+    }
+
+    private static class Baseline {
+
+        private final Snapshot snapshot;
+        private final Long version;
+
+        private Baseline(Snapshot snapshot, Long version) {
+            this.snapshot = snapshot;
+            this.version = version;
+        }
+
+        private long size() {
+            return snapshot.state().length;
+        }
+    }
+
+    /**
+     * A full snapshot together with the number of deltas it has been materialized from, and whether further
+     * deltas can be appended to the place it was read from.
+     */
+    public static class Snapshot {
+
+        private final byte[] state;
+        private final int deltas;
+        private final boolean appendable;
+
+        public Snapshot(byte[] state, int deltas) {
+            this(state, deltas, true);
+        }
+
+        public Snapshot(byte[] state, int deltas, boolean appendable) {
+            this.state = state;
+            this.deltas = deltas;
+            this.appendable = appendable;
+        }
+
+        public byte[] state() {
+            return state;
+        }
+
+        public int deltas() {
+            return deltas;
+        }
+
+        public boolean isAppendable() {
+            return appendable;
+        }
+    }
+}
@@ -19,8 +19,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URI;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -91,11 +93,13 @@ public class ProtobufProcessInstanceReader {
     private RuleFlowProcessInstance ruleFlowProcessInstance;
     private MarshallerReaderContext context;
     private ProtobufVariableReader varReader;
+    private Deque<Runnable> nestedContexts;
 
     public ProtobufProcessInstanceReader(MarshallerReaderContext context) {
         this.context = context;
         this.ruleFlowProcessInstance = new RuleFlowProcessInstance();
         this.varReader = new ProtobufVariableReader(context);
+        this.nestedContexts = new ArrayDeque<>();
     }
 
     public RuleFlowProcessInstance read(InputStream input) throws IOException {
@@ -129,6 +133,7 @@ public class ProtobufProcessInstanceReader {
         for (String completedNodeId : processInstanceProtobuf.getCompletedNodeIdsList()) {
             processInstance.addCompletedNodeId(completedNodeId);
         }
+        processInstance.setEventSequence(processInstanceProtobuf.getEventSequence());
 
         processInstance.setCorrelationKey(processInstanceProtobuf.getBusinessKey());
 
@@ -158,10 +163,11 @@ public class ProtobufProcessInstanceReader {
         WorkflowContext workflowContext = processInstanceProtobuf.getContext();
         for (KogitoTypesProtobuf.NodeInstance nodeInstanceProtobuf : workflowContext.getNodeInstanceList()) {
             NodeInstanceImpl nodeInstanceImpl = buildNodeInstance(nodeInstanceProtobuf.getContent());
-            nodeInstanceImpl.setProcessInstance(processInstance);
             nodeInstanceImpl.setId(nodeInstanceProtobuf.getId());
             nodeInstanceImpl.setNodeId(nodeInstanceProtobuf.getNodeId());
             nodeInstanceImpl.setNodeInstanceContainer(processInstance);
+            // composite node instances resolve their node when the process instance is set
+            nodeInstanceImpl.setProcessInstance(processInstance);
             nodeInstanceImpl.setLevel(nodeInstanceProtobuf.getLevel() == 0 ? 1 : nodeInstanceProtobuf.getLevel());
 
             SLAContext slaNodeInstanceContext = nodeInstanceProtobuf.getSla();
@@ -174,6 +180,9 @@ public class ProtobufProcessInstanceReader {
                 nodeInstanceImpl.internalSetTriggerTime(new Date(nodeInstanceProtobuf.getTriggerDate()));
             }
         }
+        while (!nestedContexts.isEmpty()) {
+            nestedContexts.poll().run();
+        }
 
         for (KogitoTypesProtobuf.NodeInstanceGroup group : workflowContext.getExclusiveGroupList()) {
             Function<String, KogitoNodeInstance> finder = nodeInstanceId -> processInstance.getNodeInstance(nodeInstanceId, true);
@@ -357,6 +366,11 @@ public class ProtobufProcessInstanceReader {
 
     private NodeInstanceImpl buildForEachNodeInstance(ForEachNodeInstanceContent content) {
         ForEachNodeInstance nodeInstance = new ForEachNodeInstance();
+
+        if (content.getTimerInstanceIdCount() > 0) {
+            nodeInstance.internalSetTimerInstances(new ArrayList<>(content.getTimerInstanceIdList()));
+        }
+
         buildWorkflowContext(nodeInstance, content.getContext());
         return nodeInstance;
     }
@@ -458,13 +472,19 @@ public class ProtobufProcessInstanceReader {
     }
 
     private void buildWorkflowContext(CompositeContextNodeInstance container, WorkflowContext workflowContext) {
+        // nested node instances need their container attached to the process instance, so they are read once it is
+        nestedContexts.add(() -> buildNestedWorkflowContext(container, workflowContext));
+    }
+
+    private void buildNestedWorkflowContext(CompositeContextNodeInstance container, WorkflowContext workflowContext) {
         if (workflowContext.getNodeInstanceCount() > 0) {
             for (KogitoTypesProtobuf.NodeInstance nodeInstanceProtobuf : workflowContext.getNodeInstanceList()) {
                 NodeInstanceImpl nodeInstanceImpl = buildNodeInstance(nodeInstanceProtobuf.getContent());
-                nodeInstanceImpl.setProcessInstance(container.getProcessInstance());
                 nodeInstanceImpl.setId(nodeInstanceProtobuf.getId());
                 nodeInstanceImpl.setNodeId(nodeInstanceProtobuf.getNodeId());
                 nodeInstanceImpl.setNodeInstanceContainer((KogitoNodeInstanceContainer) container);
+                // composite node instances resolve their node when the process instance is set
+                nodeInstanceImpl.setProcessInstance(container.getProcessInstance());
                 nodeInstanceImpl.setLevel(nodeInstanceProtobuf.getLevel() == 0 ? 1 : nodeInstanceProtobuf.getLevel());
 
                 SLAContext slaNodeInstanceContext = nodeInstanceProtobuf.getSla();
@@ -111,6 +111,9 @@ public class ProtobufProcessInstanceWriter {
             instance.setDeploymentId(workFlow.getDeploymentId());
         }
         instance.addAllCompletedNodeIds(workFlow.getCompletedNodeIds());
+        if (workFlow.getEventSequence() > 0) {
+            instance.setEventSequence(workFlow.getEventSequence());
+        }
         if (workFlow.getCorrelationKey() != null) {
             instance.setBusinessKey(workFlow.getCorrelationKey());
         }
@@ -269,7 +272,9 @@ public class ProtobufProcessInstanceWriter {
     private Any buildForEachNodeInstance(ForEachNodeInstance nodeInstance) {
         ForEachNodeInstanceContent.Builder foreachBuilder = ForEachNodeInstanceContent.newBuilder();
 
-        foreachBuilder.addAllTimerInstanceId(nodeInstance.getTimerInstances());
+        if (nodeInstance.getTimerInstances() != null) {
+            foreachBuilder.addAllTimerInstanceId(nodeInstance.getTimerInstances());
+        }
         List<NodeInstance> nodeInstances = nodeInstance.getNodeInstances().stream().filter(CompositeContextNodeInstance.class::isInstance).collect(Collectors.toList());
         List<ContextInstance> exclusiveGroupInstances = nodeInstance.getContextInstances(ExclusiveGroup.EXCLUSIVE_GROUP);
         VariableScopeInstance variableScopeInstance = (VariableScopeInstance) nodeInstance.getContextInstance(VariableScope.VARIABLE_SCOPE);
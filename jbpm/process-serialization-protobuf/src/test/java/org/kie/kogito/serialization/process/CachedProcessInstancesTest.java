@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.serialization.process;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.process.impl.ProcessInstanceCache;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class CachedProcessInstancesTest {
+
+    private MutableProcessInstances<Object> delegate;
+    private Process<Object> process;
+    private ProcessInstanceCache cache;
+    private CachedProcessInstances<Object> instances;
+    private CacheableProcessInstances.SnapshotListener listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        delegate = mock(MutableProcessInstances.class, withSettings().extraInterfaces(CacheableProcessInstances.class));
+        process = mock(Process.class);
+        when(process.id()).thenReturn("processId");
+        cache = new ProcessInstanceCache(10, 0);
+        instances = new CachedProcessInstances<>(delegate, process, cache);
+
+        ArgumentCaptor<CacheableProcessInstances.SnapshotListener> captor = ArgumentCaptor.forClass(CacheableProcessInstances.SnapshotListener.class);
+        verify((CacheableProcessInstances) delegate).setSnapshotListener(captor.capture());
+        listener = captor.getValue();
+    }
+
+    @Test
+    public void testDecorate() {
+        when(((CacheableProcessInstances) delegate).isCacheable()).thenReturn(true);
+        assertThat(CachedProcessInstances.decorate(process, delegate, new ProcessInstanceCache(0, 0))).isSameAs(delegate);
+        assertThat(CachedProcessInstances.decorate(process, delegate, cache)).isInstanceOf(CachedProcessInstances.class);
+
+        when(((CacheableProcessInstances) delegate).isCacheable()).thenReturn(false);
+        assertThat(CachedProcessInstances.decorate(process, delegate, cache)).isSameAs(delegate);
+    }
+
+    @Test
+    public void testStoresShareCache() {
+        when(((CacheableProcessInstances) delegate).isCacheable()).thenReturn(true);
+        CachedProcessInstances<?> first = (CachedProcessInstances<?>) CachedProcessInstances.decorate(process, delegate, cache);
+        CachedProcessInstances<?> second = (CachedProcessInstances<?>) CachedProcessInstances.decorate(process, delegate, cache);
+        assertThat(first.getCache()).isSameAs(second.getCache()).isSameAs(cache);
+    }
+
+    @Test
+    public void testWrittenSnapshotIsCached() {
+        listener.written("1", 2L, new byte[3]);
+        assertThat(cache.size()).isOne();
+        assertThat(cache.get("1").getData()).hasSize(3);
+        assertThat(cache.get("1").getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    public void testMissReadsFromStore() {
+        when(delegate.findById("1", ProcessInstanceReadMode.MUTABLE)).thenReturn(Optional.empty());
+
+        assertThat(instances.findById("1")).isEmpty();
+        verify(delegate).findById("1", ProcessInstanceReadMode.MUTABLE);
+    }
+
+    @Test
+    public void testSnapshotWrittenElsewhereIsReadFromStore() {
+        listener.written("1", 2L, new byte[3]);
+        when(((CacheableProcessInstances) delegate).isCurrent("1", 2L)).thenReturn(false);
+        when(delegate.findById("1", ProcessInstanceReadMode.READ_ONLY)).thenReturn(Optional.empty());
+
+        assertThat(instances.findById("1", ProcessInstanceReadMode.READ_ONLY)).isEmpty();
+        verify(delegate).findById("1", ProcessInstanceReadMode.READ_ONLY);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void testRemovedInstanceIsEvicted() {
+        listener.written("1", 2L, new byte[3]);
+        instances.remove("1");
+
+        verify(delegate).remove("1");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUpdatedInstanceIsEvictedUntilCommitted() {
+        listener.written("1", 2L, new byte[3]);
+        ProcessInstance<Object> instance = mock(AbstractProcessInstance.class);
+
+        instances.update("1", instance);
+        assertThat(cache.size()).isZero();
+
+        listener.written("1", 3L, new byte[4]);
+        assertThat(cache.get("1").getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testConflictingWriteIsEvicted() {
+        listener.written("1", 2L, new byte[3]);
+        ProcessInstance<Object> instance = mock(AbstractProcessInstance.class);
+        doThrow(new ProcessInstanceOptimisticLockingException("1")).when(delegate).update("1", instance);
+
+        assertThatThrownBy(() -> instances.update("1", instance)).isInstanceOf(ProcessInstanceOptimisticLockingException.class);
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.serialization.process;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.serialization.process.protobuf.KogitoProcessInstanceProtobuf;
+import org.kie.kogito.serialization.process.protobuf.KogitoTypesProtobuf;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.StringValue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DeltaSnapshotsTest {
+
+    private static final String LARGE = String.join("", Collections.nCopies(1000, "x"));
+
+    @Test
+    public void testDeltaRoundtrip() throws Exception {
+        byte[] previous = instance(1)
+                .setContext(context(variable("large", LARGE), variable("changed", "a"), variable("removed", "b"))
+                        .addNodeInstance(nodeInstance("kept", 1))
+                        .addNodeInstance(nodeInstance("completed", 2)))
+                .build().toByteArray();
+        KogitoProcessInstanceProtobuf.ProcessInstance current = instance(2)
+                .setContext(context(variable("large", LARGE), variable("changed", "c"), variable("added", "d"))
+                        .addNodeInstance(nodeInstance("kept", 1))
+                        .addNodeInstance(nodeInstance("triggered", 3)))
+                .build();
+
+        byte[] delta = DeltaSnapshots.diff(previous, current.toByteArray());
+
+        assertThat(delta.length).isLessThan(LARGE.length());
+        DeltaSnapshots.Snapshot snapshot = DeltaSnapshots.materialize(concat(DeltaSnapshots.container(previous), DeltaSnapshots.frame(delta)));
+        assertThat(snapshot.deltas()).isOne();
+        assertThat(KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(snapshot.state())).isEqualTo(current);
+
+        snapshot = DeltaSnapshots.materialize(previous, DeltaSnapshots.frame(delta));
+        assertThat(KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(snapshot.state())).isEqualTo(current);
+    }
+
+    @Test
+    public void testIncompleteTrailingFrame() throws Exception {
+        byte[] previous = instance(1).setContext(context(variable("large", LARGE), variable("changed", "a"))).build().toByteArray();
+        KogitoProcessInstanceProtobuf.ProcessInstance current = instance(2).setContext(context(variable("large", LARGE), variable("changed", "b"))).build();
+        byte[] delta = DeltaSnapshots.frame(DeltaSnapshots.diff(previous, current.toByteArray()));
+        byte[] stored = concat(DeltaSnapshots.container(previous), delta);
+
+        DeltaSnapshots.Snapshot snapshot = DeltaSnapshots.materialize(stored);
+        assertThat(snapshot.isAppendable()).isTrue();
+
+        for (int length : new int[] { 2, delta.length - 1 }) {
+            snapshot = DeltaSnapshots.materialize(concat(stored, Arrays.copyOf(delta, length)));
+            assertThat(snapshot.deltas()).isOne();
+            assertThat(snapshot.isAppendable()).as("written after an incomplete frame").isFalse();
+            assertThat(KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(snapshot.state())).isEqualTo(current);
+        }
+
+        snapshot = DeltaSnapshots.materialize(previous, Arrays.copyOf(delta, delta.length - 1));
+        assertThat(snapshot.isAppendable()).isFalse();
+        assertThat(snapshot.state()).isEqualTo(previous);
+    }
+
+    @Test
+    public void testPlainSnapshot() {
+        byte[] full = instance(1).setContext(context(variable("name", "value"))).build().toByteArray();
+
+        assertThat(DeltaSnapshots.materialize(full).state()).isEqualTo(full);
+        assertThat(DeltaSnapshots.materialize(full).deltas()).isZero();
+        assertThat(DeltaSnapshots.materialize(full, null).state()).isEqualTo(full);
+        assertThat(DeltaSnapshots.materialize(DeltaSnapshots.container(full)).state()).isEqualTo(full);
+    }
+
+    @Test
+    public void testCompaction() {
+        DeltaSnapshots snapshots = new DeltaSnapshots(2);
+        ProcessInstance<?> instance = instanceMock("1", null);
+        byte[] state = instance(1).setContext(context(variable("large", LARGE), variable("counter", "0"))).build().toByteArray();
+
+        assertThat(snapshots.deltaFor(instance, state)).as("no baseline").isNull();
+        snapshots.written(instance, state, false);
+
+        for (int i = 1; i <= 2; i++) {
+            state = instance(1).setContext(context(variable("large", LARGE), variable("counter", String.valueOf(i)))).build().toByteArray();
+            assertThat(snapshots.deltaFor(instance, state)).isNotNull();
+            snapshots.written(instance, state, true);
+        }
+        assertThat(snapshots.deltaFor(instance, state)).as("compaction interval reached").isNull();
+        snapshots.written(instance, state, false);
+        assertThat(snapshots.deltaFor(instance, state)).isNotNull();
+
+        assertThat(new DeltaSnapshots(0).deltaFor(instance, state)).as("disabled").isNull();
+    }
+
+    @Test
+    public void testBaselineKeyedByIdAndVersion() {
+        DeltaSnapshots snapshots = new DeltaSnapshots(10);
+        byte[] state = instance(1).setContext(context(variable("large", LARGE), variable("counter", "0"))).build().toByteArray();
+        byte[] updated = instance(1).setContext(context(variable("large", LARGE), variable("counter", "1"))).build().toByteArray();
+        snapshots.track(instanceMock("1", 1L), DeltaSnapshots.materialize(state, null));
+
+        assertThat(snapshots.deltaFor(instanceMock("1", 1L), updated)).as("another copy of the same instance").isNotNull();
+        assertThat(snapshots.deltaFor(instanceMock("1", 2L), updated)).as("baseline of a previous version").isNull();
+        assertThat(snapshots.deltaFor(instanceMock("2", 1L), updated)).as("another instance").isNull();
+
+        snapshots.forget("1");
+        assertThat(snapshots.deltaFor(instanceMock("1", 1L), updated)).isNull();
+    }
+
+    @Test
+    public void testPlainSnapshotNotTracked() {
+        DeltaSnapshots snapshots = new DeltaSnapshots(10);
+        byte[] state = instance(1).setContext(context(variable("large", LARGE), variable("counter", "0"))).build().toByteArray();
+        byte[] updated = instance(1).setContext(context(variable("large", LARGE), variable("counter", "1"))).build().toByteArray();
+
+        snapshots.track(instanceMock("1", 1L), DeltaSnapshots.materialize(DeltaSnapshots.container(state)));
+        assertThat(snapshots.deltaFor(instanceMock("1", 1L), updated)).as("container").isNotNull();
+
+        // deltas cannot be appended to a blob written before they were enabled
+        snapshots.track(instanceMock("1", 1L), DeltaSnapshots.materialize(state));
+        assertThat(snapshots.deltaFor(instanceMock("1", 1L), updated)).as("plain snapshot").isNull();
+    }
+
+    @Test
+    public void testBaselinesBoundedBySize() {
+        byte[] state = instance(1).setContext(context(variable("large", LARGE), variable("counter", "0"))).build().toByteArray();
+        DeltaSnapshots snapshots = new DeltaSnapshots(10, state.length * 2L);
+
+        snapshots.written(instanceMock("1", 1L), state, false);
+        snapshots.written(instanceMock("2", 1L), state, false);
+        snapshots.written(instanceMock("3", 1L), state, false);
+        assertThat(snapshots.baselineBytes()).isEqualTo(state.length * 2L);
+        assertThat(snapshots.deltaFor(instanceMock("1", 1L), state)).as("least recently used").isNull();
+
+        snapshots.forget("2");
+        snapshots.forget("3");
+        assertThat(snapshots.baselineBytes()).isZero();
+
+        DeltaSnapshots disabled = new DeltaSnapshots(0);
+        disabled.written(instanceMock("1", 1L), state, false);
+        assertThat(disabled.baselineBytes()).isZero();
+    }
+
+    private static ProcessInstance<?> instanceMock(String id, Long version) {
+        ProcessInstance<?> instance = mock(ProcessInstance.class);
+        when(instance.id()).thenReturn(id);
+        when(instance.version()).thenReturn(version);
+        return instance;
+    }
+
+    private static KogitoProcessInstanceProtobuf.ProcessInstance.Builder instance(int state) {
+        return KogitoProcessInstanceProtobuf.ProcessInstance.newBuilder()
+                .setProcessType("RuleFlow")
+                .setProcessId("delta")
+                .setId("1")
+                .setState(state);
+    }
+
+    private static KogitoTypesProtobuf.WorkflowContext.Builder context(KogitoTypesProtobuf.Variable... variables) {
+        return KogitoTypesProtobuf.WorkflowContext.newBuilder().addAllVariable(Arrays.asList(variables));
+    }
+
+    private static KogitoTypesProtobuf.Variable variable(String name, String value) {
+        return KogitoTypesProtobuf.Variable.newBuilder()
+                .setName(name)
+                .setDataType(String.class.getName())
+                .setValue(Any.pack(StringValue.of(value)))
+                .build();
+    }
+
+    private static KogitoTypesProtobuf.NodeInstance nodeInstance(String id, long nodeId) {
+        return KogitoTypesProtobuf.NodeInstance.newBuilder().setId(id).setNodeId(nodeId).build();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+}
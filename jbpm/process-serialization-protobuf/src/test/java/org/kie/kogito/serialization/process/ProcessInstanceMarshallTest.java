@@ -34,6 +34,7 @@ import org.kie.kogito.serialization.process.impl.ProtobufMarshallerReaderContext
 import org.kie.kogito.serialization.process.impl.ProtobufProcessMarshallerWriteContext;
 import org.kie.kogito.serialization.process.impl.ProtobufVariableReader;
 import org.kie.kogito.serialization.process.impl.ProtobufVariableWriter;
+import org.kie.kogito.serialization.process.protobuf.KogitoProcessInstanceProtobuf;
 import org.kie.kogito.serialization.process.protobuf.KogitoTypesProtobuf;
 
 public class ProcessInstanceMarshallTest {
@@ -140,6 +141,22 @@ public class ProcessInstanceMarshallTest {
         Assertions.assertThat(in).isEqualTo(out);
     }
 
+    @Test
+    public void testRoundtripEventSequence() throws Exception {
+        KogitoProcessInstanceProtobuf.ProcessInstance in = KogitoProcessInstanceProtobuf.ProcessInstance.newBuilder()
+                .setId("1")
+                .setProcessId("travels")
+                .setEventSequence(42L)
+                .build();
+        KogitoProcessInstanceProtobuf.ProcessInstance out = KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(in.toByteArray());
+        Assertions.assertThat(out.hasEventSequence()).isTrue();
+        Assertions.assertThat(out.getEventSequence()).isEqualTo(42L);
+        Assertions.assertThat(out).isEqualTo(in);
+        Assertions.assertThat(KogitoProcessInstanceProtobuf.ProcessInstance.getDescriptor()
+                .findFieldByNumber(KogitoProcessInstanceProtobuf.ProcessInstance.EVENT_SEQUENCE_FIELD_NUMBER).getName()).isEqualTo("event_sequence");
+        Assertions.assertThat(KogitoProcessInstanceProtobuf.ProcessInstance.newBuilder().setId("1").build().hasEventSequence()).isFalse();
+    }
+
     private Map<String, Object> roundtrip(Map<String, Object> toMarshall) {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         ProtobufProcessMarshallerWriteContext ctxOut = new ProtobufProcessMarshallerWriteContext(out);
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.io.impl.ClassPathResource;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link ProcessInstanceMarshallerService} for an instance waiting on a user task.
+ * The size of the snapshot is reported as the secondary <code>marshalledBytes</code> rate, divided by the
+ * operation rate it gives the bytes per snapshot.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarshallingBenchmark {
+
+    private BpmnProcess process;
+    private ProcessInstanceMarshallerService marshaller;
+    private byte[] snapshot;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Size {
+
+        public long marshalledBytes;
+    }
+
+    @State(Scope.Thread)
+    public static class Connected {
+
+        private ProcessInstance<?> processInstance;
+
+        // marshalling disconnects the instance, so each invocation needs a connected one
+        @Setup(Level.Invocation)
+        public void connect(MarshallingBenchmark benchmark) {
+            processInstance = benchmark.marshaller.unmarshallProcessInstance(benchmark.snapshot, benchmark.process);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.configure();
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("test", "a value long enough to be representative of a business key or a short text");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(variables));
+        processInstance.start();
+        marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build();
+        snapshot = marshaller.marshallProcessInstance(processInstance);
+    }
+
+    @Benchmark
+    public byte[] marshall(Connected connected, Size size) {
+        byte[] data = marshaller.marshallProcessInstance(connected.processInstance);
+        size.marshalledBytes += data.length;
+        return data;
+    }
+
+    @Benchmark
+    public ProcessInstance<?> unmarshall() {
+        return marshaller.unmarshallProcessInstance(snapshot, process);
+    }
+
+    @Benchmark
+    public ProcessInstance<?> unmarshallReadOnly() {
+        return marshaller.unmarshallReadOnlyProcessInstance(snapshot, process);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jbpm.process.instance.LightProcessRuntime;
+import org.jbpm.ruleflow.core.RuleFlowProcess;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.kogito.internal.process.runtime.KogitoWorkItem;
+import org.kie.kogito.internal.process.runtime.KogitoWorkItemHandler;
+import org.kie.kogito.internal.process.runtime.KogitoWorkItemManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Start to completion of a process instance on the {@link LightProcessRuntime}, for each of the {@link ProcessShapes}.
+ * User tasks are completed by their handler as soon as they are created.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProcessExecutionBenchmark {
+
+    @Param({ ProcessShapes.STRAIGHT_THROUGH, ProcessShapes.GATEWAYS, ProcessShapes.FOR_EACH, ProcessShapes.SUBPROCESS, ProcessShapes.USER_TASK })
+    public String shape;
+
+    private LightProcessRuntime runtime;
+    private String processId;
+    private Map<String, Object> parameters;
+
+    @Setup
+    public void setup() {
+        RuleFlowProcess process = ProcessShapes.of(shape);
+        processId = process.getId();
+        runtime = LightProcessRuntime.ofProcess(process);
+        runtime.getKogitoWorkItemManager().registerWorkItemHandler(ProcessShapes.HUMAN_TASK, new CompletingWorkItemHandler());
+        List<String> items = Arrays.asList("first", "second", "third", "fourth", "fifth");
+        parameters = ProcessShapes.FOR_EACH.equals(shape) ? Collections.singletonMap("items", items) : Collections.emptyMap();
+    }
+
+    @Benchmark
+    public ProcessInstance startToComplete() {
+        ProcessInstance processInstance = runtime.startProcess(processId, parameters);
+        if (processInstance.getState() != ProcessInstance.STATE_COMPLETED) {
+            throw new IllegalStateException(String.format("Process instance of %s ended in state %d", processId, processInstance.getState()));
+        }
+        return processInstance;
+    }
+
+    private static class CompletingWorkItemHandler implements KogitoWorkItemHandler {
+
+        @Override
+        public void executeWorkItem(KogitoWorkItem workItem, KogitoWorkItemManager manager) {
+            manager.completeWorkItem(workItem.getStringId(), null);
+        }
+
+        @Override
+        public void abortWorkItem(KogitoWorkItem workItem, KogitoWorkItemManager manager) {
+            manager.abortWorkItem(workItem.getStringId());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.io.impl.ClassPathResource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.kie.kogito.auth.SecurityPolicy;
+import org.kie.kogito.persistence.filesystem.FileSystemProcessInstances;
+import org.kie.kogito.persistence.jdbc.JDBCProcessInstances;
+import org.kie.kogito.persistence.memory.MemoryProcessInstances;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.WorkItem;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.services.identity.StaticIdentityProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Process instance stores driven by a process waiting on a user task, against embedded stand-ins:
+ * the default in-memory map, the memory bounded store, the file system and H2 for the JDBC store.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProcessInstancesBenchmark {
+
+    static final String MAP = "map";
+    static final String MEMORY = "memory";
+    static final String FILESYSTEM = "filesystem";
+    static final String JDBC = "jdbc";
+
+    // the JDBC store expects a PostgreSQL schema, this is the subset H2 understands in PostgreSQL mode
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS process_instances(id uuid NOT NULL PRIMARY KEY, payload bytea NOT NULL, deltas bytea, " +
+            "process_id varchar NOT NULL, version bigint, event_types varchar array, status integer, business_key varchar)";
+
+    @Param({ MAP, MEMORY, FILESYSTEM, JDBC })
+    public String store;
+
+    /**
+     * Number of active instances kept in the store while measuring.
+     */
+    @Param({ "1000" })
+    public int population;
+
+    private final SecurityPolicy securityPolicy = SecurityPolicy.of(new StaticIdentityProvider("john"));
+    private final List<String> ids = new ArrayList<>();
+    private BpmnProcess process;
+    private Path storage;
+
+    @Setup
+    public void setup() throws IOException, SQLException {
+        process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        switch (store) {
+            case MAP:
+                break;
+            case MEMORY:
+                // a tenth of the population stays live, the rest is spilled off-heap
+                process.setProcessInstancesFactory(p -> new MemoryProcessInstances<>(p, population / 10, 64L * 1024 * 1024));
+                break;
+            case FILESYSTEM:
+                storage = Files.createTempDirectory("kogito-benchmarks");
+                process.setProcessInstancesFactory(p -> new FileSystemProcessInstances(p, storage));
+                break;
+            case JDBC:
+                JdbcDataSource dataSource = new JdbcDataSource();
+                dataSource.setURL("jdbc:h2:mem:kogito-benchmarks;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+                try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_TABLE);
+                    statement.execute("DELETE FROM process_instances");
+                }
+                process.setProcessInstancesFactory(p -> new JDBCProcessInstances(p, dataSource, false, false));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown store " + store);
+        }
+        process.configure();
+        for (int i = 0; i < population; i++) {
+            ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "value" + i)));
+            processInstance.start();
+            ids.add(processInstance.id());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        process.instances().values(ProcessInstanceReadMode.MUTABLE).forEach(ProcessInstance::abort);
+        if (storage != null) {
+            Files.walk(storage).sorted(Collections.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ProcessInstance<BpmnVariables> createAndComplete() {
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "value")));
+        processInstance.start();
+        WorkItem workItem = processInstance.workItems(securityPolicy).get(0);
+        processInstance.completeWorkItem(workItem.getId(), null, securityPolicy);
+        return processInstance;
+    }
+
+    @Benchmark
+    public ProcessInstance<BpmnVariables> findById() {
+        String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return process.instances().findById(id, ProcessInstanceReadMode.READ_ONLY)
+                .orElseThrow(() -> new IllegalStateException("Process instance " + id + " not found"));
+    }
+}
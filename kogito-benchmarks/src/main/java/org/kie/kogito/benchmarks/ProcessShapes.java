@@ -0,0 +1,152 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks;
+
+import org.jbpm.process.core.datatype.impl.type.ObjectDataType;
+import org.jbpm.ruleflow.core.RuleFlowProcess;
+import org.jbpm.ruleflow.core.RuleFlowProcessFactory;
+import org.jbpm.workflow.core.node.Join;
+import org.jbpm.workflow.core.node.Split;
+
+/**
+ * Representative process definitions built with the process factory, so that their actions and constraints
+ * are plain lambdas and the benchmarks only measure the engine.
+ */
+final class ProcessShapes {
+
+    static final String STRAIGHT_THROUGH = "straight-through";
+    static final String GATEWAYS = "gateways";
+    static final String FOR_EACH = "for-each";
+    static final String SUBPROCESS = "subprocess";
+    static final String USER_TASK = "user-task";
+
+    static final String HUMAN_TASK = "Human Task";
+
+    private ProcessShapes() {
+    }
+
+    static RuleFlowProcess of(String shape) {
+        switch (shape) {
+            case STRAIGHT_THROUGH:
+                return straightThrough();
+            case GATEWAYS:
+                return gateways();
+            case FOR_EACH:
+                return forEach();
+            case SUBPROCESS:
+                return subprocess();
+            case USER_TASK:
+                return userTask();
+            default:
+                throw new IllegalArgumentException("Unknown process shape " + shape);
+        }
+    }
+
+    private static RuleFlowProcessFactory create(String shape) {
+        return RuleFlowProcessFactory.createProcess(shape)
+                .name(shape)
+                .packageName("org.kie.kogito.benchmarks")
+                .version("1.0")
+                .variable("counter", new ObjectDataType(Integer.class.getName()));
+    }
+
+    private static RuleFlowProcess straightThrough() {
+        return create(STRAIGHT_THROUGH)
+                .startNode(1).name("Start").done()
+                .actionNode(2).name("First").action(ctx -> ctx.setVariable("counter", 1)).done()
+                .actionNode(3).name("Second").action(ctx -> ctx.setVariable("counter", (Integer) ctx.getVariable("counter") + 1)).done()
+                .endNode(4).name("End").done()
+                .connection(1, 2)
+                .connection(2, 3)
+                .connection(3, 4)
+                .validate().getProcess();
+    }
+
+    private static RuleFlowProcess gateways() {
+        return create(GATEWAYS)
+                .startNode(1).name("Start").done()
+                .splitNode(2).name("Choose").type(Split.TYPE_XOR)
+                .constraint(3, "2_3", "code", "java", ctx -> ctx.getVariable("counter") == null, 1)
+                .constraint(4, "2_4", "code", "java", ctx -> ctx.getVariable("counter") != null, 2)
+                .done()
+                .actionNode(3).name("Initialize").action(ctx -> ctx.setVariable("counter", 0)).done()
+                .actionNode(4).name("Keep").action(ctx -> {
+                }).done()
+                .joinNode(5).name("Merge").type(Join.TYPE_XOR).done()
+                .splitNode(6).name("Fork").type(Split.TYPE_AND).done()
+                .actionNode(7).name("Left").action(ctx -> {
+                }).done()
+                .actionNode(8).name("Right").action(ctx -> {
+                }).done()
+                .joinNode(9).name("Synchronize").type(Join.TYPE_AND).done()
+                .endNode(10).name("End").done()
+                .connection(1, 2)
+                .connection(2, 3)
+                .connection(2, 4)
+                .connection(3, 5)
+                .connection(4, 5)
+                .connection(5, 6)
+                .connection(6, 7)
+                .connection(6, 8)
+                .connection(7, 9)
+                .connection(8, 9)
+                .connection(9, 10)
+                .validate().getProcess();
+    }
+
+    private static RuleFlowProcess forEach() {
+        RuleFlowProcessFactory factory = create(FOR_EACH)
+                .variable("items", new ObjectDataType("java.util.List"));
+        factory.startNode(1).name("Start").done()
+                .forEachNode(2).name("ForEach")
+                .collectionExpression("items")
+                .variable("item", new ObjectDataType(String.class.getName()))
+                .actionNode(3).name("Visit").action(ctx -> ctx.getVariable("item")).done()
+                .linkIncomingConnections(3)
+                .linkOutgoingConnections(3)
+                .done()
+                .endNode(4).name("End").done()
+                .connection(1, 2)
+                .connection(2, 4);
+        return factory.validate().getProcess();
+    }
+
+    private static RuleFlowProcess subprocess() {
+        return create(SUBPROCESS)
+                .startNode(1).name("Start").done()
+                .compositeContextNode(2).name("SubProcess")
+                .startNode(1).name("SubProcess Start").done()
+                .actionNode(2).name("SubProcess Action").action(ctx -> ctx.setVariable("counter", 1)).done()
+                .endNode(3).name("SubProcess End").terminate(false).done()
+                .connection(1, 2)
+                .connection(2, 3)
+                .done()
+                .endNode(3).name("End").done()
+                .connection(1, 2)
+                .connection(2, 3)
+                .validate().getProcess();
+    }
+
+    private static RuleFlowProcess userTask() {
+        return create(USER_TASK)
+                .startNode(1).name("Start").done()
+                .humanTaskNode(2).name("Task").taskName("Task").actorId("john").done()
+                .endNode(3).name("End").done()
+                .connection(1, 2)
+                .connection(2, 3)
+                .validate().getProcess();
+    }
+}
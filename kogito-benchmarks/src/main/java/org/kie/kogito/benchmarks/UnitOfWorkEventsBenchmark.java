@@ -0,0 +1,172 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.io.impl.ClassPathResource;
+import org.kie.kogito.Addons;
+import org.kie.kogito.auth.SecurityPolicy;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.EventBatch;
+import org.kie.kogito.event.EventManager;
+import org.kie.kogito.event.EventPublisher;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.WorkItem;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.process.impl.DefaultProcessEventListenerConfig;
+import org.kie.kogito.process.impl.DefaultWorkItemHandlerConfig;
+import org.kie.kogito.process.impl.StaticProcessConfig;
+import org.kie.kogito.services.event.impl.ProcessInstanceEventBatch;
+import org.kie.kogito.services.identity.StaticIdentityProvider;
+import org.kie.kogito.services.uow.CollectingUnitOfWork;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of collecting the work of a unit of work and of turning its raw process events into data events.
+ * Each operation starts a process instance and completes its user task within a {@link CollectingUnitOfWork}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UnitOfWorkEventsBenchmark {
+
+    private static final String SERVICE = "http://localhost:8080";
+
+    private final SecurityPolicy securityPolicy = SecurityPolicy.of(new StaticIdentityProvider("john"));
+    private final List<Object> rawEvents = new ArrayList<>();
+    private UnitOfWorkManager unitOfWorkManager;
+    private BpmnProcess process;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        // raw events of a single execution are recorded once, for the event batch benchmark
+        UnitOfWorkManager recordingManager = new DefaultUnitOfWorkManager(eventManager -> new CollectingUnitOfWork(new RecordingEventManager(rawEvents)));
+        execute(recordingManager, create(recordingManager));
+
+        unitOfWorkManager = new DefaultUnitOfWorkManager(CollectingUnitOfWork::new);
+        unitOfWorkManager.eventManager().setService(SERVICE);
+        unitOfWorkManager.eventManager().setAddons(Addons.EMTPY);
+        unitOfWorkManager.eventManager().addPublisher(new EventPublisher() {
+            @Override
+            public void publish(DataEvent<?> event) {
+                UnitOfWorkEventsBenchmark.this.blackhole.consume(event);
+            }
+
+            @Override
+            public void publish(Collection<DataEvent<?>> events) {
+                UnitOfWorkEventsBenchmark.this.blackhole.consume(events);
+            }
+        });
+        process = create(unitOfWorkManager);
+    }
+
+    private BpmnProcess create(UnitOfWorkManager manager) {
+        StaticProcessConfig config = new StaticProcessConfig(new DefaultWorkItemHandlerConfig(), new DefaultProcessEventListenerConfig(), manager, null);
+        BpmnProcess bpmnProcess = BpmnProcess.from(config, new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        bpmnProcess.configure();
+        return bpmnProcess;
+    }
+
+    private void execute(UnitOfWorkManager manager, BpmnProcess bpmnProcess) {
+        UnitOfWork unitOfWork = manager.newUnitOfWork();
+        unitOfWork.start();
+        ProcessInstance<BpmnVariables> processInstance = bpmnProcess.createInstance(BpmnVariables.create(Collections.singletonMap("test", "value")));
+        processInstance.start();
+        WorkItem workItem = processInstance.workItems(securityPolicy).get(0);
+        processInstance.completeWorkItem(workItem.getId(), null, securityPolicy);
+        unitOfWork.end();
+    }
+
+    @Benchmark
+    public void unitOfWork() {
+        execute(unitOfWorkManager, process);
+    }
+
+    @Benchmark
+    public Collection<DataEvent<?>> eventBatch() {
+        ProcessInstanceEventBatch batch = new ProcessInstanceEventBatch(SERVICE, Addons.EMTPY);
+        rawEvents.forEach(batch::append);
+        return batch.events();
+    }
+
+    private static class RecordingEventManager implements EventManager {
+
+        private final List<Object> rawEvents;
+
+        private RecordingEventManager(List<Object> rawEvents) {
+            this.rawEvents = rawEvents;
+        }
+
+        @Override
+        public EventBatch newBatch() {
+            return new EventBatch() {
+                @Override
+                public void append(Object rawEvent) {
+                    rawEvents.add(rawEvent);
+                }
+
+                @Override
+                public Collection<DataEvent<?>> events() {
+                    return Collections.emptyList();
+                }
+            };
+        }
+
+        @Override
+        public void publish(EventBatch batch) {
+            // recorded events are replayed by the benchmark
+        }
+
+        @Override
+        public void addPublisher(EventPublisher publisher) {
+            // nothing is published
+        }
+
+        @Override
+        public void setService(String service) {
+            // not needed to record events
+        }
+
+        @Override
+        public void setAddons(Addons addons) {
+            // not needed to record events
+        }
+    }
+}
@@ -28,11 +28,19 @@ public class ConfigBean extends org.kie.kogito.conf.StaticConfigBean {
     @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.jackson.fail-on-empty-bean", defaultValue="false")
     boolean failOnEmptyBean;
 
+    @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.events.processinstances.delta", defaultValue="false")
+    boolean deltaProcessInstanceEvents;
+
+    @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.processes.mvel.expression-cache-size", defaultValue="1024")
+    int mvelExpressionCacheSize;
+
     @javax.annotation.PostConstruct
     protected void init() {
         setServiceUrl(kogitoService.orElse(""));
         setCloudEvents(useCloudEvents);
         setFailOnEmptyBean(failOnEmptyBean);
+        setDeltaProcessInstanceEvents(deltaProcessInstanceEvents);
+        setMvelExpressionCacheSize(mvelExpressionCacheSize);
         setGav($gav$);
     }
 }
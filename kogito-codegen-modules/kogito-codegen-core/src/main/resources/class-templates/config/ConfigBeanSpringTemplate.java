@@ -27,11 +27,19 @@ public class ConfigBean extends org.kie.kogito.conf.StaticConfigBean {
     @org.springframework.beans.factory.annotation.Value("${kogito.jackson.fail-on-empty-bean:#{false}}")
     boolean failOnEmptyBean;
 
+    @org.springframework.beans.factory.annotation.Value("${kogito.events.processinstances.delta:#{false}}")
+    boolean deltaProcessInstanceEvents;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.processes.mvel.expression-cache-size:#{1024}}")
+    int mvelExpressionCacheSize;
+
     @javax.annotation.PostConstruct
     protected void init() {
         setServiceUrl(kogitoService.orElse(""));
         setCloudEvents(useCloudEvents);
         setFailOnEmptyBean(failOnEmptyBean);
+        setDeltaProcessInstanceEvents(deltaProcessInstanceEvents);
+        setMvelExpressionCacheSize(mvelExpressionCacheSize);
         setGav($gav$);
     }
 }
@@ -17,6 +17,7 @@ package org.kie.kogito.codegen.tests;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.jbpm.test.util.NodeLeftCountDownProcessEventListener;
 import org.junit.jupiter.api.Test;
@@ -376,6 +377,29 @@ public class ServerlessWorkflowIT extends AbstractCodegenIT {
         }
     }
 
+    @Test
+    public void testParallelNofMExecWorkflow() throws Exception {
+        Application app = generateCodeProcessesOnly("serverless/parallel-state-n-of-m.sw.json", "serverless/parallel-state-branch1.sw.json",
+                "serverless/parallel-state-branch2.sw.json", "serverless/parallel-state-branch3.sw.json");
+        assertThat(app).isNotNull();
+
+        Process<? extends Model> p = app.get(Processes.class).processById("parallelnofmworkflow");
+
+        Model m = p.createModel();
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("workflowdata", new ObjectMapper().readTree("{}"));
+        m.fromMap(parameters);
+
+        ProcessInstance<?> processInstance = p.createInstance(m);
+        processInstance.start();
+
+        assertThat(processInstance.status()).isEqualTo(ProcessInstance.STATE_COMPLETED);
+
+        JsonNode dataOut = (JsonNode) ((Model) processInstance.variables()).toMap().get("workflowdata");
+        // the state completes as soon as two of the three branches did
+        assertThat(Stream.of("branch1data", "branch2data", "branch3data").filter(dataOut::has).count()).isGreaterThanOrEqualTo(2);
+    }
+
     @ParameterizedTest
     @ValueSource(strings = { "serverless/prchecker.sw.json", "serverless/prchecker.sw.yml" })
     public void testPrCheckerWorkflow(String processLocation) throws Exception {
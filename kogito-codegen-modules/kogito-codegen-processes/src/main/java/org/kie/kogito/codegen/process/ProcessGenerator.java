@@ -59,6 +59,7 @@ import com.github.javaparser.ast.expr.ClassExpr;
 import com.github.javaparser.ast.expr.FieldAccessExpr;
 import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.NormalAnnotationExpr;
 import com.github.javaparser.ast.expr.ObjectCreationExpr;
 import com.github.javaparser.ast.expr.SimpleName;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
@@ -83,6 +84,7 @@ public class ProcessGenerator {
     private static final String APPLICATION = "app";
     private static final String WPI = "wpi";
     private static final String FACTORY = "factory";
+    private static final String CONFIG_PROPERTY = "ConfigProperty";
 
     private final String packageName;
     private final KogitoWorkflowProcess process;
@@ -396,6 +398,7 @@ public class ProcessGenerator {
 
                 ClassOrInterfaceType clazzNameType = parseClassOrInterfaceType(clazzName);
                 Parameter parameter = new Parameter(clazzNameType, varName);
+                injectHandlerConfig(handlerClazz);
                 if (context.hasDI()) {
                     context.getDependencyInjectionAnnotator().withApplicationComponent(handlerClazz);
                     context.getDependencyInjectionAnnotator()
@@ -507,6 +510,34 @@ public class ProcessGenerator {
         return cls;
     }
 
+    /**
+     * Handler templates mark the constructor parameters bound to application properties with
+     * a {@code ConfigProperty} placeholder, replaced here by the config injection of the target platform
+     */
+    private void injectHandlerConfig(ClassOrInterfaceDeclaration handlerClazz) {
+        for (ConstructorDeclaration constructor : handlerClazz.getConstructors()) {
+            for (Parameter parameter : constructor.getParameters()) {
+                parameter.getAnnotationByName(CONFIG_PROPERTY).ifPresent(annotation -> {
+                    annotation.remove();
+                    if (context.hasDI()) {
+                        NormalAnnotationExpr property = annotation.asNormalAnnotationExpr();
+                        context.getDependencyInjectionAnnotator().withConfigInjection(parameter,
+                                getAnnotationMember(property, "name"),
+                                getAnnotationMember(property, "defaultValue"));
+                    }
+                });
+            }
+        }
+    }
+
+    private static String getAnnotationMember(NormalAnnotationExpr annotation, String member) {
+        return annotation.getPairs().stream()
+                .filter(pair -> pair.getNameAsString().equals(member))
+                .map(pair -> pair.getValue().asStringLiteralExpr().asString())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Missing " + member + " in " + annotation));
+    }
+
     private ConstructorDeclaration getConstructorDeclaration() {
         return new ConstructorDeclaration()
                 .setName(targetTypeName)
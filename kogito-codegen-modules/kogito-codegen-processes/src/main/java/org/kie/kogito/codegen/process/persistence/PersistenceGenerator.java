@@ -57,12 +57,14 @@ import com.github.javaparser.ast.expr.ConditionalExpr;
 import com.github.javaparser.ast.expr.EnclosedExpr;
 import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
 import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.expr.NameExpr;
 import com.github.javaparser.ast.expr.NullLiteralExpr;
 import com.github.javaparser.ast.expr.ObjectCreationExpr;
 import com.github.javaparser.ast.expr.SimpleName;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.expr.SuperExpr;
 import com.github.javaparser.ast.stmt.BlockStmt;
 import com.github.javaparser.ast.stmt.CatchClause;
 import com.github.javaparser.ast.stmt.ExplicitConstructorInvocationStmt;
@@ -84,6 +86,7 @@ public class PersistenceGenerator extends AbstractGenerator {
     public static final String POSTGRESQL_PERSISTENCE_TYPE = "postgresql";
     public static final String KAFKA_PERSISTENCE_TYPE = "kafka";
     public static final String JDBC_PERSISTENCE_TYPE = "jdbc";
+    public static final String MEMORY_PERSISTENCE_TYPE = "memory";
     public static final String GENERATOR_NAME = "persistence";
     public static final String QUARKUS_KAFKA_STREAMS_TOPICS_PROP = "quarkus.kafka-streams.topics";
     public static final String KOGITO_PERSISTENCE_AUTO_DDL = "kogito.persistence.auto.ddl";
@@ -108,6 +111,30 @@ public class PersistenceGenerator extends AbstractGenerator {
     private static final String KOGITO_PERSISTENCE_QUERY_TIMEOUT = "kogito.persistence.query.timeout.millis";
     private static final String OPTIMISTIC_LOCK = "lock";
     private static final String OPTIMISTIC_LOCK_PROP = "kogito.persistence.optimistic.lock";
+    private static final String JDBC_BATCH_MANAGER_NAME = "batchManager";
+    private static final String JDBC_BATCH_MANAGER_IMPL = "JDBCBatchManagerImpl";
+    private static final String JDBC_BATCH_MANAGER_PACKAGE = "org.kie.kogito.persistence.jdbc";
+    private static final String JDBC_BATCH_MANAGER_FULLNAME = "org.kie.kogito.persistence.jdbc.JDBCBatchManager";
+    private static final String JDBC_BATCH_ENABLED_PROP = "kogito.persistence.jdbc.batch.enabled";
+    private static final String JDBC_DATASOURCE = "dataSource";
+    private static final String JDBC_DATASOURCE_CLASS = "javax.sql.DataSource";
+    private static final String CACHE_MAX_ENTRIES = "cacheMaxEntries";
+    private static final String CACHE_MAX_ENTRIES_PROP = "kogito.persistence.cache.max.entries";
+    private static final String CACHE_MAX_WEIGHT = "cacheMaxWeight";
+    private static final String CACHE_MAX_WEIGHT_PROP = "kogito.persistence.cache.max.weight";
+    private static final String CACHED_PROCESS_INSTANCES_FULLNAME = "org.kie.kogito.serialization.process.CachedProcessInstances";
+    private static final String PROCESS_INSTANCE_CACHE = "processInstanceCache";
+    private static final String PROCESS_INSTANCE_CACHE_FULLNAME = "org.kie.kogito.process.impl.ProcessInstanceCache";
+    private static final String DELTA_COMPACTION_INTERVAL = "deltaCompactionInterval";
+    private static final String DELTA_COMPACTION_INTERVAL_PROP = "kogito.persistence.delta.compaction.interval";
+    private static final String DELTA_BASELINE_MAX_BYTES = "deltaBaselineMaxBytes";
+    private static final String DELTA_BASELINE_MAX_BYTES_PROP = "kogito.persistence.delta.baseline.max.bytes";
+    private static final String MAX_LIVE_INSTANCES = "maxLiveInstances";
+    private static final String MAX_LIVE_INSTANCES_PROP = "kogito.persistence.memory.max.live.instances";
+    private static final String OFF_HEAP_BUDGET = "offHeapBudget";
+    private static final String OFF_HEAP_BUDGET_PROP = "kogito.persistence.memory.offheap.budget";
+    private static final String MUTABLE_PROCESS_INSTANCES_TYPE = "org.kie.kogito.process.MutableProcessInstances<?>";
+    private static final String PROCESS_TYPE = "org.kie.kogito.process.Process<?>";
 
     private final ProtoGenerator protoGenerator;
 
@@ -148,6 +175,9 @@ public class PersistenceGenerator extends AbstractGenerator {
             case JDBC_PERSISTENCE_TYPE:
                 generatedFiles.addAll(jdbcBasedPersistence());
                 break;
+            case MEMORY_PERSISTENCE_TYPE:
+                generatedFiles.addAll(memoryBasedPersistence());
+                break;
             default:
                 throw new IllegalArgumentException("Unknown persistenceType " + persistenceType());
         }
@@ -336,7 +366,7 @@ public class PersistenceGenerator extends AbstractGenerator {
             body.addStatement(new MethodCallExpr(new NameExpr("context"), "registerProtoFiles", NodeList.nodeList(chainExpression)));
             for (String baseMarshallers : variableMarshallers) {
                 Expression newMarshallerExpr = new ObjectCreationExpr(null, new ClassOrInterfaceType(null, baseMarshallers), NodeList.nodeList());
-                body.addStatement(new MethodCallExpr(new NameExpr("context"), "registerMarshaller", NodeList.nodeList(newMarshallerExpr)));
+                body.addStatement(new MethodCallExpr(null, "register", NodeList.nodeList(newMarshallerExpr)));
             }
             CatchClause catchClause = new CatchClause(new Parameter().setType(IOException.class).setName("e"), new BlockStmt());
             TryStmt tryStmt = new TryStmt(body, NodeList.nodeList(catchClause), null);
@@ -414,6 +444,59 @@ public class PersistenceGenerator extends AbstractGenerator {
 
             persistenceProviderClazz.addMember(pathField);
             persistenceProviderClazz.addMember(pathMethod);
+            addProcessInstanceCache(persistenceProviderClazz);
+            addDeltaCompactionInterval(persistenceProviderClazz);
+            generatedClientFile = generatePersistenceProviderClazz(persistenceProviderClazz,
+                    new CompilationUnit(KOGITO_PROCESS_INSTANCE_PACKAGE).addType(persistenceProviderClazz));
+        }
+        Collection<GeneratedFile> generatedFiles = protobufBasedPersistence();
+        generatedClientFile.ifPresent(generatedFiles::add);
+
+        return generatedFiles;
+    }
+
+    protected Collection<GeneratedFile> memoryBasedPersistence() {
+
+        ClassOrInterfaceDeclaration persistenceProviderClazz = new ClassOrInterfaceDeclaration()
+                .setName(KOGITO_PROCESS_INSTANCE_FACTORY_IMPL)
+                .setModifiers(Modifier.Keyword.PUBLIC)
+                .addExtendedType(KOGITO_PROCESS_INSTANCE_FACTORY_PACKAGE);
+
+        Optional<GeneratedFile> generatedClientFile = Optional.empty();
+        if (context().hasDI()) {
+            context().getDependencyInjectionAnnotator().withApplicationComponent(persistenceProviderClazz);
+
+            // unset properties fall back to the defaults of the factory
+            FieldDeclaration maxLiveInstancesField = new FieldDeclaration().addVariable(new VariableDeclarator()
+                    .setType(new ClassOrInterfaceType(null, new SimpleName(Optional.class.getCanonicalName()), NodeList.nodeList(new ClassOrInterfaceType(null, Integer.class.getCanonicalName()))))
+                    .setName(MAX_LIVE_INSTANCES));
+            context().getDependencyInjectionAnnotator().withConfigInjection(maxLiveInstancesField, MAX_LIVE_INSTANCES_PROP);
+            BlockStmt maxLiveInstancesMethodBody = new BlockStmt();
+            maxLiveInstancesMethodBody.addStatement(new ReturnStmt(new MethodCallExpr(new NameExpr(MAX_LIVE_INSTANCES), OR_ELSE)
+                    .addArgument(new MethodCallExpr(new SuperExpr(), MAX_LIVE_INSTANCES))));
+            MethodDeclaration maxLiveInstancesMethod = new MethodDeclaration()
+                    .addModifier(Keyword.PUBLIC)
+                    .setName(MAX_LIVE_INSTANCES)
+                    .setType("int")
+                    .setBody(maxLiveInstancesMethodBody);
+
+            FieldDeclaration offHeapBudgetField = new FieldDeclaration().addVariable(new VariableDeclarator()
+                    .setType(new ClassOrInterfaceType(null, new SimpleName(Optional.class.getCanonicalName()), NodeList.nodeList(new ClassOrInterfaceType(null, Long.class.getCanonicalName()))))
+                    .setName(OFF_HEAP_BUDGET));
+            context().getDependencyInjectionAnnotator().withConfigInjection(offHeapBudgetField, OFF_HEAP_BUDGET_PROP);
+            BlockStmt offHeapBudgetMethodBody = new BlockStmt();
+            offHeapBudgetMethodBody.addStatement(new ReturnStmt(new MethodCallExpr(new NameExpr(OFF_HEAP_BUDGET), OR_ELSE)
+                    .addArgument(new MethodCallExpr(new SuperExpr(), OFF_HEAP_BUDGET))));
+            MethodDeclaration offHeapBudgetMethod = new MethodDeclaration()
+                    .addModifier(Keyword.PUBLIC)
+                    .setName(OFF_HEAP_BUDGET)
+                    .setType("long")
+                    .setBody(offHeapBudgetMethodBody);
+
+            persistenceProviderClazz.addMember(maxLiveInstancesField);
+            persistenceProviderClazz.addMember(maxLiveInstancesMethod);
+            persistenceProviderClazz.addMember(offHeapBudgetField);
+            persistenceProviderClazz.addMember(offHeapBudgetMethod);
             generatedClientFile = generatePersistenceProviderClazz(persistenceProviderClazz,
                     new CompilationUnit(KOGITO_PROCESS_INSTANCE_PACKAGE).addType(persistenceProviderClazz));
         }
@@ -554,14 +637,13 @@ public class PersistenceGenerator extends AbstractGenerator {
         if (context().hasDI()) {
             context().getDependencyInjectionAnnotator().withApplicationComponent(persistenceProviderClazz);
 
-            final String datasourceClass = "javax.sql.DataSource";
             ConstructorDeclaration constructor = persistenceProviderClazz
                     .addConstructor(Keyword.PUBLIC)
-                    .addParameter(datasourceClass, "dataSource")
+                    .addParameter(JDBC_DATASOURCE_CLASS, JDBC_DATASOURCE)
                     .addParameter(StaticJavaParser.parseClassOrInterfaceType(Boolean.class.getName()), AUTO_DDL)
                     .setBody(new BlockStmt().addStatement(new ExplicitConstructorInvocationStmt()
                             .setThis(false)
-                            .addArgument(new NameExpr("dataSource"))
+                            .addArgument(new NameExpr(JDBC_DATASOURCE))
                             .addArgument(AUTO_DDL)));
             Optional<Parameter> autoDDL = constructor.getParameterByName(AUTO_DDL);
             if (autoDDL.isPresent()) {
@@ -571,6 +653,10 @@ public class PersistenceGenerator extends AbstractGenerator {
             context().getDependencyInjectionAnnotator().withInjection(constructor);
             //empty constructor for DI
             persistenceProviderClazz.addConstructor(Keyword.PROTECTED);
+
+            jdbcBasedBatch(persistenceProviderClazz).ifPresent(generatedFiles::add);
+            addProcessInstanceCache(persistenceProviderClazz);
+            addDeltaCompactionInterval(persistenceProviderClazz);
         }
 
         addOptimisticLockFlag(persistenceProviderClazz);
@@ -581,6 +667,63 @@ public class PersistenceGenerator extends AbstractGenerator {
         return generatedFiles;
     }
 
+    private Optional<GeneratedFile> jdbcBasedBatch(ClassOrInterfaceDeclaration persistenceProviderClazz) {
+        FieldDeclaration batchManagerField = new FieldDeclaration().addVariable(new VariableDeclarator()
+                .setType(new ClassOrInterfaceType(null, JDBC_BATCH_MANAGER_FULLNAME))
+                .setName(JDBC_BATCH_MANAGER_NAME));
+
+        context().getDependencyInjectionAnnotator().withInjection(batchManagerField);
+
+        BlockStmt batchManagerMethodBody = new BlockStmt();
+        batchManagerMethodBody.addStatement(new ReturnStmt(new NameExpr(JDBC_BATCH_MANAGER_NAME)));
+        MethodDeclaration batchManagerMethod = new MethodDeclaration()
+                .addModifier(Keyword.PUBLIC)
+                .setName(JDBC_BATCH_MANAGER_NAME)
+                .setType(JDBC_BATCH_MANAGER_FULLNAME)
+                .setBody(batchManagerMethodBody);
+
+        persistenceProviderClazz.addMember(batchManagerField);
+        persistenceProviderClazz.addMember(batchManagerMethod);
+
+        ClassOrInterfaceDeclaration batchManagerClazz = new ClassOrInterfaceDeclaration()
+                .setName(JDBC_BATCH_MANAGER_IMPL).setModifiers(Modifier.Keyword.PUBLIC)
+                .addExtendedType(JDBC_BATCH_MANAGER_FULLNAME);
+
+        ConstructorDeclaration batchManagerConstructor = batchManagerClazz
+                .addConstructor(Keyword.PUBLIC)
+                .addParameter(JDBC_DATASOURCE_CLASS, JDBC_DATASOURCE)
+                .setBody(new BlockStmt().addStatement(new ExplicitConstructorInvocationStmt()
+                        .setThis(false)
+                        .addArgument(new NameExpr(JDBC_DATASOURCE))));
+        //empty constructor for DI
+        batchManagerClazz.addConstructor(Keyword.PROTECTED).setBody(new BlockStmt().addStatement(
+                new ExplicitConstructorInvocationStmt(false, null, NodeList.nodeList(new NullLiteralExpr()))));
+
+        context().getDependencyInjectionAnnotator().withApplicationComponent(batchManagerClazz);
+        context().getDependencyInjectionAnnotator().withInjection(batchManagerConstructor);
+
+        FieldDeclaration enabledField = new FieldDeclaration().addVariable(new VariableDeclarator()
+                .setType(new ClassOrInterfaceType(null,
+                        new SimpleName(Optional.class.getCanonicalName()),
+                        NodeList.nodeList(new ClassOrInterfaceType(null, Boolean.class.getCanonicalName()))))
+                .setName(TRANSACTION_ENABLED));
+        context().getDependencyInjectionAnnotator().withConfigInjection(enabledField, JDBC_BATCH_ENABLED_PROP);
+
+        BlockStmt enabledMethodBody = new BlockStmt();
+        enabledMethodBody.addStatement(new ReturnStmt(new MethodCallExpr(new NameExpr(TRANSACTION_ENABLED), OR_ELSE).addArgument(new BooleanLiteralExpr(false))));
+        MethodDeclaration enabledMethod = new MethodDeclaration()
+                .addModifier(Keyword.PUBLIC)
+                .setName(TRANSACTION_ENABLED)
+                .setType("boolean")
+                .setBody(enabledMethodBody);
+
+        batchManagerClazz.addMember(enabledField);
+        batchManagerClazz.addMember(enabledMethod);
+
+        return generatePersistenceProviderClazz(batchManagerClazz,
+                new CompilationUnit(JDBC_BATCH_MANAGER_PACKAGE).addType(batchManagerClazz));
+    }
+
     private void addOptimisticLockFlag(ClassOrInterfaceDeclaration persistenceProviderClazz) {
         FieldDeclaration lockField = new FieldDeclaration().addVariable(new VariableDeclarator()
                 .setType(new ClassOrInterfaceType(null, new SimpleName(Optional.class.getCanonicalName()), NodeList.nodeList(new ClassOrInterfaceType(null, Boolean.class.getCanonicalName()))))
@@ -599,6 +742,80 @@ public class PersistenceGenerator extends AbstractGenerator {
         persistenceProviderClazz.addMember(enabledMethod);
     }
 
+    private void addProcessInstanceCache(ClassOrInterfaceDeclaration persistenceProviderClazz) {
+        FieldDeclaration maxEntriesField = new FieldDeclaration().addVariable(new VariableDeclarator()
+                .setType(new ClassOrInterfaceType(null, new SimpleName(Optional.class.getCanonicalName()), NodeList.nodeList(new ClassOrInterfaceType(null, Integer.class.getCanonicalName()))))
+                .setName(CACHE_MAX_ENTRIES));
+        context().getDependencyInjectionAnnotator().withConfigInjection(maxEntriesField, CACHE_MAX_ENTRIES_PROP);
+
+        FieldDeclaration maxWeightField = new FieldDeclaration().addVariable(new VariableDeclarator()
+                .setType(new ClassOrInterfaceType(null, new SimpleName(Optional.class.getCanonicalName()), NodeList.nodeList(new ClassOrInterfaceType(null, Long.class.getCanonicalName()))))
+                .setName(CACHE_MAX_WEIGHT));
+        context().getDependencyInjectionAnnotator().withConfigInjection(maxWeightField, CACHE_MAX_WEIGHT_PROP);
+
+        FieldDeclaration cacheField = new FieldDeclaration().addVariable(new VariableDeclarator()
+                .setType(new ClassOrInterfaceType(null, PROCESS_INSTANCE_CACHE_FULLNAME))
+                .setName(PROCESS_INSTANCE_CACHE))
+                .addModifier(Keyword.PRIVATE);
+
+        // a single cache is shared by the instances of all processes, they are only wrapped when a bound is configured
+        BlockStmt decorateMethodBody = new BlockStmt();
+        decorateMethodBody.addStatement(StaticJavaParser.parseStatement("if (" + PROCESS_INSTANCE_CACHE + " == null) { "
+                + PROCESS_INSTANCE_CACHE + " = new " + PROCESS_INSTANCE_CACHE_FULLNAME + "("
+                + CACHE_MAX_ENTRIES + "." + OR_ELSE + "(0), " + CACHE_MAX_WEIGHT + "." + OR_ELSE + "(0L)); }"));
+        decorateMethodBody.addStatement(new ReturnStmt(new MethodCallExpr(new NameExpr(CACHED_PROCESS_INSTANCES_FULLNAME), "decorate")
+                .addArgument(new NameExpr("process"))
+                .addArgument(new NameExpr("instances"))
+                .addArgument(new NameExpr(PROCESS_INSTANCE_CACHE))));
+        MethodDeclaration decorateMethod = new MethodDeclaration()
+                .addModifier(Keyword.PUBLIC, Keyword.SYNCHRONIZED)
+                .setName("decorate")
+                .setType(StaticJavaParser.parseClassOrInterfaceType(MUTABLE_PROCESS_INSTANCES_TYPE))
+                .addParameter(StaticJavaParser.parseClassOrInterfaceType(PROCESS_TYPE), "process")
+                .addParameter(StaticJavaParser.parseClassOrInterfaceType(MUTABLE_PROCESS_INSTANCES_TYPE), "instances")
+                .setBody(decorateMethodBody);
+
+        persistenceProviderClazz.addMember(maxEntriesField);
+        persistenceProviderClazz.addMember(maxWeightField);
+        persistenceProviderClazz.addMember(cacheField);
+        persistenceProviderClazz.addMember(decorateMethod);
+    }
+
+    private void addDeltaCompactionInterval(ClassOrInterfaceDeclaration persistenceProviderClazz) {
+        FieldDeclaration intervalField = new FieldDeclaration().addVariable(new VariableDeclarator()
+                .setType(new ClassOrInterfaceType(null, new SimpleName(Optional.class.getCanonicalName()), NodeList.nodeList(new ClassOrInterfaceType(null, Integer.class.getCanonicalName()))))
+                .setName(DELTA_COMPACTION_INTERVAL));
+        context().getDependencyInjectionAnnotator().withConfigInjection(intervalField, DELTA_COMPACTION_INTERVAL_PROP);
+
+        // delta snapshots are only written when an interval is configured
+        BlockStmt intervalMethodBody = new BlockStmt();
+        intervalMethodBody.addStatement(new ReturnStmt(new MethodCallExpr(new NameExpr(DELTA_COMPACTION_INTERVAL), OR_ELSE).addArgument(new IntegerLiteralExpr("0"))));
+        MethodDeclaration intervalMethod = new MethodDeclaration()
+                .addModifier(Keyword.PUBLIC)
+                .setName(DELTA_COMPACTION_INTERVAL)
+                .setType("int")
+                .setBody(intervalMethodBody);
+
+        FieldDeclaration baselineField = new FieldDeclaration().addVariable(new VariableDeclarator()
+                .setType(new ClassOrInterfaceType(null, new SimpleName(Optional.class.getCanonicalName()), NodeList.nodeList(new ClassOrInterfaceType(null, Long.class.getCanonicalName()))))
+                .setName(DELTA_BASELINE_MAX_BYTES));
+        context().getDependencyInjectionAnnotator().withConfigInjection(baselineField, DELTA_BASELINE_MAX_BYTES_PROP);
+
+        BlockStmt baselineMethodBody = new BlockStmt();
+        baselineMethodBody.addStatement(new ReturnStmt(new MethodCallExpr(new NameExpr(DELTA_BASELINE_MAX_BYTES), OR_ELSE)
+                .addArgument(new FieldAccessExpr(new NameExpr("org.kie.kogito.serialization.process.DeltaSnapshots"), "DEFAULT_MAX_BASELINE_BYTES"))));
+        MethodDeclaration baselineMethod = new MethodDeclaration()
+                .addModifier(Keyword.PUBLIC)
+                .setName(DELTA_BASELINE_MAX_BYTES)
+                .setType("long")
+                .setBody(baselineMethodBody);
+
+        persistenceProviderClazz.addMember(intervalField);
+        persistenceProviderClazz.addMember(intervalMethod);
+        persistenceProviderClazz.addMember(baselineField);
+        persistenceProviderClazz.addMember(baselineMethod);
+    }
+
     private Optional<GeneratedFile> mongodbBasedTransaction(ClassOrInterfaceDeclaration persistenceProviderClazz) {
         FieldDeclaration transactionManagerField = new FieldDeclaration().addVariable(new VariableDeclarator()
                 .setType(new ClassOrInterfaceType(null, MONGODB_TRANSACTION_MANAGER_FULLNAME))
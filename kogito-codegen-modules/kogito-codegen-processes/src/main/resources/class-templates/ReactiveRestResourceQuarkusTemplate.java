@@ -22,6 +22,8 @@ import java.util.stream.Collectors;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
+import javax.inject.Inject;
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -36,10 +38,14 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.core.UriInfo;
 
 import org.jbpm.util.JsonSchemaUtil;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.WorkItem;
 import org.kie.kogito.process.ProcessService;
 import org.kie.kogito.process.workitem.Attachment;
@@ -54,22 +60,27 @@ public class $Type$ReactiveResource {
 
     Process<$Type$> process;
 
-    Application application;
+    @Inject
+    ProcessService processService;
 
     @POST
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public CompletionStage<$Type$Output> createResource_$name$(@Context HttpHeaders httpHeaders,
-                                                               @QueryParam("businessKey") String businessKey,
-                                                               $Type$Input resource) {
+    public CompletionStage<Response> createResource_$name$(@Context HttpHeaders httpHeaders,
+                                                           @Context UriInfo uriInfo,
+                                                           @QueryParam("businessKey") String businessKey,
+                                                           $Type$Input resource) {
+        // request scoped context is only available on the calling thread
+        String startFromNode = httpHeaders.getHeaderString("X-KOGITO-StartFromNode");
+        UriBuilder uriBuilder = uriInfo.getAbsolutePathBuilder();
         return CompletableFuture
                 .supplyAsync(
                         () -> {
                             ProcessInstance<$Type$> pi = processService.createProcessInstance(process,
                                                                                               businessKey,
                                                                                               Optional.ofNullable(resource).orElse(new $Type$Input()).toModel(),
-                                                                                              httpHeaders.getHeaderString("X-KOGITO-StartFromNode"));
-                            return Response.created(uriInfo.getAbsolutePathBuilder().path(pi.id()).build())
+                                                                                              startFromNode);
+                            return Response.created(uriBuilder.path(pi.id()).build())
                                     .entity(pi.checkError().variables().toModel())
                                     .build();
                         });
@@ -77,15 +88,27 @@ public class $Type$ReactiveResource {
 
     @GET()
     @Produces(MediaType.APPLICATION_JSON)
-    public CompletionStage<List<$Type$Output>> getResources_$name$() {
-        return CompletableFuture.supplyAsync(() -> processService.getProcessInstanceOutput(process));
+    public CompletionStage<List<$Type$Output>> getResources_$name$(@QueryParam("status") Integer status,
+                                                                   @QueryParam("businessKey") String businessKey,
+                                                                   @QueryParam("offset") @DefaultValue("0") int offset,
+                                                                   @QueryParam("limit") @DefaultValue("-1") int limit) {
+        if (!ProcessInstanceQuery.isValidPage(offset, limit)) {
+            throw new BadRequestException("Invalid page, offset must not be negative and limit must be -1 (unbounded) or positive");
+        }
+        ProcessInstanceQuery query = ProcessInstanceQuery.builder()
+                .withStatus(status)
+                .withBusinessKey(businessKey)
+                .withOffset(offset)
+                .withLimit(limit)
+                .build();
+        return processService.getProcessInstanceOutputAsync(process, query);
     }
 
     @GET()
     @Path("/{id}")
     @Produces(MediaType.APPLICATION_JSON)
     public CompletionStage<$Type$Output> getResource_$name$(@PathParam("id") String id) {
-        return CompletableFuture.supplyAsync(() -> processService.findById(process, id).orElseThrow(NotFoundException::new));
+        return processService.findByIdAsync(process, id).thenApply(output -> output.orElseThrow(NotFoundException::new));
     }
 
     @DELETE()
@@ -109,8 +132,8 @@ public class $Type$ReactiveResource {
     public CompletionStage<List<TaskModel>> getTasks_$name$(@PathParam("id") String id,
                                                            @QueryParam("user") final String user,
                                                            @QueryParam("group") final List<String> groups) {
-        return CompletableFuture.supplyAsync(
-                () -> processService.getTasks(process, id, user, groups)
+        return processService.getTasksAsync(process, id, user, groups)
+                .thenApply(tasks -> tasks
                         .orElseThrow(NotFoundException::new)
                         .stream()
                         .map($TaskModelFactory$::from)
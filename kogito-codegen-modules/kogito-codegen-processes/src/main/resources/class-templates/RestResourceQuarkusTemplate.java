@@ -22,6 +22,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -46,6 +47,7 @@ import javax.ws.rs.core.Response.Status;
 import org.jbpm.util.JsonSchemaUtil;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.WorkItem;
 import org.kie.kogito.process.ProcessService;
 import org.kie.kogito.process.workitem.Attachment;
@@ -81,8 +83,19 @@ public class $Type$Resource {
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public List<$Type$Output> getResources_$name$() {
-        return processService.getProcessInstanceOutput(process);
+    public List<$Type$Output> getResources_$name$(@QueryParam("status") Integer status,
+                                                  @QueryParam("businessKey") String businessKey,
+                                                  @QueryParam("offset") @DefaultValue("0") int offset,
+                                                  @QueryParam("limit") @DefaultValue("-1") int limit) {
+        if (!ProcessInstanceQuery.isValidPage(offset, limit)) {
+            throw new BadRequestException("Invalid page, offset must not be negative and limit must be -1 (unbounded) or positive");
+        }
+        return processService.getProcessInstanceOutput(process, ProcessInstanceQuery.builder()
+                .withStatus(status)
+                .withBusinessKey(businessKey)
+                .withOffset(offset)
+                .withLimit(limit)
+                .build());
     }
 
     @GET
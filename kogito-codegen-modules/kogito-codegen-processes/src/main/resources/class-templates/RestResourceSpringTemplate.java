@@ -25,6 +25,7 @@ import java.util.stream.Collectors;
 import org.jbpm.util.JsonSchemaUtil;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.WorkItem;
 import org.kie.kogito.process.ProcessService;
 import org.kie.kogito.process.workitem.Attachment;
@@ -78,8 +79,19 @@ public class $Type$Resource {
     }
 
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<$Type$Output> getResources_$name$() {
-        return processService.getProcessInstanceOutput(process);
+    public List<$Type$Output> getResources_$name$(@RequestParam(value = "status", required = false) Integer status,
+                                                  @RequestParam(value = "businessKey", required = false) String businessKey,
+                                                  @RequestParam(value = "offset", defaultValue = "0") int offset,
+                                                  @RequestParam(value = "limit", defaultValue = "-1") int limit) {
+        if (!ProcessInstanceQuery.isValidPage(offset, limit)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page, offset must not be negative and limit must be -1 (unbounded) or positive");
+        }
+        return processService.getProcessInstanceOutput(process, ProcessInstanceQuery.builder()
+                .withStatus(status)
+                .withBusinessKey(businessKey)
+                .withOffset(offset)
+                .withLimit(limit)
+                .build());
     }
 
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -15,6 +15,10 @@
  */
 package $Package$;
 
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.api.event.process.ProcessEventListener;
 import org.kie.kogito.event.EventPublisher;
 import org.kie.kogito.jobs.JobsService;
@@ -22,7 +26,13 @@ import org.kie.kogito.process.ProcessEventListenerConfig;
 import org.kie.kogito.process.WorkItemHandlerConfig;
 import org.kie.kogito.uow.UnitOfWorkManager;
 import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.services.jobs.impl.DurableJobService;
+import org.kie.services.jobs.impl.FileJobStore;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
 
+import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Instance;
 
 @javax.inject.Singleton
@@ -37,7 +47,9 @@ public class ProcessConfig extends org.kie.kogito.process.impl.AbstractProcessCo
             Instance<ProcessEventListener> processEventListeners,
             Instance<EventPublisher> eventPublishers,
             ConfigBean configBean,
-            Instance<UnitOfWorkEventListener> unitOfWorkEventListeners) {
+            Instance<UnitOfWorkEventListener> unitOfWorkEventListeners,
+            Instance<org.kie.kogito.process.Processes> processes,
+            @ConfigProperty(name = "kogito.jobs.store.path") Optional<String> jobStorePath) {
 
         super(workItemHandlerConfig,
               processEventListenerConfigs,
@@ -46,7 +58,17 @@ public class ProcessConfig extends org.kie.kogito.process.impl.AbstractProcessCo
               jobsService,
               eventPublishers,
               configBean.getServiceUrl(),
-              unitOfWorkEventListeners);
+              unitOfWorkEventListeners,
+              uow -> new DurableJobService(processes::get, uow, jobStorePath.map(path -> new FileJobStore(Paths.get(path))).orElse(null)));
+        unitOfWorkManager().eventManager().setDeltaProcessInstanceEvents(configBean.useDeltaProcessInstanceEvents());
+        org.jbpm.workflow.instance.impl.MVELProcessHelper.setExpressionCacheSize(configBean.mvelExpressionCacheSize());
     }
 
+    void onStart(@Observes StartupEvent event) {
+        recoverJobs();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        shutdownJobs();
+    }
 }
@@ -15,7 +15,11 @@
  */
 package $Package$;
 
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.PreDestroy;
 
 import org.kie.api.event.process.ProcessEventListener;
 import org.kie.kogito.event.EventPublisher;
@@ -24,6 +28,12 @@ import org.kie.kogito.process.ProcessEventListenerConfig;
 import org.kie.kogito.process.WorkItemHandlerConfig;
 import org.kie.kogito.uow.UnitOfWorkManager;
 import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.services.jobs.impl.DurableJobService;
+import org.kie.services.jobs.impl.FileJobStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 
 @org.springframework.stereotype.Component
 public class ProcessConfig extends org.kie.kogito.process.impl.AbstractProcessConfig {
@@ -37,7 +47,9 @@ public class ProcessConfig extends org.kie.kogito.process.impl.AbstractProcessCo
             List<ProcessEventListener> processEventListeners,
             List<EventPublisher> eventPublishers,
             ConfigBean configBean,
-            List<UnitOfWorkEventListener> unitOfWorkEventListeners) {
+            List<UnitOfWorkEventListener> unitOfWorkEventListeners,
+            ObjectProvider<org.kie.kogito.process.Processes> processes,
+            @Value("${kogito.jobs.store.path:#{null}}") Optional<String> jobStorePath) {
 
         super(workItemHandlerConfig,
               processEventListenerConfigs,
@@ -46,6 +58,19 @@ public class ProcessConfig extends org.kie.kogito.process.impl.AbstractProcessCo
               jobsService,
               eventPublishers,
               configBean.getServiceUrl(),
-              unitOfWorkEventListeners);
+              unitOfWorkEventListeners,
+              uow -> new DurableJobService(processes::getObject, uow, jobStorePath.map(path -> new FileJobStore(Paths.get(path))).orElse(null)));
+        unitOfWorkManager().eventManager().setDeltaProcessInstanceEvents(configBean.useDeltaProcessInstanceEvents());
+        org.jbpm.workflow.instance.impl.MVELProcessHelper.setExpressionCacheSize(configBean.mvelExpressionCacheSize());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStart() {
+        recoverJobs();
+    }
+
+    @PreDestroy
+    public void onStop() {
+        shutdownJobs();
     }
 }
@@ -1,9 +1,12 @@
 package org.kie.kogito.codegen.process.persistence;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.google.protobuf.Any;
 import com.google.protobuf.ByteString;
+import org.infinispan.protostream.BaseMarshaller;
 import org.infinispan.protostream.ProtobufUtil;
 import org.infinispan.protostream.SerializationContext;
 import org.infinispan.protostream.config.Configuration;
@@ -15,13 +18,22 @@ public class ProtostreamObjectMarshaller implements ObjectMarshallerStrategy {
 
     private static final String NAMESPACE = "org.kie.kogito/";
     private SerializationContext context;
-
+    // resolved once from the generated marshallers, so that no class lookup happens at runtime
+    private final Map<Class<?>, String> typeUrls = new HashMap<>();
+    private final Map<String, Class<?>> javaClasses = new HashMap<>();
 
     public ProtostreamObjectMarshaller() {
         context = new SerializationContextImpl(Configuration.builder().build());
 
     }
 
+    private void register(BaseMarshaller<?> marshaller) {
+        context.registerMarshaller(marshaller);
+        String typeUrl = NAMESPACE + marshaller.getTypeName();
+        typeUrls.put(marshaller.getJavaClass(), typeUrl);
+        javaClasses.put(typeUrl, marshaller.getJavaClass());
+    }
+
     @Override
     public Integer order() {
         return 2;
@@ -29,15 +41,14 @@ public class ProtostreamObjectMarshaller implements ObjectMarshallerStrategy {
 
     @Override
     public boolean acceptForMarshalling(Object value) {
-        return context.canMarshall(value.getClass());
+        return typeUrls.containsKey(value.getClass());
     }
 
     @Override
     public Object marshall(Object unmarshalled) {
         try {
-            String fullTypeName = context.getMarshaller(unmarshalled.getClass()).getTypeName();
             return Any.newBuilder()
-                    .setTypeUrl(NAMESPACE + fullTypeName)
+                    .setTypeUrl(typeUrls.get(unmarshalled.getClass()))
                     .setValue(ByteString.copyFrom(ProtobufUtil.toByteArray(context, unmarshalled))).build();
         } catch (IOException e) {
             throw new ProcessInstanceMarshallerException("cannot marshall protobuf stream", e);
@@ -46,25 +57,18 @@ public class ProtostreamObjectMarshaller implements ObjectMarshallerStrategy {
 
     @Override
     public boolean acceptForUnmarshalling(Object value) {
-        Any data = (Any) value;
-        return data.getTypeUrl().startsWith(NAMESPACE);
+        return javaClasses.containsKey(((Any) value).getTypeUrl());
     }
 
     @Override
     public Object unmarshall(Object marshalled) {
         try {
             Any data = (Any) marshalled;
-            String fqn = context.getMarshaller(removeNamespace(data.getTypeUrl())).getJavaClass().getCanonicalName();
             byte[] bytes = data.getValue().toByteArray();
-            return ProtobufUtil.fromByteArray(context, bytes, 0, bytes.length, Class.forName(fqn));
-        } catch(IOException | ClassNotFoundException e) {
+            return ProtobufUtil.fromByteArray(context, bytes, 0, bytes.length, javaClasses.get(data.getTypeUrl()));
+        } catch (IOException e) {
             throw new ProcessInstanceMarshallerException("cannot unmarshall protobuf stream", e);
         }
-        
-    }
-
-    private String removeNamespace(String dataTypeURL) {
-        return dataTypeURL.substring(NAMESPACE.length());
     }
 
 }
@@ -15,7 +15,10 @@
  */
 package $Package$;
 
+import java.util.concurrent.Executor;
+
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.Produces;
 
 import org.kie.kogito.Application;
@@ -28,7 +31,8 @@ import org.kie.kogito.process.impl.ProcessServiceImpl;
 public class ProcessServiceProducer {
 
     @Produces
-    public ProcessService processService(Application application){
-        return new ProcessServiceImpl(application);
+    public ProcessService processService(Application application, Instance<Executor> executors){
+        // the managed executor of context propagation, when available, serves the reads of blocking stores
+        return executors.isResolvable() ? new ProcessServiceImpl(application, executors.get()) : new ProcessServiceImpl(application);
     }
 }
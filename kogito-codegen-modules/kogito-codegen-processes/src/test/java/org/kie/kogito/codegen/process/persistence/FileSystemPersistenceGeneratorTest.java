@@ -35,6 +35,7 @@ import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.MethodCallExpr;
 
 import static com.github.javaparser.StaticJavaParser.parse;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -87,5 +88,42 @@ class FileSystemPersistenceGeneratorTest {
         assertThat(fieldDeclaration).isNotEmpty();
         assertThat(fieldDeclaration.get().getVariables()).hasSize(1);
         assertThat(fieldDeclaration.get().getVariables().get(0).getName().asString()).isEqualTo(PATH_NAME);
+        assertThat(classDeclaration.getFieldByName("deltaCompactionInterval")).isNotEmpty();
+        assertThat(classDeclaration.getMethodsByName("deltaCompactionInterval")).hasSize(1);
+        assertThat(classDeclaration.getFieldByName("deltaBaselineMaxBytes")).isNotEmpty();
+        assertThat(classDeclaration.getMethodsByName("deltaBaselineMaxBytes")).hasSize(1);
+        assertThat(classDeclaration.getFieldByName("cacheMaxEntries")).isNotEmpty();
+        assertThat(classDeclaration.getFieldByName("cacheMaxWeight")).isNotEmpty();
+        assertThat(classDeclaration.getFieldByName("processInstanceCache")).isNotEmpty();
+        assertThat(classDeclaration.getMethodsByName("decorate")).hasSize(1);
+    }
+
+    @Test
+    void testObjectMarshallerStrategy() {
+        context.setApplicationProperty("kogito.persistence.type", FILESYSTEM_PERSISTENCE_TYPE);
+
+        ReflectionProtoGenerator protoGenerator = ReflectionProtoGenerator.builder().build(Collections.singleton(GeneratedPOJO.class));
+        Collection<GeneratedFile> generatedFiles = new PersistenceGenerator(context, protoGenerator).generate();
+
+        Optional<GeneratedFile> serviceFile = generatedFiles.stream()
+                .filter(gf -> gf.relativePath().equals("META-INF/services/org.kie.kogito.serialization.process.ObjectMarshallerStrategy"))
+                .findFirst();
+        assertThat(serviceFile).isNotEmpty();
+        assertThat(new String(serviceFile.get().contents()).trim()).isEqualTo("org.kie.kogito.persistence.ProtostreamObjectMarshaller");
+
+        Optional<GeneratedFile> strategyFile = generatedFiles.stream()
+                .filter(gf -> gf.relativePath().equals("org/kie/kogito/persistence/ProtostreamObjectMarshaller.java"))
+                .findFirst();
+        assertThat(strategyFile).isNotEmpty();
+
+        ClassOrInterfaceDeclaration strategy = parse(new ByteArrayInputStream(strategyFile.get().contents()))
+                .findFirst(ClassOrInterfaceDeclaration.class)
+                .orElseThrow(() -> new NoSuchElementException("Compilation unit doesn't contain a class or interface declaration!"));
+        // marshallers are registered by type at build time, no class is looked up by name at runtime
+        assertThat(strategy.findAll(MethodCallExpr.class, m -> m.getNameAsString().equals("register"))
+                .stream()
+                .map(m -> m.getArgument(0).toString()))
+                        .contains("new org.kie.kogito.codegen.process.persistence.PersonMessageMarshaller()");
+        assertThat(strategy.findAll(MethodCallExpr.class, m -> m.getNameAsString().equals("forName"))).isEmpty();
     }
 }
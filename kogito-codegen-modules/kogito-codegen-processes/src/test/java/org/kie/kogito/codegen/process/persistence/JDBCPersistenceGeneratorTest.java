@@ -79,6 +79,26 @@ class JDBCPersistenceGeneratorTest {
         final ClassOrInterfaceDeclaration classDeclaration = compilationUnit
                 .findFirst(ClassOrInterfaceDeclaration.class)
                 .orElseThrow(() -> new NoSuchElementException("Compilation unit doesn't contain a class or interface declaration!"));
+        assertThat(classDeclaration.getFieldByName("batchManager")).isNotEmpty();
+        assertThat(classDeclaration.getMethodsByName("batchManager")).hasSize(1);
+        assertThat(classDeclaration.getFieldByName("cacheMaxEntries")).isNotEmpty();
+        assertThat(classDeclaration.getFieldByName("cacheMaxWeight")).isNotEmpty();
+        assertThat(classDeclaration.getFieldByName("processInstanceCache")).isNotEmpty();
+        assertThat(classDeclaration.getMethodsByName("decorate")).hasSize(1);
+        assertThat(classDeclaration.getFieldByName("deltaCompactionInterval")).isNotEmpty();
+        assertThat(classDeclaration.getMethodsByName("deltaCompactionInterval")).hasSize(1);
+        assertThat(classDeclaration.getFieldByName("deltaBaselineMaxBytes")).isNotEmpty();
+        assertThat(classDeclaration.getMethodsByName("deltaBaselineMaxBytes")).hasSize(1);
+
+        Optional<GeneratedFile> batchManagerImpl = generatedFiles.stream()
+                .filter(gf -> gf.relativePath().equals("org/kie/kogito/persistence/jdbc/JDBCBatchManagerImpl.java"))
+                .findFirst();
+        assertThat(batchManagerImpl).isNotEmpty();
+        final ClassOrInterfaceDeclaration batchManagerDeclaration = parse(new ByteArrayInputStream(batchManagerImpl.get().contents()))
+                .findFirst(ClassOrInterfaceDeclaration.class)
+                .orElseThrow(() -> new NoSuchElementException("Compilation unit doesn't contain a class or interface declaration!"));
+        assertThat(batchManagerDeclaration.getExtendedTypes().get(0).asString()).isEqualTo("org.kie.kogito.persistence.jdbc.JDBCBatchManager");
+        assertThat(batchManagerDeclaration.getMethodsByName("enabled")).hasSize(1);
     }
 
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.codegen.process.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.codegen.api.AddonsConfig;
+import org.kie.kogito.codegen.api.GeneratedFile;
+import org.kie.kogito.codegen.api.context.KogitoBuildContext;
+import org.kie.kogito.codegen.api.context.impl.QuarkusKogitoBuildContext;
+import org.kie.kogito.codegen.data.GeneratedPOJO;
+import org.kie.kogito.codegen.process.persistence.proto.ProtoGenerator;
+import org.kie.kogito.codegen.process.persistence.proto.ReflectionProtoGenerator;
+
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+
+import static com.github.javaparser.StaticJavaParser.parse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.kogito.codegen.process.persistence.PersistenceGenerator.MEMORY_PERSISTENCE_TYPE;
+
+class MemoryPersistenceGeneratorTest {
+
+    private static final String TEST_RESOURCES = "src/test/resources";
+    KogitoBuildContext context = QuarkusKogitoBuildContext.builder()
+            .withApplicationProperties(new File(TEST_RESOURCES))
+            .withPackageName(this.getClass().getPackage().getName())
+            .withAddonsConfig(AddonsConfig.builder().withPersistence(true).build())
+            .build();
+
+    @Test
+    void test() {
+        context.setApplicationProperty("kogito.persistence.type", MEMORY_PERSISTENCE_TYPE);
+
+        ReflectionProtoGenerator protoGenerator = ReflectionProtoGenerator.builder().build(Collections.singleton(GeneratedPOJO.class));
+        Collection<GeneratedFile> generatedFiles = new PersistenceGenerator(context, protoGenerator).generate();
+
+        assertThat(generatedFiles.stream().filter(gf -> gf.type().equals(ProtoGenerator.PROTO_TYPE)).count()).isEqualTo(2);
+
+        Optional<GeneratedFile> persistenceFactoryImpl = generatedFiles.stream()
+                .filter(gf -> gf.relativePath().equals("org/kie/kogito/persistence/KogitoProcessInstancesFactoryImpl.java"))
+                .findFirst();
+        assertThat(persistenceFactoryImpl).isNotEmpty();
+
+        ClassOrInterfaceDeclaration classDeclaration = parse(new ByteArrayInputStream(persistenceFactoryImpl.get().contents()))
+                .findFirst(ClassOrInterfaceDeclaration.class)
+                .orElseThrow(() -> new NoSuchElementException("Compilation unit doesn't contain a class or interface declaration!"));
+
+        assertThat(classDeclaration.getFieldByName("maxLiveInstances")).isNotEmpty();
+        assertThat(classDeclaration.getMethodsByName("maxLiveInstances")).hasSize(1);
+        assertThat(classDeclaration.getFieldByName("offHeapBudget")).isNotEmpty();
+        assertThat(classDeclaration.getMethodsByName("offHeapBudget")).hasSize(1);
+    }
+}
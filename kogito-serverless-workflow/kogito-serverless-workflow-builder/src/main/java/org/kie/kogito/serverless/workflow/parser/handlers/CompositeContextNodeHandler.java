@@ -176,6 +176,9 @@ public abstract class CompositeContextNodeHandler<S extends State, P extends Rul
                                 ServerlessWorkflowParser.DEFAULT_WORKFLOW_VAR)
                         .outMapping(RestWorkItemHandler.RESULT,
                                 ServerlessWorkflowParser.DEFAULT_WORKFLOW_VAR);
+                // async is optional, when not defined the handler default applies
+                ServerlessWorkflowUtils.findFunctionMetadata(actionFunction, RestWorkItemHandler.ASYNC, workflowAppContext)
+                        .ifPresent(async -> workItemFactory.workParameter(RestWorkItemHandler.ASYNC, async));
                 FunctionRef functionRef = action.getFunctionRef();
                 if (functionRef.getArguments() != null) {
                     JsonNode arguments = functionRef.getArguments();
@@ -18,6 +18,7 @@ package org.kie.kogito.serverless.workflow.parser.handlers;
 import org.jbpm.ruleflow.core.RuleFlowNodeContainerFactory;
 import org.jbpm.ruleflow.core.factory.JoinFactory;
 import org.jbpm.ruleflow.core.factory.SplitFactory;
+import org.jbpm.workflow.core.node.Join;
 import org.jbpm.workflow.core.node.Split;
 import org.kie.kogito.serverless.workflow.parser.NodeIdGenerator;
 import org.kie.kogito.serverless.workflow.parser.ServerlessWorkflowParser;
@@ -39,7 +40,8 @@ public class ParallelHandler<P extends RuleFlowNodeContainerFactory<P, ?>> exten
     @Override
     public SplitFactory<P> makeNode() {
         SplitFactory<P> nodeFactory = factory.splitNode(idGenerator.getId()).name(state.getName() + ServerlessWorkflowParser.NODE_START_NAME).type(Split.TYPE_AND);
-        connectionNode = factory.joinNode(idGenerator.getId()).name(state.getName() + ServerlessWorkflowParser.NODE_END_NAME).type(Split.TYPE_AND);
+        connectionNode = factory.joinNode(idGenerator.getId()).name(state.getName() + ServerlessWorkflowParser.NODE_END_NAME);
+        completion(connectionNode);
         for (Branch branch : state.getBranches()) {
             long branchId = idGenerator.getId();
             if (branch.getWorkflowId() == null || branch.getWorkflowId().isEmpty()) {
@@ -51,6 +53,35 @@ public class ParallelHandler<P extends RuleFlowNodeContainerFactory<P, ?>> exten
         return nodeFactory;
     }
 
+    /*
+     * Branches are started one after the other, but each one only holds the split until its first
+     * asynchronous action is in flight, so the join is what decides how long the state lasts.
+     */
+    private void completion(JoinFactory<P> joinFactory) {
+        ParallelState.CompletionType completionType = state.getCompletionType();
+        if (completionType == null || completionType == ParallelState.CompletionType.AND) {
+            joinFactory.type(Join.TYPE_AND);
+        } else if (completionType == ParallelState.CompletionType.XOR) {
+            // continues with the first branch to complete, the others do not trigger the join again
+            joinFactory.type(Join.TYPE_DISCRIMINATOR);
+        } else {
+            joinFactory.type(Join.TYPE_N_OF_M).type(numberOfBranches());
+        }
+    }
+
+    private String numberOfBranches() {
+        String n = state.getN();
+        try {
+            int number = Integer.parseInt(n);
+            if (number < 1 || number > state.getBranches().size()) {
+                throw new IllegalArgumentException("Parallel state " + state.getName() + " should wait for between 1 and " + state.getBranches().size() + " branches, but n is " + n);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parallel state " + state.getName() + " has a non numeric n " + n, e);
+        }
+        return n;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public JoinFactory<P> getConnectionNode() {
@@ -17,9 +17,11 @@ package org.kie.kogito.serverless.workflow.parser.util;
 
 import java.io.Reader;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.regex.Matcher;
 
 import org.drools.core.util.StringUtils;
+import org.kie.kogito.serverless.workflow.functions.CompiledJsonPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,9 +37,8 @@ public class ServerlessWorkflowUtils {
 
     public static final String DEFAULT_WORKFLOW_FORMAT = "json";
     public static final String ALTERNATE_WORKFLOW_FORMAT = "yml";
-    public static final String DEFAULT_JSONPATH_CONFIG = "com.jayway.jsonpath.Configuration jsonPathConfig = com.jayway.jsonpath.Configuration.builder()" +
-            ".mappingProvider(new com.jayway.jsonpath.spi.mapper.JacksonMappingProvider())" +
-            ".jsonProvider(new com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider()).build(); ";
+    // generated scripts look up expressions already compiled rather than parsing them on every execution
+    private static final String COMPILED_JSONPATH = CompiledJsonPath.class.getCanonicalName() + ".of";
 
     private static final String APP_PROPERTIES_BASE = "kogito.sw.";
     private static final String APP_PROPERTIES_FUNCTIONS_BASE = "functions.";
@@ -75,8 +76,7 @@ public class ServerlessWorkflowUtils {
     }
 
     public static String sysOutFunctionScript(String script) {
-        String retStr = DEFAULT_JSONPATH_CONFIG;
-        retStr += "java.lang.String toPrint = \"\";com.fasterxml.jackson.databind.JsonNode jsonNode;";
+        String retStr = "java.lang.String toPrint = \"\";com.fasterxml.jackson.databind.JsonNode jsonNode;";
         retStr += getJsonPathScript(script);
         retStr += "System.out.println(toPrint);";
 
@@ -84,9 +84,7 @@ public class ServerlessWorkflowUtils {
     }
 
     public static String scriptFunctionScript(String script) {
-        String retStr = DEFAULT_JSONPATH_CONFIG;
-        retStr += getJsonPathScript(script);
-        return retStr;
+        return getJsonPathScript(script);
     }
 
     public static String conditionScript(String conditionStr) {
@@ -109,13 +107,15 @@ public class ServerlessWorkflowUtils {
 
         }
 
-        return "return !((java.util.List<java.lang.String>) com.jayway.jsonpath.JsonPath.parse(((com.fasterxml.jackson.databind.JsonNode)kcontext.getVariable(\"" + processVar
-                + "\")).toString()).read(\"" + conditionStr + "\")).isEmpty();";
+        // fails the build rather than the evaluation when the expression is not valid
+        CompiledJsonPath.compile(conditionStr);
+        return "return !" + CompiledJsonPath.class.getCanonicalName() + ".isEmpty(" + COMPILED_JSONPATH + "(\"" + conditionStr
+                + "\").read(kcontext.getVariable(\"" + processVar + "\")));";
     }
 
     public static String getJsonPathScript(String script) {
         return script.contains("$") ? script.replaceAll("\\$.([A-Za-z]+)",
-                "jsonNode = com.jayway.jsonpath.JsonPath.using(jsonPathConfig).parse(((com.fasterxml.jackson.databind.JsonNode)kcontext.getVariable(\"workflowdata\"))).read(\"@@.$1\", com.fasterxml.jackson.databind.JsonNode.class); toPrint+= jsonNode.isTextual() ? jsonNode.asText() : jsonNode;")
+                "jsonNode = " + COMPILED_JSONPATH + "(\"@@.$1\").readNode(kcontext.getVariable(\"workflowdata\")); toPrint+= jsonNode.isTextual() ? jsonNode.asText() : jsonNode;")
                 .replaceAll("@@", Matcher.quoteReplacement("$")) : script;
 
     }
@@ -125,17 +125,29 @@ public class ServerlessWorkflowUtils {
     }
 
     public static String resolveFunctionMetadata(FunctionDefinition function, String metadataKey, WorkflowAppContext workflowAppContext, String defaultValue) {
+        Optional<String> metadata = findFunctionMetadata(function, metadataKey, workflowAppContext);
+        if (metadata.isPresent()) {
+            return metadata.get();
+        }
+
+        LOGGER.warn("Could not resolve function metadata: {}", metadataKey);
+        return defaultValue;
+    }
+
+    /**
+     * Looks up optional function metadata, without warning when it is not defined
+     */
+    public static Optional<String> findFunctionMetadata(FunctionDefinition function, String metadataKey, WorkflowAppContext workflowAppContext) {
         if (function != null && function.getMetadata() != null && function.getMetadata().containsKey(metadataKey)) {
-            return function.getMetadata().get(metadataKey);
+            return Optional.of(function.getMetadata().get(metadataKey));
         }
 
         if (function != null && workflowAppContext != null &&
                 workflowAppContext.getApplicationProperties().containsKey(APP_PROPERTIES_BASE + APP_PROPERTIES_FUNCTIONS_BASE + function.getName() + "." + metadataKey)) {
-            return workflowAppContext.getApplicationProperty(APP_PROPERTIES_BASE + APP_PROPERTIES_FUNCTIONS_BASE + function.getName() + "." + metadataKey);
+            return Optional.of(workflowAppContext.getApplicationProperty(APP_PROPERTIES_BASE + APP_PROPERTIES_FUNCTIONS_BASE + function.getName() + "." + metadataKey));
         }
 
-        LOGGER.warn("Could not resolve function metadata: {}", metadataKey);
-        return defaultValue;
+        return Optional.empty();
     }
 
     public static String resolveEvenDefinitiontMetadata(EventDefinition eventDefinition, String metadataKey, WorkflowAppContext workflowAppContext) {
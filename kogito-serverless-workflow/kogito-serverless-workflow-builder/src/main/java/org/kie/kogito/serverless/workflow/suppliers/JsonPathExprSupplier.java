@@ -17,6 +17,7 @@ package org.kie.kogito.serverless.workflow.suppliers;
 
 import java.util.function.Supplier;
 
+import org.kie.kogito.serverless.workflow.functions.CompiledJsonPath;
 import org.kie.kogito.serverless.workflow.functions.JsonPathResolver;
 
 import com.github.javaparser.ast.expr.Expression;
@@ -28,6 +29,8 @@ public class JsonPathExprSupplier implements Supplier<Expression> {
     private String jsonPathExpr;
 
     public JsonPathExprSupplier(String jsonPathExpr) {
+        // parsed at build time so that invalid expressions fail the build, the resolver parses it once at runtime
+        CompiledJsonPath.compile(jsonPathExpr);
         this.jsonPathExpr = jsonPathExpr;
     }
 
@@ -481,12 +481,27 @@ public class ServerlessWorkflowParsingTest {
         assertTrue(node instanceof Split);
         node = process.getNodes()[3];
         assertTrue(node instanceof Join);
+        assertEquals(Join.TYPE_AND, ((Join) node).getType());
         node = process.getNodes()[4];
         assertTrue(node instanceof SubProcessNode);
         node = process.getNodes()[5];
         assertTrue(node instanceof SubProcessNode);
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = { "/exec/parallel-state-n-of-m.sw.json", "/exec/parallel-state-n-of-m.sw.yml" })
+    public void testParallelNOfMWorkflow(String workflowLocation) throws Exception {
+        RuleFlowProcess process = (RuleFlowProcess) getWorkflowParser(workflowLocation);
+        assertEquals("parallelnofmworkflow", process.getId());
+
+        assertEquals(7, process.getNodes().length);
+
+        Node node = process.getNodes()[3];
+        assertTrue(node instanceof Join);
+        assertEquals(Join.TYPE_N_OF_M, ((Join) node).getType());
+        assertEquals("2", ((Join) node).getN());
+    }
+
     @ParameterizedTest
     @ValueSource(strings = { "/exec/transition-produce-event.sw.json", "/exec/transition-produce-event.sw.yml" })
     public void testProduceEventOnTransition(String workflowLocation) throws Exception {
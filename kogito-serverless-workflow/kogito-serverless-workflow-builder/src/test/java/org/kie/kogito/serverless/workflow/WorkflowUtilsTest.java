@@ -77,7 +77,7 @@ public class WorkflowUtilsTest {
         assertThat(ServerlessWorkflowUtils.conditionScript("$.customers[?(@.age  > 18)]")).isNotNull();
         assertThat(ServerlessWorkflowUtils.conditionScript("$.customers[?(@.age  > 18)]"))
                 .isEqualTo(
-                        "return !((java.util.List<java.lang.String>) com.jayway.jsonpath.JsonPath.parse(((com.fasterxml.jackson.databind.JsonNode)kcontext.getVariable(\"workflowdata\")).toString()).read(\"$.customers[?(@.age  > 18)]\")).isEmpty();");
+                        "return !org.kie.kogito.serverless.workflow.functions.CompiledJsonPath.isEmpty(org.kie.kogito.serverless.workflow.functions.CompiledJsonPath.of(\"$.customers[?(@.age  > 18)]\").read(kcontext.getVariable(\"workflowdata\")));");
     }
 
     @Test
@@ -92,6 +92,14 @@ public class WorkflowUtilsTest {
         assertThat(testProp2Val).isNotNull().isEqualTo("testprop2val");
     }
 
+    @Test
+    public void testFindFunctionMetadata() {
+        FunctionDefinition function = new FunctionDefinition().withName("testfunction1").withMetadata(Collections.singletonMap("testprop1", "customtestprop1val"));
+        assertThat(ServerlessWorkflowUtils.findFunctionMetadata(function, "testprop1", WorkflowAppContext.ofAppResources())).hasValue("customtestprop1val");
+        assertThat(ServerlessWorkflowUtils.findFunctionMetadata(function, "testprop2", WorkflowAppContext.ofAppResources())).hasValue("testprop2val");
+        assertThat(ServerlessWorkflowUtils.findFunctionMetadata(function, "async", WorkflowAppContext.ofAppResources())).isEmpty();
+    }
+
     @Test
     public void testResolveEvenDefinitiontMetadata() {
         EventDefinition eventDefinition = new EventDefinition().withName("testevent1").withMetadata(Collections.singletonMap("testprop1", "customtestprop1val"));
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.serverless.workflow.functions;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+
+/**
+ * JsonPath expression parsed once and evaluated against {@link JsonNode} documents.
+ * Simple dotted paths, like <code>$.customer.name</code>, are evaluated by walking the document
+ * rather than through the generic JsonPath machinery, with the same results.
+ */
+public class CompiledJsonPath {
+
+    public static final Configuration JSON_NODE_CONFIGURATION = Configuration
+            .builder()
+            .mappingProvider(new JacksonMappingProvider())
+            .jsonProvider(new JacksonJsonNodeJsonProvider())
+            .build();
+
+    private static final Pattern SIMPLE_PATH = Pattern.compile("\\$(\\.[A-Za-z_][A-Za-z0-9_]*)+");
+
+    // expressions come from workflow definitions, so the number of entries is bounded
+    private static final Map<String, CompiledJsonPath> compiledPaths = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final JsonPath path;
+    private final String[] properties;
+
+    private CompiledJsonPath(String expression) {
+        this.expression = expression;
+        this.path = JsonPath.compile(expression);
+        this.properties = SIMPLE_PATH.matcher(expression).matches() ? expression.substring(2).split("\\.") : null;
+    }
+
+    /**
+     * Parses the given expression, failing with an {@link com.jayway.jsonpath.InvalidPathException} if it is not valid.
+     */
+    public static CompiledJsonPath compile(String expression) {
+        return new CompiledJsonPath(expression);
+    }
+
+    /**
+     * Returns the compiled form of the given expression, parsing it only the first time it is requested.
+     */
+    public static CompiledJsonPath of(String expression) {
+        return compiledPaths.computeIfAbsent(expression, CompiledJsonPath::new);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public boolean isSimplePath() {
+        return properties != null;
+    }
+
+    /**
+     * Evaluates the expression, as <code>JsonPath.using(configuration).parse(context).read(expression, JsonNode.class)</code> does.
+     */
+    public JsonNode readNode(Object context) {
+        if (properties != null && context instanceof JsonNode) {
+            return walk((JsonNode) context);
+        }
+        return JsonPath.using(JSON_NODE_CONFIGURATION).parse(context).read(path, JsonNode.class);
+    }
+
+    /**
+     * Evaluates the expression without converting its result, which is a {@link JsonNode}
+     * for indefinite paths.
+     */
+    public <T> T read(Object context) {
+        return path.read(context, JSON_NODE_CONFIGURATION);
+    }
+
+    /**
+     * Returns whether the result of an indefinite path has no element.
+     */
+    public static boolean isEmpty(Object result) {
+        if (result instanceof JsonNode) {
+            return ((JsonNode) result).size() == 0;
+        }
+        return ((Collection<?>) result).isEmpty();
+    }
+
+    private JsonNode walk(JsonNode node) {
+        for (String property : properties) {
+            if (!node.isObject()) {
+                throw new PathNotFoundException("Expected to find an object with property ['" + property + "'] in path " + expression + " but found '" + node.getNodeType() + "'");
+            }
+            node = node.get(property);
+            if (node == null) {
+                throw new PathNotFoundException("No results for path: " + expression);
+            }
+        }
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -23,32 +23,18 @@ import org.jbpm.workflow.instance.impl.WorkItemHandlerParamResolver;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
-import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
 
 public class JsonPathResolver implements WorkItemHandlerParamResolver {
 
-    private static final Configuration jsonPathConfig = Configuration
-            .builder()
-            .mappingProvider(new JacksonMappingProvider())
-            .jsonProvider(new JacksonJsonNodeJsonProvider())
-            .build();
-
-    private String jsonPathExpr;
+    private final CompiledJsonPath jsonPath;
 
     public JsonPathResolver(String jsonPathExpr) {
-        this.jsonPathExpr = jsonPathExpr;
+        this.jsonPath = CompiledJsonPath.of(jsonPathExpr);
     }
 
     @Override
     public Object apply(Object context) {
-        JsonNode node = JsonPath
-                .using(jsonPathConfig)
-                .parse(context)
-                .read(jsonPathExpr, JsonNode.class);
-        return readValue(node);
+        return readValue(jsonPath.readNode(context));
     }
 
     private Object readValue(JsonNode node) {
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.serverless.workflow.functions;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledJsonPathTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static JsonNode document() throws Exception {
+        return mapper.readTree("{\"name\":\"pepe\",\"age\":26,\"nothing\":null,\"address\":{\"city\":\"Madrid\",\"zip\":28001}," +
+                "\"customers\":[{\"age\":17},{\"age\":42}]}");
+    }
+
+    private static JsonNode generic(String expression, Object context) {
+        return JsonPath.using(CompiledJsonPath.JSON_NODE_CONFIGURATION).parse(context).read(expression, JsonNode.class);
+    }
+
+    @Test
+    public void testSimplePathMatchesGenericEvaluation() throws Exception {
+        JsonNode document = document();
+        for (String expression : new String[] { "$.name", "$.age", "$.nothing", "$.address", "$.address.city", "$.address.zip", "$.customers" }) {
+            CompiledJsonPath path = CompiledJsonPath.compile(expression);
+            assertTrue(path.isSimplePath(), expression);
+            assertEquals(generic(expression, document), path.readNode(document), expression);
+        }
+        assertTrue(CompiledJsonPath.compile("$.nothing").readNode(document).isNull());
+    }
+
+    @Test
+    public void testSimplePathNotFound() throws Exception {
+        JsonNode document = document();
+        for (String expression : new String[] { "$.missing", "$.address.missing", "$.missing.city", "$.name.first", "$.nothing.first" }) {
+            assertThrows(PathNotFoundException.class, () -> generic(expression, document), expression);
+            assertThrows(PathNotFoundException.class, () -> CompiledJsonPath.compile(expression).readNode(document), expression);
+        }
+    }
+
+    @Test
+    public void testGenericPath() throws Exception {
+        JsonNode document = document();
+        CompiledJsonPath path = CompiledJsonPath.compile("$.customers[1].age");
+        assertFalse(path.isSimplePath());
+        assertEquals(42, path.readNode(document).asInt());
+
+        assertFalse(CompiledJsonPath.isEmpty(CompiledJsonPath.of("$.customers[?(@.age > 18)]").read(document)));
+        assertTrue(CompiledJsonPath.isEmpty(CompiledJsonPath.of("$.customers[?(@.age > 50)]").read(document)));
+    }
+
+    @Test
+    public void testCompiledOnce() {
+        assertSame(CompiledJsonPath.of("$.name"), CompiledJsonPath.of("$.name"));
+    }
+}
@@ -15,7 +15,9 @@
  */
 package org.kogito.workitem.openapi;
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -45,10 +47,25 @@ public class JsonNodeParameterResolver implements OpenApiParameterResolver {
 
     private final JsonNodeParser parser;
 
+    // expressions of the definition, parsed once rather than on every evaluation
+    private final Map<String, JsonPath> jsonPaths = new HashMap<>();
+
     public JsonNodeParameterResolver(final String parameterDefinition) {
         this.parser = new JsonNodeParser(new ObjectMapper());
 
         this.parameterDefinition = parser.parse(parameterDefinition);
+        this.compileJsonPaths(this.parameterDefinition);
+    }
+
+    private void compileJsonPaths(final JsonNode parameterDefinition) {
+        if (parameterDefinition.isValueNode()) {
+            final String jsonPathExpr = parameterDefinition.asText();
+            if (parser.isJsonPath(jsonPathExpr)) {
+                jsonPaths.computeIfAbsent(jsonPathExpr, JsonPath::compile);
+            }
+        } else {
+            parameterDefinition.elements().forEachRemaining(this::compileJsonPaths);
+        }
     }
 
     /**
@@ -74,7 +91,7 @@ public class JsonNodeParameterResolver implements OpenApiParameterResolver {
         } else if (parameterDefinition.isValueNode()) {
             final String jsonPathExpr = parameterDefinition.asText();
             if (parser.isJsonPath(jsonPathExpr)) {
-                return JsonPath.using(jsonPathConfig).parse(inputModel).read(jsonPathExpr, JsonNode.class);
+                return JsonPath.using(jsonPathConfig).parse(inputModel).read(jsonPaths.get(jsonPathExpr), JsonNode.class);
             }
             return parameterDefinition.deepCopy();
         }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kogito.workitem.rest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.jbpm.process.instance.InternalProcessRuntime;
+import org.jbpm.process.instance.impl.workitem.WorkItemFailure;
+import org.kie.kogito.internal.process.runtime.KogitoProcessRuntime;
+import org.kie.kogito.internal.process.runtime.KogitoWorkItem;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceExecutionException;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.impl.Sig;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.kie.kogito.uow.WorkUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Completes a work item once the handler is done with it, from a thread other than the one
+ * that executed it. Everything needed to find the process instance again is captured while
+ * the work item is executed, as the instance is disconnected once its unit of work ends.
+ * The completion itself runs in a new unit of work, so it is stored like any other change.
+ * <p>
+ * Completions of work items belonging to the same process instance, such as those of parallel
+ * branches, are queued and applied one at a time, so that each one reads the state stored by the
+ * previous. When the instance is updated concurrently elsewhere, the completion is applied again
+ * to the state stored since. Any other failure, such as a transient persistence error, is retried
+ * a few times after a delay before the work item is failed, so that the node handles it as an error
+ * of the handler. No thread is held while waiting, neither for the previous completion nor to retry.
+ */
+class AsyncWorkItemCompletion {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncWorkItemCompletion.class);
+
+    private static final String KOGITO_PROCESS_INSTANCE = "KogitoProcessInstance";
+    private static final int MAX_CONFLICT_RETRIES = 10;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 100;
+    // last completion queued for each process instance, removed once it is done and nothing was queued after it
+    private static final Map<String, CompletableFuture<Void>> QUEUES = new ConcurrentHashMap<>();
+
+    private final String processInstanceId;
+    private final String workItemId;
+    private final UnitOfWorkManager unitOfWorkManager;
+    private final KogitoProcessRuntime processRuntime;
+    // null when the instance is not driven through the process API, then it is kept by the runtime
+    private final Process<?> process;
+    private final Executor executor;
+
+    private AsyncWorkItemCompletion(KogitoWorkItem workItem, InternalProcessRuntime runtime, Process<?> process, Executor executor) {
+        this.processInstanceId = workItem.getProcessInstanceStringId();
+        this.workItemId = workItem.getStringId();
+        this.unitOfWorkManager = runtime.getUnitOfWorkManager();
+        this.processRuntime = runtime.getKogitoProcessRuntime();
+        this.process = process;
+        this.executor = executor;
+    }
+
+    /**
+     * @param executor runs each attempt to apply the completion
+     */
+    static AsyncWorkItemCompletion of(KogitoWorkItem workItem, Executor executor) {
+        org.jbpm.process.instance.ProcessInstance processInstance = (org.jbpm.process.instance.ProcessInstance) workItem.getProcessInstance();
+        InternalProcessRuntime runtime = (InternalProcessRuntime) processInstance.getKnowledgeRuntime().getProcessRuntime();
+        ProcessInstance<?> kogitoInstance = (ProcessInstance<?>) processInstance.getMetaData().get(KOGITO_PROCESS_INSTANCE);
+        return new AsyncWorkItemCompletion(workItem, runtime, kogitoInstance == null ? null : kogitoInstance.process(), executor);
+    }
+
+    String getWorkItemId() {
+        return workItemId;
+    }
+
+    /**
+     * Runs the given action once the unit of work executing the work item has performed its work,
+     * so that the process instance is stored before any response can be handled.
+     *
+     * @param compensation run instead when the unit of work is aborted
+     */
+    void afterUnitOfWork(Runnable action, Runnable compensation) {
+        unitOfWorkManager.currentUnitOfWork().intercept(WorkUnit.create(this, completion -> action.run(), completion -> compensation.run()));
+    }
+
+    void complete(Map<String, Object> results) {
+        enqueue(() -> reenter(instance -> instance.completeWorkItem(workItemId, results),
+                () -> processRuntime.getKogitoWorkItemManager().completeWorkItem(workItemId, results))
+                        .onFailure().recoverWithUni(error -> {
+                            logger.warn("Work item {} of process instance {} could not be completed, failing it", workItemId, processInstanceId, error);
+                            return failure(error);
+                        }));
+    }
+
+    void fail(Throwable error) {
+        enqueue(() -> failure(error));
+    }
+
+    private Uni<Void> failure(Throwable error) {
+        WorkItemFailure failure = new WorkItemFailure(workItemId, error instanceof Exception ? (Exception) error : new RuntimeException(error));
+        return reenter(instance -> instance.send(Sig.of(WorkItemFailure.EVENT_TYPE, failure)),
+                () -> processRuntime.signalEvent(WorkItemFailure.EVENT_TYPE, failure, processInstanceId))
+                        .onFailure().invoke(failError -> logger.error("Work item {} of process instance {} could not be failed either, it is left active",
+                                workItemId, processInstanceId, failError))
+                        .onFailure().recoverWithNull();
+    }
+
+    /**
+     * Subscribes to the given completion once the ones queued before for the same process instance are done.
+     */
+    private void enqueue(Supplier<Uni<Void>> completion) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous = QUEUES.put(processInstanceId, done);
+        (previous == null ? CompletableFuture.<Void> completedFuture(null) : previous).thenRun(() -> completion.get()
+                .subscribe().with(item -> dequeue(done), error -> dequeue(done)));
+    }
+
+    private void dequeue(CompletableFuture<Void> done) {
+        QUEUES.remove(processInstanceId, done);
+        done.complete(null);
+    }
+
+    /**
+     * Applies the given action to the process instance in its own unit of work, on the executor.
+     * Conflicts are retried right away, other failures after a growing delay.
+     */
+    private Uni<Void> reenter(Consumer<ProcessInstance<?>> instanceAction, Runnable runtimeAction) {
+        return Uni.createFrom().<Void> item(() -> {
+            apply(instanceAction, runtimeAction);
+            return null;
+        })
+                .runSubscriptionOn(executor)
+                .onFailure(ProcessInstanceOptimisticLockingException.class).invoke(e -> logger.debug(
+                        "Process instance {} updated concurrently, completing work item {} again", processInstanceId, workItemId))
+                // the instance is read again on the next attempt, with the changes stored in the meantime
+                .onFailure(ProcessInstanceOptimisticLockingException.class).retry().atMost(MAX_CONFLICT_RETRIES - 1L)
+                .onFailure(AsyncWorkItemCompletion::isRetried).invoke(e -> logger.warn(
+                        "Error completing work item {} of process instance {}, retrying", workItemId, processInstanceId, e))
+                .onFailure(AsyncWorkItemCompletion::isRetried).retry().withBackOff(Duration.ofMillis(RETRY_DELAY_MILLIS)).atMost(MAX_ATTEMPTS - 1L);
+    }
+
+    private static boolean isRetried(Throwable error) {
+        return !(error instanceof ProcessInstanceOptimisticLockingException);
+    }
+
+    private void apply(Consumer<ProcessInstance<?>> instanceAction, Runnable runtimeAction) {
+        try {
+            UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+                if (process == null) {
+                    runtimeAction.run();
+                } else {
+                    Optional<? extends ProcessInstance<?>> instance = process.instances().findById(processInstanceId);
+                    if (instance.isPresent()) {
+                        instanceAction.accept(instance.get());
+                    } else {
+                        logger.warn("Process instance {} not found, work item {} is not completed", processInstanceId, workItemId);
+                    }
+                }
+                return null;
+            });
+        } catch (ProcessInstanceExecutionException e) {
+            // the instance is in error and has been stored as such, nothing to retry
+            logger.warn("Process instance {} failed while completing work item {}", processInstanceId, workItemId, e);
+        }
+    }
+}
@@ -16,12 +16,18 @@
 package org.kogito.workitem.rest;
 
 import java.net.URI;
+import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
@@ -31,7 +37,13 @@ import org.kie.kogito.internal.process.runtime.KogitoWorkItem;
 import org.kie.kogito.internal.process.runtime.KogitoWorkItemHandler;
 import org.kie.kogito.internal.process.runtime.KogitoWorkItemManager;
 
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.mutiny.core.Vertx;
 import io.vertx.mutiny.core.buffer.Buffer;
 import io.vertx.mutiny.ext.web.client.HttpRequest;
 import io.vertx.mutiny.ext.web.client.HttpResponse;
@@ -49,6 +61,23 @@ public class RestWorkItemHandler implements KogitoWorkItemHandler {
     public static final String PASSWORD = "password";
     public static final String HOST = "host";
     public static final String PORT = "port";
+    /**
+     * Optional work item parameter that overrides, for that work item only, whether the request is sent asynchronously
+     */
+    public static final String ASYNC = "async";
+
+    /**
+     * When true, requests are sent without blocking and work items are completed once the response arrives
+     */
+    public static final String ASYNC_PROPERTY = "kogito.rest.workitem.async";
+    /**
+     * Maximum number of pooled connections per host
+     */
+    public static final String MAX_POOL_SIZE_PROPERTY = "kogito.rest.workitem.max-pool-size";
+    /**
+     * Maximum number of asynchronous requests in flight per host, further requests wait for one to complete. 0 means no limit
+     */
+    public static final String MAX_IN_FLIGHT_PROPERTY = "kogito.rest.workitem.max-in-flight";
 
     // package scoped to allow unit test
     static class RestUnaryOperator implements UnaryOperator<Object> {
@@ -67,10 +96,89 @@ public class RestWorkItemHandler implements KogitoWorkItemHandler {
         }
     }
 
+    // caps the requests in flight towards a host, without blocking the caller when the cap is reached
+    private static class InFlightLimiter {
+
+        private final int maxInFlight;
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+        private int inFlight;
+
+        private InFlightLimiter(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        void submit(Runnable request) {
+            synchronized (this) {
+                if (inFlight >= maxInFlight) {
+                    waiting.add(request);
+                    return;
+                }
+                inFlight++;
+            }
+            request.run();
+        }
+
+        void release() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    inFlight--;
+                }
+            }
+            if (next != null) {
+                next.run();
+            }
+        }
+    }
+
+    private static final Cancellable NOT_SENT = () -> {
+    };
+
     private WebClient client;
+    private final boolean async;
+    private final int maxInFlightPerHost;
+    private final Executor completionExecutor;
+    private final Map<String, InFlightLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, Cancellable> requests = new ConcurrentHashMap<>();
 
     public RestWorkItemHandler(WebClient client) {
+        this(client, false, 0);
+    }
+
+    public RestWorkItemHandler(Vertx vertx) {
+        this(vertx, false, HttpClientOptions.DEFAULT_MAX_POOL_SIZE, 0);
+    }
+
+    /**
+     * Creates a handler with the values of the {@value #ASYNC_PROPERTY}, {@value #MAX_POOL_SIZE_PROPERTY}
+     * and {@value #MAX_IN_FLIGHT_PROPERTY} properties, injected into the generated handlers.
+     */
+    public RestWorkItemHandler(Vertx vertx, boolean async, int maxPoolSize, int maxInFlightPerHost) {
+        this(WebClient.create(vertx, clientOptions(maxPoolSize)), async, maxInFlightPerHost);
+    }
+
+    public RestWorkItemHandler(WebClient client, boolean async, int maxInFlightPerHost) {
+        this(client, async, maxInFlightPerHost, Infrastructure.getDefaultWorkerPool());
+    }
+
+    /**
+     * @param async whether requests are sent without blocking, leaving the work item active until the response arrives
+     * @param maxInFlightPerHost maximum number of asynchronous requests in flight per host, 0 means no limit
+     * @param completionExecutor runs the completion of asynchronous work items, away from the event loop
+     */
+    public RestWorkItemHandler(WebClient client, boolean async, int maxInFlightPerHost, Executor completionExecutor) {
+        if (maxInFlightPerHost < 0) {
+            throw new IllegalArgumentException("Max in flight requests per host must not be negative: " + maxInFlightPerHost);
+        }
         this.client = client;
+        this.async = async;
+        this.maxInFlightPerHost = maxInFlightPerHost;
+        this.completionExecutor = completionExecutor;
+    }
+
+    public static WebClientOptions clientOptions(int maxPoolSize) {
+        return new WebClientOptions().setMaxPoolSize(maxPoolSize);
     }
 
     @Override
@@ -84,6 +192,7 @@ public class RestWorkItemHandler implements KogitoWorkItemHandler {
         String password = (String) parameters.remove(PASSWORD);
         String hostProp = (String) parameters.remove(HOST);
         String portProp = (String) parameters.remove(PORT);
+        Object asyncProp = parameters.remove(ASYNC);
         WorkItemHandlerResult resultHandler = getParam(parameters, RESULT_HANDLER, WorkItemHandlerResult.class);
         // create request
         UnaryOperator<Object> resolver = new RestUnaryOperator(inputModel);
@@ -95,24 +204,64 @@ public class RestWorkItemHandler implements KogitoWorkItemHandler {
         if (user != null && !user.trim().isEmpty() && password != null && !password.trim().isEmpty()) {
             request.basicAuthentication(user, password);
         }
-        HttpResponse<Buffer> response;
-        if (method == HttpMethod.POST || method == HttpMethod.PUT) {
-            // if parameters is empty at this stage, assume post content is the whole input model
-            // if not, build a map from parameters remaining
-            Object body = parameters.isEmpty() ? inputModel
-                    : parameters.entrySet().stream().collect(Collectors.toMap(
-                            Entry::getKey, e -> resolver.apply(e.getValue())));
-            response = request.sendJsonAndAwait(body);
+        // if parameters is empty at this stage, assume post content is the whole input model
+        // if not, build a map from parameters remaining
+        boolean hasBody = method == HttpMethod.POST || method == HttpMethod.PUT;
+        Object body = !hasBody ? null
+                : parameters.isEmpty() ? inputModel
+                        : parameters.entrySet().stream().collect(Collectors.toMap(
+                                Entry::getKey, e -> resolver.apply(e.getValue())));
+        Function<HttpResponse<Buffer>, Map<String, Object>> results = response -> Collections.singletonMap(RESULT,
+                resultHandler.apply(inputModel, response.bodyAsJsonObject()));
+        if (isAsync(asyncProp)) {
+            sendAsync(workItem, host + ':' + port, hasBody ? () -> request.sendJson(body) : request::send, results);
         } else {
-            response = request.sendAndAwait();
+            HttpResponse<Buffer> response = hasBody ? request.sendJsonAndAwait(body) : request.sendAndAwait();
+            manager.completeWorkItem(workItem.getStringId(), results.apply(response));
         }
-        manager.completeWorkItem(workItem.getStringId(), Collections.singletonMap(RESULT, resultHandler.apply(inputModel,
-                response.bodyAsJsonObject())));
+    }
+
+    private boolean isAsync(Object asyncProp) {
+        String value = asyncProp == null ? null : asyncProp.toString().trim();
+        return value == null || value.isEmpty() ? async : Boolean.parseBoolean(value);
+    }
+
+    private void sendAsync(KogitoWorkItem workItem, String hostKey, Supplier<Uni<HttpResponse<Buffer>>> call,
+            Function<HttpResponse<Buffer>, Map<String, Object>> results) {
+        AsyncWorkItemCompletion completion = AsyncWorkItemCompletion.of(workItem, completionExecutor);
+        String workItemId = completion.getWorkItemId();
+        InFlightLimiter limiter = maxInFlightPerHost > 0 ? limiters.computeIfAbsent(hostKey, k -> new InFlightLimiter(maxInFlightPerHost)) : null;
+        Runnable send = () -> {
+            if (!requests.containsKey(workItemId)) {
+                // aborted while waiting to be sent
+                if (limiter != null) {
+                    limiter.release();
+                }
+                return;
+            }
+            Cancellable request = call.get()
+                    .onTermination().invoke(() -> {
+                        requests.remove(workItemId);
+                        if (limiter != null) {
+                            limiter.release();
+                        }
+                    })
+                    .emitOn(completionExecutor)
+                    .subscribe().with(response -> completion.complete(results.apply(response)), completion::fail);
+            // a request already terminated has been removed and is not tracked anymore
+            requests.computeIfPresent(workItemId, (id, notSent) -> request);
+        };
+        requests.put(workItemId, NOT_SENT);
+        completion.afterUnitOfWork(limiter == null ? send : () -> limiter.submit(send), () -> requests.remove(workItemId));
     }
 
     @Override
     public void abortWorkItem(KogitoWorkItem workItem, KogitoWorkItemManager manager) {
-        // rest item handler does not support abort
+        // only asynchronous requests still in flight can be aborted
+        Cancellable request = requests.remove(workItem.getStringId());
+        if (request != null) {
+            request.cancel();
+        }
     }
 
     //  package scoped to allow unit test
@@ -18,17 +18,29 @@ package org.kogito.workitem.rest;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import org.drools.core.common.InternalKnowledgeRuntime;
+import org.jbpm.process.instance.InternalProcessRuntime;
+import org.jbpm.process.instance.ProcessInstance;
+import org.jbpm.process.instance.impl.workitem.WorkItemFailure;
 import org.junit.jupiter.api.Test;
+import org.kie.kogito.internal.process.runtime.KogitoProcessRuntime;
 import org.kie.kogito.internal.process.runtime.KogitoWorkItem;
 import org.kie.kogito.internal.process.runtime.KogitoWorkItemManager;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.serverless.workflow.functions.JsonPathResolver;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
 import org.kogito.workitem.rest.resulthandlers.JSonPathResultHandler;
 import org.mockito.ArgumentCaptor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import io.smallrye.mutiny.Uni;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonObject;
 import io.vertx.mutiny.core.buffer.Buffer;
@@ -39,8 +51,14 @@ import io.vertx.mutiny.ext.web.client.WebClient;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -145,4 +163,158 @@ public class RestTaskHandlerTest {
         assertTrue(result instanceof ObjectNode);
         assertEquals(1, ((ObjectNode) result).get("num").asInt());
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAsyncRestTaskHandlerCompletesAfterUnitOfWork() {
+        WebClient webClient = mock(WebClient.class);
+        HttpRequest<Buffer> request = mock(HttpRequest.class);
+        when(webClient.request(HttpMethod.GET, 8080, "localhost", "/results")).thenReturn(request);
+        CompletableFuture<HttpResponse<Buffer>> future = new CompletableFuture<>();
+        when(request.send()).thenReturn(Uni.createFrom().completionStage(future));
+
+        UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        KogitoWorkItemManager manager = mock(KogitoWorkItemManager.class);
+        KogitoWorkItem workItem = asyncWorkItem("2", unitOfWorkManager, manager);
+
+        RestWorkItemHandler handler = new RestWorkItemHandler(webClient, true, 0, Runnable::run);
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        handler.executeWorkItem(workItem, manager);
+        verify(request, never()).send();
+        unitOfWork.end();
+        verify(request).send();
+        verify(manager, never()).completeWorkItem(anyString(), any());
+
+        future.complete(response(1));
+        ArgumentCaptor<Map<String, Object>> argCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(manager).completeWorkItem(eq("2"), argCaptor.capture());
+        assertEquals(1, ((ObjectNode) argCaptor.getValue().get(RestWorkItemHandler.RESULT)).get("num").asInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAsyncRestTaskHandlerMaxInFlight() {
+        WebClient webClient = mock(WebClient.class);
+        HttpRequest<Buffer> request = mock(HttpRequest.class);
+        when(webClient.request(HttpMethod.GET, 8080, "localhost", "/results")).thenReturn(request);
+        CompletableFuture<HttpResponse<Buffer>> first = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<Buffer>> second = new CompletableFuture<>();
+        when(request.send()).thenReturn(Uni.createFrom().completionStage(first), Uni.createFrom().completionStage(second));
+
+        UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        KogitoWorkItemManager manager = mock(KogitoWorkItemManager.class);
+
+        RestWorkItemHandler handler = new RestWorkItemHandler(webClient, true, 1, Runnable::run);
+        handler.executeWorkItem(asyncWorkItem("1", unitOfWorkManager, manager), manager);
+        handler.executeWorkItem(asyncWorkItem("2", unitOfWorkManager, manager), manager);
+        verify(request, times(1)).send();
+
+        first.complete(response(1));
+        verify(manager).completeWorkItem(eq("1"), any());
+        verify(request, times(2)).send();
+
+        second.complete(response(2));
+        verify(manager).completeWorkItem(eq("2"), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAsyncWorkItemParameterOverridesHandler() {
+        WebClient webClient = mock(WebClient.class);
+        HttpRequest<Buffer> request = mock(HttpRequest.class);
+        when(webClient.request(HttpMethod.GET, 8080, "localhost", "/results")).thenReturn(request);
+        CompletableFuture<HttpResponse<Buffer>> future = new CompletableFuture<>();
+        when(request.send()).thenReturn(Uni.createFrom().completionStage(future));
+
+        UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        KogitoWorkItemManager manager = mock(KogitoWorkItemManager.class);
+        KogitoWorkItem workItem = asyncWorkItem("3", unitOfWorkManager, manager);
+        workItem.getParameters().put(RestWorkItemHandler.ASYNC, "true");
+
+        RestWorkItemHandler handler = new RestWorkItemHandler(webClient, false, 0, Runnable::run);
+        handler.executeWorkItem(workItem, manager);
+        verify(request).send();
+        verify(manager, never()).completeWorkItem(anyString(), any());
+
+        future.complete(response(3));
+        verify(manager).completeWorkItem(eq("3"), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAsyncCompletionRetriedOnConflict() {
+        WebClient webClient = mock(WebClient.class);
+        HttpRequest<Buffer> request = mock(HttpRequest.class);
+        when(webClient.request(HttpMethod.GET, 8080, "localhost", "/results")).thenReturn(request);
+        CompletableFuture<HttpResponse<Buffer>> future = new CompletableFuture<>();
+        when(request.send()).thenReturn(Uni.createFrom().completionStage(future));
+
+        UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        KogitoWorkItemManager manager = mock(KogitoWorkItemManager.class);
+        // another branch of the same instance completed in between
+        doThrow(new ProcessInstanceOptimisticLockingException("pi4")).doNothing().when(manager).completeWorkItem(eq("4"), any());
+
+        RestWorkItemHandler handler = new RestWorkItemHandler(webClient, true, 0, Runnable::run);
+        handler.executeWorkItem(asyncWorkItem("4", unitOfWorkManager, manager), manager);
+        future.complete(response(4));
+        verify(manager, times(2)).completeWorkItem(eq("4"), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAsyncCompletionFailsWorkItemOnceRetriesExhausted() {
+        WebClient webClient = mock(WebClient.class);
+        HttpRequest<Buffer> request = mock(HttpRequest.class);
+        when(webClient.request(HttpMethod.GET, 8080, "localhost", "/results")).thenReturn(request);
+        CompletableFuture<HttpResponse<Buffer>> future = new CompletableFuture<>();
+        when(request.send()).thenReturn(Uni.createFrom().completionStage(future));
+
+        UnitOfWorkManager unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        KogitoWorkItemManager manager = mock(KogitoWorkItemManager.class);
+        doThrow(new IllegalStateException("store unavailable")).when(manager).completeWorkItem(eq("5"), any());
+        KogitoWorkItem workItem = asyncWorkItem("5", unitOfWorkManager, manager);
+        KogitoProcessRuntime processRuntime = ((InternalProcessRuntime) ((ProcessInstance) workItem.getProcessInstance()).getKnowledgeRuntime().getProcessRuntime())
+                .getKogitoProcessRuntime();
+
+        RestWorkItemHandler handler = new RestWorkItemHandler(webClient, true, 0, Runnable::run);
+        handler.executeWorkItem(workItem, manager);
+        future.complete(response(5));
+        // retries are scheduled after a delay, away from the calling thread
+        verify(manager, timeout(5000).times(3)).completeWorkItem(eq("5"), any());
+        verify(processRuntime, timeout(5000)).signalEvent(eq(WorkItemFailure.EVENT_TYPE), any(WorkItemFailure.class), eq("pi5"));
+    }
+
+    private KogitoWorkItem asyncWorkItem(String id, UnitOfWorkManager unitOfWorkManager, KogitoWorkItemManager manager) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(RestWorkItemHandler.ENDPOINT, "http://localhost:8080/results");
+        parameters.put(RestWorkItemHandler.METHOD, "GET");
+        parameters.put(RestWorkItemHandler.RESULT_HANDLER, new JSonPathResultHandler());
+        parameters.put(RestWorkItemHandler.PARAMETER, new ObjectMapper().createObjectNode());
+
+        InternalProcessRuntime processRuntime = mock(InternalProcessRuntime.class);
+        KogitoProcessRuntime kogitoProcessRuntime = mock(KogitoProcessRuntime.class);
+        when(processRuntime.getUnitOfWorkManager()).thenReturn(unitOfWorkManager);
+        when(processRuntime.getKogitoProcessRuntime()).thenReturn(kogitoProcessRuntime);
+        when(kogitoProcessRuntime.getKogitoWorkItemManager()).thenReturn(manager);
+        InternalKnowledgeRuntime knowledgeRuntime = mock(InternalKnowledgeRuntime.class);
+        when(knowledgeRuntime.getProcessRuntime()).thenReturn(processRuntime);
+        ProcessInstance processInstance = mock(ProcessInstance.class);
+        when(processInstance.getKnowledgeRuntime()).thenReturn(knowledgeRuntime);
+        when(processInstance.getMetaData()).thenReturn(new HashMap<>());
+
+        KogitoWorkItem workItem = mock(KogitoWorkItem.class);
+        when(workItem.getStringId()).thenReturn(id);
+        when(workItem.getProcessInstanceStringId()).thenReturn("pi" + id);
+        when(workItem.getParameters()).thenReturn(parameters);
+        when(workItem.getProcessInstance()).thenReturn(processInstance);
+        return workItem;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<Buffer> response(int num) {
+        HttpResponse<Buffer> response = mock(HttpResponse.class);
+        when(response.bodyAsJsonObject()).thenReturn(JsonObject.mapFrom(Collections.singletonMap("num", num)));
+        return response;
+    }
 }